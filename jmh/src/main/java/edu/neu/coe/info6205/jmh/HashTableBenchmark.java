@@ -0,0 +1,51 @@
+package edu.neu.coe.info6205.jmh;
+
+import edu.neu.coe.info6205.hashtable.HashTable;
+import edu.neu.coe.info6205.util.InputGenerator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of HashTable (linear probing): put builds a table of n keys (at a load factor of at most one half);
+ * get looks up each of those keys in a prebuilt table.
+ * <p>
+ * NOTE: HashTable identifies keys by reference and treats a hash code of zero as empty,
+ * so the keys are distinct (positive) Integer objects.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HashTableBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int n;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final int[] xs = new InputGenerator(InputGenerator.Distribution.RANDOM, SortWithHelperBenchmark.SEED).ints(n);
+        keys = new Integer[n];
+        // NOTE the random values are almost all beyond the range cached by Integer.valueOf, so the keys are distinct objects.
+        for (int i = 0; i < n; i++) keys[i] = Integer.valueOf(xs[i] + 1);
+        table = put();
+    }
+
+    @Benchmark
+    public HashTable put() {
+        final HashTable result = new HashTable(2 * n);
+        for (Integer key : keys) result.put(key, key);
+        return result;
+    }
+
+    @Benchmark
+    public void get(Blackhole blackhole) {
+        for (Integer key : keys) blackhole.consume(table.getValueMaybe(key));
+    }
+
+    private Integer[] keys;
+    private HashTable table;
+}
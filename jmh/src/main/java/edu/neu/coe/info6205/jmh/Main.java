@@ -0,0 +1,26 @@
+package edu.neu.coe.info6205.jmh;
+
+import java.util.Arrays;
+
+/**
+ * Entry point of benchmarks.jar: it runs the JMH benchmarks (see org.openjdk.jmh.Main for the options),
+ * writing the results as JSON to jmh-result.json unless a result format (-rf) is specified.
+ */
+public class Main {
+
+    public static void main(String[] args) throws Exception {
+        org.openjdk.jmh.Main.main(Arrays.asList(args).contains("-rf") ? args : withJsonResults(args));
+    }
+
+    private static String[] withJsonResults(String[] args) {
+        final String[] result = new String[args.length + 4];
+        result[0] = "-rf";
+        result[1] = "json";
+        result[2] = "-rff";
+        result[3] = RESULT_FILE;
+        System.arraycopy(args, 0, result, 4, args.length);
+        return result;
+    }
+
+    private static final String RESULT_FILE = "jmh-result.json";
+}
@@ -0,0 +1,44 @@
+package edu.neu.coe.info6205.jmh;
+
+import edu.neu.coe.info6205.pq.PQException;
+import edu.neu.coe.info6205.pq.PriorityQueue;
+import edu.neu.coe.info6205.util.InputGenerator;
+import edu.neu.coe.info6205.util.InputGenerator.Distribution;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of PriorityQueue: each invocation gives n keys (in the order of the distribution) to an empty queue
+ * and then takes them all.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PriorityQueueBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int n;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE", "ZIPF", "SAWTOOTH", "ORGAN_PIPE", "RUNS"})
+    public Distribution distribution;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        keys = new InputGenerator(distribution, SortWithHelperBenchmark.SEED).integers(n);
+    }
+
+    @Benchmark
+    public void giveAndTake(Blackhole blackhole) throws PQException {
+        final PriorityQueue<Integer> pq = new PriorityQueue<>(n, true, Comparator.<Integer>naturalOrder());
+        for (Integer key : keys) pq.give(key);
+        while (!pq.isEmpty()) blackhole.consume(pq.take());
+    }
+
+    private Integer[] keys;
+}
@@ -0,0 +1,64 @@
+package edu.neu.coe.info6205.jmh;
+
+import edu.neu.coe.info6205.sort.radix.LSDStringSort;
+import edu.neu.coe.info6205.sort.radix.RadixSort;
+import edu.neu.coe.info6205.sort.simple.LCPMergeSort;
+import edu.neu.coe.info6205.util.InputGenerator;
+import edu.neu.coe.info6205.util.InputGenerator.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the radix sorts: RadixSort (on non-negative ints) and LSDStringSort (on fixed-length Strings).
+ * LCPMergeSort is included as the comparison-based baseline for the same Strings.
+ * Each invocation sorts a fresh copy of the same input.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RadixSortBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int n;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE", "ZIPF", "SAWTOOTH", "ORGAN_PIPE", "RUNS"})
+    public Distribution distribution;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        ints = new InputGenerator(distribution, SortWithHelperBenchmark.SEED).ints(n);
+        strings = new InputGenerator(distribution, SortWithHelperBenchmark.SEED).strings(n);
+        lcpMergeSort = Sorters.createLCPMergeSort(n);
+    }
+
+    @Benchmark
+    public int[] radixSort() throws Exception {
+        final int[] xs = Arrays.copyOf(ints, n);
+        // NOTE the upper bound of RadixSort.sort is inclusive.
+        radixSort.sort(xs, 0, n - 1);
+        return xs;
+    }
+
+    @Benchmark
+    public String[] lsdStringSort() {
+        final String[] xs = Arrays.copyOf(strings, n);
+        lsdStringSort.sort(xs);
+        return xs;
+    }
+
+    @Benchmark
+    public String[] lcpMergeSort() {
+        return lcpMergeSort.sort(strings, true);
+    }
+
+    private final RadixSort radixSort = new RadixSort();
+    private final LSDStringSort lsdStringSort = new LSDStringSort();
+    private LCPMergeSort lcpMergeSort;
+    private int[] ints;
+    private String[] strings;
+}
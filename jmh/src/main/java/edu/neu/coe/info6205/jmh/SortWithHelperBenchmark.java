@@ -0,0 +1,48 @@
+package edu.neu.coe.info6205.jmh;
+
+import edu.neu.coe.info6205.sort.SortWithHelper;
+import edu.neu.coe.info6205.util.InputGenerator;
+import edu.neu.coe.info6205.util.InputGenerator.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the linearithmic SortWithHelper sorters on Integer arrays.
+ * Each invocation sorts a fresh copy of the same input.
+ * <p>
+ * The state is per thread, so that (with -t) each benchmark thread sorts its own arrays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SortWithHelperBenchmark {
+
+    @Param({"mergebasic", "quick3way", "quickdualpivot", "intro", "tim"})
+    public String sorter;
+
+    @Param({"1000", "10000", "100000"})
+    public int n;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE", "ZIPF", "SAWTOOTH", "ORGAN_PIPE", "RUNS"})
+    public Distribution distribution;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        sort = Sorters.create(sorter, n);
+        xs = new InputGenerator(distribution, SEED).integers(n);
+    }
+
+    @Benchmark
+    public Integer[] sort() {
+        return sort.sort(xs, true);
+    }
+
+    static final long SEED = 0L;
+
+    private SortWithHelper<Integer> sort;
+    private Integer[] xs;
+}
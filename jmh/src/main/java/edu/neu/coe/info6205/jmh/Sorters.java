@@ -0,0 +1,73 @@
+package edu.neu.coe.info6205.jmh;
+
+import edu.neu.coe.info6205.sort.Helper;
+import edu.neu.coe.info6205.sort.HelperFactory;
+import edu.neu.coe.info6205.sort.SortWithHelper;
+import edu.neu.coe.info6205.sort.simple.*;
+import edu.neu.coe.info6205.util.Config;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Factory for the SortWithHelper sorters which are benchmarked.
+ * The sorters are not instrumented, regardless of config.ini.
+ */
+public class Sorters {
+
+    /**
+     * Method to create a sorter of Integers.
+     *
+     * @param name the name of the sorter (as used in the @Param annotations of the benchmarks).
+     * @param n    the number of elements to be sorted.
+     * @return a SortWithHelper.
+     */
+    public static SortWithHelper<Integer> create(String name, int n) {
+        final Helper<Integer> helper = HelperFactory.create(name, n, false, getConfig());
+        switch (name) {
+            case "bubble":
+                return new BubbleSort<>(helper);
+            case "insertion":
+                return new InsertionSort<>(helper);
+            case "insertionopt":
+                return new InsertionSortOpt<>(helper);
+            case "selection":
+                return new SelectionSort<>(helper);
+            case "shell":
+                return new ShellSort<>(3, helper);
+            case "mergebasic":
+                return new MergeSortBasic<>(helper);
+            case "quick3way":
+                return new QuickSort_3way<>(helper);
+            case "quickdualpivot":
+                return new QuickSort_DualPivot<>(helper);
+            case "intro":
+                return new IntroSort<>(helper);
+            case "tim":
+                return new TimSort<>(helper);
+            default:
+                throw new IllegalArgumentException("Sorters: unknown sorter: " + name);
+        }
+    }
+
+    /**
+     * Method to create an LCPMergeSort.
+     *
+     * @param n the number of Strings to be sorted.
+     * @return an LCPMergeSort.
+     */
+    public static LCPMergeSort createLCPMergeSort(int n) {
+        return new LCPMergeSort(HelperFactory.create("lcpmerge", n, false, getConfig()));
+    }
+
+    private static synchronized Config getConfig() {
+        if (config == null) try {
+            config = Config.load(Sorters.class).copy("helper", "instrument", "false");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return config;
+    }
+
+    private static Config config;
+}
@@ -0,0 +1,111 @@
+package edu.neu.coe.info6205.jmh;
+
+import edu.neu.coe.info6205.union_find.UF_HWQUPC;
+import edu.neu.coe.info6205.union_find.WQU;
+import edu.neu.coe.info6205.union_find.WQUPC;
+import edu.neu.coe.info6205.union_find.WQUPC2;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of the union-find variants.
+ * Each invocation creates n sites and then connects the same sequence of random pairs
+ * (about n ln n / 2 of them, i.e. enough to connect all the sites, on average), as in UF_HWQUPC.count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class UnionFindBenchmark {
+
+    @Param({"wqu", "wqupc", "wqupc2", "hwqupc", "hwqu"})
+    public String variant;
+
+    @Param({"1000", "10000", "100000"})
+    public int n;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final Random random = new Random(SortWithHelperBenchmark.SEED);
+        pairs = new int[2 * (int) Math.ceil(n * Math.log(n) / 2)];
+        for (int i = 0; i < pairs.length; i++) pairs[i] = random.nextInt(n);
+    }
+
+    @Benchmark
+    public int connect() {
+        final Connector connector = create();
+        for (int i = 0; i < pairs.length; i += 2) connector.connect(pairs[i], pairs[i + 1]);
+        return connector.components();
+    }
+
+    private Connector create() {
+        switch (variant) {
+            case "wqu": {
+                final WQU uf = new WQU(n);
+                return new Connector() {
+                    public void connect(int p, int q) {
+                        if (!uf.connected(p, q)) uf.union(p, q);
+                    }
+
+                    public int components() {
+                        return uf.count();
+                    }
+                };
+            }
+            case "wqupc": {
+                final WQUPC uf = new WQUPC(n);
+                return new Connector() {
+                    public void connect(int p, int q) {
+                        if (!uf.connected(p, q)) uf.union(p, q);
+                    }
+
+                    public int components() {
+                        return uf.count();
+                    }
+                };
+            }
+            case "wqupc2": {
+                final WQUPC2 uf = new WQUPC2(n);
+                return new Connector() {
+                    public void connect(int p, int q) {
+                        if (!uf.connected(p, q)) uf.union(p, q);
+                    }
+
+                    public int components() {
+                        return uf.count();
+                    }
+                };
+            }
+            case "hwqupc":
+            case "hwqu": {
+                final UF_HWQUPC uf = new UF_HWQUPC(n, variant.equals("hwqupc"));
+                return new Connector() {
+                    public void connect(int p, int q) {
+                        if (!uf.connected(p, q)) uf.union(p, q);
+                    }
+
+                    public int components() {
+                        return uf.components();
+                    }
+                };
+            }
+            default:
+                throw new IllegalArgumentException("UnionFindBenchmark: unknown variant: " + variant);
+        }
+    }
+
+    /**
+     * Interface to hide the differences between the union-find variants (which do not share an interface).
+     */
+    private interface Connector {
+        void connect(int p, int q);
+
+        int components();
+    }
+
+    private int[] pairs;
+}
@@ -0,0 +1,65 @@
+package edu.neu.coe.info6205.sort.par;
+
+import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.InputGenerator;
+import edu.neu.coe.info6205.util.InputGenerator.Distribution;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of ParSort, parameterized by the size of its thread pool and its cutoff.
+ * Each invocation sorts a fresh copy of the same input.
+ * <p>
+ * NOTE: because ParSort is configured by static fields, this benchmark must be run by a single benchmark thread.
+ * Each trial configures ParSort (see ParSort.configure) with its own cutoff and threads, overriding any calibration in config.ini.
+ * The previous cutoff is restored when the trial is over (the pool of the trial is shut down by the next call of configure).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+@State(Scope.Benchmark)
+public class ParSortBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int n;
+
+    @Param({"RANDOM", "SORTED", "REVERSED", "NEARLY_SORTED", "FEW_UNIQUE", "ZIPF", "SAWTOOTH", "ORGAN_PIPE", "RUNS"})
+    public Distribution distribution;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"1000", "10000", "100000"})
+    public int cutoff;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        xs = new InputGenerator(distribution, 0L).ints(n);
+        previousCutoff = ParSort.cutoff;
+        // NOTE configure shuts down the pool of the previous trial.
+        ParSort.configure(Config.load(ParSortBenchmark.class)
+                .copy(ParSort.PARSORT, "cutoff", Integer.toString(cutoff))
+                .copy(ParSort.PARSORT, "threads", Integer.toString(threads)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        ParSort.configure(Config.load(ParSortBenchmark.class).copy(ParSort.PARSORT, "cutoff", Integer.toString(previousCutoff)));
+    }
+
+    @Benchmark
+    public int[] sort() {
+        final int[] result = Arrays.copyOf(xs, n);
+        ParSort.sort(result, 0, n);
+        return result;
+    }
+
+    private int[] xs;
+    private int previousCutoff;
+}
@@ -1,7 +1,14 @@
 package edu.neu.coe.info6205;
 
 import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Class to count events.
+ * <p>
+ * NOTE: a Counter may be incremented concurrently by any number of threads (the count is kept in a LongAdder).
+ * Counters which are to be exported should be obtained from a MetricsRegistry (see util.metrics).
+ */
 public class Counter {
 
     /**
@@ -17,21 +24,51 @@ public class Counter {
      * Mutating method to increase the count.
      */
     public void increment() {
-        count++;
+        count.increment();
+    }
+
+    /**
+     * Mutating method to increase the count by n.
+     *
+     * @param n the amount to be added (should be non-negative).
+     */
+    public void add(long n) {
+        count.add(n);
     }
 
     /**
      * Non-mutating method to return the current count.
      *
      * @return the value of count.
+     * @throws ArithmeticException if the count does not fit in an int (use count instead).
      */
     public int tally() {
-        return count;
+        return Math.toIntExact(count());
+    }
+
+    /**
+     * Non-mutating method to return the current count.
+     *
+     * @return the value of count.
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Mutating method to reset the count to zero.
+     */
+    public void reset() {
+        count.reset();
+    }
+
+    public String getId() {
+        return id;
     }
 
     @Override
     public String toString() {
-        return id + ": " + count;
+        return id + ": " + count();
     }
 
     public static void main(String[] args) {
@@ -46,5 +83,5 @@ public class Counter {
     }
 
     private final String id;
-    private int count = 0;
+    private final LongAdder count = new LongAdder();
 }
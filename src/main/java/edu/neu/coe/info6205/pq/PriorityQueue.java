@@ -1,5 +1,9 @@
 package edu.neu.coe.info6205.pq;
 
+import edu.neu.coe.info6205.util.EventRecorder;
+import edu.neu.coe.info6205.util.metrics.Histogram;
+import edu.neu.coe.info6205.util.metrics.MetricsRegistry;
+
 import java.util.*;
 
 /**
@@ -74,6 +78,18 @@ public class PriorityQueue<K> implements Iterable<K> {
         return last;
     }
 
+    /**
+     * Method to publish the metrics of this Priority Queue to registry:
+     * a gauge of its size and a histogram of the depths of sink operations (i.e. of take).
+     *
+     * @param registry the MetricsRegistry.
+     * @param name     the name of this Priority Queue (used as the value of the "pq" label).
+     */
+    public void publish(MetricsRegistry registry, String name) {
+        registry.gauge(this::size, "priority_queue_size", "pq", name);
+        sinkDepths = registry.histogram("priority_queue_sink_depth", "pq", name);
+    }
+
     /**
      * Insert an element with the given key into this Priority Queue.
      *
@@ -109,13 +125,17 @@ public class PriorityQueue<K> implements Iterable<K> {
      */
     private void sink(@SuppressWarnings("SameParameterValue") int k) {
         int i = k;
+        int depth = 0;
         while (firstChild(i) <= last) {
             int j = firstChild(i);
             if (j < last && unordered(j, j + 1)) j++;
             if (!unordered(i, j)) break;
             swap(i, j);
             i = j;
+            depth++;
         }
+        if (EventRecorder.PRIORITY_QUEUE) EventRecorder.sink(depth);
+        if (sinkDepths != null) sinkDepths.record(depth);
     }
 
     /**
@@ -123,10 +143,13 @@ public class PriorityQueue<K> implements Iterable<K> {
      */
     private void swimUp(int k) {
         int i = k;
+        int depth = 0;
         while (i > 1 && unordered(parent(i), i)) {
             swap(i, parent(i));
             i = parent(i);
+            depth++;
         }
+        if (EventRecorder.PRIORITY_QUEUE) EventRecorder.swim(depth);
     }
 
     /**
@@ -184,6 +207,7 @@ public class PriorityQueue<K> implements Iterable<K> {
     private final Comparator<K> comparator;
     private final K[] binHeap; // binHeap[i] is ith element of binary heap (first element is reserved)
     private int last; // number of elements in the binary heap
+    private Histogram sinkDepths = null; // not null only if this Priority Queue has been published
 
     @Override
     public Iterator<K> iterator() {
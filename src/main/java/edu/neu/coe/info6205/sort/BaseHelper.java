@@ -2,6 +2,7 @@ package edu.neu.coe.info6205.sort;
 
 import edu.neu.coe.info6205.util.Utilities;
 
+import java.util.Comparator;
 import java.util.Random;
 import java.util.function.Function;
 
@@ -14,6 +15,13 @@ public class BaseHelper<X extends Comparable<X>> implements Helper<X> {
         return false;
     }
 
+    /**
+     * @return the Comparator used by this Helper, or null if the natural ordering of X is used.
+     */
+    public Comparator<X> getComparator() {
+        return comparator;
+    }
+
     /**
      * Method to determine if one X value is less than another.
      *
@@ -22,7 +30,7 @@ public class BaseHelper<X extends Comparable<X>> implements Helper<X> {
      * @return true only if v is less than w.
      */
     public boolean less(X v, X w) {
-        return v.compareTo(w) < 0;
+        return doCompare(v, w) < 0;
     }
 
     /**
@@ -35,7 +43,7 @@ public class BaseHelper<X extends Comparable<X>> implements Helper<X> {
      */
     public int compare(X[] xs, int i, int j) {
         // CONSIDER invoking the other compare signature
-        return xs[i].compareTo(xs[j]);
+        return doCompare(xs[i], xs[j]);
     }
 
     /**
@@ -47,7 +55,7 @@ public class BaseHelper<X extends Comparable<X>> implements Helper<X> {
      */
     @Override
     public int compare(X v, X w) {
-        return v.compareTo(w);
+        return doCompare(v, w);
     }
 
     /**
@@ -95,16 +103,18 @@ public class BaseHelper<X extends Comparable<X>> implements Helper<X> {
     }
 
     public boolean sorted(X[] xs) {
-        for (int i = 1; i < xs.length; i++) if (xs[i - 1].compareTo(xs[i]) > 0) return false;
+        for (int i = 1; i < xs.length; i++) if (doCompare(xs[i - 1], xs[i]) > 0) return false;
         return true;
     }
 
-    public int inversions(X[] xs) {
-        int result = 0;
-        for (int i = 0; i < xs.length; i++)
-            for (int j = i + 1; j < xs.length; j++)
-                if (xs[i].compareTo(xs[j]) > 0) result++;
-        return result;
+    /**
+     * Method to count the inversions of xs in O(n log n) time (in parallel for large arrays).
+     *
+     * @param xs the array (unchanged).
+     * @return the number of inversions.
+     */
+    public long inversions(X[] xs) {
+        return Inversions.countParallel(xs, this::doCompare);
     }
 
     public X[] random(Class<X> clazz, Function<Random, X> f) {
@@ -127,6 +137,21 @@ public class BaseHelper<X extends Comparable<X>> implements Helper<X> {
         return "Helper for " + description + " with " + n + " elements";
     }
 
+    /**
+     * Compare v and w, using the comparator if there is one, otherwise the natural ordering.
+     * This method is never instrumented, so it may be used by sub-classes for comparisons which should not be counted.
+     * <p>
+     * NOTE: when comparator is null (the usual case), the branch is always taken the same way so that
+     * the JIT compiler is still able to inline the compareTo method of X.
+     *
+     * @param v the first X.
+     * @param w the second X.
+     * @return the result of comparing v and w.
+     */
+    protected final int doCompare(X v, X w) {
+        return comparator == null ? v.compareTo(w) : comparator.compare(v, w);
+    }
+
     public String getDescription() {
         return description;
     }
@@ -144,20 +169,51 @@ public class BaseHelper<X extends Comparable<X>> implements Helper<X> {
         return n;
     }
 
+    /**
+     * @return the cutoff set by setCutoff or, if none has been set, the default cutoff.
+     */
+    @Override
+    public int cutoff() {
+        // NOTE that a cutoff value of 0 or less will result in an infinite recursion for any recursive method that uses it.
+        return (cutoff >= 1) ? cutoff : Helper.super.cutoff();
+    }
+
+    /**
+     * Method to set the cutoff (for example, a calibrated cutoff: see HelperFactory).
+     *
+     * @param cutoff the cutoff (0 for the default cutoff).
+     */
+    public void setCutoff(int cutoff) {
+        this.cutoff = cutoff;
+    }
+
     public void close() {
     }
 
     /**
-     * Constructor for explicit random number generator.
+     * Constructor for explicit random number generator and comparator.
      *
      * @param description the description of this Helper (for humans).
      * @param n           the number of elements expected to be sorted. The field n is mutable so can be set after the constructor.
      * @param random      a random number generator.
+     * @param comparator  the comparator to be used for all comparisons (if null, the natural ordering of X is used).
      */
-    public BaseHelper(String description, int n, Random random) {
+    public BaseHelper(String description, int n, Random random, Comparator<X> comparator) {
         this.n = n;
         this.description = description;
         this.random = random;
+        this.comparator = comparator;
+    }
+
+    /**
+     * Constructor for explicit random number generator.
+     *
+     * @param description the description of this Helper (for humans).
+     * @param n           the number of elements expected to be sorted. The field n is mutable so can be set after the constructor.
+     * @param random      a random number generator.
+     */
+    public BaseHelper(String description, int n, Random random) {
+        this(description, n, random, null);
     }
 
     /**
@@ -190,6 +246,16 @@ public class BaseHelper<X extends Comparable<X>> implements Helper<X> {
         this(description, 0);
     }
 
+    /**
+     * Constructor to create a Helper with a random seed, an n value of 0 and an explicit comparator.
+     *
+     * @param description the description of this Helper (for humans).
+     * @param comparator  the comparator to be used for all comparisons (if null, the natural ordering of X is used).
+     */
+    public BaseHelper(String description, Comparator<X> comparator) {
+        this(description, 0, new Random(System.currentTimeMillis()), comparator);
+    }
+
     public static final String INSTRUMENT = "instrument";
 
     public static class HelperException extends RuntimeException {
@@ -213,5 +279,7 @@ public class BaseHelper<X extends Comparable<X>> implements Helper<X> {
 
     protected final String description;
     protected final Random random;
+    protected final Comparator<X> comparator;
     protected int n;
+    private int cutoff;
 }
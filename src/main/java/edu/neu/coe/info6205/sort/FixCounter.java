@@ -0,0 +1,215 @@
+package edu.neu.coe.info6205.sort;
+
+import java.util.Comparator;
+
+/**
+ * Class to count the fixes (the change in the number of inversions) caused by swapping two elements of a large array,
+ * without scanning all of the elements between them.
+ * <p>
+ * Swapping xs[i] and xs[j] (where i < j) fixes 1 + 2m + e inversions (or un-fixes them),
+ * where m is the number of elements between i and j whose values lie strictly between xs[i] and xs[j],
+ * and e is the number of elements between i and j which are equal to either xs[i] or xs[j].
+ * The positions are divided into blocks of size b (approximately sqrt(n)), as are the (ordinal) ranks of the values.
+ * A two-dimensional Fenwick tree holds the number of elements in each (position block, rank bucket) cell,
+ * so that m can be determined in O(b + log^2 n) time rather than O(j-i) time.
+ * <p>
+ * This class mirrors the positions of the elements in the array which it tracks,
+ * so every mutation of that array must be reported to it (see swap, swapInto).
+ * The fixes yielded by swap are the only source of the count of fixes for a large array (see InstrumentedHelper),
+ * so a mutation which is not reported (for example, a direct write) is not counted as fixes,
+ * and it is detected only if it changes the elements at the indices of a subsequent swap (see tracks), when the FixCounter is rebuilt.
+ * <p>
+ * NOTE: this class is not thread-safe.
+ *
+ * @param <X> the underlying type.
+ */
+class FixCounter<X> {
+
+    /**
+     * Constructor for a FixCounter which tracks the array xs in its current state.
+     *
+     * @param xs         the array to be tracked.
+     * @param comparator the comparator which defines the order.
+     */
+    FixCounter(X[] xs, Comparator<? super X> comparator) {
+        array = xs;
+        n = xs.length;
+        elements = xs.clone();
+        b = Math.max(1, (int) Math.ceil(Math.sqrt(n)));
+        nBlocks = (n + b - 1) / b;
+        rank = new int[n];
+        first = new int[n];
+        last = new int[n];
+        final int[] order = Inversions.order(xs, comparator);
+        // NOTE each element has a distinct (ordinal) rank, but equal elements share the range of ranks first..last.
+        for (int r = 0, start = 0; r < n; r++) {
+            rank[order[r]] = r;
+            if (r == n - 1 || comparator.compare(xs[order[r]], xs[order[r + 1]]) != 0) {
+                for (int k = start; k <= r; k++) {
+                    first[order[k]] = start;
+                    last[order[k]] = r;
+                }
+                start = r + 1;
+            }
+        }
+        idAt = new int[n];
+        pos = new int[n];
+        for (int i = 0; i < n; i++) {
+            idAt[i] = i;
+            pos[i] = i;
+        }
+        idsByRank = order;
+        tree = new int[(nBlocks + 1) * (nBlocks + 1)];
+        for (int id = 0; id < n; id++) add(pos[id] / b, rank[id] / b, 1);
+    }
+
+    /**
+     * Method to determine if this FixCounter tracks xs.
+     *
+     * @param xs the array.
+     * @return true if xs is the tracked array.
+     */
+    boolean tracks(X[] xs) {
+        return xs == array;
+    }
+
+    /**
+     * Method to determine if this FixCounter is (apparently) in step with xs, with respect to indices i and j.
+     *
+     * @param xs the array.
+     * @param i  one index.
+     * @param j  another index.
+     * @return true if xs is the tracked array and the elements at i and j are those expected.
+     */
+    boolean tracks(X[] xs, int i, int j) {
+        return xs == array && xs[i] == elements[idAt[i]] && xs[j] == elements[idAt[j]];
+    }
+
+    /**
+     * Method to swap the elements at i and j, yielding the consequent number of fixes.
+     *
+     * @param i one index.
+     * @param j the other index.
+     * @return the number of inversions fixed (negative if inversions are created).
+     */
+    long swap(int i, int j) {
+        final long result = fixes(Math.min(i, j), Math.max(i, j));
+        move(idAt[i], j);
+        move(idAt[j], i);
+        final int t = idAt[i];
+        idAt[i] = idAt[j];
+        idAt[j] = t;
+        return result;
+    }
+
+    /**
+     * Method to mirror a "swapInto", i.e. the element at j is moved to i and the elements i thru j-1 are all moved up one.
+     *
+     * @param i the destination of the element at j.
+     * @param j the source.
+     */
+    void swapInto(int i, int j) {
+        final int id = idAt[j];
+        for (int k = j; k > i; k--) {
+            move(idAt[k - 1], k);
+            idAt[k] = idAt[k - 1];
+        }
+        move(id, i);
+        idAt[i] = id;
+    }
+
+    private long fixes(int i, int j) {
+        final int v = idAt[i], w = idAt[j];
+        if (first[v] == first[w]) return 0;
+        final int lo = first[v] > first[w] ? w : v, hi = first[v] > first[w] ? v : w;
+        // NOTE an element strictly between the two values contributes 2; an element equal to either value contributes 1.
+        final long m = countBetween(i, j, first[lo], last[hi]) + countBetween(i, j, last[lo] + 1, first[hi] - 1);
+        return (first[v] > first[w] ? 1 : -1) * (1 + m);
+    }
+
+    /**
+     * Count the elements with position strictly between i and j and with rank in rA thru rB (inclusive).
+     */
+    private long countBetween(int i, int j, int rA, int rB) {
+        final int pA = i + 1, pB = j - 1;
+        if (pA > pB || rA > rB) return 0;
+        if (pB - pA < 2 * b) return scan(pA, pB + 1, rA, rB);
+        // NOTE the full position blocks are bL thru bR, i.e. positions pL (inclusive) thru pR (exclusive).
+        final int bL = (pA + b - 1) / b, bR = (pB + 1) / b - 1;
+        final int pL = bL * b, pR = (bR + 1) * b;
+        long result = scan(pA, pL, rA, rB) + scan(pR, pB + 1, rA, rB);
+        // NOTE the full rank buckets are vL thru vR; the partial buckets (at most two) are scanned.
+        final int vL = (rA + b - 1) / b, vR = (rB + 1) / b - 1;
+        if (vL <= vR) {
+            result += rectangle(bL, bR, vL, vR);
+            result += scanRanks(rA, Math.min(vL * b, rB + 1), pL, pR);
+            result += scanRanks(Math.max((vR + 1) * b, rA), rB + 1, pL, pR);
+        } else result += scanRanks(rA, rB + 1, pL, pR);
+        return result;
+    }
+
+    /**
+     * Count the elements at positions from..to (exclusive) whose rank is in rA..rB (inclusive).
+     */
+    private long scan(int from, int to, int rA, int rB) {
+        long result = 0;
+        for (int p = from; p < to; p++) {
+            final int r = rank[idAt[p]];
+            if (r >= rA && r <= rB) result++;
+        }
+        return result;
+    }
+
+    /**
+     * Count the elements with ranks from..to (exclusive) whose position is in pL..pR (exclusive).
+     */
+    private long scanRanks(int from, int to, int pL, int pR) {
+        long result = 0;
+        for (int r = from; r < to; r++) {
+            final int p = pos[idsByRank[r]];
+            if (p >= pL && p < pR) result++;
+        }
+        return result;
+    }
+
+    private void move(int id, int p) {
+        final int from = pos[id] / b, to = p / b;
+        if (from != to) {
+            final int bucket = rank[id] / b;
+            add(from, bucket, -1);
+            add(to, bucket, 1);
+        }
+        pos[id] = p;
+    }
+
+    private void add(int block, int bucket, int delta) {
+        for (int x = block + 1; x <= nBlocks; x += x & -x)
+            for (int y = bucket + 1; y <= nBlocks; y += y & -y)
+                tree[x * (nBlocks + 1) + y] += delta;
+    }
+
+    private long prefix(int block, int bucket) {
+        long result = 0;
+        for (int x = block + 1; x > 0; x -= x & -x)
+            for (int y = bucket + 1; y > 0; y -= y & -y)
+                result += tree[x * (nBlocks + 1) + y];
+        return result;
+    }
+
+    private long rectangle(int b1, int b2, int v1, int v2) {
+        return prefix(b2, v2) - prefix(b1 - 1, v2) - prefix(b2, v1 - 1) + prefix(b1 - 1, v1 - 1);
+    }
+
+    private final X[] array;
+    private final X[] elements;
+    private final int n;
+    private final int b;
+    private final int nBlocks;
+    private final int[] rank;
+    private final int[] first;
+    private final int[] last;
+    private final int[] idsByRank;
+    private final int[] idAt;
+    private final int[] pos;
+    private final int[] tree;
+}
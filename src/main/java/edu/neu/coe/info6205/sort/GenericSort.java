@@ -1,10 +1,14 @@
 package edu.neu.coe.info6205.sort;
 
 
+import edu.neu.coe.info6205.util.EventRecorder;
 import edu.neu.coe.info6205.util.Utilities;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
 
 /**
  * Interface GenericSort which defines the various sort methods for sorting elements of type X.
@@ -28,7 +32,10 @@ public interface GenericSort<X> {
      * @param xs sort the array xs, returning the sorted result, leaving xs unchanged.
      */
     default X[] sort(X[] xs) {
-        return sort(xs, true);
+        final Object event = EventRecorder.SORT ? EventRecorder.beginSort() : null;
+        final X[] result = sort(xs, true);
+        if (event != null) EventRecorder.endSort(event, getClass().getSimpleName(), xs.length, toString());
+        return result;
     }
 
     /**
@@ -38,7 +45,9 @@ public interface GenericSort<X> {
      * @param xs the array to be sorted.
      */
     default void mutatingSort(X[] xs) {
+        final Object event = EventRecorder.SORT ? EventRecorder.beginSort() : null;
         sort(xs, false);
+        if (event != null) EventRecorder.endSort(event, getClass().getSimpleName(), xs.length, toString());
     }
 
     /**
@@ -62,4 +71,39 @@ public interface GenericSort<X> {
         mutatingSort(array);
         return Arrays.asList(array);
     }
+
+    /**
+     * Generic, non-mutating sort method which sorts according to a key extracted from each element.
+     * Each key is computed only once (see KeySort), which is appropriate when comparisons of X are expensive.
+     *
+     * @param xs           sort the array xs, returning the sorted result, leaving xs unchanged.
+     * @param keyExtractor a function which yields a Comparable key for each element.
+     * @param <K>          the key type.
+     * @return a sorted copy of xs.
+     */
+    default <K extends Comparable<K>> X[] sortBy(X[] xs, Function<X, K> keyExtractor) {
+        return KeySort.sortBy(xs, keyExtractor);
+    }
+
+    /**
+     * Generic, non-mutating sort method which sorts according to an int key extracted from each element.
+     *
+     * @param xs           sort the array xs, returning the sorted result, leaving xs unchanged.
+     * @param keyExtractor a function which yields an int key for each element.
+     * @return a sorted copy of xs.
+     */
+    default X[] sortByInt(X[] xs, ToIntFunction<X> keyExtractor) {
+        return KeySort.sortByInt(xs, keyExtractor);
+    }
+
+    /**
+     * Generic, non-mutating sort method which sorts according to a long key extracted from each element.
+     *
+     * @param xs           sort the array xs, returning the sorted result, leaving xs unchanged.
+     * @param keyExtractor a function which yields a long key for each element.
+     * @return a sorted copy of xs.
+     */
+    default X[] sortByLong(X[] xs, ToLongFunction<X> keyExtractor) {
+        return KeySort.sortByLong(xs, keyExtractor);
+    }
 }
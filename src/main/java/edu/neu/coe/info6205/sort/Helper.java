@@ -1,5 +1,6 @@
 package edu.neu.coe.info6205.sort;
 
+import java.util.Comparator;
 import java.util.Random;
 import java.util.function.Function;
 
@@ -10,6 +11,9 @@ import static java.util.Arrays.binarySearch;
  * <p>
  * A Helper provides all of the utilities that are needed by sort methods, for example, compare and swap.
  * <p>
+ * A Helper may have an explicit Comparator, in which case all comparisons are made with it;
+ * otherwise, comparisons are made according to the natural ordering of X.
+ * <p>
  * CONSIDER having the concept of a current sub-array, then we could dispense with the lo, hi parameters.
  *
  * @param <X>
@@ -21,6 +25,11 @@ public interface Helper<X extends Comparable<X>> {
      */
     boolean instrumented();
 
+    /**
+     * @return the Comparator used by this Helper, or null if the natural ordering of X is used.
+     */
+    Comparator<X> getComparator();
+
     /**
      * Compare elements i and j of xs within the subarray lo..hi
      *
@@ -79,7 +88,7 @@ public interface Helper<X extends Comparable<X>> {
     default boolean swapConditional(X[] xs, int i, int j) {
         final X v = xs[i];
         final X w = xs[j];
-        boolean result = v.compareTo(w) > 0;
+        boolean result = compare(v, w) > 0;
         if (result) {
             // CONSIDER invoking swap
             xs[i] = w;
@@ -98,7 +107,7 @@ public interface Helper<X extends Comparable<X>> {
     default boolean swapStableConditional(X[] xs, int i) {
         final X v = xs[i];
         final X w = xs[i - 1];
-        boolean result = v.compareTo(w) < 0;
+        boolean result = compare(v, w) < 0;
         if (result) {
             xs[i] = w;
             xs[i - 1] = v;
@@ -130,7 +139,7 @@ public interface Helper<X extends Comparable<X>> {
      * @param i  the index of the element to be swapped into the ordered array xs[0..i-1].
      */
     default void swapIntoSorted(X[] xs, int i) {
-        int j = binarySearch(xs, 0, i, xs[i]);
+        int j = binarySearch(xs, 0, i, xs[i], getComparator());
         if (j < 0) j = -j - 1;
         if (j < i) swapInto(xs, j, i);
     }
@@ -182,7 +191,7 @@ public interface Helper<X extends Comparable<X>> {
      * @param xs an array of Xs.
      * @return the number of inversions.
      */
-    int inversions(X[] xs);
+    long inversions(X[] xs);
 
     /**
      * Method to post-process the array xs after sorting.
@@ -246,6 +255,16 @@ public interface Helper<X extends Comparable<X>> {
         // do nothing.
     }
 
+    /**
+     * If instrumenting, increment the number of character comparisons by n.
+     * This is used by string sorts which compare individual characters rather than whole elements.
+     *
+     * @param n the number of character comparisons made.
+     */
+    default void incrementCharacterCompares(int n) {
+        // do nothing.
+    }
+
     /**
      * Method to do any required preProcessing.
      *
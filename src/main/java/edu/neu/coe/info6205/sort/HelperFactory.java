@@ -1,11 +1,16 @@
 package edu.neu.coe.info6205.sort;
 
 import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.FrozenConfig;
+
+import java.util.Comparator;
+import java.util.Random;
 
 public class HelperFactory {
 
     /**
      * Factory method to create a Helper.
+     * If the config is not instrumented but [helper] sampling is set, the result is a SamplingHelper.
      *
      * @param description the description of the Helper.
      * @param nElements   the number of elements to be sorted.
@@ -14,11 +19,16 @@ public class HelperFactory {
      * @return a Helper<X></X>
      */
     public static <X extends Comparable<X>> Helper<X> create(String description, int nElements, Config config) {
-        return create(description, nElements, config.isInstrumented(), config);
+        final boolean instrumented = config.freeze().isInstrumented();
+        if (instrumented || !isSampling(config)) return create(description, nElements, instrumented, config);
+        final BaseHelper<X> result = new SamplingHelper<>(description, nElements, null, config);
+        setCutoff(result, config);
+        return result;
     }
 
     /**
      * CONSIDER eliminating this signature.
+     * NOTE: the sampling option of the config is ignored: if instrumented is false, the result is a plain BaseHelper.
      *
      * @param description  the description of the Helper.
      * @param nElements    the number of elements to be sorted.
@@ -28,7 +38,68 @@ public class HelperFactory {
      * @return a Helper<X></X>
      */
     public static <X extends Comparable<X>> Helper<X> create(String description, int nElements, boolean instrumented, Config config) {
-        return instrumented ? new InstrumentedHelper<>(description, nElements, config) : new BaseHelper<>(description, nElements);
+        final BaseHelper<X> result = instrumented ? new InstrumentedHelper<>(description, nElements, config) : new BaseHelper<>(description, nElements);
+        setCutoff(result, config);
+        return result;
+    }
+
+    /**
+     * Factory method to create a Helper with an explicit comparator.
+     *
+     * @param description the description of the Helper.
+     * @param nElements   the number of elements to be sorted.
+     * @param comparator  the comparator to be used (if null, the natural ordering of X is used).
+     * @param config      the configuration.
+     * @param <X>         the underlying type.
+     * @return a Helper<X></X>
+     */
+    public static <X extends Comparable<X>> Helper<X> create(String description, int nElements, Comparator<X> comparator, Config config) {
+        final BaseHelper<X> result;
+        if (config.freeze().isInstrumented()) result = new InstrumentedHelper<>(description, nElements, comparator, config);
+        else if (isSampling(config)) result = new SamplingHelper<>(description, nElements, comparator, config);
+        else result = new BaseHelper<>(description, nElements, new Random(), comparator);
+        setCutoff(result, config);
+        return result;
+    }
+
+    /**
+     * Method to get the calibrated cutoff (see Autotuner) of a sort from the cutoff section of config.
+     * The option for the element type (if any) takes precedence over the option for the sort as a whole.
+     * NOTE: for an instrumented helper, the cutoff option of the helper section (if set) takes precedence over both.
+     *
+     * @param config      the configuration.
+     * @param description the description of the sort (e.g. QuickSort_DualPivot.DESCRIPTION).
+     * @param type        the class of the elements (may be null).
+     * @return the cutoff, or 0 if none has been calibrated.
+     */
+    public static int getCutoff(Config config, String description, Class<?> type) {
+        final FrozenConfig frozen = config.freeze();
+        final int cutoff = type != null ? frozen.getInt(CUTOFF, cutoffKey(description, type), 0) : 0;
+        return cutoff > 0 ? cutoff : frozen.getInt(CUTOFF, cutoffKey(description, null), 0);
+    }
+
+    /**
+     * Method to yield the name of the option (in the cutoff section) for a sort and element type.
+     *
+     * @param description the description of the sort.
+     * @param type        the class of the elements (may be null).
+     * @return for example, "quicksort_dual_pivot" or "quicksort_dual_pivot.integer".
+     */
+    public static String cutoffKey(String description, Class<?> type) {
+        final String key = description.toLowerCase().replaceAll("[^a-z0-9]+", "_");
+        return type != null ? key + "." + type.getSimpleName().toLowerCase() : key;
+    }
+
+    public static final String CUTOFF = "cutoff";
+
+    private static void setCutoff(BaseHelper<?> helper, Config config) {
+        // NOTE the type of the elements is not yet known: see SortWithHelper.setCutoff.
+        helper.setCutoff(getCutoff(config, helper.getDescription(), null));
+    }
+
+    // NOTE: a sampling helper is used only if the helper is not (fully) instrumented.
+    private static boolean isSampling(Config config) {
+        return config.freeze().getInt(Config.HELPER, SamplingHelper.SAMPLING, 0) > 0;
     }
 
 }
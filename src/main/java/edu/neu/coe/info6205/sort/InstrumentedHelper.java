@@ -1,10 +1,17 @@
 package edu.neu.coe.info6205.sort;
 
 import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.FrozenConfig;
 import edu.neu.coe.info6205.util.LazyLogger;
 import edu.neu.coe.info6205.util.StatPack;
+import edu.neu.coe.info6205.util.metrics.MetricsRegistry;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import static edu.neu.coe.info6205.util.Utilities.formatWhole;
 
@@ -31,8 +38,8 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
      */
     public boolean less(X v, X w) {
         if (countCompares)
-            compares++;
-        return v.compareTo(w) < 0;
+            counters().compares++;
+        return doCompare(v, w) < 0;
     }
 
     /**
@@ -44,22 +51,61 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
      */
     public void swap(X[] xs, int i, int j) {
         if (i == j) return;
+        final Counters counters = counters();
         if (countSwaps)
-            swaps++;
+            counters.swaps++;
         X v = xs[i];
         X w = xs[j];
-        if (countFixes) {
-            int sense = Integer.signum(v.compareTo(w));
-            fixes += sense;
-            for (int k = i + 1; k < j; k++) {
-                X x = xs[k];
-                if (w.compareTo(x) < 0 && x.compareTo(v) < 0) fixes += 2 * sense;
-            }
-        }
+        if (countFixes)
+            counters.fixes += fixes(xs, i, j);
         xs[i] = w;
         xs[j] = v;
     }
 
+    /**
+     * Method to determine the number of inversions which will be fixed by swapping xs[i] and xs[j].
+     * If a pair is swapped into the wrong order, the result is negative.
+     *
+     * @param xs the array.
+     * @param i  one of the indices.
+     * @param j  the other index.
+     * @return 1 + 2m + e (or its negative) where m is the number of elements between i and j whose values lie strictly between xs[i] and xs[j],
+     * and e is the number of elements between i and j which are equal to xs[i] or xs[j].
+     */
+    private long fixes(X[] xs, int i, int j) {
+        final FixCounter<X> fixCounter = getFixCounter(xs, i, j);
+        if (fixCounter != null) return fixCounter.swap(i, j);
+        // NOTE: for small arrays, it's quicker simply to scan the elements between i and j.
+        final int lo = Math.min(i, j), hi = Math.max(i, j);
+        final int sense = Integer.signum(doCompare(xs[lo], xs[hi]));
+        if (sense == 0) return 0;
+        final X min = sense > 0 ? xs[hi] : xs[lo];
+        final X max = sense > 0 ? xs[lo] : xs[hi];
+        // NOTE an element strictly between min and max contributes 2; an element equal to either contributes 1.
+        long m = 0;
+        for (int k = lo + 1; k < hi; k++) {
+            X x = xs[k];
+            final int cfMin = doCompare(min, x), cfMax = doCompare(x, max);
+            if (cfMin <= 0 && cfMax <= 0) m += (cfMin < 0 && cfMax < 0) ? 2 : 1;
+        }
+        return sense * (1 + m);
+    }
+
+    /**
+     * Method to get a FixCounter which tracks xs, creating it if necessary.
+     *
+     * @param xs the array.
+     * @param i  one of the indices about to be swapped.
+     * @param j  the other index.
+     * @return a FixCounter, or null if xs is too small to warrant one (or if this helper is concurrent).
+     */
+    private FixCounter<X> getFixCounter(X[] xs, int i, int j) {
+        if (concurrent || xs.length < FIX_COUNTER_THRESHOLD) return null;
+        // NOTE: if the array has been changed other than through this helper, we must start again.
+        if (fixCounter == null || !fixCounter.tracks(xs, i, j)) fixCounter = new FixCounter<>(xs, this::doCompare);
+        return fixCounter;
+    }
+
     /**
      * Method to perform a stable swap using half-exchanges,
      * i.e. between xs[i] and xs[j] such that xs[j] is moved to index i,
@@ -73,9 +119,11 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
     @Override
     public void swapInto(X[] xs, int i, int j) {
         if (countSwaps)
-            swaps += (j - i);
-        if (countFixes)
-            fixes += (j - i);
+            counters().swaps += (j - i);
+        if (countFixes) {
+            counters().fixes += (j - i);
+            if (fixCounter != null && fixCounter.tracks(xs, i, j)) fixCounter.swapInto(i, j);
+        }
         super.swapInto(xs, i, j);
     }
 
@@ -133,8 +181,8 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
     @Override
     public boolean swapConditional(X[] xs, int i, int j) {
         if (countCompares)
-            compares++;
-        int cf = xs[i].compareTo(xs[j]);
+            counters().compares++;
+        int cf = doCompare(xs[i], xs[j]);
         if (cf > 0)
             swap(xs, i, j);
         return cf > 0;
@@ -152,16 +200,17 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
         // CONSIDER invoke super-method
         final X v = xs[i];
         final X w = xs[i - 1];
-        boolean result = v.compareTo(w) < 0;
+        boolean result = doCompare(v, w) < 0;
         if (countCompares)
-            compares++;
+            counters().compares++;
         if (result) {
+            if (countFixes && fixCounter != null && fixCounter.tracks(xs, i - 1, i)) fixCounter.swap(i - 1, i);
             xs[i] = w;
             xs[i - 1] = v;
             if (countSwaps)
-                swaps++;
+                counters().swaps++;
             if (countFixes)
-                fixes++;
+                counters().fixes++;
         }
         return result;
 
@@ -178,7 +227,10 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
     @Override
     public void copy(X[] source, int i, X[] target, int j) {
         if (countCopies)
-            copies++;
+            counters().copies++;
+        // NOTE: the FixCounter cannot follow a copy (which may duplicate an element), so it is discarded.
+        // It is rebuilt (from the array as it then is) only if a swap of the array follows.
+        if (fixCounter != null && fixCounter.tracks(target)) fixCounter = null;
         target[j] = source[i];
     }
 
@@ -189,7 +241,17 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
      */
     @Override
     public void incrementCopies(int n) {
-        if (countCopies) copies += n;
+        if (countCopies) counters().copies += n;
+    }
+
+    /**
+     * If instrumenting, increment the number of character comparisons by n.
+     *
+     * @param n the number of character comparisons made.
+     */
+    @Override
+    public void incrementCharacterCompares(int n) {
+        if (countCharacterCompares) counters().characterCompares += n;
     }
 
     // NOTE: the following private methods are only for testing.
@@ -201,7 +263,7 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
      */
     @Override
     public void incrementFixes(int n) {
-        if (countFixes) fixes += n;
+        if (countFixes) counters().fixes += n;
     }
 
     /**
@@ -227,8 +289,8 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
     @Override
     public int compare(X v, X w) {
         if (countCompares)
-            compares++;
-        return v.compareTo(w);
+            counters().compares++;
+        return doCompare(v, w);
     }
 
     /**
@@ -253,14 +315,14 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
      * @param n the size to be managed.
      */
     public void init(int n) {
-        compares = 0;
-        swaps = 0;
-        copies = 0;
-        fixes = 0;
+        resetCounters();
+        fixCounter = null;
         // NOTE: it's an error to reset the StatPack if we've been here before
         if (n == this.n && statPack != null) return;
         super.init(n);
-        statPack = new StatPack(n, COMPARES, SWAPS, COPIES, INVERSIONS, FIXES);
+        statPack = countCharacterCompares ?
+                new StatPack(n, COMPARES, SWAPS, COPIES, INVERSIONS, FIXES, CHARACTER_COMPARES) :
+                new StatPack(n, COMPARES, SWAPS, COPIES, INVERSIONS, FIXES);
     }
 
     /**
@@ -293,14 +355,56 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
         super.postProcess(xs);
         if (!sorted(xs)) throw new BaseHelper.HelperException("Array is not sorted");
         if (statPack == null) throw new RuntimeException("InstrumentedHelper.postProcess: no StatPack");
+        if (concurrent) logger.debug(() -> "Per-thread counts for " + description + ": " + threadCounters);
         if (countCompares)
-            statPack.add(COMPARES, compares);
+            statPack.add(COMPARES, total(COMPARES));
         if (countSwaps)
-            statPack.add(SWAPS, swaps);
+            statPack.add(SWAPS, total(SWAPS));
         if (countCopies)
-            statPack.add(COPIES, copies);
+            statPack.add(COPIES, total(COPIES));
         if (countFixes)
-            statPack.add(FIXES, fixes);
+            statPack.add(FIXES, total(FIXES));
+        if (countCharacterCompares)
+            statPack.add(CHARACTER_COMPARES, total(CHARACTER_COMPARES));
+        publish(MetricsRegistry.getDefault());
+    }
+
+    /**
+     * Method to add the counts (since the last call to init) to the corresponding counters of registry,
+     * which are labeled with the description of this helper.
+     *
+     * @param registry the MetricsRegistry.
+     */
+    private void publish(MetricsRegistry registry) {
+        registry.counter("sort_invocations_total", "helper", description).increment();
+        if (countCompares) registry.counter("sort_compares_total", "helper", description).add(total(COMPARES));
+        if (countSwaps) registry.counter("sort_swaps_total", "helper", description).add(total(SWAPS));
+        if (countCopies) registry.counter("sort_copies_total", "helper", description).add(total(COPIES));
+        if (countFixes) registry.counter("sort_fixes_total", "helper", description).add(total(FIXES));
+        if (countCharacterCompares)
+            registry.counter("sort_character_compares_total", "helper", description).add(total(CHARACTER_COMPARES));
+    }
+
+    /**
+     * Method to yield the per-thread breakdown of one of the counts (since the last call to init).
+     * If this helper is not concurrent, then all counts are attributed to the thread which invoked init.
+     *
+     * @param key one of COMPARES, SWAPS, COPIES, FIXES or CHARACTER_COMPARES.
+     * @return a map of thread name to count.
+     */
+    public Map<String, Long> getThreadCounts(String key) {
+        final Map<String, Long> result = new LinkedHashMap<>();
+        for (Counters counters : threadCounters) result.merge(counters.thread, counters.get(key), Long::sum);
+        return result;
+    }
+
+    /**
+     * Method to determine whether the counts of this helper are kept per-thread, so that it may be shared by a parallel sort.
+     *
+     * @return true if concurrent.
+     */
+    public boolean isConcurrent() {
+        return concurrent;
     }
 
     @Override
@@ -323,6 +427,30 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
         return statPack;
     }
 
+    /**
+     * Constructor for explicit random number generator and comparator.
+     *
+     * @param description the description of this Helper (for humans).
+     * @param n           the number of elements expected to be sorted. The field n is mutable so can be set after the constructor.
+     * @param random      a random number generator.
+     * @param comparator  the comparator to be used for all comparisons (if null, the natural ordering of X is used).
+     * @param config      the configuration (note that the seed value is ignored).
+     */
+    public InstrumentedHelper(String description, int n, Random random, Comparator<X> comparator, Config config) {
+        super(description, n, random, comparator);
+        // NOTE helpers may be created in inner loops, so we use the (cached) frozen configuration.
+        final FrozenConfig frozen = config.freeze();
+        this.countCopies = frozen.getBoolean(INSTRUMENTING, COPIES);
+        this.countSwaps = frozen.getBoolean(INSTRUMENTING, SWAPS);
+        this.countCompares = frozen.getBoolean(INSTRUMENTING, COMPARES);
+        this.countInversions = frozen.getInt(INSTRUMENTING, INVERSIONS, 0);
+        this.countFixes = frozen.getBoolean(INSTRUMENTING, FIXES);
+        this.countCharacterCompares = frozen.getBoolean(INSTRUMENTING, CHARACTER_COMPARES);
+        this.concurrent = frozen.getBoolean(INSTRUMENTING, CONCURRENT);
+        resetCounters();
+        this.cutoff = frozen.getInt("helper", "cutoff", 0);
+    }
+
     /**
      * Constructor for explicit random number generator.
      *
@@ -332,13 +460,19 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
      * @param config      the configuration (note that the seed value is ignored).
      */
     public InstrumentedHelper(String description, int n, Random random, Config config) {
-        super(description, n, random);
-        this.countCopies = config.getBoolean(INSTRUMENTING, COPIES);
-        this.countSwaps = config.getBoolean(INSTRUMENTING, SWAPS);
-        this.countCompares = config.getBoolean(INSTRUMENTING, COMPARES);
-        this.countInversions = config.getInt(INSTRUMENTING, INVERSIONS, 0);
-        this.countFixes = config.getBoolean(INSTRUMENTING, FIXES);
-        this.cutoff = config.getInt("helper", "cutoff", 0);
+        this(description, n, random, null, config);
+    }
+
+    /**
+     * Constructor to create a Helper with an explicit comparator.
+     *
+     * @param description the description of this Helper (for humans).
+     * @param n           the number of elements expected to be sorted. The field n is mutable so can be set after the constructor.
+     * @param comparator  the comparator to be used for all comparisons (if null, the natural ordering of X is used).
+     * @param config      The configuration.
+     */
+    public InstrumentedHelper(String description, int n, Comparator<X> comparator, Config config) {
+        this(description, n, new Random(config.freeze().getLong("helper", "seed", System.currentTimeMillis())), comparator, config);
     }
 
     /**
@@ -349,7 +483,7 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
      * @param config      The configuration.
      */
     public InstrumentedHelper(String description, int n, Config config) {
-        this(description, n, config.getLong("helper", "seed", System.currentTimeMillis()), config);
+        this(description, n, config.freeze().getLong("helper", "seed", System.currentTimeMillis()), config);
     }
 
     /**
@@ -380,20 +514,91 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
     public static final String COPIES = "copies";
     public static final String INVERSIONS = "inversions";
     public static final String FIXES = "fixes";
+    public static final String CHARACTER_COMPARES = "charcompares";
+    public static final String CONCURRENT = "concurrent";
     public static final String INSTRUMENTING = "instrumenting";
 
     // NOTE: the following private methods are only for testing.
 
     private int getCompares() {
-        return compares;
+        return (int) total(COMPARES);
     }
 
     private int getSwaps() {
-        return swaps;
+        return (int) total(SWAPS);
     }
 
     private int getFixes() {
-        return fixes;
+        return (int) total(FIXES);
+    }
+
+    private int getCharacterCompares() {
+        return (int) total(CHARACTER_COMPARES);
+    }
+
+    private Counters counters() {
+        // NOTE: in the (usual) non-concurrent case, there is no thread-local lookup.
+        return concurrent ? threadLocalCounters.get() : singleCounters;
+    }
+
+    private long total(String key) {
+        long result = 0;
+        for (Counters counters : threadCounters) result += counters.get(key);
+        return result;
+    }
+
+    private void resetCounters() {
+        threadCounters.clear();
+        if (concurrent)
+            // NOTE: a new ThreadLocal ensures that no thread continues to use its counters from before the reset.
+            threadLocalCounters = ThreadLocal.withInitial(this::newCounters);
+        else singleCounters = newCounters();
+    }
+
+    private Counters newCounters() {
+        final Counters result = new Counters(Thread.currentThread().getName());
+        threadCounters.add(result);
+        return result;
+    }
+
+    /**
+     * Class to hold the counts for one thread.
+     * Only the owning thread updates the fields,
+     * and they are read by postProcess only after the parallel work has been joined.
+     */
+    private static class Counters {
+        Counters(String thread) {
+            this.thread = thread;
+        }
+
+        long get(String key) {
+            switch (key) {
+                case COMPARES:
+                    return compares;
+                case SWAPS:
+                    return swaps;
+                case COPIES:
+                    return copies;
+                case FIXES:
+                    return fixes;
+                case CHARACTER_COMPARES:
+                    return characterCompares;
+                default:
+                    throw new RuntimeException("InstrumentedHelper.Counters.get(" + key + "): key not valid");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return thread + ": compares=" + compares + ", swaps=" + swaps + ", copies=" + copies + ", fixes=" + fixes + ", charcompares=" + characterCompares;
+        }
+
+        final String thread;
+        long compares = 0;
+        long swaps = 0;
+        long copies = 0;
+        long fixes = 0;
+        long characterCompares = 0;
     }
 
     private final int cutoff;
@@ -401,11 +606,16 @@ public class InstrumentedHelper<X extends Comparable<X>> extends BaseHelper<X> {
     private final boolean countSwaps;
     private final boolean countCompares;
     private final boolean countFixes;
+    private final boolean countCharacterCompares;
     private StatPack statPack;
-    private int compares = 0;
-    private int swaps = 0;
-    private int copies = 0;
-    private int fixes = 0;
+    private final boolean concurrent;
+    private final Collection<Counters> threadCounters = new ConcurrentLinkedQueue<>();
+    private ThreadLocal<Counters> threadLocalCounters;
+    private Counters singleCounters;
+    private FixCounter<X> fixCounter;
+
+    // NOTE: below this size, it's quicker to scan the elements between the indices of a swap than to maintain a FixCounter.
+    private static final int FIX_COUNTER_THRESHOLD = 4096;
     private int countInversions;
     private int maxDepth = 0;
 }
@@ -0,0 +1,160 @@
+package edu.neu.coe.info6205.sort;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Class to count the inversions of an array in O(n log n) time (rather than the O(n^2) time of the naive double loop).
+ * <p>
+ * Inversions are counted by merge sort: whenever an element is taken from the right-hand run of a merge,
+ * it forms an inversion with each element still remaining in the left-hand run.
+ * The parallel version forks the two halves of each merge sort (above a threshold) in the common ForkJoinPool.
+ * <p>
+ * There is also a Fenwick-tree (binary indexed tree) counter for arrays of ranks.
+ * <p>
+ * NOTE: equal elements do not form an inversion.
+ */
+public final class Inversions {
+
+    /**
+     * Method to count the inversions of xs (in a single thread).
+     *
+     * @param xs         the array (unchanged).
+     * @param comparator the comparator which defines the order.
+     * @param <X>        the underlying type.
+     * @return the number of pairs i < j such that xs[i] > xs[j].
+     */
+    public static <X> long count(X[] xs, Comparator<? super X> comparator) {
+        final X[] a = Arrays.copyOf(xs, xs.length);
+        return count(a, Arrays.copyOf(xs, xs.length), 0, a.length, comparator);
+    }
+
+    /**
+     * Method to count the inversions of xs using fork-join parallelism (for large arrays).
+     *
+     * @param xs         the array (unchanged).
+     * @param comparator the comparator which defines the order.
+     * @param <X>        the underlying type.
+     * @return the number of pairs i < j such that xs[i] > xs[j].
+     */
+    public static <X> long countParallel(X[] xs, Comparator<? super X> comparator) {
+        if (xs.length < PARALLEL_THRESHOLD) return count(xs, comparator);
+        final X[] a = Arrays.copyOf(xs, xs.length);
+        return ForkJoinPool.commonPool().invoke(new CountTask<>(a, Arrays.copyOf(xs, xs.length), 0, a.length, comparator));
+    }
+
+    /**
+     * Method to count the inversions of an array of ranks using a Fenwick tree.
+     *
+     * @param ranks an array of non-negative ranks (unchanged).
+     * @return the number of pairs i < j such that ranks[i] > ranks[j].
+     */
+    public static long count(int[] ranks) {
+        int max = 0;
+        for (int r : ranks) if (r > max) max = r;
+        final int[] tree = new int[max + 2];
+        long result = 0;
+        for (int i = 0; i < ranks.length; i++) {
+            // NOTE the number of elements so far which are not greater than ranks[i].
+            int notGreater = 0;
+            for (int x = ranks[i] + 1; x > 0; x -= x & -x) notGreater += tree[x];
+            result += i - notGreater;
+            for (int x = ranks[i] + 1; x < tree.length; x += x & -x) tree[x]++;
+        }
+        return result;
+    }
+
+    /**
+     * Method to yield the (stable) order of the elements of xs.
+     *
+     * @param xs         the array (unchanged).
+     * @param comparator the comparator which defines the order.
+     * @param <X>        the underlying type.
+     * @return an array of indices into xs, in order of the elements.
+     */
+    static <X> int[] order(X[] xs, Comparator<? super X> comparator) {
+        final int n = xs.length;
+        int[] is = new int[n];
+        for (int i = 0; i < n; i++) is[i] = i;
+        int[] aux = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                final int mid = Math.min(lo + width, n);
+                final int hi = Math.min(lo + 2 * width, n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi)
+                    if (comparator.compare(xs[is[j]], xs[is[i]]) < 0) aux[k++] = is[j++];
+                    else aux[k++] = is[i++];
+                System.arraycopy(is, i, aux, k, mid - i);
+                k += mid - i;
+                System.arraycopy(is, j, aux, k, hi - j);
+            }
+            final int[] t = is;
+            is = aux;
+            aux = t;
+        }
+        return is;
+    }
+
+    /**
+     * Sort a[lo..hi) (with the help of aux, whose range lo..hi must have the same content) and count its inversions.
+     */
+    private static <X> long count(X[] a, X[] aux, int lo, int hi, Comparator<? super X> comparator) {
+        if (hi - lo <= 1) return 0;
+        final int mid = lo + (hi - lo) / 2;
+        // NOTE the roles of a and aux are interchanged at each level so that no copying is required before the merge.
+        final long result = count(aux, a, lo, mid, comparator) + count(aux, a, mid, hi, comparator);
+        return result + merge(aux, a, lo, mid, hi, comparator);
+    }
+
+    /**
+     * Merge from[lo..mid) and from[mid..hi) into to[lo..hi), returning the number of inversions between the two runs.
+     */
+    private static <X> long merge(X[] from, X[] to, int lo, int mid, int hi, Comparator<? super X> comparator) {
+        long result = 0;
+        int i = lo, j = mid;
+        for (int k = lo; k < hi; k++)
+            if (i >= mid) to[k] = from[j++];
+            else if (j >= hi) to[k] = from[i++];
+            else if (comparator.compare(from[j], from[i]) < 0) {
+                result += mid - i;
+                to[k] = from[j++];
+            } else to[k] = from[i++];
+        return result;
+    }
+
+    private static class CountTask<X> extends RecursiveTask<Long> {
+        CountTask(X[] a, X[] aux, int lo, int hi, Comparator<? super X> comparator) {
+            this.a = a;
+            this.aux = aux;
+            this.lo = lo;
+            this.hi = hi;
+            this.comparator = comparator;
+        }
+
+        @Override
+        protected Long compute() {
+            if (hi - lo < PARALLEL_THRESHOLD) return count(a, aux, lo, hi, comparator);
+            final int mid = lo + (hi - lo) / 2;
+            final CountTask<X> left = new CountTask<>(aux, a, lo, mid, comparator);
+            left.fork();
+            final long right = new CountTask<>(aux, a, mid, hi, comparator).compute();
+            return left.join() + right + merge(aux, a, lo, mid, hi, comparator);
+        }
+
+        private final X[] a;
+        private final X[] aux;
+        private final int lo;
+        private final int hi;
+        private final Comparator<? super X> comparator;
+    }
+
+    // NOTE: below this size, it isn't worth forking.
+    static final int PARALLEL_THRESHOLD = 8192;
+
+    // NOTE private constructor (utility class)
+    private Inversions() {
+    }
+}
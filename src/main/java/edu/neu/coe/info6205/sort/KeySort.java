@@ -0,0 +1,158 @@
+package edu.neu.coe.info6205.sort;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Class to support sorting by extracted keys (the "Schwartzian transform").
+ * <p>
+ * Each key is computed exactly once, so that n key computations are performed rather than one (or two) per comparison.
+ * The keys are sorted together with the original indices, and the resulting permutation is then applied to the elements.
+ * Primitive (int or long) keys are sorted without any boxing.
+ * All of the sorts are stable.
+ * <p>
+ * NOTE: this is used by the sortBy methods of GenericSort.
+ */
+public final class KeySort {
+
+    /**
+     * Method to sort xs according to int keys.
+     *
+     * @param xs           the array to be sorted (unchanged).
+     * @param keyExtractor a function to yield the key of an X.
+     * @param <X>          the underlying type.
+     * @return a new array with the elements of xs in order of their keys.
+     */
+    public static <X> X[] sortByInt(X[] xs, ToIntFunction<X> keyExtractor) {
+        final int n = xs.length;
+        // NOTE: we pack the key into the high half and the index into the low half of a long:
+        // the system sort of primitives then yields a stable order (and no comparisons of X are required).
+        final long[] packed = new long[n];
+        for (int i = 0; i < n; i++) packed[i] = ((long) keyExtractor.applyAsInt(xs[i]) << 32) | i;
+        Arrays.sort(packed);
+        final X[] result = Arrays.copyOf(xs, n);
+        for (int i = 0; i < n; i++) result[i] = xs[(int) packed[i]];
+        return result;
+    }
+
+    /**
+     * Method to sort xs according to long keys.
+     *
+     * @param xs           the array to be sorted (unchanged).
+     * @param keyExtractor a function to yield the key of an X.
+     * @param <X>          the underlying type.
+     * @return a new array with the elements of xs in order of their keys.
+     */
+    public static <X> X[] sortByLong(X[] xs, ToLongFunction<X> keyExtractor) {
+        final int n = xs.length;
+        final long[] keys = new long[n];
+        for (int i = 0; i < n; i++) keys[i] = keyExtractor.applyAsLong(xs[i]);
+        return permute(xs, orderByLong(keys));
+    }
+
+    /**
+     * Method to sort xs according to Comparable keys.
+     *
+     * @param xs           the array to be sorted (unchanged).
+     * @param keyExtractor a function to yield the key of an X.
+     * @param <X>          the underlying type.
+     * @param <K>          the key type.
+     * @return a new array with the elements of xs in order of their keys.
+     */
+    public static <X, K extends Comparable<K>> X[] sortBy(X[] xs, Function<X, K> keyExtractor) {
+        final int n = xs.length;
+        final Object[] keys = new Object[n];
+        for (int i = 0; i < n; i++) keys[i] = keyExtractor.apply(xs[i]);
+        return permute(xs, orderByComparable(keys));
+    }
+
+    /**
+     * Method to determine the (stable) sorted order of the given keys.
+     *
+     * @param keys an array of long keys (unchanged).
+     * @return an array of indices into keys, in order of the keys.
+     */
+    public static int[] orderByLong(long[] keys) {
+        final int n = keys.length;
+        long[] ks = Arrays.copyOf(keys, n);
+        int[] is = identity(n);
+        long[] auxKs = new long[n];
+        int[] auxIs = new int[n];
+        // NOTE: this is a bottom-up merge sort on the parallel arrays ks and is, which alternate with their aux arrays.
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                final int mid = Math.min(lo + width, n);
+                final int hi = Math.min(lo + 2 * width, n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi)
+                    if (ks[j] < ks[i]) {
+                        auxKs[k] = ks[j];
+                        auxIs[k++] = is[j++];
+                    } else {
+                        auxKs[k] = ks[i];
+                        auxIs[k++] = is[i++];
+                    }
+                System.arraycopy(ks, i, auxKs, k, mid - i);
+                System.arraycopy(is, i, auxIs, k, mid - i);
+                k += mid - i;
+                System.arraycopy(ks, j, auxKs, k, hi - j);
+                System.arraycopy(is, j, auxIs, k, hi - j);
+            }
+            final long[] tk = ks;
+            ks = auxKs;
+            auxKs = tk;
+            final int[] ti = is;
+            is = auxIs;
+            auxIs = ti;
+        }
+        return is;
+    }
+
+    /**
+     * Method to determine the (stable) sorted order of the given Comparable keys.
+     *
+     * @param keys an array of keys (unchanged), each of which must be Comparable with the others.
+     * @return an array of indices into keys, in order of the keys.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int[] orderByComparable(Object[] keys) {
+        final int n = keys.length;
+        int[] is = identity(n);
+        int[] aux = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int lo = 0; lo < n; lo += 2 * width) {
+                final int mid = Math.min(lo + width, n);
+                final int hi = Math.min(lo + 2 * width, n);
+                int i = lo, j = mid, k = lo;
+                while (i < mid && j < hi)
+                    if (((Comparable) keys[is[j]]).compareTo(keys[is[i]]) < 0) aux[k++] = is[j++];
+                    else aux[k++] = is[i++];
+                System.arraycopy(is, i, aux, k, mid - i);
+                k += mid - i;
+                System.arraycopy(is, j, aux, k, hi - j);
+            }
+            final int[] t = is;
+            is = aux;
+            aux = t;
+        }
+        return is;
+    }
+
+    private static <X> X[] permute(X[] xs, int[] order) {
+        final X[] result = Arrays.copyOf(xs, xs.length);
+        for (int i = 0; i < order.length; i++) result[i] = xs[order[i]];
+        return result;
+    }
+
+    private static int[] identity(int n) {
+        final int[] result = new int[n];
+        for (int i = 0; i < n; i++) result[i] = i;
+        return result;
+    }
+
+    // NOTE private constructor (utility class)
+    private KeySort() {
+    }
+}
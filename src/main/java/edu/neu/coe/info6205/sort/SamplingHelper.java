@@ -0,0 +1,272 @@
+package edu.neu.coe.info6205.sort;
+
+import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.LazyLogger;
+import edu.neu.coe.info6205.util.StatPack;
+import edu.neu.coe.info6205.util.Statistics;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static edu.neu.coe.info6205.sort.InstrumentedHelper.COMPARES;
+import static edu.neu.coe.info6205.sort.InstrumentedHelper.COPIES;
+import static edu.neu.coe.info6205.sort.InstrumentedHelper.SWAPS;
+import static edu.neu.coe.info6205.util.Utilities.formatWhole;
+
+/**
+ * Helper class which instruments only a sample of the sorts which it helps, i.e. (on average) one in every period sorts.
+ * It is intended for profiling sorts in production, where the overhead of InstrumentedHelper would be unacceptable.
+ * <p>
+ * A sort invocation begins with a call to init.
+ * For a sampled invocation, compares, swaps and copies are counted (but not fixes or inversions which are expensive)
+ * and the counts are added to the StatPack when the invocation is over.
+ * For any other invocation, instrumented() yields false so that the sort methods take their fast paths,
+ * and the only overhead is one (predictable) test of a boolean for each helper operation.
+ * <p>
+ * The StatPack yields the mean (per invocation) of each count, from which the total for all invocations is estimated,
+ * together with a confidence interval.
+ * The gap between sampled invocations is random (with mean period) so as to avoid any aliasing with periodic workloads.
+ * <p>
+ * NOTE: like BaseHelper, this class is not thread-safe.
+ *
+ * @param <X> the underlying type (must be Comparable).
+ */
+public class SamplingHelper<X extends Comparable<X>> extends BaseHelper<X> {
+
+    final static LazyLogger logger = new LazyLogger(SamplingHelper.class);
+
+    /**
+     * @return true only if the current sort invocation is being sampled.
+     */
+    @Override
+    public boolean instrumented() {
+        return sampling;
+    }
+
+    @Override
+    public boolean less(X v, X w) {
+        if (sampling) compares++;
+        return doCompare(v, w) < 0;
+    }
+
+    @Override
+    public int compare(X[] xs, int i, int j) {
+        if (sampling) compares++;
+        return doCompare(xs[i], xs[j]);
+    }
+
+    @Override
+    public int compare(X v, X w) {
+        if (sampling) compares++;
+        return doCompare(v, w);
+    }
+
+    @Override
+    public void swap(X[] xs, int i, int j) {
+        if (sampling) swaps++;
+        super.swap(xs, i, j);
+    }
+
+    @Override
+    public void swapInto(X[] xs, int i, int j) {
+        if (sampling && j > i) swaps += j - i;
+        super.swapInto(xs, i, j);
+    }
+
+    /**
+     * NOTE: the default method writes the array directly (not via swap) so we must count the swap here.
+     */
+    @Override
+    public boolean swapConditional(X[] xs, int i, int j) {
+        if (sampling) compares++;
+        final boolean result = doCompare(xs[i], xs[j]) > 0;
+        if (result) swap(xs, i, j);
+        return result;
+    }
+
+    /**
+     * NOTE: the default method writes the array directly (not via swap) so we must count the swap here.
+     */
+    @Override
+    public boolean swapStableConditional(X[] xs, int i) {
+        final X v = xs[i];
+        final X w = xs[i - 1];
+        if (sampling) compares++;
+        final boolean result = doCompare(v, w) < 0;
+        if (result) {
+            if (sampling) swaps++;
+            xs[i] = w;
+            xs[i - 1] = v;
+        }
+        return result;
+    }
+
+    @Override
+    public void copy(X[] source, int i, X[] target, int j) {
+        if (sampling) copies++;
+        target[j] = source[i];
+    }
+
+    @Override
+    public void incrementCopies(int n) {
+        if (sampling) copies += n;
+    }
+
+    /**
+     * Initialize this Helper, i.e. begin a new sort invocation, which may or may not be sampled.
+     *
+     * @param n the size to be managed.
+     */
+    @Override
+    public void init(int n) {
+        record();
+        super.init(n);
+        // NOTE: a long-running SamplingHelper may take very many samples so its statistics are streaming.
+        if (statPack == null) statPack = new StatPack(true, n, COMPARES, SWAPS, COPIES);
+        invocations++;
+        if (--countdown <= 0) {
+            sampling = true;
+            // NOTE: the gap is uniformly distributed in 1 thru 2*period-1 (so its mean is period).
+            countdown = period == 1 ? 1 : 1 + sampler.nextInt(2 * period - 1);
+        }
+    }
+
+    /**
+     * Method to post-process the array xs after sorting.
+     * If the current invocation was sampled, its counts are added to the StatPack.
+     *
+     * @param xs the array which has been sorted.
+     */
+    @Override
+    public void postProcess(X[] xs) {
+        super.postProcess(xs);
+        record();
+    }
+
+    /**
+     * Method to estimate the total of the given count over all sort invocations.
+     *
+     * @param key one of COMPARES, SWAPS or COPIES.
+     * @return the (scaled) estimate, or NaN if there have been no samples.
+     */
+    public double estimateTotal(String key) {
+        record();
+        return getStatistics(key).mean() * invocations;
+    }
+
+    /**
+     * Method to yield an approximate 95% confidence interval for the total of the given count over all sort invocations.
+     *
+     * @param key one of COMPARES, SWAPS or COPIES.
+     * @return an array of two elements: the lower and upper bounds.
+     */
+    public double[] confidenceIntervalTotal(String key) {
+        final double estimate = estimateTotal(key);
+        final double halfWidth = Z_95 * getStatistics(key).standardError() * invocations;
+        return new double[]{estimate - halfWidth, estimate + halfWidth};
+    }
+
+    /**
+     * @return the number of sort invocations so far.
+     */
+    public long getInvocations() {
+        return invocations;
+    }
+
+    /**
+     * @return the number of sort invocations which have been sampled (and recorded) so far.
+     */
+    public int getSamples() {
+        return statPack == null ? 0 : statPack.getCount(COMPARES);
+    }
+
+    public StatPack getStatPack() {
+        return statPack;
+    }
+
+    @Override
+    public String toString() {
+        return "Sampling helper (1 in " + period + ") for " + description + " with " + formatWhole(n) + " elements";
+    }
+
+    @Override
+    public void close() {
+        if (getSamples() > 0)
+            logger.info("Closing Helper: " + description + " with " + getSamples() + " samples from " + formatWhole(invocations) + " invocations: " + statPack);
+        super.close();
+    }
+
+    /**
+     * Constructor for explicit sampling period, random number generator and comparator.
+     *
+     * @param description the description of this Helper (for humans).
+     * @param n           the number of elements expected to be sorted. The field n is mutable so can be set after the constructor.
+     * @param period      the mean number of sort invocations per sample (1 means that every invocation is sampled).
+     * @param random      a random number generator.
+     * @param comparator  the comparator to be used for all comparisons (if null, the natural ordering of X is used).
+     */
+    public SamplingHelper(String description, int n, int period, Random random, Comparator<X> comparator) {
+        super(description, n, random, comparator);
+        if (period < 1) throw new HelperException("SamplingHelper: period must be positive: " + period);
+        this.period = period;
+        // NOTE: we use a separate random number generator so that sampling decisions are not interleaved with the generation of random arrays.
+        this.sampler = new Random(random.nextLong());
+        this.countdown = 1 + sampler.nextInt(period);
+    }
+
+    /**
+     * Constructor for explicit sampling period.
+     *
+     * @param description the description of this Helper (for humans).
+     * @param n           the number of elements expected to be sorted.
+     * @param period      the mean number of sort invocations per sample.
+     * @param seed        the seed for the random number generator.
+     */
+    public SamplingHelper(String description, int n, int period, long seed) {
+        this(description, n, period, new Random(seed), null);
+    }
+
+    /**
+     * Constructor to create a SamplingHelper according to the configuration.
+     *
+     * @param description the description of this Helper (for humans).
+     * @param n           the number of elements expected to be sorted.
+     * @param comparator  the comparator to be used for all comparisons (if null, the natural ordering of X is used).
+     * @param config      the configuration (in particular, the value of sampling in the helper section).
+     */
+    public SamplingHelper(String description, int n, Comparator<X> comparator, Config config) {
+        this(description, n, config.freeze().getInt(Config.HELPER, SAMPLING, 1), new Random(config.freeze().getLong(Config.HELPER, "seed", System.currentTimeMillis())), comparator);
+    }
+
+    private void record() {
+        if (sampling) {
+            statPack.add(COMPARES, compares);
+            statPack.add(SWAPS, swaps);
+            statPack.add(COPIES, copies);
+            compares = 0;
+            swaps = 0;
+            copies = 0;
+            sampling = false;
+        }
+    }
+
+    private Statistics getStatistics(String key) {
+        if (statPack == null) throw new HelperException("SamplingHelper: not initialized");
+        return statPack.getStatistics(key);
+    }
+
+    public static final String SAMPLING = "sampling";
+
+    // NOTE: the standard normal quantile for a two-sided 95% confidence interval.
+    private static final double Z_95 = 1.96;
+
+    private final int period;
+    private final Random sampler;
+    private StatPack statPack;
+    private int countdown;
+    private long invocations = 0;
+    private boolean sampling = false;
+    private long compares = 0;
+    private long swaps = 0;
+    private long copies = 0;
+}
@@ -2,6 +2,9 @@ package edu.neu.coe.info6205.sort;
 
 import edu.neu.coe.info6205.util.Config;
 
+import java.util.Arrays;
+import java.util.Comparator;
+
 public abstract class SortWithHelper<X extends Comparable<X>> implements Sort<X> {
 
 
@@ -12,6 +15,37 @@ public abstract class SortWithHelper<X extends Comparable<X>> implements Sort<X>
     public SortWithHelper(String description, int N, Config config) {
         this(HelperFactory.create(description, N, config));
         closeHelper = true;
+        this.config = config;
+    }
+
+    /**
+     * Constructor for a SortWithHelper which sorts according to an explicit comparator.
+     *
+     * @param description the description.
+     * @param N           the number of elements expected.
+     * @param comparator  the comparator (if null, the natural ordering of X is used).
+     * @param config      the configuration.
+     */
+    public SortWithHelper(String description, int N, Comparator<X> comparator, Config config) {
+        this(HelperFactory.create(description, N, comparator, config));
+        closeHelper = true;
+        this.config = config;
+    }
+
+    /**
+     * Generic sort method which allows for explicit determination of the makeCopy option.
+     * All of the other array sort methods (sort, mutatingSort) invoke this method.
+     * NOTE: a subclass which overrides this method must itself invoke init(xs) (rather than init(xs.length)).
+     *
+     * @param xs       sort the array xs, returning the sorted result, leaving xs unchanged (if makeCopy is true).
+     * @param makeCopy if set to true, we make a copy first and sort that.
+     */
+    @Override
+    public X[] sort(X[] xs, boolean makeCopy) {
+        init(xs);
+        X[] result = makeCopy ? Arrays.copyOf(xs, xs.length) : xs;
+        sort(result, 0, result.length);
+        return result;
     }
 
     /**
@@ -33,6 +67,17 @@ public abstract class SortWithHelper<X extends Comparable<X>> implements Sort<X>
         getHelper().init(n);
     }
 
+    /**
+     * Perform initializing step for this Sort, given the array to be sorted:
+     * the cutoff of the helper is set according to the type of the elements (see setCutoff).
+     *
+     * @param xs the array to be sorted.
+     */
+    protected void init(X[] xs) {
+        setCutoff(xs.getClass().getComponentType());
+        init(xs.length);
+    }
+
     /**
      * Perform pre-processing step for this Sort.
      *
@@ -63,7 +108,22 @@ public abstract class SortWithHelper<X extends Comparable<X>> implements Sort<X>
         if (closeHelper) helper.close();
     }
 
+    /**
+     * Method to set the cutoff of the helper to the calibrated cutoff for the type of the elements (see HelperFactory.getCutoff),
+     * which is not known until an array is sorted.
+     * NOTE: this applies only to a helper which was created (by HelperFactory) from a configuration.
+     *
+     * @param type the class of the elements.
+     */
+    protected void setCutoff(Class<?> type) {
+        if (config == null || type == cutoffType || !(helper instanceof BaseHelper)) return;
+        cutoffType = type;
+        ((BaseHelper<X>) helper).setCutoff(HelperFactory.getCutoff(config, helper.getDescription(), type));
+    }
+
     private final Helper<X> helper;
     protected boolean closeHelper = false;
+    private Config config = null;
+    private Class<?> cutoffType = null;
 
 }
@@ -0,0 +1,497 @@
+package edu.neu.coe.info6205.sort.lsm;
+
+import edu.neu.coe.info6205.sort.simple.InsertionSortOpt;
+import edu.neu.coe.info6205.sort.simple.TimSort;
+import edu.neu.coe.info6205.util.LazyLogger;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Sorted container for append-heavy workloads, organized like a (single-node, in-memory) LSM tree.
+ * <p>
+ * Appended elements are collected in a fixed-size buffer.
+ * When the buffer fills, it is sorted (by insertion sort if it is small, otherwise by Timsort) to form a "run."
+ * Runs are merged into a sequence of levels whose capacities grow geometrically by ratio:
+ * level i holds at most one run of at most bufferSize * ratio^i elements.
+ * Thus each element is copied O(log n) times in total, rather than O(n log n) work being done for each query.
+ * <p>
+ * Runs are never mutated once created, so queries take a snapshot of the current runs and merge them lazily
+ * without holding the lock.
+ * If an Executor is supplied, the merging of runs into levels (compaction) takes place on that executor;
+ * until then, the pending runs are visible to queries in the same way as the levels.
+ * <p>
+ * NOTE: elements which compare as equal are yielded in the order in which they were appended.
+ *
+ * @param <X> the underlying type (must be Comparable).
+ */
+public class LSMSortedBuffer<X extends Comparable<X>> implements Iterable<X> {
+
+    /**
+     * Constructor for an LSMSortedBuffer.
+     *
+     * @param bufferSize the number of elements buffered before being sorted into a run.
+     * @param ratio      the ratio of the capacities of successive levels (at least 2).
+     * @param executor   the executor on which to perform compaction (if null, compaction is done synchronously).
+     */
+    public LSMSortedBuffer(int bufferSize, int ratio, Executor executor) {
+        if (bufferSize < 1) throw new IllegalArgumentException("LSMSortedBuffer: bufferSize must be positive");
+        if (ratio < 2) throw new IllegalArgumentException("LSMSortedBuffer: ratio must be at least 2");
+        this.bufferSize = bufferSize;
+        this.ratio = ratio;
+        this.executor = executor;
+        this.buffer = newArray(bufferSize);
+    }
+
+    /**
+     * Constructor for an LSMSortedBuffer which compacts synchronously.
+     *
+     * @param bufferSize the number of elements buffered before being sorted into a run.
+     * @param ratio      the ratio of the capacities of successive levels (at least 2).
+     */
+    public LSMSortedBuffer(int bufferSize, int ratio) {
+        this(bufferSize, ratio, null);
+    }
+
+    /**
+     * Constructor for an LSMSortedBuffer which compacts synchronously, with a level ratio of 2.
+     *
+     * @param bufferSize the number of elements buffered before being sorted into a run.
+     */
+    public LSMSortedBuffer(int bufferSize) {
+        this(bufferSize, 2);
+    }
+
+    /**
+     * Append an element.
+     *
+     * @param x the element to append.
+     */
+    public synchronized void add(X x) {
+        buffer[count++] = x;
+        metrics.appends++;
+        if (count == bufferSize) flush();
+    }
+
+    /**
+     * Append all of the given elements.
+     *
+     * @param xs the elements to append.
+     */
+    public void addAll(X[] xs) {
+        for (X x : xs) add(x);
+    }
+
+    /**
+     * Sort the current contents of the buffer (if any) into a run and schedule it for compaction.
+     */
+    public synchronized void flush() {
+        if (count == 0) return;
+        final X[] run = Arrays.copyOf(buffer, count);
+        Arrays.fill(buffer, 0, count, null);
+        count = 0;
+        sortRun(run);
+        metrics.flushes++;
+        pending.add(run);
+        if (executor == null) compactPending();
+        else scheduleCompaction();
+    }
+
+    /**
+     * Merge all runs (including the contents of the buffer) into a single run on the top level.
+     * This operation is performed synchronously, regardless of whether there is an executor.
+     */
+    public synchronized void compact() {
+        flush();
+        compactPending();
+        final Tally tally = new Tally();
+        X[] result = null;
+        for (int i = 0; i < levels.size(); i++) {
+            final X[] run = levels.get(i);
+            if (run == null) continue;
+            result = result == null ? run : merge(run, result, tally);
+            levels.set(i, null);
+        }
+        if (result == null) return;
+        levelsVersion++;
+        metrics.add(tally);
+        metrics.compactions++;
+        int level = 0;
+        while (result.length > capacity(level)) level++;
+        while (levels.size() <= level) levels.add(null);
+        levels.set(level, result);
+    }
+
+    /**
+     * @return the total number of elements (sorted or not) in this LSMSortedBuffer.
+     */
+    public synchronized int size() {
+        int result = count;
+        for (X[] run : pending) result += run.length;
+        for (X[] run : levels) if (run != null) result += run.length;
+        return result;
+    }
+
+    /**
+     * @return an iterator over all elements in order.
+     */
+    @Override
+    public Iterator<X> iterator() {
+        return new MergingIterator(snapshot(), null, null);
+    }
+
+    /**
+     * Method to yield, in order, the elements x such that lo &lt;= x &lt; hi.
+     * The levels are merged lazily, i.e. only as the resulting iterator is advanced.
+     *
+     * @param lo the lower bound (inclusive); if null, there is no lower bound.
+     * @param hi the upper bound (exclusive); if null, there is no upper bound.
+     * @return an Iterable of X.
+     */
+    public Iterable<X> range(X lo, X hi) {
+        final List<X[]> runs = snapshot();
+        return () -> new MergingIterator(runs, lo, hi);
+    }
+
+    /**
+     * @return all of the elements, in order, as a new list.
+     */
+    public List<X> toList() {
+        final List<X> result = new ArrayList<>(size());
+        for (X x : this) result.add(x);
+        return result;
+    }
+
+    /**
+     * @return the metrics of this LSMSortedBuffer.
+     */
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public String toString() {
+        return "LSMSortedBuffer{bufferSize=" + bufferSize + ", ratio=" + ratio + ", size=" + size() + ", " + metrics + "}";
+    }
+
+    /**
+     * Class to keep track of the cost of maintaining an LSMSortedBuffer.
+     * All of the costs are amortized over the number of appends.
+     */
+    public class Metrics {
+
+        public long getAppends() {
+            synchronized (LSMSortedBuffer.this) {
+                return appends;
+            }
+        }
+
+        public long getFlushes() {
+            synchronized (LSMSortedBuffer.this) {
+                return flushes;
+            }
+        }
+
+        public long getMerges() {
+            synchronized (LSMSortedBuffer.this) {
+                return merges;
+            }
+        }
+
+        public long getCompactions() {
+            synchronized (LSMSortedBuffer.this) {
+                return compactions;
+            }
+        }
+
+        public long getCopies() {
+            synchronized (LSMSortedBuffer.this) {
+                return copies;
+            }
+        }
+
+        public long getCompares() {
+            synchronized (LSMSortedBuffer.this) {
+                return compares;
+            }
+        }
+
+        /**
+         * @return the mean number of copies (during merges) per append.
+         */
+        public double amortizedCopies() {
+            synchronized (LSMSortedBuffer.this) {
+                return appends == 0 ? 0 : (double) copies / appends;
+            }
+        }
+
+        /**
+         * @return the mean number of compares (during merges) per append.
+         */
+        public double amortizedCompares() {
+            synchronized (LSMSortedBuffer.this) {
+                return appends == 0 ? 0 : (double) compares / appends;
+            }
+        }
+
+        @Override
+        public String toString() {
+            synchronized (LSMSortedBuffer.this) {
+                return "Metrics{appends=" + appends + ", flushes=" + flushes + ", merges=" + merges + ", compactions=" + compactions +
+                        ", copies/append=" + amortizedCopies() + ", compares/append=" + amortizedCompares() + "}";
+            }
+        }
+
+        private void add(Tally tally) {
+            merges += tally.merges;
+            copies += tally.copies;
+            compares += tally.compares;
+        }
+
+        private long appends = 0;
+        private long flushes = 0;
+        private long merges = 0;
+        private long compactions = 0;
+        private long copies = 0;
+        private long compares = 0;
+    }
+
+    /**
+     * Iterator which performs a k-way merge of sorted runs, using a heap of cursors.
+     * Ties are broken according to the age of the run so that the result is stable.
+     */
+    private class MergingIterator implements Iterator<X> {
+
+        MergingIterator(List<X[]> runs, X lo, X hi) {
+            this.hi = hi;
+            for (int i = 0; i < runs.size(); i++) {
+                final X[] run = runs.get(i);
+                final int start = lo == null ? 0 : lowerBound(run, lo);
+                if (start < run.length && inRange(run[start])) heap.add(new Cursor(run, start, i));
+            }
+        }
+
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        public X next() {
+            final Cursor cursor = heap.poll();
+            if (cursor == null) throw new NoSuchElementException();
+            final X result = cursor.current();
+            if (++cursor.index < cursor.run.length && inRange(cursor.current())) heap.add(cursor);
+            return result;
+        }
+
+        private boolean inRange(X x) {
+            return hi == null || x.compareTo(hi) < 0;
+        }
+
+        private final X hi;
+        private final PriorityQueue<Cursor> heap = new PriorityQueue<>();
+    }
+
+    private class Cursor implements Comparable<Cursor> {
+        Cursor(X[] run, int index, int age) {
+            this.run = run;
+            this.index = index;
+            this.age = age;
+        }
+
+        X current() {
+            return run[index];
+        }
+
+        public int compareTo(Cursor o) {
+            final int cf = current().compareTo(o.current());
+            return cf != 0 ? cf : Integer.compare(age, o.age);
+        }
+
+        final X[] run;
+        final int age;
+        int index;
+    }
+
+    /**
+     * Method to take a snapshot of the current runs, oldest first.
+     * The unsorted buffer is sorted (as a copy) so that it may be included.
+     *
+     * @return a list of sorted runs.
+     */
+    private synchronized List<X[]> snapshot() {
+        final List<X[]> result = new ArrayList<>();
+        for (int i = levels.size() - 1; i >= 0; i--) if (levels.get(i) != null) result.add(levels.get(i));
+        result.addAll(pending);
+        if (count > 0) {
+            final X[] run = Arrays.copyOf(buffer, count);
+            sortRun(run);
+            result.add(run);
+        }
+        return result;
+    }
+
+    private void sortRun(X[] run) {
+        if (run.length <= INSERTION_SORT_THRESHOLD) insertionSort.sort(run, 0, run.length);
+        else timSort.sort(run, 0, run.length);
+    }
+
+    /**
+     * Method to merge the pending runs into the levels on the executor.
+     * The merging is done on a copy of the levels, without holding the lock, so that appends and queries may proceed.
+     * The result is installed only if the levels have not been changed in the meantime (by compact).
+     */
+    private void compactPendingAsync() {
+        try {
+            final List<X[]> runs;
+            final List<X[]> work;
+            final long version;
+            synchronized (this) {
+                runs = new ArrayList<>(pending);
+                work = new ArrayList<>(levels);
+                version = levelsVersion;
+            }
+            final Tally tally = new Tally();
+            for (X[] run : runs) insert(work, run, tally);
+            synchronized (this) {
+                if (version == levelsVersion) {
+                    levels.clear();
+                    levels.addAll(work);
+                    pending.subList(0, runs.size()).clear();
+                    levelsVersion++;
+                    metrics.add(tally);
+                }
+            }
+        } catch (RuntimeException e) {
+            logger.warn("LSMSortedBuffer: compaction failed", e);
+        } finally {
+            synchronized (this) {
+                compactionScheduled = false;
+                if (!pending.isEmpty()) scheduleCompaction();
+            }
+        }
+    }
+
+    /**
+     * Method to schedule the compaction of pending runs on the executor.
+     * NOTE: must be called while holding the lock.
+     */
+    private void scheduleCompaction() {
+        if (compactionScheduled) return;
+        compactionScheduled = true;
+        executor.execute(this::compactPendingAsync);
+    }
+
+    /**
+     * Method to merge each of the pending runs into the levels.
+     * NOTE: must be called while holding the lock.
+     */
+    private void compactPending() {
+        if (pending.isEmpty()) return;
+        final Tally tally = new Tally();
+        for (X[] run : pending) insert(levels, run, tally);
+        pending.clear();
+        levelsVersion++;
+        metrics.add(tally);
+    }
+
+    /**
+     * Method to insert the given run at level 0, cascading merges up the levels as necessary.
+     *
+     * @param levels the levels into which run will be inserted.
+     * @param run    a sorted run which is newer than all of the runs in the levels.
+     * @param tally  the tally of merge costs.
+     */
+    private void insert(List<X[]> levels, X[] run, Tally tally) {
+        int level = 0;
+        while (true) {
+            if (levels.size() <= level) levels.add(null);
+            final X[] existing = levels.get(level);
+            if (existing != null) {
+                run = merge(existing, run, tally);
+                levels.set(level, null);
+            }
+            if (run.length <= capacity(level)) {
+                levels.set(level, run);
+                return;
+            }
+            level++;
+        }
+    }
+
+    private long capacity(int level) {
+        long result = bufferSize;
+        for (int i = 0; i < level; i++) result *= ratio;
+        return result;
+    }
+
+    /**
+     * Stable merge of two sorted runs.
+     *
+     * @param older the older run (whose elements precede equal elements of newer).
+     * @param newer the newer run.
+     * @param tally the tally of merge costs.
+     * @return a new sorted run.
+     */
+    private X[] merge(X[] older, X[] newer, Tally tally) {
+        final X[] result = newArray(older.length + newer.length);
+        int i = 0, j = 0, k = 0;
+        while (i < older.length && j < newer.length) {
+            tally.compares++;
+            if (newer[j].compareTo(older[i]) < 0) result[k++] = newer[j++];
+            else result[k++] = older[i++];
+        }
+        while (i < older.length) result[k++] = older[i++];
+        while (j < newer.length) result[k++] = newer[j++];
+        tally.copies += k;
+        tally.merges++;
+        return result;
+    }
+
+    /**
+     * The costs of a sequence of merges, which is accumulated without holding the lock.
+     */
+    private static class Tally {
+        long merges = 0;
+        long copies = 0;
+        long compares = 0;
+    }
+
+    private int lowerBound(X[] run, X key) {
+        int low = 0;
+        int high = run.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (run[mid].compareTo(key) < 0) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    @SuppressWarnings("unchecked")
+    private X[] newArray(int n) {
+        // NOTE the erasure of X is Comparable, so this cast is safe so long as no run escapes from this class.
+        return (X[]) new Comparable[n];
+    }
+
+    private static final int INSERTION_SORT_THRESHOLD = 32;
+
+    final static LazyLogger logger = new LazyLogger(LSMSortedBuffer.class);
+
+    private final int bufferSize;
+    private final int ratio;
+    private final Executor executor;
+    private final X[] buffer;
+    private final List<X[]> pending = new ArrayList<>();
+    private final List<X[]> levels = new ArrayList<>();
+    private final Metrics metrics = new Metrics();
+    private final InsertionSortOpt<X> insertionSort = new InsertionSortOpt<>();
+    private final TimSort<X> timSort = new TimSort<>();
+    private int count = 0;
+    private boolean compactionScheduled = false;
+    private long levelsVersion = 0;
+}
@@ -1,9 +1,10 @@
 package edu.neu.coe.info6205.sort.par;
 
-import java.io.BufferedWriter;
-import java.io.FileOutputStream;
+import edu.neu.coe.info6205.util.CSVResultWriter;
+import edu.neu.coe.info6205.util.FileData;
+
+import java.io.File;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Map;
@@ -15,6 +16,7 @@ import java.util.concurrent.ForkJoinPool;
 /**
  * This code has been fleshed out by Ziyao Qiao. Thanks very much.
  * TODO tidy it up a bit.
+ * NOTE: for a calibration of the cutoff and pool size which is persisted in config.ini (and used by ParSort), see Autotuner.
  */
 public class Main {
 
@@ -47,19 +49,14 @@ public class Main {
             System.out.println("cutoff：" + (ParSort.cutoff) + "\t\t10times Time:" + time + "ms");
 
         }
-        try {
-            FileOutputStream fis = new FileOutputStream("./src/result.csv");
-            OutputStreamWriter isr = new OutputStreamWriter(fis);
-            BufferedWriter bw = new BufferedWriter(isr);
+        // NOTE the rows are buffered and flushed once, when the writer is closed (rather than after each row).
+        try (CSVResultWriter<FileData> writer = new CSVResultWriter<>(new File("./src/result.csv"), null, false, 0)) {
             int j = 0;
             for (long i : timeList) {
                 String content = (double) cutOff * (j + 1) / arraySize + "," + (double) i / 10 + "\n";
                 j++;
-                bw.write(content);
-                bw.flush();
+                writer.write(() -> content);
             }
-            bw.close();
-
         } catch (IOException e) {
             e.printStackTrace();
         }
@@ -1,7 +1,9 @@
 package edu.neu.coe.info6205.sort.par;
 
 import edu.neu.coe.info6205.sort.Helper;
+import edu.neu.coe.info6205.util.Config;
 
+import java.io.IOException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
 import java.util.Arrays;
@@ -11,11 +13,38 @@ import java.util.concurrent.CompletableFuture;
  * This code has been fleshed out by Ziyao Qiao. Thanks very much.
  * TODO tidy it up a bit.
  */
-class ParSort {
+public class ParSort {
 
     public static int cutoff = 1000;
     public static ForkJoinPool pool = null;
 
+    /**
+     * Method to set cutoff and pool according to the parsort section of config (as calibrated by Autotuner).
+     * Options which are not set leave the current values unchanged.
+     * A pool which is replaced is shut down (tasks already submitted to it still run to completion).
+     *
+     * @param config the configuration.
+     */
+    public static void configure(Config config) {
+        cutoff = config.getInt(PARSORT, "cutoff", cutoff);
+        final int threads = config.getInt(PARSORT, "threads", 0);
+        if (threads > 0) {
+            final ForkJoinPool previous = pool;
+            pool = new ForkJoinPool(threads);
+            if (previous != null) previous.shutdown();
+        }
+    }
+
+    public static final String PARSORT = "parsort";
+
+    static {
+        try {
+            configure(Config.load(ParSort.class));
+        } catch (IOException e) {
+            // NOTE without config.ini, we use the defaults.
+        }
+    }
+
     public static void sort(int[] array, int from, int to) {
         if (to - from < cutoff) Arrays.sort(array, from, to);
         else {
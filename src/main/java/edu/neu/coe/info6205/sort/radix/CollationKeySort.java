@@ -0,0 +1,120 @@
+package edu.neu.coe.info6205.sort.radix;
+
+import java.text.Collator;
+import java.util.Locale;
+
+/**
+ * <h1>Collation Key Sort</h1>
+ * Locale-aware string sort which avoids invoking Collator.compare inside a comparison sort.
+ * <p>
+ * Instead, the CollationKey of each string is computed once and converted to a byte array.
+ * The byte arrays (which compare in the same order as the strings according to the collator)
+ * are then sorted by an MSD radix sort, and the resulting permutation is applied to the strings.
+ * The sort is stable.
+ * <p>
+ * NOTE: Collator is not thread-safe, so an instance of this class should not be shared between threads.
+ */
+public class CollationKeySort {
+
+    /**
+     * Constructor for a CollationKeySort based on an explicit Collator.
+     *
+     * @param collator the collator which defines the order of the strings.
+     */
+    public CollationKeySort(Collator collator) {
+        this.collator = collator;
+    }
+
+    /**
+     * Constructor for a CollationKeySort based on the Collator for the given locale.
+     *
+     * @param locale the locale which defines the order of the strings.
+     */
+    public CollationKeySort(Locale locale) {
+        this(Collator.getInstance(locale));
+    }
+
+    /**
+     * sort method is implementation of collation key sort.
+     *
+     * @param strArr It contains an array of String on which the sort needs to be performed (in place)
+     */
+    public void sort(String[] strArr) {
+        sort(strArr, 0, strArr.length);
+    }
+
+    /**
+     * sort method is implementation of collation key sort.
+     *
+     * @param strArr It contains an array of String on which the sort needs to be performed (in place)
+     * @param from   This is the index of the first element to be sorted
+     * @param to     This is the index of the first element not to be sorted
+     */
+    public void sort(String[] strArr, int from, int to) {
+        final int n = to - from;
+        if (n < 2) return;
+        final byte[][] keys = new byte[n][];
+        final int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = collator.getCollationKey(strArr[from + i]).toByteArray();
+            indices[i] = i;
+        }
+        msdSort(keys, indices, new int[n], 0, n, 0);
+        final String[] result = new String[n];
+        for (int i = 0; i < n; i++) result[i] = strArr[from + indices[i]];
+        System.arraycopy(result, 0, strArr, from, n);
+    }
+
+    /**
+     * Method to sort indices[lo..hi) according to the keys, given that all keys in that range agree on the first d bytes.
+     *
+     * @param keys    the collation keys (indexed by the values of indices).
+     * @param indices the indices to be sorted.
+     * @param aux     auxiliary array for distribution.
+     * @param lo      the index of the first element to sort.
+     * @param hi      the index of the first element not to sort.
+     * @param d       the byte position on which to distribute.
+     */
+    private void msdSort(byte[][] keys, int[] indices, int[] aux, int lo, int hi, int d) {
+        if (hi - lo <= CUTOFF) {
+            insertionSort(keys, indices, lo, hi, d);
+            return;
+        }
+        // NOTE keys which have ended are counted in count[1] and byte value r is counted in count[r+2].
+        final int[] count = new int[RADIX + 2];
+        for (int i = lo; i < hi; i++) count[byteAt(keys[indices[i]], d) + 2]++;
+        for (int r = 0; r < RADIX + 1; r++) count[r + 1] += count[r];
+        for (int i = lo; i < hi; i++) aux[count[byteAt(keys[indices[i]], d) + 1]++] = indices[i];
+        System.arraycopy(aux, 0, indices, lo, hi - lo);
+        // NOTE now byte value r occupies [count[r], count[r+1]) while keys which have ended occupy [0, count[0]).
+        // The latter are all equal, so there is nothing more to do for them.
+        for (int r = 0; r < RADIX; r++) msdSort(keys, indices, aux, lo + count[r], lo + count[r + 1], d + 1);
+    }
+
+    private static void insertionSort(byte[][] keys, int[] indices, int lo, int hi, int d) {
+        for (int i = lo + 1; i < hi; i++)
+            for (int j = i; j > lo && less(keys[indices[j]], keys[indices[j - 1]], d); j--) {
+                final int t = indices[j];
+                indices[j] = indices[j - 1];
+                indices[j - 1] = t;
+            }
+    }
+
+    private static boolean less(byte[] v, byte[] w, int d) {
+        final int n = Math.min(v.length, w.length);
+        for (int i = d; i < n; i++) {
+            final int cf = (v[i] & 0xFF) - (w[i] & 0xFF);
+            if (cf != 0) return cf < 0;
+        }
+        return v.length < w.length;
+    }
+
+    private static int byteAt(byte[] key, int d) {
+        return d < key.length ? key[d] & 0xFF : -1;
+    }
+
+    private static final int RADIX = 256;
+    private static final int CUTOFF = 15;
+
+    private final Collator collator;
+}
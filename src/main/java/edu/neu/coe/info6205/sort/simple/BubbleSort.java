@@ -8,6 +8,8 @@ import edu.neu.coe.info6205.sort.Helper;
 import edu.neu.coe.info6205.sort.SortWithHelper;
 import edu.neu.coe.info6205.util.Config;
 
+import java.util.Comparator;
+
 public class BubbleSort<X extends Comparable<X>> extends SortWithHelper<X> {
 
     /**
@@ -20,6 +22,26 @@ public class BubbleSort<X extends Comparable<X>> extends SortWithHelper<X> {
         super(DESCRIPTION, N, config);
     }
 
+    /**
+     * Constructor for BubbleSort which sorts according to an explicit comparator.
+     *
+     * @param N          the number elements we expect to sort.
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     * @param config     the configuration.
+     */
+    public BubbleSort(int N, Comparator<X> comparator, Config config) {
+        super(DESCRIPTION, N, comparator, config);
+    }
+
+    /**
+     * Constructor for BubbleSort which sorts according to an explicit comparator.
+     *
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     */
+    public BubbleSort(Comparator<X> comparator) {
+        this(new BaseHelper<>(DESCRIPTION, comparator));
+    }
+
     public BubbleSort() {
         this(new BaseHelper<>(DESCRIPTION));
     }
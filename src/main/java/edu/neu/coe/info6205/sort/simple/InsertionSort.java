@@ -8,6 +8,8 @@ import edu.neu.coe.info6205.sort.Helper;
 import edu.neu.coe.info6205.sort.SortWithHelper;
 import edu.neu.coe.info6205.util.Config;
 
+import java.util.Comparator;
+
 public class InsertionSort<X extends Comparable<X>> extends SortWithHelper<X> {
 
     /**
@@ -21,6 +23,18 @@ public class InsertionSort<X extends Comparable<X>> extends SortWithHelper<X> {
         super(description, N, config);
     }
 
+    /**
+     * Constructor for any sub-classes to use, which sorts according to an explicit comparator.
+     *
+     * @param description the description.
+     * @param N           the number of elements expected.
+     * @param comparator  the comparator (if null, the natural ordering of X is used).
+     * @param config      the configuration.
+     */
+    protected InsertionSort(String description, int N, Comparator<X> comparator, Config config) {
+        super(description, N, comparator, config);
+    }
+
     /**
      * Constructor for InsertionSort
      *
@@ -31,6 +45,26 @@ public class InsertionSort<X extends Comparable<X>> extends SortWithHelper<X> {
         this(DESCRIPTION, N, config);
     }
 
+    /**
+     * Constructor for InsertionSort which sorts according to an explicit comparator.
+     *
+     * @param N          the number elements we expect to sort.
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     * @param config     the configuration.
+     */
+    public InsertionSort(int N, Comparator<X> comparator, Config config) {
+        this(DESCRIPTION, N, comparator, config);
+    }
+
+    /**
+     * Constructor for InsertionSort which sorts according to an explicit comparator.
+     *
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     */
+    public InsertionSort(Comparator<X> comparator) {
+        this(new BaseHelper<>(DESCRIPTION, comparator));
+    }
+
     public InsertionSort() {
         this(new BaseHelper<>(DESCRIPTION));
     }
@@ -53,16 +87,11 @@ public class InsertionSort<X extends Comparable<X>> extends SortWithHelper<X> {
      */
     public void sort(X[] xs, int from, int to) {
         final Helper<X> helper = getHelper();
-
-        // TO BE IMPLEMENTED
-        helper.init(xs.length);
-        for (int i = from; i < to; i++) {
-            for (int j = i - 1; j >= 0; j--) {
-                if (xs[j].compareTo(xs[j + 1]) > 0) {
-                    helper.swap(xs, j, j + 1);
-                }
+        // NOTE: all comparisons go through the helper so that they respect its comparator (and are instrumented).
+        for (int i = from + 1; i < to; i++)
+            for (int j = i; j > from && helper.swapStableConditional(xs, j); j--) {
+                // NOTE: the body is empty: the work is done by swapStableConditional.
             }
-        }
     }
 
     /**
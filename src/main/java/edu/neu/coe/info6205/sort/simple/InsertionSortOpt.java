@@ -7,6 +7,8 @@ import edu.neu.coe.info6205.sort.BaseHelper;
 import edu.neu.coe.info6205.sort.Helper;
 import edu.neu.coe.info6205.util.Config;
 
+import java.util.Comparator;
+
 public class InsertionSortOpt<X extends Comparable<X>> extends InsertionSort<X> {
 
     /**
@@ -19,6 +21,26 @@ public class InsertionSortOpt<X extends Comparable<X>> extends InsertionSort<X>
         super(DESCRIPTION, N, config);
     }
 
+    /**
+     * Constructor for InsertionSortOpt which sorts according to an explicit comparator.
+     *
+     * @param N          the number elements we expect to sort.
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     * @param config     the configuration.
+     */
+    public InsertionSortOpt(int N, Comparator<X> comparator, Config config) {
+        super(DESCRIPTION, N, comparator, config);
+    }
+
+    /**
+     * Constructor for InsertionSortOpt which sorts according to an explicit comparator.
+     *
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     */
+    public InsertionSortOpt(Comparator<X> comparator) {
+        this(new BaseHelper<>(DESCRIPTION, comparator));
+    }
+
     public InsertionSortOpt() {
         this(new BaseHelper<>(DESCRIPTION));
     }
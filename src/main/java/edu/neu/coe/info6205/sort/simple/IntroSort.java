@@ -8,6 +8,7 @@ import edu.neu.coe.info6205.sort.Helper;
 import edu.neu.coe.info6205.util.Config;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 public class IntroSort<X extends Comparable<X>> extends QuickSort_DualPivot<X> {
 
@@ -43,13 +44,33 @@ public class IntroSort<X extends Comparable<X>> extends QuickSort_DualPivot<X> {
         super(DESCRIPTION, N, config);
     }
 
+    /**
+     * Constructor for IntroSort which sorts according to an explicit comparator.
+     *
+     * @param N          the number elements we expect to sort.
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     * @param config     the configuration.
+     */
+    public IntroSort(int N, Comparator<X> comparator, Config config) {
+        super(DESCRIPTION, N, comparator, config);
+    }
+
+    /**
+     * Constructor for IntroSort which sorts according to an explicit comparator.
+     *
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     */
+    public IntroSort(Comparator<X> comparator) {
+        this(new BaseHelper<>(DESCRIPTION, comparator));
+    }
+
     public IntroSort() {
         this(new BaseHelper<>(DESCRIPTION));
     }
 
     @Override
     public X[] sort(X[] xs, boolean makeCopy) {
-        getHelper().init(xs.length);
+        init(xs);
         depthThreshold = 2 * floor_lg(xs.length);
         X[] result = makeCopy ? Arrays.copyOf(xs, xs.length) : xs;
         int from = 0, to = result.length;
@@ -111,6 +132,7 @@ public class IntroSort<X extends Comparable<X>> extends QuickSort_DualPivot<X> {
     }
 
     private void downHeap(X[] a, int i, int n, int lo, Helper<X> helper) {
+        final Comparator<X> comparator = helper.getComparator();
         X d = a[lo + i - 1];
         int child;
         while (i <= n / 2) {
@@ -118,9 +140,12 @@ public class IntroSort<X extends Comparable<X>> extends QuickSort_DualPivot<X> {
             if (helper.instrumented()) {
                 if (child < n && helper.compare(a, lo + child - 1, lo + child) < 0) child++;
                 if (helper.compare(d, a[lo + child - 1]) >= 0) break;
-            } else {
+            } else if (comparator == null) {
                 if (child < n && a[lo + child - 1].compareTo(a[lo + child]) < 0) child++;
                 if (d.compareTo(a[lo + child - 1]) >= 0) break;
+            } else {
+                if (child < n && comparator.compare(a[lo + child - 1], a[lo + child]) < 0) child++;
+                if (comparator.compare(d, a[lo + child - 1]) >= 0) break;
             }
             helper.incrementFixes(1);
             a[lo + i - 1] = a[lo + child - 1];
@@ -0,0 +1,182 @@
+package edu.neu.coe.info6205.sort.simple;
+
+import edu.neu.coe.info6205.sort.Helper;
+import edu.neu.coe.info6205.sort.SortWithHelper;
+import edu.neu.coe.info6205.util.Config;
+
+import java.util.Arrays;
+
+/**
+ * LCP-aware merge sort for Strings.
+ * <p>
+ * Each run carries, alongside its strings, the longest-common-prefix (LCP) of each string with its predecessor.
+ * During a merge, the LCP of each run head with the last string output is known,
+ * so that most decisions need no character comparisons at all,
+ * and, when the strings must be compared, the comparison starts after their (known) common prefix.
+ * Thus, common prefixes are scanned only once rather than at every level of the merge.
+ * <p>
+ * As a by-product, the LCP array of the sorted result is available (see lcp()).
+ * The sort is stable and, optionally (see sortDistinct), it will drop duplicates during the merge.
+ * <p>
+ * NOTE: comparisons are according to String.compareTo (i.e. by char), regardless of any comparator in the helper.
+ * The number of character comparisons is reported through Helper.incrementCharacterCompares.
+ */
+public class LCPMergeSort extends SortWithHelper<String> {
+
+    public static final String DESCRIPTION = "LCP MergeSort";
+
+    /**
+     * Constructor for LCPMergeSort
+     *
+     * @param helper an explicit instance of Helper to be used.
+     */
+    public LCPMergeSort(Helper<String> helper) {
+        super(helper);
+    }
+
+    /**
+     * Constructor for LCPMergeSort
+     *
+     * @param N      the number elements we expect to sort.
+     * @param config the configuration.
+     */
+    public LCPMergeSort(int N, Config config) {
+        super(DESCRIPTION, N, config);
+    }
+
+    @Override
+    public String[] sort(String[] xs, boolean makeCopy) {
+        init(xs);
+        String[] result = makeCopy ? Arrays.copyOf(xs, xs.length) : xs;
+        sort(result, 0, result.length);
+        return result;
+    }
+
+    @Override
+    public void sort(String[] xs, int from, int to) {
+        doSort(xs, from, to, false);
+        lcp = Arrays.copyOfRange(lcp, from, to);
+    }
+
+    /**
+     * Non-mutating method to sort xs and, at the same time, remove any duplicates.
+     *
+     * @param xs the array to be sorted (unchanged).
+     * @return a new array which contains each distinct element of xs exactly once, in order.
+     */
+    public String[] sortDistinct(String[] xs) {
+        init(xs);
+        final String[] result = Arrays.copyOf(xs, xs.length);
+        final int n = doSort(result, 0, result.length, true);
+        lcp = Arrays.copyOf(lcp, n);
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Method to yield the LCP array corresponding to the result of the most recent sort.
+     * Element i is the length of the longest common prefix of elements i-1 and i of the result (element 0 is 0).
+     *
+     * @return the LCP array (or null if there has been no sort).
+     */
+    public int[] lcp() {
+        return lcp;
+    }
+
+    private int doSort(String[] xs, int from, int to, boolean distinct) {
+        final int n = xs.length;
+        aux = new String[n];
+        lcp = new int[n];
+        auxLcp = new int[n];
+        return sort(xs, from, to, distinct);
+    }
+
+    /**
+     * Method to sort xs[from..to) such that, on return, the result occupies xs[from..from+m) with its LCPs in lcp[from..from+m).
+     *
+     * @param xs       the array.
+     * @param from     the index of the first element to sort.
+     * @param to       the index of the first element not to sort.
+     * @param distinct if true, duplicates are dropped.
+     * @return m, the number of elements in the result (to-from unless distinct is true).
+     */
+    private int sort(String[] xs, int from, int to, boolean distinct) {
+        if (to - from <= 1) {
+            if (to > from) lcp[from] = 0;
+            return to - from;
+        }
+        final int mid = from + (to - from) / 2;
+        final int n1 = sort(xs, from, mid, distinct);
+        final int n2 = sort(xs, mid, to, distinct);
+        System.arraycopy(xs, from, aux, from, n1);
+        System.arraycopy(lcp, from, auxLcp, from, n1);
+        System.arraycopy(xs, mid, aux, mid, n2);
+        System.arraycopy(lcp, mid, auxLcp, mid, n2);
+        getHelper().incrementCopies(n1 + n2);
+        return merge(xs, from, from + n1, mid, mid + n2, distinct) - from;
+    }
+
+    /**
+     * Merge the runs aux[i..iEnd) and aux[j..jEnd) (with their LCPs in auxLcp) into xs (and lcp) starting at index i.
+     *
+     * @return the index of the first element of xs not written.
+     */
+    private int merge(String[] xs, int i, int iEnd, int j, int jEnd, boolean distinct) {
+        final Helper<String> helper = getHelper();
+        final int lo = i;
+        int k = i;
+        // NOTE hA and hB are the LCPs of aux[i] and aux[j] respectively with the last element output (initially the empty string).
+        int hA = 0, hB = 0;
+        while (i < iEnd && j < jEnd) {
+            if (hA > hB) {
+                // NOTE aux[i] shares a longer prefix with the last output than does aux[j], therefore aux[i] < aux[j].
+                lcp[k] = hA;
+                xs[k++] = aux[i++];
+                if (i < iEnd) hA = auxLcp[i];
+            } else if (hB > hA) {
+                lcp[k] = hB;
+                xs[k++] = aux[j++];
+                if (j < jEnd) hB = auxLcp[j];
+            } else {
+                final String a = aux[i], b = aux[j];
+                final int n = Math.min(a.length(), b.length());
+                int m = hA;
+                while (m < n && a.charAt(m) == b.charAt(m)) m++;
+                // NOTE we count the matching characters plus the mismatching character (if any).
+                helper.incrementCharacterCompares(m - hA + (m < n ? 1 : 0));
+                lcp[k] = hA;
+                if (m == a.length() || (m < b.length() && a.charAt(m) < b.charAt(m))) {
+                    // NOTE a <= b: we output a (taking a first when they are equal keeps the sort stable).
+                    xs[k++] = a;
+                    if (++i < iEnd) hA = auxLcp[i];
+                    if (distinct && m == b.length()) {
+                        // NOTE b is a duplicate of a so we drop it: the LCP of the next b with a is its LCP with the dropped b.
+                        if (++j < jEnd) hB = auxLcp[j];
+                    } else hB = m;
+                } else {
+                    xs[k++] = b;
+                    if (++j < jEnd) hB = auxLcp[j];
+                    hA = m;
+                }
+            }
+        }
+        // NOTE the LCP of the first element of a remaining run is relative to the last output; the others are unchanged.
+        if (i < iEnd) {
+            auxLcp[i] = hA;
+            System.arraycopy(aux, i, xs, k, iEnd - i);
+            System.arraycopy(auxLcp, i, lcp, k, iEnd - i);
+            k += iEnd - i;
+        }
+        if (j < jEnd) {
+            auxLcp[j] = hB;
+            System.arraycopy(aux, j, xs, k, jEnd - j);
+            System.arraycopy(auxLcp, j, lcp, k, jEnd - j);
+            k += jEnd - j;
+        }
+        helper.incrementCopies(k - lo);
+        return k;
+    }
+
+    private String[] aux = null;
+    private int[] auxLcp = null;
+    private int[] lcp = null;
+}
@@ -1,10 +1,13 @@
 package edu.neu.coe.info6205.sort.simple;
 
+import edu.neu.coe.info6205.sort.BaseHelper;
 import edu.neu.coe.info6205.sort.Helper;
 import edu.neu.coe.info6205.sort.SortWithHelper;
 import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.EventRecorder;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 public class MergeSortBasic<X extends Comparable<X>> extends SortWithHelper<X> {
 
@@ -33,9 +36,30 @@ public class MergeSortBasic<X extends Comparable<X>> extends SortWithHelper<X> {
         insertionSort = new InsertionSort<>(getHelper());
     }
 
+    /**
+     * Constructor for MergeSort which sorts according to an explicit comparator.
+     *
+     * @param N          the number elements we expect to sort.
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     * @param config     the configuration.
+     */
+    public MergeSortBasic(int N, Comparator<X> comparator, Config config) {
+        super(DESCRIPTION, N, comparator, config);
+        insertionSort = new InsertionSort<>(getHelper());
+    }
+
+    /**
+     * Constructor for MergeSort which sorts according to an explicit comparator.
+     *
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     */
+    public MergeSortBasic(Comparator<X> comparator) {
+        this(new BaseHelper<>(DESCRIPTION, comparator));
+    }
+
     @Override
     public X[] sort(X[] xs, boolean makeCopy) {
-        getHelper().init(xs.length);
+        init(xs);
         X[] result = makeCopy ? Arrays.copyOf(xs, xs.length) : xs;
         // TODO don't copy but just allocate according to the xs/aux interchange optimization
         aux = Arrays.copyOf(xs, xs.length);
@@ -47,6 +71,7 @@ public class MergeSortBasic<X extends Comparable<X>> extends SortWithHelper<X> {
     public void sort(X[] a, int from, int to) {
         @SuppressWarnings("UnnecessaryLocalVariable") int lo = from;
         if (to <= lo + getHelper().cutoff()) {
+            if (EventRecorder.CUTOFF) EventRecorder.cutoff(DESCRIPTION, from, to);
             insertionSort.sort(a, from, to);
             return;
         }
@@ -55,7 +80,9 @@ public class MergeSortBasic<X extends Comparable<X>> extends SortWithHelper<X> {
         sort(a, mid, to);
         System.arraycopy(a, from, aux, from, to - from);
         getHelper().incrementCopies(to - from);
+        final Object event = EventRecorder.MERGE ? EventRecorder.beginMerge() : null;
         merge(aux, a, lo, mid, to);
+        if (event != null) EventRecorder.endMerge(event, lo, mid, to);
     }
 
     private void merge(X[] aux, X[] a, int lo, int mid, int hi) {
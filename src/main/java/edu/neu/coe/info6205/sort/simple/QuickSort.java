@@ -3,10 +3,12 @@ package edu.neu.coe.info6205.sort.simple;
 import edu.neu.coe.info6205.sort.Helper;
 import edu.neu.coe.info6205.sort.SortWithHelper;
 import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.EventRecorder;
 import edu.neu.coe.info6205.util.LazyLogger;
 
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 
 public abstract class QuickSort<X extends Comparable<X>> extends SortWithHelper<X> {
 
@@ -15,6 +17,11 @@ public abstract class QuickSort<X extends Comparable<X>> extends SortWithHelper<
         insertionSort = new InsertionSort<>(getHelper());
     }
 
+    public QuickSort(String description, int N, Comparator<X> comparator, Config config) {
+        super(description, N, comparator, config);
+        insertionSort = new InsertionSort<>(getHelper());
+    }
+
     public QuickSort(Helper<X> helper) {
         super(helper);
         insertionSort = new InsertionSort<>(helper);
@@ -47,7 +54,7 @@ public abstract class QuickSort<X extends Comparable<X>> extends SortWithHelper<
      */
     public X[] sort(X[] xs, boolean makeCopy) {
         // CONSIDER merge with MergeSortBasic and maybe others.
-        getHelper().init(xs.length);
+        init(xs);
         X[] result = makeCopy ? Arrays.copyOf(xs, xs.length) : xs;
         sort(result, 0, result.length, 0);
         return result;
@@ -66,7 +73,9 @@ public abstract class QuickSort<X extends Comparable<X>> extends SortWithHelper<
         getHelper().registerDepth(depth);
         Partition<X> partition = createPartition(xs, from, to);
         if (partitioner == null) throw new RuntimeException("partitioner not set");
+        final Object event = EventRecorder.PARTITION ? EventRecorder.beginPartition() : null;
         Collection<Partition<X>> partitions = partitioner.partition(partition);
+        if (event != null) EventRecorder.endPartition(event, from, to, partitions.size(), depth);
         partitions.forEach(p -> sort(p.xs, p.from, p.to, depth + 1));
     }
 
@@ -94,6 +103,7 @@ public abstract class QuickSort<X extends Comparable<X>> extends SortWithHelper<
     protected boolean terminator(X[] xs, int from, int to, int depth) {
         @SuppressWarnings("UnnecessaryLocalVariable") int lo = from;
         if (to <= lo + getHelper().cutoff()) {
+            if (EventRecorder.CUTOFF) EventRecorder.cutoff(getClass().getSimpleName(), from, to);
             insertionSort.sort(xs, from, to);
             return true;
         }
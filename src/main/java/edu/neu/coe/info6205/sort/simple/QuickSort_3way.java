@@ -6,6 +6,7 @@ import edu.neu.coe.info6205.sort.InstrumentedHelper;
 import edu.neu.coe.info6205.util.Config;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 public class QuickSort_3way<X extends Comparable<X>> extends QuickSort<X> {
@@ -22,6 +23,27 @@ public class QuickSort_3way<X extends Comparable<X>> extends QuickSort<X> {
         setPartitioner(createPartitioner());
     }
 
+    /**
+     * Constructor for QuickSort_3way which sorts according to an explicit comparator.
+     *
+     * @param N          the number elements we expect to sort.
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     * @param config     the configuration.
+     */
+    public QuickSort_3way(int N, Comparator<X> comparator, Config config) {
+        super(DESCRIPTION, N, comparator, config);
+        setPartitioner(createPartitioner());
+    }
+
+    /**
+     * Constructor for QuickSort_3way which sorts according to an explicit comparator.
+     *
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     */
+    public QuickSort_3way(Comparator<X> comparator) {
+        this(new BaseHelper<>(DESCRIPTION, comparator));
+    }
+
     public QuickSort_3way() {
         this(new BaseHelper<>(DESCRIPTION));
     }
@@ -71,6 +93,8 @@ public class QuickSort_3way<X extends Comparable<X>> extends QuickSort<X> {
             int i = lt + 1;
             // NOTE: we are trying to avoid checking on instrumented for every time in the inner loop for performance reasons (probably a silly idea).
             // NOTE: if we were using Scala, it would be easy to set up a comparer function and a swapper function. With java, it's possible but much messier.
+            // NOTE: similarly, we have a separate loop for the natural ordering so that compareTo may be inlined.
+            final Comparator<X> comparator = helper.getComparator();
             if (helper.instrumented())
                 while (i <= gt) {
                     int cmp = helper.compare(xs[i], v);
@@ -78,13 +102,20 @@ public class QuickSort_3way<X extends Comparable<X>> extends QuickSort<X> {
                     else if (cmp > 0) helper.swap(xs, i, gt--);
                     else i++;
                 }
-            else
+            else if (comparator == null)
                 while (i <= gt) {
                     int cmp = xs[i].compareTo(v);
                     if (cmp < 0) swap(xs, lt++, i++);
                     else if (cmp > 0) swap(xs, i, gt--);
                     else i++;
                 }
+            else
+                while (i <= gt) {
+                    int cmp = comparator.compare(xs[i], v);
+                    if (cmp < 0) swap(xs, lt++, i++);
+                    else if (cmp > 0) swap(xs, i, gt--);
+                    else i++;
+                }
 
             List<Partition<X>> partitions = new ArrayList<>();
             partitions.add(new Partition<>(xs, partition.from, lt));
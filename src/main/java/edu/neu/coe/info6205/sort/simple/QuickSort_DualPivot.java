@@ -1,9 +1,11 @@
 package edu.neu.coe.info6205.sort.simple;
 
+import edu.neu.coe.info6205.sort.BaseHelper;
 import edu.neu.coe.info6205.sort.Helper;
 import edu.neu.coe.info6205.util.Config;
 
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 public class QuickSort_DualPivot<X extends Comparable<X>> extends QuickSort<X> {
@@ -15,6 +17,11 @@ public class QuickSort_DualPivot<X extends Comparable<X>> extends QuickSort<X> {
         setPartitioner(createPartitioner());
     }
 
+    public QuickSort_DualPivot(String description, int N, Comparator<X> comparator, Config config) {
+        super(description, N, comparator, config);
+        setPartitioner(createPartitioner());
+    }
+
     /**
      * Constructor for QuickSort_3way
      *
@@ -35,6 +42,26 @@ public class QuickSort_DualPivot<X extends Comparable<X>> extends QuickSort<X> {
         this(DESCRIPTION, N, config);
     }
 
+    /**
+     * Constructor for QuickSort_DualPivot which sorts according to an explicit comparator.
+     *
+     * @param N          the number elements we expect to sort.
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     * @param config     the configuration.
+     */
+    public QuickSort_DualPivot(int N, Comparator<X> comparator, Config config) {
+        this(DESCRIPTION, N, comparator, config);
+    }
+
+    /**
+     * Constructor for QuickSort_DualPivot which sorts according to an explicit comparator.
+     *
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     */
+    public QuickSort_DualPivot(Comparator<X> comparator) {
+        this(new BaseHelper<>(DESCRIPTION, comparator));
+    }
+
     @Override
     public Partitioner<X> createPartitioner() {
         return new Partitioner_DualPivot(getHelper());
@@ -71,12 +98,22 @@ public class QuickSort_DualPivot<X extends Comparable<X>> extends QuickSort<X> {
                 helper.swap(xs, lo, --lt);
                 helper.swap(xs, hi, ++gt);
             } else {
-                while (i <= gt) {
-                    X x = xs[i];
-                    if (x.compareTo(xs[lo]) < 0) swap(xs, lt++, i++);
-                    else if (x.compareTo(xs[hi]) > 0) swap(xs, i, gt--);
-                    else i++;
-                }
+                // NOTE: similarly, we have a separate loop for the natural ordering so that compareTo may be inlined.
+                final Comparator<X> comparator = helper.getComparator();
+                if (comparator == null)
+                    while (i <= gt) {
+                        X x = xs[i];
+                        if (x.compareTo(xs[lo]) < 0) swap(xs, lt++, i++);
+                        else if (x.compareTo(xs[hi]) > 0) swap(xs, i, gt--);
+                        else i++;
+                    }
+                else
+                    while (i <= gt) {
+                        X x = xs[i];
+                        if (comparator.compare(x, xs[lo]) < 0) swap(xs, lt++, i++);
+                        else if (comparator.compare(x, xs[hi]) > 0) swap(xs, i, gt--);
+                        else i++;
+                    }
                 swap(xs, lo, --lt);
                 swap(xs, hi, ++gt);
             }
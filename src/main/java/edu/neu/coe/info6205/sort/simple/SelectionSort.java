@@ -8,6 +8,8 @@ import edu.neu.coe.info6205.sort.Helper;
 import edu.neu.coe.info6205.sort.SortWithHelper;
 import edu.neu.coe.info6205.util.Config;
 
+import java.util.Comparator;
+
 public class SelectionSort<X extends Comparable<X>> extends SortWithHelper<X> {
 
     /**
@@ -20,6 +22,26 @@ public class SelectionSort<X extends Comparable<X>> extends SortWithHelper<X> {
         super(DESCRIPTION, N, config);
     }
 
+    /**
+     * Constructor for SelectionSort which sorts according to an explicit comparator.
+     *
+     * @param N          the number elements we expect to sort.
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     * @param config     the configuration.
+     */
+    public SelectionSort(int N, Comparator<X> comparator, Config config) {
+        super(DESCRIPTION, N, comparator, config);
+    }
+
+    /**
+     * Constructor for SelectionSort which sorts according to an explicit comparator.
+     *
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     */
+    public SelectionSort(Comparator<X> comparator) {
+        this(new BaseHelper<>(DESCRIPTION, comparator));
+    }
+
     public SelectionSort() {
         this(new BaseHelper<>(DESCRIPTION));
     }
@@ -35,8 +57,14 @@ public class SelectionSort<X extends Comparable<X>> extends SortWithHelper<X> {
 
     public void sort(X[] xs, int from, int to) {
         final Helper<X> helper = getHelper();
-        // TO BE IMPLEMENTED
-     }
+        // NOTE: all comparisons go through the helper so that they respect its comparator (and are instrumented).
+        for (int i = from; i < to - 1; i++) {
+            int min = i;
+            for (int j = i + 1; j < to; j++)
+                if (helper.less(xs[j], xs[min])) min = j;
+            helper.swap(xs, i, min);
+        }
+    }
 
     /**
      * This is used by unit tests.
@@ -8,6 +8,8 @@ import edu.neu.coe.info6205.sort.Helper;
 import edu.neu.coe.info6205.sort.SortWithHelper;
 import edu.neu.coe.info6205.util.Config;
 
+import java.util.Comparator;
+
 /**
  * Class to implement Shell Sort.
  *
@@ -26,6 +28,29 @@ public class ShellSort<X extends Comparable<X>> extends SortWithHelper<X> {
         this.m = m;
     }
 
+    /**
+     * Constructor for ShellSort which sorts according to an explicit comparator.
+     *
+     * @param m          the "gap" (h) sequence to follow (see other constructors).
+     * @param N          the number elements we expect to sort.
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     * @param config     the configuration.
+     */
+    public ShellSort(int m, int N, Comparator<X> comparator, Config config) {
+        super(DESCRIPTION, N, comparator, config);
+        this.m = m;
+    }
+
+    /**
+     * Constructor for ShellSort which sorts according to an explicit comparator.
+     *
+     * @param m          the "gap" (h) sequence to follow (see other constructors).
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     */
+    public ShellSort(int m, Comparator<X> comparator) {
+        this(m, new BaseHelper<>(DESCRIPTION, comparator));
+    }
+
     public ShellSort() {
         this(3, new BaseHelper<>(DESCRIPTION));
     }
@@ -9,6 +9,7 @@ import edu.neu.coe.info6205.sort.SortWithHelper;
 import edu.neu.coe.info6205.util.Config;
 
 import java.util.Arrays;
+import java.util.Comparator;
 
 /**
  * Sorter which delegates to Timsort via Arrays.sort.
@@ -36,12 +37,33 @@ public class TimSort<X extends Comparable<X>> extends SortWithHelper<X> {
         super(DESCRIPTION, N, config);
     }
 
+    /**
+     * Constructor for TimSort which sorts according to an explicit comparator.
+     *
+     * @param N          the number elements we expect to sort.
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     * @param config     the configuration.
+     */
+    public TimSort(int N, Comparator<X> comparator, Config config) {
+        super(DESCRIPTION, N, comparator, config);
+    }
+
+    /**
+     * Constructor for TimSort which sorts according to an explicit comparator.
+     *
+     * @param comparator the comparator (if null, the natural ordering of X is used).
+     */
+    public TimSort(Comparator<X> comparator) {
+        this(new BaseHelper<>(DESCRIPTION, comparator));
+    }
+
     public TimSort() {
         this(new BaseHelper<>(DESCRIPTION));
     }
 
     public void sort(X[] xs, int from, int to) {
-        Arrays.sort(xs, from, to);
+        // NOTE: if the comparator is null, Arrays.sort uses the natural ordering.
+        Arrays.sort(xs, from, to, getHelper().getComparator());
     }
 
     public static final String DESCRIPTION = "Timsort";
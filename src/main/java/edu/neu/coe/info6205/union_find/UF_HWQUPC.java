@@ -7,6 +7,10 @@
  */
 package edu.neu.coe.info6205.union_find;
 
+import edu.neu.coe.info6205.util.EventRecorder;
+import edu.neu.coe.info6205.util.metrics.Histogram;
+import edu.neu.coe.info6205.util.metrics.MetricsRegistry;
+
 import java.util.Arrays;
 import java.util.Random;
 
@@ -82,6 +86,7 @@ public class UF_HWQUPC implements UF {
     public int find(int p) {
         validate(p);
         int root = p;
+        int pathLength = 0;
         // TO BE IMPLEMENTED
         while (root != parent[root]) {
 //            parent[root] = getParent(getParent(root));
@@ -89,8 +94,11 @@ public class UF_HWQUPC implements UF {
                 doPathCompression(root);
             }
             root = parent[root];
+            pathLength++;
         }
 
+        if (EventRecorder.UNION_FIND) EventRecorder.find(p, pathLength);
+        if (pathLengths != null) pathLengths.record(pathLength);
         return root;
     }
 
@@ -119,7 +127,9 @@ public class UF_HWQUPC implements UF {
      */
     public void union(int p, int q) {
         // CONSIDER can we avoid doing find again?
-        mergeComponents(find(p), find(q));
+        final int i = find(p), j = find(q);
+        mergeComponents(i, j);
+        if (EventRecorder.UNION_FIND) EventRecorder.union(p, q, i != j);
         count--;
     }
 
@@ -128,6 +138,18 @@ public class UF_HWQUPC implements UF {
         return parent.length;
     }
 
+    /**
+     * Method to publish the metrics of this UF to registry:
+     * a gauge of the number of components and a histogram of the path lengths of find.
+     *
+     * @param registry the MetricsRegistry.
+     * @param name     the name of this UF (used as the value of the "uf" label).
+     */
+    public void publish(MetricsRegistry registry, String name) {
+        registry.gauge(this::components, "union_find_components", "uf", name);
+        pathLengths = registry.histogram("union_find_path_length", "uf", name);
+    }
+
     /**
      * Used only by testing code
      *
@@ -175,6 +197,7 @@ public class UF_HWQUPC implements UF {
     private final int[] height;   // height[i] = height of subtree rooted at i
     private int count;  // number of components
     private boolean pathCompression;
+    private Histogram pathLengths = null; // not null only if this UF has been published
 
     private void mergeComponents(int i, int j) {
         // TO BE IMPLEMENTED make shorter root point to taller one
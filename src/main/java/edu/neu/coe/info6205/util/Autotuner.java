@@ -0,0 +1,231 @@
+package edu.neu.coe.info6205.util;
+
+import edu.neu.coe.info6205.sort.BaseHelper;
+import edu.neu.coe.info6205.sort.Helper;
+import edu.neu.coe.info6205.sort.HelperFactory;
+import edu.neu.coe.info6205.sort.SortWithHelper;
+import edu.neu.coe.info6205.sort.par.ParSort;
+import edu.neu.coe.info6205.sort.simple.MergeSortBasic;
+import edu.neu.coe.info6205.sort.simple.QuickSort_3way;
+import edu.neu.coe.info6205.sort.simple.QuickSort_DualPivot;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.Supplier;
+
+/**
+ * Class to calibrate the cutoffs of the sorts for the current machine and to persist them in config.ini.
+ * <p>
+ * For each sort which switches to insertion sort below a cutoff (QuickSort_DualPivot, QuickSort_3way and MergeSortBasic)
+ * and for each element type (Integer and String), the cutoff with the least mean time is found by golden-section search.
+ * The results are written to the cutoff section (see HelperFactory.getCutoff), where the cutoff for the sort as a whole
+ * is that of Integer elements.
+ * For ParSort, the cutoff is found by golden-section search (on a logarithmic scale) using a pool of one thread per processor,
+ * and then the pool size (see ThroughputBenchmark.threadCounts) with the least mean time for that cutoff is found.
+ * The results are written to the parsort section (see ParSort.configure).
+ * <p>
+ * NOTE: golden-section search assumes that the mean time is unimodal in the cutoff, which is only approximately true of noisy timings.
+ * Each evaluation is therefore preceded by a warmup and each distinct cutoff is evaluated only once.
+ */
+public class Autotuner {
+
+    /**
+     * Constructor for an Autotuner.
+     *
+     * @param runs the number of timed runs for each evaluation (each preceded by the same number of warmup runs).
+     */
+    public Autotuner(int runs) {
+        if (runs < 1) throw new IllegalArgumentException("Autotuner: runs must be positive: " + runs);
+        this.runs = runs;
+    }
+
+    /**
+     * Method to find the insertion-sort cutoff with the least mean time for a sort.
+     *
+     * @param sorterFactory a function which yields a sort, given a Helper (whose cutoff has been set).
+     * @param supplier      a supplier of (new) arrays to be sorted.
+     * @param lo            the least cutoff to be considered.
+     * @param hi            the greatest cutoff to be considered.
+     * @param <X>           the underlying type of the elements.
+     * @return the best cutoff.
+     */
+    public <X extends Comparable<X>> int tuneInsertionCutoff(Function<Helper<X>, SortWithHelper<X>> sorterFactory, Supplier<X[]> supplier, int lo, int hi) {
+        return goldenSection(cutoff -> {
+            final BaseHelper<X> helper = new BaseHelper<>("Autotuner");
+            helper.setCutoff(cutoff);
+            final SortWithHelper<X> sorter = sorterFactory.apply(helper);
+            return time(supplier, xs -> sorter.sort(xs, false));
+        }, lo, hi);
+    }
+
+    /**
+     * Method to find the ParSort cutoff with the least mean time for a given pool size.
+     *
+     * @param xs      the array to be sorted (each run sorts a copy).
+     * @param threads the size of the pool.
+     * @param lo      the least cutoff to be considered.
+     * @param hi      the greatest cutoff to be considered.
+     * @return the best cutoff (to within a quarter of an octave).
+     */
+    public int tuneParSortCutoff(int[] xs, int threads, int lo, int hi) {
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            // NOTE the search is over e, where the cutoff is 2^(e/4).
+            final int e = goldenSection(k -> timeParSort(xs, pool, parSortCutoff(k)), (int) Math.ceil(4 * lg(lo)), (int) Math.floor(4 * lg(hi)));
+            return parSortCutoff(e);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Method to find the ParSort pool size with the least mean time for a given cutoff.
+     *
+     * @param xs         the array to be sorted (each run sorts a copy).
+     * @param cutoff     the cutoff.
+     * @param candidates the pool sizes to be considered.
+     * @return the best pool size.
+     */
+    public int tuneParSortThreads(int[] xs, int cutoff, int[] candidates) {
+        int result = candidates[0];
+        double best = Double.POSITIVE_INFINITY;
+        for (int threads : candidates) {
+            final ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                final double time = timeParSort(xs, pool, cutoff);
+                logger.debug(() -> "Autotuner: ParSort with " + threads + " threads: " + Utilities.formatDecimal3Places(time) + " mSecs");
+                if (time < best) {
+                    best = time;
+                    result = threads;
+                }
+            } finally {
+                pool.shutdown();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to find the integer x in [lo, hi] which minimizes a (unimodal) cost function, by golden-section search.
+     * The cost function is evaluated at most once for each x.
+     *
+     * @param cost the cost function.
+     * @param lo   the least value of x.
+     * @param hi   the greatest value of x.
+     * @return the value of x with the least cost.
+     */
+    public static int goldenSection(IntToDoubleFunction cost, int lo, int hi) {
+        if (lo > hi) throw new IllegalArgumentException("Autotuner: empty range: " + lo + ".." + hi);
+        final Map<Integer, Double> costs = new HashMap<>();
+        final IntToDoubleFunction f = x -> costs.computeIfAbsent(x, cost::applyAsDouble);
+        int a = lo, b = hi;
+        while (b - a > 3) {
+            final int c = b - (int) Math.round((b - a) / PHI);
+            final int d = a + (int) Math.round((b - a) / PHI);
+            if (c >= d) break;
+            if (f.applyAsDouble(c) <= f.applyAsDouble(d)) b = d;
+            else a = c;
+        }
+        int result = a;
+        for (int x = a + 1; x <= b; x++) if (f.applyAsDouble(x) < f.applyAsDouble(result)) result = x;
+        return result;
+    }
+
+    /**
+     * Main program to calibrate the cutoffs and to persist them.
+     *
+     * @param args the ini file to be updated (default: src/main/resources/config.ini, which is copied to the classpath by the build),
+     *             the array size for the insertion-sort cutoffs (default 10,000),
+     *             the array size for ParSort (default 1,000,000) and the number of runs per evaluation (default 10).
+     * @throws IOException if the ini file cannot be updated.
+     */
+    public static void main(String[] args) throws IOException {
+        final File file = new File(args.length > 0 ? args[0] : "src/main/resources/config.ini");
+        final int n = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        final int nParSort = args.length > 2 ? Integer.parseInt(args[2]) : 1000000;
+        final Autotuner autotuner = new Autotuner(args.length > 3 ? Integer.parseInt(args[3]) : 10);
+        final InputGenerator generator = new InputGenerator(InputGenerator.Distribution.RANDOM, System.nanoTime());
+
+        final Map<String, String> cutoffs = new LinkedHashMap<>();
+        autotuner.tuneAll(cutoffs, QuickSort_DualPivot.DESCRIPTION, QuickSort_DualPivot::new, n, generator);
+        autotuner.tuneAll(cutoffs, QuickSort_3way.DESCRIPTION, QuickSort_3way::new, n, generator);
+        autotuner.tuneAll(cutoffs, MergeSortBasic.DESCRIPTION, MergeSortBasic::new, n, generator);
+        Config.update(file, HelperFactory.CUTOFF, cutoffs);
+
+        final int[] xs = generator.ints(nParSort);
+        final int processors = Runtime.getRuntime().availableProcessors();
+        // CONSIDER iterating the two searches until neither changes.
+        final int cutoff = autotuner.tuneParSortCutoff(xs, processors, Math.max(1000, nParSort / 1024), Math.max(1000, nParSort / 2));
+        final int threads = autotuner.tuneParSortThreads(xs, cutoff, ThroughputBenchmark.threadCounts(processors));
+        logger.info("Autotuner: ParSort: cutoff " + cutoff + ", threads " + threads);
+        final Map<String, String> parSort = new LinkedHashMap<>();
+        parSort.put("cutoff", Integer.toString(cutoff));
+        parSort.put("threads", Integer.toString(threads));
+        Config.update(file, ParSort.PARSORT, parSort);
+        logger.info("Autotuner: calibration written to " + file.getAbsolutePath());
+    }
+
+    /**
+     * Method to tune the insertion-sort cutoff of one sort for Integer and String elements.
+     */
+    private void tuneAll(Map<String, String> cutoffs, String description, SorterFactory factory, int n, InputGenerator generator) {
+        final int integerCutoff = tuneInsertionCutoff(factory::<Integer>create, () -> generator.integers(n), MINIMUM_CUTOFF, MAXIMUM_CUTOFF);
+        final int stringCutoff = tuneInsertionCutoff(factory::<String>create, () -> generator.strings(n), MINIMUM_CUTOFF, MAXIMUM_CUTOFF);
+        logger.info("Autotuner: " + description + ": cutoff " + integerCutoff + " (Integer), " + stringCutoff + " (String)");
+        cutoffs.put(HelperFactory.cutoffKey(description, null), Integer.toString(integerCutoff));
+        cutoffs.put(HelperFactory.cutoffKey(description, Integer.class), Integer.toString(integerCutoff));
+        cutoffs.put(HelperFactory.cutoffKey(description, String.class), Integer.toString(stringCutoff));
+    }
+
+    /**
+     * Interface to create a sort of any element type, given its Helper (e.g. QuickSort_DualPivot::new).
+     */
+    private interface SorterFactory {
+        <X extends Comparable<X>> SortWithHelper<X> create(Helper<X> helper);
+    }
+
+    private <T, U> double time(Supplier<T> supplier, Function<T, U> function) {
+        // NOTE the first Timer is the warmup.
+        new Timer(runs).repeat(runs, supplier, function);
+        return new Timer(runs).repeat(runs, supplier, function);
+    }
+
+    private double timeParSort(int[] xs, ForkJoinPool pool, int cutoff) {
+        final ForkJoinPool savedPool = ParSort.pool;
+        final int savedCutoff = ParSort.cutoff;
+        ParSort.pool = pool;
+        ParSort.cutoff = cutoff;
+        try {
+            return time(() -> Arrays.copyOf(xs, xs.length), ys -> {
+                ParSort.sort(ys, 0, ys.length);
+                return ys;
+            });
+        } finally {
+            ParSort.pool = savedPool;
+            ParSort.cutoff = savedCutoff;
+        }
+    }
+
+    private static int parSortCutoff(int e) {
+        return (int) Math.round(Math.pow(2, e / 4.0));
+    }
+
+    private static double lg(double x) {
+        return Math.log(x) / Math.log(2);
+    }
+
+    final static LazyLogger logger = new LazyLogger(Autotuner.class);
+
+    private static final double PHI = (1 + Math.sqrt(5)) / 2;
+    private static final int MINIMUM_CUTOFF = 2;
+    private static final int MAXIMUM_CUTOFF = 64;
+
+    private final int runs;
+}
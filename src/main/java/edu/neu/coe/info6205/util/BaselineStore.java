@@ -0,0 +1,408 @@
+package edu.neu.coe.info6205.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Class to store the run times of benchmarks (in a local directory) and to detect performance regressions.
+ * <p>
+ * The results of each machine are kept separately, under its fingerprint (see machineProperties), since times
+ * measured on different machines (or JVMs) are not comparable.
+ * Within a machine, results are grouped by label (for example, a version such as "1.0.0" or simply "baseline" and "candidate"),
+ * and each benchmark (identified by its description and the size of its input: see key) has a CSV file of its run times (timestamp,time in mSecs).
+ * Runs recorded under the same label accumulate until the label is reset (see reset and main),
+ * so a label should be reset before it is used to record a fresh set of runs (for example, a new candidate).
+ * <p>
+ * Benchmark_Timer records the run times of its timed phase automatically if a directory is set in the baseline section of config.ini.
+ * <p>
+ * Two labels are compared (see compare) benchmark by benchmark, using the one-sided Mann-Whitney U test (which makes no
+ * assumption about the distribution of the times): a benchmark has regressed if its candidate times are significantly greater
+ * than its baseline times (p less than alpha) and the median has increased by more than the threshold (e.g. 5%).
+ * The main program performs the comparison and exits with status 1 if any benchmark has regressed, so that it can gate a pipeline.
+ */
+public class BaselineStore {
+
+    /**
+     * Constructor for a BaselineStore of this machine.
+     *
+     * @param directory the root directory of the store.
+     */
+    public BaselineStore(Path directory) {
+        this(directory, fingerprint());
+    }
+
+    /**
+     * Constructor for a BaselineStore of a particular machine.
+     *
+     * @param directory   the root directory of the store.
+     * @param fingerprint the fingerprint of the machine.
+     */
+    public BaselineStore(Path directory, String fingerprint) {
+        this.directory = directory;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Method to record the run times of a benchmark whose input has no size.
+     *
+     * @param label       the label (e.g. "baseline").
+     * @param description the description of the benchmark.
+     * @param nanos       the run times (in nanoseconds).
+     * @throws IOException if the store cannot be written.
+     */
+    public void record(String label, String description, long[] nanos) throws IOException {
+        record(label, description, -1, nanos);
+    }
+
+    /**
+     * Method to record the run times of a benchmark.
+     *
+     * @param label       the label (e.g. "baseline").
+     * @param description the description of the benchmark.
+     * @param n           the size of the input (see Benchmark_Timer.getSize), or -1 if it has no size.
+     * @param nanos       the run times (in nanoseconds).
+     * @throws IOException if the store cannot be written.
+     */
+    public void record(String label, String description, int n, long[] nanos) throws IOException {
+        final Path machine = directory.resolve(fingerprint);
+        Files.createDirectories(machine.resolve(label));
+        final Path properties = machine.resolve(MACHINE_PROPERTIES);
+        if (!Files.exists(properties)) {
+            final List<String> lines = new ArrayList<>();
+            for (Map.Entry<String, String> entry : machineProperties().entrySet())
+                lines.add(entry.getKey() + "=" + entry.getValue());
+            Files.write(properties, lines, StandardCharsets.UTF_8);
+        }
+        final String key = key(description, n);
+        final Path file = file(label, key);
+        final boolean exists = Files.exists(file);
+        final long timestamp = System.currentTimeMillis();
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            if (!exists) writer.write(HEADER + key + "\n");
+            for (long nano : nanos) writer.write(timestamp + "," + nano / 1E6 + "\n");
+        }
+    }
+
+    /**
+     * Method to load the run times of a benchmark whose input has no size.
+     *
+     * @param label       the label.
+     * @param description the description of the benchmark.
+     * @return the run times (in milliseconds), empty if none have been recorded.
+     * @throws IOException if the store cannot be read.
+     */
+    public double[] load(String label, String description) throws IOException {
+        return load(label, description, -1);
+    }
+
+    /**
+     * Method to load the run times of a benchmark.
+     *
+     * @param label       the label.
+     * @param description the description of the benchmark.
+     * @param n           the size of the input, or -1 if it has no size.
+     * @return the run times (in milliseconds), empty if none have been recorded.
+     * @throws IOException if the store cannot be read.
+     */
+    public double[] load(String label, String description, int n) throws IOException {
+        final Path file = file(label, key(description, n));
+        return Files.exists(file) ? readTimes(Files.readAllLines(file, StandardCharsets.UTF_8)) : new double[0];
+    }
+
+    /**
+     * Method to delete all of the run times recorded (for this machine) under a label, so that subsequent runs start afresh.
+     *
+     * @param label the label.
+     * @return the number of benchmarks whose run times were deleted.
+     * @throws IOException if the store cannot be written.
+     */
+    public int reset(String label) throws IOException {
+        final Path dir = directory.resolve(fingerprint).resolve(label);
+        if (!Files.isDirectory(dir)) return 0;
+        int result = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + CSV)) {
+            for (Path file : files) {
+                Files.delete(file);
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to load the run times of all benchmarks recorded under a label.
+     *
+     * @param label the label.
+     * @return a map from benchmark key (see key) to run times (in milliseconds).
+     * @throws IOException if the store cannot be read.
+     */
+    public Map<String, double[]> loadAll(String label) throws IOException {
+        final Map<String, double[]> result = new TreeMap<>();
+        final Path dir = directory.resolve(fingerprint).resolve(label);
+        if (!Files.isDirectory(dir)) return result;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + CSV)) {
+            for (Path file : files) {
+                final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+                if (!lines.isEmpty() && lines.get(0).startsWith(HEADER))
+                    result.put(lines.get(0).substring(HEADER.length()), readTimes(lines));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to compare the candidate times with the baseline times of every benchmark which has both.
+     *
+     * @param baseline  the label of the baseline.
+     * @param candidate the label of the candidate.
+     * @param alpha     the significance level (e.g. 0.01).
+     * @param threshold the smallest relative increase in the median which counts as a regression (e.g. 0.05).
+     * @return a list of Comparisons, ordered by description.
+     * @throws IOException if the store cannot be read.
+     */
+    public List<Comparison> compare(String baseline, String candidate, double alpha, double threshold) throws IOException {
+        final Map<String, double[]> baselines = loadAll(baseline);
+        final List<Comparison> result = new ArrayList<>();
+        for (Map.Entry<String, double[]> entry : loadAll(candidate).entrySet()) {
+            final double[] xs = baselines.get(entry.getKey());
+            if (xs != null && xs.length > 0 && entry.getValue().length > 0)
+                result.add(new Comparison(entry.getKey(), xs, entry.getValue(), alpha, threshold));
+        }
+        return result;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Class to represent the comparison of the candidate times of one benchmark with its baseline times.
+     */
+    public static class Comparison {
+        public final String description;
+        public final double baselineMedian;
+        public final double candidateMedian;
+        public final double pValue;
+        public final boolean regression;
+
+        Comparison(String description, double[] baseline, double[] candidate, double alpha, double threshold) {
+            this.description = description;
+            this.baselineMedian = median(baseline);
+            this.candidateMedian = median(candidate);
+            this.pValue = mannWhitneyP(baseline, candidate);
+            this.regression = pValue < alpha && getRatio() > 1 + threshold;
+        }
+
+        /**
+         * @return the ratio of the candidate median to the baseline median.
+         */
+        public double getRatio() {
+            return candidateMedian / baselineMedian;
+        }
+
+        @Override
+        public String toString() {
+            return (regression ? "REGRESSION: " : "ok: ") + description + ": median " + Utilities.formatDecimal3Places(baselineMedian) + " -> " +
+                    Utilities.formatDecimal3Places(candidateMedian) + " mSecs (x" + Utilities.formatDecimal3Places(getRatio()) + ", p=" + String.format("%.2g", pValue) + ")";
+        }
+    }
+
+    /**
+     * Method to yield the one-sided p-value of the Mann-Whitney U test that ys tend to be greater than xs,
+     * using the normal approximation (with corrections for ties and continuity).
+     *
+     * @param xs the baseline values.
+     * @param ys the candidate values.
+     * @return the p-value.
+     */
+    static double mannWhitneyP(double[] xs, double[] ys) {
+        final int nx = xs.length, ny = ys.length, n = nx + ny;
+        final double[] all = new double[n];
+        System.arraycopy(xs, 0, all, 0, nx);
+        System.arraycopy(ys, 0, all, nx, ny);
+        Arrays.sort(all);
+        // NOTE the rank of a value is the mean of the (1-based) positions of its ties; ties also reduce the variance.
+        double rankSumY = 0;
+        final double[] sortedY = ys.clone();
+        Arrays.sort(sortedY);
+        double tieCorrection = 0;
+        int j = 0;
+        for (int i = 0; i < n; ) {
+            int k = i;
+            while (k < n && all[k] == all[i]) k++;
+            final int t = k - i;
+            tieCorrection += (double) t * t * t - t;
+            final double rank = (i + 1 + k) / 2.0;
+            while (j < ny && sortedY[j] == all[i]) {
+                rankSumY += rank;
+                j++;
+            }
+            i = k;
+        }
+        final double u = rankSumY - ny * (ny + 1) / 2.0;
+        final double mean = (double) nx * ny / 2;
+        final double variance = (double) nx * ny / 12 * ((n + 1) - tieCorrection / ((double) n * (n - 1)));
+        if (variance <= 0) return 0.5;
+        final double z = (u - mean - 0.5) / Math.sqrt(variance);
+        return 1 - normalCDF(z);
+    }
+
+    /**
+     * Method to yield the cumulative distribution function of the standard normal distribution
+     * (Abramowitz and Stegun 26.2.17, accurate to 7.5E-8).
+     */
+    static double normalCDF(double z) {
+        if (z < 0) return 1 - normalCDF(-z);
+        final double t = 1 / (1 + 0.2316419 * z);
+        final double poly = t * (0.319381530 + t * (-0.356563782 + t * (1.781477937 + t * (-1.821255978 + t * 1.330274429))));
+        return 1 - Math.exp(-z * z / 2) / Math.sqrt(2 * Math.PI) * poly;
+    }
+
+    /**
+     * Method to yield the properties which identify this machine (and JVM) for the purpose of comparing benchmark times.
+     *
+     * @return a sorted map of properties.
+     */
+    public static Map<String, String> machineProperties() {
+        final Map<String, String> result = new TreeMap<>();
+        for (String property : new String[]{"os.name", "os.arch", "java.vm.name", "java.specification.version"})
+            result.put(property, System.getProperty(property));
+        result.put("processors", Integer.toString(Runtime.getRuntime().availableProcessors()));
+        result.put("maxMemoryMB", Long.toString(Runtime.getRuntime().maxMemory() >> 20));
+        return result;
+    }
+
+    /**
+     * @return the fingerprint of this machine: a hash of its machineProperties.
+     */
+    public static String fingerprint() {
+        return String.format("%08x", machineProperties().toString().hashCode());
+    }
+
+    /**
+     * Method to yield the BaselineStore defined by the baseline section of config.ini (loaded once).
+     *
+     * @return the BaselineStore to which Benchmark_Timer records its run times, or null if no directory is configured.
+     */
+    public static BaselineStore getDefault() {
+        return Default.STORE;
+    }
+
+    /**
+     * @return the label under which Benchmark_Timer records its run times (see getDefault).
+     */
+    public static String getDefaultLabel() {
+        return Default.label;
+    }
+
+    /**
+     * Method to yield the key which identifies a benchmark in the store (of the same form as ForkedBenchmarkRunner.key).
+     *
+     * @param description the description of the benchmark.
+     * @param n           the size of its input, or -1 if it has no size.
+     * @return the description, followed by the size (if any).
+     */
+    public static String key(String description, int n) {
+        return n < 0 ? description : description + " (n=" + n + ")";
+    }
+
+    /**
+     * Main program to compare two labels: BaselineStore directory baseline candidate [alpha [threshold]];
+     * or to reset a label (see reset): BaselineStore -reset directory label.
+     * It exits with status 1 if any benchmark has regressed (and with status 2 if the arguments are invalid).
+     *
+     * @param args the arguments.
+     * @throws IOException if the store cannot be read (or written).
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals(RESET)) {
+            final BaselineStore store = new BaselineStore(Paths.get(args[1]));
+            System.out.println("reset " + args[2] + ": deleted " + store.reset(args[2]) + " benchmark(s) for machine " + store.fingerprint);
+            return;
+        }
+        if (args.length < 3) {
+            System.err.println("usage: BaselineStore directory baseline candidate [alpha [threshold]]");
+            System.err.println("   or: BaselineStore " + RESET + " directory label");
+            System.exit(2);
+        }
+        final double alpha = args.length > 3 ? Double.parseDouble(args[3]) : DEFAULT_ALPHA;
+        final double threshold = args.length > 4 ? Double.parseDouble(args[4]) : DEFAULT_THRESHOLD;
+        final BaselineStore store = new BaselineStore(Paths.get(args[0]));
+        final List<Comparison> comparisons = store.compare(args[1], args[2], alpha, threshold);
+        if (comparisons.isEmpty()) logger.warn("BaselineStore: no benchmarks in common between " + args[1] + " and " + args[2] + " for machine " + store.fingerprint);
+        int regressions = 0;
+        for (Comparison comparison : comparisons) {
+            System.out.println(comparison);
+            if (comparison.regression) regressions++;
+        }
+        System.out.println(regressions + " regression(s) in " + comparisons.size() + " benchmark(s)");
+        if (regressions > 0) System.exit(1);
+    }
+
+    private Path file(String label, String key) {
+        final String name = key.replaceAll("[^A-Za-z0-9._-]+", "_");
+        return directory.resolve(fingerprint).resolve(label).resolve((name.length() > 60 ? name.substring(0, 60) : name) + "_" + String.format("%08x", key.hashCode()) + CSV);
+    }
+
+    private static double[] readTimes(List<String> lines) {
+        final double[] result = new double[lines.size()];
+        int count = 0;
+        for (String line : lines)
+            if (!line.startsWith(HEADER) && !line.isEmpty())
+                result[count++] = Double.parseDouble(line.substring(line.indexOf(',') + 1));
+        return Arrays.copyOf(result, count);
+    }
+
+    private static double median(double[] xs) {
+        final double[] sorted = xs.clone();
+        Arrays.sort(sorted);
+        final int n = sorted.length;
+        return n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+    }
+
+    /**
+     * Holder class so that config.ini is loaded only when the default BaselineStore is first required.
+     */
+    private static class Default {
+        static String label = "baseline";
+        static final BaselineStore STORE = load();
+
+        private static BaselineStore load() {
+            try {
+                final Config config = Config.load(BaselineStore.class);
+                final String directory = config.get(BASELINE, "directory");
+                final String configLabel = config.get(BASELINE, "label");
+                if (configLabel != null && !configLabel.isEmpty()) label = configLabel;
+                return directory == null || directory.isEmpty() ? null : new BaselineStore(Paths.get(directory));
+            } catch (IOException e) {
+                logger.warn("BaselineStore: unable to load configuration: results will not be recorded", e);
+                return null;
+            }
+        }
+    }
+
+    final static LazyLogger logger = new LazyLogger(BaselineStore.class);
+
+    public static final String BASELINE = "baseline";
+    public static final double DEFAULT_ALPHA = 0.01;
+    public static final double DEFAULT_THRESHOLD = 0.05;
+
+    private static final String MACHINE_PROPERTIES = "machine.properties";
+    private static final String HEADER = "# ";
+    private static final String CSV = ".csv";
+    private static final String RESET = "-reset";
+
+    private final Path directory;
+    private final String fingerprint;
+}
@@ -4,7 +4,10 @@
 
 package edu.neu.coe.info6205.util;
 
+import java.io.IOException;
+import java.lang.reflect.Array;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Random;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -14,6 +17,8 @@ import java.util.function.UnaryOperator;
 import edu.neu.coe.info6205.sort.simple.InsertionSort;
 import edu.neu.coe.info6205.union_find.WQU;
 import edu.neu.coe.info6205.union_find.WQUPC2;
+import edu.neu.coe.info6205.util.metrics.Histogram;
+import edu.neu.coe.info6205.util.metrics.MetricsRegistry;
 
 import static edu.neu.coe.info6205.util.Utilities.formatWhole;
 
@@ -47,6 +52,18 @@ public class Benchmark_Timer<T> implements Benchmark<T> {
         return Integer.max(2, Integer.min(10, m / 10));
     }
 
+    /**
+     * Method to determine the size of an input.
+     *
+     * @param t the input.
+     * @return the length of an array or the size of a Collection, otherwise -1.
+     */
+    static int sizeOf(Object t) {
+        if (t != null && t.getClass().isArray()) return Array.getLength(t);
+        if (t instanceof Collection) return ((Collection<?>) t).size();
+        return -1;
+    }
+
     /**
      * Run function f m times and return the average time in milliseconds.
      *
@@ -62,10 +79,90 @@ public class Benchmark_Timer<T> implements Benchmark<T> {
             fRun.accept(t);
             return t;
         };
-        new Timer().repeat(getWarmupRuns(m), supplier, function, fPre, null);
+        warmups = warmup.run(m, () -> new Timer().repeat(1, supplier, function, fPre, null));
+        if (warmup.isAdaptive()) logger.info("End warmup: " + description + " after " + formatWhole(warmups) + " runs");
 
         // Timed phase
-        return new Timer().repeat(m, supplier, function, fPre, fPost);
+        final ResourceUsage before = ResourceUsage.snapshot();
+        final Timer timer = new Timer(m, true);
+        size = -1;
+        // NOTE the supplier is not timed, so determining the size of its first input costs nothing.
+        final Supplier<T> sizer = () -> {
+            final T t = supplier.get();
+            if (size < 0) size = sizeOf(t);
+            return t;
+        };
+        final double result = timer.repeat(m, sizer, function, fPre, fPost);
+        resourceUsage = ResourceUsage.snapshot().since(before, timer.allocatedBytes());
+        lapStatistics = timer.lapStatistics();
+        logger.debug(() -> "End run: " + description + ": " + lapStatistics.summary() + "; " + resourceUsage.perRun(m));
+        final MetricsRegistry registry = MetricsRegistry.getDefault();
+        // NOTE the same description is often used for several sizes, which must be distinguished by the n label.
+        final String[] labels = size < 0 ? new String[]{"benchmark", description} : new String[]{"benchmark", description, "n", Integer.toString(size)};
+        registry.counter("benchmark_runs_total", labels).add(m);
+        registry.gauge("benchmark_mean_milliseconds", labels).set(result);
+        registry.gauge("benchmark_warmup_runs", labels).set(warmups);
+        if (resourceUsage.getAllocatedBytes() >= 0)
+            registry.counter("benchmark_allocated_bytes_total", labels).add(resourceUsage.getAllocatedBytes());
+        registry.counter("benchmark_gc_collections_total", labels).add(resourceUsage.getGcCount());
+        registry.counter("benchmark_gc_milliseconds_total", labels).add(resourceUsage.getGcMillis());
+        final Histogram histogram = registry.histogram("benchmark_run_nanoseconds", labels);
+        for (long lap : timer.lapTimes()) histogram.record(lap);
+        final BaselineStore store = BaselineStore.getDefault();
+        if (store != null) try {
+            store.record(BaselineStore.getDefaultLabel(), description, size, timer.lapTimes());
+        } catch (IOException e) {
+            logger.warn("Benchmark_Timer: unable to record results of " + description + " in baseline store", e);
+        }
+        return result;
+    }
+
+    /**
+     * Method to yield the distribution of the run times (in milliseconds) of the most recent (timed) call of runFromSupplier.
+     *
+     * @return a Statistics object (see Statistics.summary for min, mean, percentiles and max) or null if there has been no run.
+     */
+    public Statistics getLapStatistics() {
+        return lapStatistics;
+    }
+
+    /**
+     * Method to yield the memory resources (allocation and garbage collection) used by the timed phase of the most recent call of runFromSupplier.
+     *
+     * @return a ResourceUsage (see ResourceUsage.perRun) or null if there has been no run.
+     */
+    public ResourceUsage getResourceUsage() {
+        return resourceUsage;
+    }
+
+    /**
+     * Method to yield the size of the input of the most recent (timed) call of runFromSupplier,
+     * i.e. the length of the first array (or the size of the first Collection) yielded by the supplier.
+     *
+     * @return the size, or -1 if there has been no run or if the input is neither an array nor a Collection.
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * Method to yield the number of warmup runs which preceded the most recent (timed) call of runFromSupplier.
+     *
+     * @return the number of warmup runs.
+     */
+    public int getWarmups() {
+        return warmups;
+    }
+
+    /**
+     * Method to set the warmup for this Benchmark_Timer (the default is defined by config.ini: see Warmup).
+     *
+     * @param warmup the Warmup.
+     * @return this Benchmark_Timer.
+     */
+    public Benchmark_Timer<T> setWarmup(Warmup warmup) {
+        this.warmup = warmup;
+        return this;
     }
 
     /**
@@ -225,6 +322,11 @@ public class Benchmark_Timer<T> implements Benchmark<T> {
     private final UnaryOperator<T> fPre;
     private final Consumer<T> fRun;
     private final Consumer<T> fPost;
+    private Statistics lapStatistics = null;
+    private Warmup warmup = Warmup.getDefault();
+    private int warmups = 0;
+    private ResourceUsage resourceUsage = null;
+    private int size = -1;
 
     final static LazyLogger logger = new LazyLogger(Benchmark_Timer.class);
 }
@@ -0,0 +1,111 @@
+package edu.neu.coe.info6205.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Class to write rows (FileData) to a CSV file as they are produced, rather than all at once (compare FileHandlerImpl_CSV).
+ * The rows are buffered and the file is flushed only after every flushRows rows (and when closed),
+ * so that writing a very large number of rows costs little more than formatting them.
+ * <p>
+ * In append mode, rows are added to an existing file and the header is written only if the file is new (or empty).
+ *
+ * @param <T> the type of the rows.
+ */
+public class CSVResultWriter<T extends FileData> implements Closeable {
+
+    /**
+     * Constructor for a CSVResultWriter.
+     *
+     * @param file      the file.
+     * @param header    the header, including its line separator (may be null or empty for no header).
+     * @param append    if true, rows are appended to any existing file; otherwise, any existing file is replaced.
+     * @param flushRows the number of rows between flushes (if not positive, the file is flushed only when full buffers are written and when closed).
+     * @throws IOException if the file cannot be opened or the header cannot be written (in which case the file is closed).
+     */
+    public CSVResultWriter(File file, String header, boolean append, int flushRows) throws IOException {
+        final boolean writeHeader = header != null && !header.isEmpty() && !(append && file.length() > 0);
+        final StandardOpenOption mode = append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING;
+        this.writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode), StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.flushRows = flushRows;
+        this.nextFlush = flushRows > 0 ? flushRows : Long.MAX_VALUE;
+        if (writeHeader) try {
+            writer.write(header);
+        } catch (IOException e) {
+            writer.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Constructor for a CSVResultWriter which replaces any existing file and flushes every DEFAULT_FLUSH_ROWS rows.
+     *
+     * @param file   the file.
+     * @param header the header, including its line separator (may be null or empty for no header).
+     * @throws IOException if the file cannot be opened.
+     */
+    public CSVResultWriter(File file, String header) throws IOException {
+        this(file, header, false, DEFAULT_FLUSH_ROWS);
+    }
+
+    /**
+     * Method to write one row.
+     *
+     * @param row the row.
+     * @throws IOException if the row cannot be written.
+     */
+    public void write(T row) throws IOException {
+        writer.write(row.toFile());
+        if (++rows == nextFlush) {
+            writer.flush();
+            nextFlush += flushRows;
+        }
+    }
+
+    /**
+     * Method to write a number of rows.
+     *
+     * @param rows the rows.
+     * @throws IOException if a row cannot be written.
+     */
+    public void writeAll(Iterable<? extends T> rows) throws IOException {
+        for (T row : rows) write(row);
+    }
+
+    /**
+     * @return the number of rows written by this CSVResultWriter.
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Method to flush the rows written so far to the file.
+     *
+     * @throws IOException if the rows cannot be flushed.
+     */
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    public static final int DEFAULT_FLUSH_ROWS = 100000;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private final Writer writer;
+    private final int flushRows;
+    private long rows = 0;
+    private long nextFlush;
+}
@@ -0,0 +1,345 @@
+package edu.neu.coe.info6205.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Class to define a compact binary, columnar, format for the results of benchmarks and experiments (compare CSVResultWriter),
+ * with a Writer (which streams rows to the file) and a Reader (which loads whole columns).
+ * <p>
+ * Each column has a name and a Type (LONG or DOUBLE, each of eight bytes).
+ * The file consists of a header (the schema) followed by any number of blocks,
+ * each of which consists of its number of rows followed by the values of each column in turn.
+ * Thus, a column is read by bulk transfers from a memory-mapped file, skipping the other columns, without any parsing.
+ * <p>
+ * A file may be appended to (with the same schema) and, if a writer does not finish its last block (e.g. because it crashed),
+ * the incomplete block is ignored by a Reader (and is overwritten by a Writer in append mode).
+ * <p>
+ * NOTE: a Reader maps the whole file and so is limited to files of less than 2GB.
+ * CONSIDER mapping each block separately.
+ */
+public class ColumnarFile {
+
+    /**
+     * Enumeration of the types of column.
+     */
+    public enum Type {
+        LONG, DOUBLE
+    }
+
+    /**
+     * Class to write rows to a columnar file.
+     * The values of a row are set by setLong and setDouble, after which the row is ended by endRow.
+     * Rows are buffered and written a block at a time (and when the Writer is closed).
+     */
+    public static class Writer implements Closeable {
+
+        /**
+         * Constructor for a Writer.
+         *
+         * @param file      the file.
+         * @param names     the names of the columns.
+         * @param types     the types of the columns (in the same order as names).
+         * @param append    if true, rows are appended to any existing file (which must have the same schema); otherwise, any existing file is replaced.
+         * @param blockRows the number of rows in each block.
+         * @throws IOException if the file cannot be opened or if, in append mode, its schema is different.
+         */
+        public Writer(File file, String[] names, Type[] types, boolean append, int blockRows) throws IOException {
+            if (names.length != types.length || names.length == 0)
+                throw new IllegalArgumentException("ColumnarFile: names and types must be non-empty and of the same length");
+            if (blockRows < 1) throw new IllegalArgumentException("ColumnarFile: blockRows must be positive: " + blockRows);
+            this.types = types.clone();
+            this.blockRows = blockRows;
+            this.values = new long[types.length][blockRows];
+            this.buffer = ByteBuffer.allocate(Integer.BYTES + types.length * blockRows * Long.BYTES);
+            final boolean existing = append && file.length() > 0;
+            final long end = existing ? existingEnd(file, names, types) : 0;
+            this.channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            try {
+                channel.truncate(end);
+                channel.position(end);
+                if (!existing) writeFully(header(names, types));
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        /**
+         * Constructor for a Writer which replaces any existing file and writes blocks of DEFAULT_BLOCK_ROWS rows.
+         *
+         * @param file  the file.
+         * @param names the names of the columns.
+         * @param types the types of the columns (in the same order as names).
+         * @throws IOException if the file cannot be opened.
+         */
+        public Writer(File file, String[] names, Type[] types) throws IOException {
+            this(file, names, types, false, DEFAULT_BLOCK_ROWS);
+        }
+
+        /**
+         * Method to set the value of a LONG column in the current row.
+         *
+         * @param column the index of the column.
+         * @param value  the value.
+         */
+        public void setLong(int column, long value) {
+            if (types[column] != Type.LONG) throw new IllegalArgumentException("ColumnarFile: column " + column + " is not LONG");
+            values[column][row] = value;
+        }
+
+        /**
+         * Method to set the value of a DOUBLE column in the current row.
+         *
+         * @param column the index of the column.
+         * @param value  the value.
+         */
+        public void setDouble(int column, double value) {
+            if (types[column] != Type.DOUBLE) throw new IllegalArgumentException("ColumnarFile: column " + column + " is not DOUBLE");
+            values[column][row] = Double.doubleToRawLongBits(value);
+        }
+
+        /**
+         * Method to end the current row.
+         * Any column whose value has not been set (in this row) has the value zero.
+         *
+         * @throws IOException if a block cannot be written.
+         */
+        public void endRow() throws IOException {
+            rows++;
+            if (++row == blockRows) writeBlock();
+            // NOTE the buffers are reused for each block, so the next row must be cleared.
+            for (long[] column : values) column[row] = 0;
+        }
+
+        /**
+         * @return the number of rows written by this Writer.
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Method to write the current (incomplete) block and to close the file.
+         *
+         * @throws IOException if the block cannot be written.
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                if (row > 0) writeBlock();
+            } finally {
+                channel.close();
+            }
+        }
+
+        private void writeBlock() throws IOException {
+            buffer.clear();
+            buffer.putInt(row);
+            for (long[] column : values) {
+                buffer.asLongBuffer().put(column, 0, row);
+                buffer.position(buffer.position() + row * Long.BYTES);
+            }
+            buffer.flip();
+            writeFully(buffer);
+            row = 0;
+        }
+
+        private void writeFully(ByteBuffer byteBuffer) throws IOException {
+            while (byteBuffer.hasRemaining()) channel.write(byteBuffer);
+        }
+
+        private final Type[] types;
+        private final int blockRows;
+        private final long[][] values;
+        private final ByteBuffer buffer;
+        private final FileChannel channel;
+        private int row = 0;
+        private long rows = 0;
+    }
+
+    /**
+     * Class to read the columns of a columnar file.
+     */
+    public static class Reader {
+
+        /**
+         * Constructor for a Reader, which maps the file and reads its schema and the sizes of its blocks.
+         *
+         * @param file the file.
+         * @throws IOException if the file cannot be read or is not a columnar file.
+         */
+        public Reader(File file) throws IOException {
+            try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+                // NOTE the mapping remains valid after the channel is closed.
+                this.buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            try {
+                if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION)
+                    throw new IOException("ColumnarFile: not a columnar file (or unsupported version): " + file);
+                final int k = buffer.getInt();
+                for (int i = 0; i < k; i++) {
+                    final byte[] name = new byte[buffer.getInt()];
+                    buffer.get(name);
+                    columns.put(new String(name, StandardCharsets.UTF_8), i);
+                }
+                this.types = new Type[k];
+                for (int i = 0; i < k; i++) types[i] = Type.values()[buffer.get()];
+            } catch (RuntimeException e) {
+                throw new IOException("ColumnarFile: corrupt header: " + file, e);
+            }
+            long total = 0;
+            int position = buffer.position();
+            final List<Integer> offsets = new ArrayList<>(), sizes = new ArrayList<>();
+            while (buffer.limit() - position >= Integer.BYTES) {
+                final int n = buffer.getInt(position);
+                final long next = position + Integer.BYTES + (long) n * types.length * Long.BYTES;
+                if (n <= 0 || next > buffer.limit()) break;
+                offsets.add(position + Integer.BYTES);
+                sizes.add(n);
+                total += n;
+                position = (int) next;
+            }
+            if (position < buffer.limit())
+                logger.warn("ColumnarFile: ignoring incomplete block at end of " + file);
+            this.end = position;
+            this.blockOffsets = offsets.stream().mapToInt(Integer::intValue).toArray();
+            this.blockSizes = sizes.stream().mapToInt(Integer::intValue).toArray();
+            this.rows = total;
+        }
+
+        /**
+         * @return the names of the columns (in order).
+         */
+        public List<String> getColumns() {
+            return Collections.unmodifiableList(new ArrayList<>(columns.keySet()));
+        }
+
+        /**
+         * Method to get the type of a column.
+         *
+         * @param name the name of the column.
+         * @return its type.
+         */
+        public Type getType(String name) {
+            return types[column(name)];
+        }
+
+        /**
+         * @return the number of (complete) rows in the file.
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Method to read all of the values of a LONG column.
+         *
+         * @param name the name of the column.
+         * @return an array of the values, one for each row.
+         */
+        public long[] readLongs(String name) {
+            final int column = column(name, Type.LONG);
+            final long[] result = new long[size()];
+            int index = 0;
+            for (int i = 0; i < blockSizes.length; i++) {
+                columnBuffer(i, column).asLongBuffer().get(result, index, blockSizes[i]);
+                index += blockSizes[i];
+            }
+            return result;
+        }
+
+        /**
+         * Method to read all of the values of a DOUBLE column.
+         *
+         * @param name the name of the column.
+         * @return an array of the values, one for each row.
+         */
+        public double[] readDoubles(String name) {
+            final int column = column(name, Type.DOUBLE);
+            final double[] result = new double[size()];
+            int index = 0;
+            for (int i = 0; i < blockSizes.length; i++) {
+                columnBuffer(i, column).asDoubleBuffer().get(result, index, blockSizes[i]);
+                index += blockSizes[i];
+            }
+            return result;
+        }
+
+        private ByteBuffer columnBuffer(int block, int column) {
+            // NOTE each caller has its own view of the mapping, so that concurrent reads are safe.
+            final ByteBuffer result = buffer.duplicate();
+            result.position(blockOffsets[block] + column * blockSizes[block] * Long.BYTES);
+            return result;
+        }
+
+        private int size() {
+            if (rows > Integer.MAX_VALUE) throw new IllegalStateException("ColumnarFile: too many rows for an array: " + rows);
+            return (int) rows;
+        }
+
+        private int column(String name, Type type) {
+            final int result = column(name);
+            if (types[result] != type) throw new IllegalArgumentException("ColumnarFile: column " + name + " is not " + type);
+            return result;
+        }
+
+        private int column(String name) {
+            final Integer result = columns.get(name);
+            if (result == null) throw new IllegalArgumentException("ColumnarFile: no such column: " + name);
+            return result;
+        }
+
+        private final MappedByteBuffer buffer;
+        private final Map<String, Integer> columns = new LinkedHashMap<>();
+        private final Type[] types;
+        private final int[] blockOffsets;
+        private final int[] blockSizes;
+        private final long rows;
+        private final int end;
+    }
+
+    private static ByteBuffer header(String[] names, Type[] types) {
+        final byte[][] bytes = new byte[names.length][];
+        int size = 3 * Integer.BYTES;
+        for (int i = 0; i < names.length; i++) {
+            bytes[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            size += Integer.BYTES + bytes[i].length + 1;
+        }
+        final ByteBuffer result = ByteBuffer.allocate(size);
+        result.putInt(MAGIC).putInt(VERSION).putInt(names.length);
+        for (byte[] name : bytes) result.putInt(name.length).put(name);
+        for (Type type : types) result.put((byte) type.ordinal());
+        result.flip();
+        return result;
+    }
+
+    /**
+     * Method to check the schema of an existing file and to find the end of its last complete block.
+     */
+    private static long existingEnd(File file, String[] names, Type[] types) throws IOException {
+        final Reader reader = new Reader(file);
+        if (!reader.getColumns().equals(Arrays.asList(names)) || !Arrays.equals(reader.types, types))
+            throw new IOException("ColumnarFile: cannot append to " + file + " with a different schema: " + reader.getColumns());
+        return reader.end;
+    }
+
+    final static LazyLogger logger = new LazyLogger(ColumnarFile.class);
+
+    public static final int DEFAULT_BLOCK_ROWS = 65536;
+
+    private static final int MAGIC = 0x434F4C53;
+    private static final int VERSION = 1;
+}
@@ -9,8 +9,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 @SuppressWarnings("SuspiciousMethodCalls")
@@ -29,11 +34,9 @@ public class Config {
         for (Map.Entry<String, Profile.Section> entry : this.ini.entrySet())
             for (Map.Entry<String, String> x : entry.getValue().entrySet())
                 ini.put(entry.getKey(), x.getKey(), x.getValue());
-        Config result = new Config(ini);
-        Profile.Section section = result.ini.get(sectionName);
-        section.replace(optionName, value);
-        result.ini.replace(sectionName, section);
-        return result;
+        // NOTE: we use put rather than replace so that the option is set even if it was previously absent.
+        ini.put(sectionName, optionName, value);
+        return new Config(ini);
     }
 
     public String get(Object sectionName, Object optionName) {
@@ -87,7 +90,12 @@ public class Config {
     }
 
     public Config(Ini ini) {
+        this(ini, null);
+    }
+
+    Config(Ini ini, FrozenConfig frozen) {
         this.ini = ini;
+        this.frozen = frozen;
     }
 
     public Config(Reader reader) throws IOException {
@@ -120,6 +128,20 @@ public class Config {
         return getBoolean(HELPER, INSTRUMENT);
     }
 
+    /**
+     * Method to yield the FrozenConfig of this Config, i.e. an immutable snapshot with typed values, for lookups on hot paths.
+     * The snapshot is taken on the first call and cached.
+     * NOTE: changes made (via get(key)) to the sections of this Config after the first call are not reflected in the snapshot.
+     *
+     * @return the FrozenConfig.
+     */
+    public FrozenConfig freeze() {
+        FrozenConfig result = frozen;
+        // NOTE: if two threads freeze concurrently, each may create a snapshot, but the snapshots are equivalent.
+        if (result == null) frozen = result = FrozenConfig.of(ini);
+        return result;
+    }
+
     // CONSIDER: sort these out.
     public static final String HELPER = "helper";
     public static final String INSTRUMENT = BaseHelper.INSTRUMENT;
@@ -149,6 +171,43 @@ public class Config {
         return load(null);
     }
 
+    /**
+     * Method to set options of one section of an ini file (such as config.ini), in place.
+     * Unlike storing an Ini, this preserves the comments and the layout of the file:
+     * an existing option is replaced on its own line; a new option is added at the end of its section;
+     * and a new section is added at the end of the file.
+     *
+     * @param file        the ini file.
+     * @param sectionName the section name.
+     * @param options     the options to be set (in order).
+     * @throws IOException if the file cannot be read or written.
+     */
+    public static void update(File file, String sectionName, Map<String, String> options) throws IOException {
+        final List<String> lines = new ArrayList<>(Files.readAllLines(file.toPath(), StandardCharsets.UTF_8));
+        final Map<String, String> remaining = new LinkedHashMap<>(options);
+        final String header = "[" + sectionName + "]";
+        int index = 0;
+        while (index < lines.size() && !lines.get(index).trim().equals(header)) index++;
+        if (index == lines.size()) {
+            if (!lines.isEmpty() && !lines.get(lines.size() - 1).trim().isEmpty()) lines.add("");
+            lines.add(header);
+            index = lines.size() - 1;
+        }
+        // NOTE end is the index after the last non-blank line of the section.
+        int end = ++index;
+        for (; index < lines.size() && !lines.get(index).trim().startsWith("["); index++) {
+            final String line = lines.get(index).trim();
+            if (!line.isEmpty()) end = index + 1;
+            final int equals = line.indexOf('=');
+            if (equals > 0 && !line.startsWith("#") && !line.startsWith(";")) {
+                final String option = line.substring(0, equals).trim();
+                if (remaining.containsKey(option)) lines.set(index, option + " = " + remaining.remove(option));
+            }
+        }
+        for (Map.Entry<String, String> entry : remaining.entrySet()) lines.add(end++, entry.getKey() + " = " + entry.getValue());
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+    }
+
     private boolean unLogged(String s) {
         Boolean value = logged.get(s);
         if (value == null) {
@@ -164,4 +223,5 @@ public class Config {
     private static final Map<String, Boolean> logged = new HashMap<>();
 
     private final Ini ini;
+    private volatile FrozenConfig frozen;
 }
@@ -0,0 +1,295 @@
+package edu.neu.coe.info6205.util;
+
+import edu.neu.coe.info6205.sort.BaseHelper;
+import edu.neu.coe.info6205.sort.simple.LCPMergeSort;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static edu.neu.coe.info6205.util.Utilities.formatWhole;
+
+/**
+ * Class to load the distinct words (tokens) of a corpus, such as the Leipzig sentence files.
+ * <p>
+ * The corpus is memory-mapped in chunks (each ending at a line boundary) which are decoded and tokenized in parallel,
+ * and the distinct tokens (of at least two characters) are then sorted (see LCPMergeSort.sortDistinct).
+ * The tokens are written to a binary cache file next to the corpus (see getCacheFile),
+ * so that subsequent loads simply map the cache: a header, the offsets of the tokens and then their UTF-8 bytes.
+ * The cache is rebuilt whenever the length or the modification time of the corpus changes.
+ * <p>
+ * The name of a CorpusLoader identifies its tokenizer in the name of the cache file,
+ * so different tokenizers of the same corpus have different caches.
+ */
+public class CorpusLoader {
+
+    /**
+     * Constructor for a CorpusLoader.
+     *
+     * @param name      the name of the tokenizer (part of the name of the cache file).
+     * @param tokenizer a function which yields the tokens of one line of the corpus (it must be thread-safe).
+     */
+    public CorpusLoader(String name, Function<String, Collection<String>> tokenizer) {
+        this.name = name;
+        this.tokenizer = tokenizer;
+    }
+
+    /**
+     * Method to load the tokens of a corpus, from the cache if it is valid, otherwise by tokenizing the corpus
+     * (in which case a new cache is written, if possible).
+     *
+     * @param corpus the corpus file.
+     * @return the Tokens.
+     * @throws IOException if the corpus cannot be read.
+     */
+    public Tokens load(File corpus) throws IOException {
+        final File cache = getCacheFile(corpus);
+        if (cache.exists()) {
+            try {
+                final Tokens result = readCache(cache, corpus);
+                if (result != null) {
+                    logger.debug(() -> "CorpusLoader: " + formatWhole(result.size()) + " tokens from cache " + cache);
+                    return result;
+                }
+                logger.info("CorpusLoader: cache " + cache + " is stale");
+            } catch (IOException e) {
+                logger.warn("CorpusLoader: unable to read cache " + cache, e);
+            }
+        }
+        final String[] words = tokenize(corpus);
+        try {
+            writeCache(cache, corpus, words);
+        } catch (IOException e) {
+            // NOTE the corpus may be read-only (e.g. in a jar), in which case we simply do without the cache.
+            logger.warn("CorpusLoader: unable to write cache " + cache + ": " + e.getLocalizedMessage());
+        }
+        return new Tokens(words);
+    }
+
+    /**
+     * Method to tokenize a corpus (without reference to the cache).
+     *
+     * @param corpus the corpus file.
+     * @return the distinct tokens of at least two characters, in sorted order.
+     * @throws IOException if the corpus cannot be read.
+     */
+    public String[] tokenize(File corpus) throws IOException {
+        final long start = System.nanoTime();
+        final List<Set<String>> chunks;
+        try (FileChannel channel = FileChannel.open(corpus.toPath(), StandardOpenOption.READ)) {
+            final long[] boundaries = chunkBoundaries(channel);
+            final List<MappedByteBuffer> buffers = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.length; i++)
+                buffers.add(channel.map(FileChannel.MapMode.READ_ONLY, boundaries[i], boundaries[i + 1] - boundaries[i]));
+            chunks = buffers.parallelStream().map(this::tokenizeChunk).collect(Collectors.toList());
+        }
+        final Set<String> words = new HashSet<>();
+        for (Set<String> chunk : chunks) words.addAll(chunk);
+        // NOTE: the words are made distinct (and, incidentally, sorted) in a single pass of the LCP merge sort.
+        final String[] result = new LCPMergeSort(new BaseHelper<>("CorpusLoader")).sortDistinct(words.toArray(new String[0]));
+        logger.info("CorpusLoader: tokenized " + corpus.getName() + " into " + formatWhole(result.length) + " words in " + formatWhole((System.nanoTime() - start) / 1000000) + " mSecs");
+        return result;
+    }
+
+    /**
+     * Method to yield the cache file of a corpus: in the same directory as the corpus, with the name of the corpus followed by
+     * the name of this CorpusLoader and ".tokens".
+     *
+     * @param corpus the corpus file.
+     * @return the cache file.
+     */
+    public File getCacheFile(File corpus) {
+        return new File(corpus.getParentFile(), corpus.getName() + "." + name + CACHE_SUFFIX);
+    }
+
+    /**
+     * Class to represent the tokens of a corpus.
+     * If the tokens come from a cache, they are decoded from the mapped cache only as they are required.
+     */
+    public static class Tokens {
+
+        /**
+         * @return the number of tokens.
+         */
+        public int size() {
+            return words != null ? words.length : offsets.limit() - 1;
+        }
+
+        /**
+         * Method to yield the token at index i.
+         *
+         * @param i the index.
+         * @return the token.
+         */
+        public String get(int i) {
+            if (words != null) return words[i];
+            final ByteBuffer slice = data.duplicate();
+            slice.limit(offsets.get(i + 1)).position(offsets.get(i));
+            return StandardCharsets.UTF_8.decode(slice).toString();
+        }
+
+        /**
+         * Method to yield all the tokens (decoded in parallel, if they come from a cache).
+         *
+         * @return a new array of the tokens.
+         */
+        public String[] toArray() {
+            if (words != null) return words.clone();
+            final String[] result = new String[size()];
+            IntStream.range(0, result.length).parallel().forEach(i -> result[i] = get(i));
+            return result;
+        }
+
+        Tokens(String[] words) {
+            this.words = words;
+            this.offsets = null;
+            this.data = null;
+        }
+
+        Tokens(IntBuffer offsets, ByteBuffer data) {
+            this.words = null;
+            this.offsets = offsets;
+            this.data = data;
+        }
+
+        private final String[] words;
+        private final IntBuffer offsets;
+        private final ByteBuffer data;
+    }
+
+    /**
+     * Method to read a cache (which must have been written for the current version of the corpus).
+     *
+     * @return the Tokens, or null if the cache is stale.
+     */
+    private static Tokens readCache(File cache, File corpus) throws IOException {
+        try (FileChannel channel = FileChannel.open(cache.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER || channel.size() > Integer.MAX_VALUE) return null;
+            // NOTE the mapping remains valid after the channel is closed.
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) return null;
+            if (buffer.getLong() != corpus.length() || buffer.getLong() != corpus.lastModified()) return null;
+            final int n = buffer.getInt();
+            final int dataStart = HEADER + (n + 1) * 4;
+            if (n < 0 || dataStart > buffer.capacity()) throw new IOException("CorpusLoader: corrupt cache: " + cache);
+            buffer.limit(dataStart);
+            final IntBuffer offsets = buffer.slice().asIntBuffer();
+            buffer.limit(buffer.capacity()).position(dataStart);
+            final ByteBuffer data = buffer.slice();
+            if (offsets.get(n) != data.capacity()) throw new IOException("CorpusLoader: corrupt cache: " + cache);
+            return new Tokens(offsets, data);
+        }
+    }
+
+    /**
+     * Method to write a cache (via a temporary file, so that a cache is never partially written).
+     */
+    private static void writeCache(File cache, File corpus, String[] words) throws IOException {
+        final byte[][] bytes = new byte[words.length][];
+        IntStream.range(0, words.length).parallel().forEach(i -> bytes[i] = words[i].getBytes(StandardCharsets.UTF_8));
+        long total = HEADER + (words.length + 1) * 4L;
+        for (byte[] b : bytes) total += b.length;
+        if (total > Integer.MAX_VALUE) throw new IOException("CorpusLoader: tokens are too large to cache: " + formatWhole(total) + " bytes");
+        final Path temporary = Files.createTempFile(cache.getAbsoluteFile().getParentFile().toPath(), cache.getName(), ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(temporary); DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(corpus.length());
+                out.writeLong(corpus.lastModified());
+                out.writeInt(words.length);
+                int offset = 0;
+                out.writeInt(offset);
+                for (byte[] b : bytes) out.writeInt(offset += b.length);
+                for (byte[] b : bytes) out.write(b);
+            }
+            Files.move(temporary, cache.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Method to divide a file into chunks, each (except the last) ending just after a newline.
+     * NOTE that, in UTF-8, the newline byte cannot occur within a multi-byte character.
+     *
+     * @return the boundaries of the chunks, starting with 0 and ending with the size of the file.
+     */
+    private static long[] chunkBoundaries(FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final long chunk = Math.max(MINIMUM_CHUNK, Math.min(MAXIMUM_CHUNK, size / (Runtime.getRuntime().availableProcessors() * 4L) + 1));
+        final List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        final ByteBuffer probe = ByteBuffer.allocate(4096);
+        long position = chunk;
+        while (position < size) {
+            long boundary = -1;
+            for (long p = position; boundary < 0 && p < size; p += probe.capacity()) {
+                probe.clear();
+                final int read = channel.read(probe, p);
+                for (int i = 0; i < read; i++)
+                    if (probe.get(i) == '\n') {
+                        boundary = p + i + 1;
+                        break;
+                    }
+            }
+            if (boundary < 0 || boundary >= size) break;
+            boundaries.add(boundary);
+            position = boundary + chunk;
+        }
+        boundaries.add(size);
+        final long[] result = new long[boundaries.size()];
+        for (int i = 0; i < result.length; i++) result[i] = boundaries.get(i);
+        return result;
+    }
+
+    private Set<String> tokenizeChunk(ByteBuffer buffer) {
+        final String text = StandardCharsets.UTF_8.decode(buffer).toString();
+        final Set<String> result = new HashSet<>();
+        int start = 0;
+        final int length = text.length();
+        while (start < length) {
+            int end = start;
+            while (end < length && text.charAt(end) != '\n' && text.charAt(end) != '\r') end++;
+            for (String word : tokenizer.apply(text.substring(start, end)))
+                if (word.length() >= MINIMUM_LENGTH) result.add(word);
+            // NOTE a line ends with \n, \r or \r\n (as for BufferedReader).
+            start = end < length - 1 && text.charAt(end) == '\r' && text.charAt(end + 1) == '\n' ? end + 2 : end + 1;
+        }
+        return result;
+    }
+
+    final static LazyLogger logger = new LazyLogger(CorpusLoader.class);
+
+    public static final String CACHE_SUFFIX = ".tokens";
+
+    private static final int MAGIC = 0x544F4B53;
+    private static final int VERSION = 1;
+    // NOTE magic, version, corpus length, corpus modification time, number of tokens.
+    private static final int HEADER = 4 + 4 + 8 + 8 + 4;
+    private static final int MINIMUM_LENGTH = 2;
+    private static final long MINIMUM_CHUNK = 1 << 20;
+    private static final long MAXIMUM_CHUNK = 1 << 28;
+
+    private final String name;
+    private final Function<String, Collection<String>> tokenizer;
+}
@@ -0,0 +1,344 @@
+package edu.neu.coe.info6205.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.IntFunction;
+
+/**
+ * Class to perform a doubling-ratio experiment: a Benchmark is run at sizes n, 2n, 4n, etc. until a time budget is exhausted,
+ * and the observed times are then fitted to a model of the running time.
+ * <p>
+ * Two models are fitted (by least squares on the logarithms of the times):
+ * a power law, t = a n^b, for which both the exponent b and the constant factor a are estimated;
+ * and a linearithmic law, t = a n lg n, for which only a is estimated.
+ * Each estimate is accompanied by a 95% confidence interval (based on Student's t distribution),
+ * so that, for example, an exponent whose interval is [1.05, 1.15] is consistent with n log n but not with n^2.
+ * <p>
+ * The observations and the fits may be written (as CSV and JSON respectively) by FileHandlerImpl_CSV.
+ * The observations may also be written in the binary columnar format of ColumnarFile.
+ *
+ * @param <T> the type of the input to the benchmark.
+ */
+public class DoublingExperiment<T> {
+
+    /**
+     * Constructor for a DoublingExperiment.
+     *
+     * @param description the description of the experiment.
+     * @param benchmark   the benchmark to be run at each size.
+     * @param generator   a function which yields a (new) input of the given size.
+     * @param m           the number of timed runs at each size.
+     */
+    public DoublingExperiment(String description, Benchmark<T> benchmark, IntFunction<T> generator, int m) {
+        this.description = description;
+        this.benchmark = benchmark;
+        this.generator = generator;
+        this.m = m;
+    }
+
+    /**
+     * Method to run the experiment, with sizes up to DEFAULT_MAX_N.
+     *
+     * @param n0           the first size.
+     * @param budgetMillis the time budget (in milliseconds) for the whole experiment, including warmups.
+     * @return the observations.
+     */
+    public List<Observation> run(int n0, long budgetMillis) {
+        return run(n0, Math.max(n0, DEFAULT_MAX_N), budgetMillis);
+    }
+
+    /**
+     * Method to run the experiment.
+     * The size is doubled for as long as the predicted time of the next size (based on the latest doubling ratio)
+     * fits into what remains of the budget, and the next size does not exceed maxN.
+     *
+     * @param n0           the first size.
+     * @param maxN         the greatest size.
+     * @param budgetMillis the time budget (in milliseconds) for the whole experiment, including warmups.
+     * @return the observations.
+     */
+    public List<Observation> run(int n0, int maxN, long budgetMillis) {
+        if (n0 < 1) throw new IllegalArgumentException("DoublingExperiment: n0 must be positive: " + n0);
+        if (maxN < n0) throw new IllegalArgumentException("DoublingExperiment: maxN must not be less than n0: " + maxN);
+        observations.clear();
+        final long start = System.nanoTime();
+        long previousCost = 0;
+        // NOTE: the test n <= maxN / 2 (rather than 2 * n <= maxN) ensures that the doubling cannot overflow.
+        for (int n = n0; ; n *= 2) {
+            final int size = n;
+            final long begin = System.nanoTime();
+            final double time = benchmark.runFromSupplier(() -> generator.apply(size), m);
+            final long cost = System.nanoTime() - begin;
+            final Observation observation = new Observation(n, time, observations.isEmpty() ? Double.NaN : time / observations.get(observations.size() - 1).time);
+            observations.add(observation);
+            logger.info(description + ": " + observation);
+            final double growth = previousCost > 0 ? Math.max(2.0, (double) cost / previousCost) : 2.0;
+            final double elapsedMillis = (System.nanoTime() - start) / 1e6;
+            if (n > maxN / 2 || elapsedMillis + cost * growth / 1e6 > budgetMillis) break;
+            previousCost = cost;
+        }
+        return Collections.unmodifiableList(observations);
+    }
+
+    /**
+     * @return the observations of the most recent run.
+     */
+    public List<Observation> getObservations() {
+        return Collections.unmodifiableList(observations);
+    }
+
+    /**
+     * Method to fit the power law t = a n^b to the observations.
+     *
+     * Observations whose time is not positive (see usable) are ignored.
+     *
+     * @return the Fit (the confidence intervals are NaN if there are fewer than three usable observations).
+     */
+    public Fit fitPowerLaw() {
+        final List<Observation> usable = usable();
+        final int k = usable.size();
+        if (k < 2) throw new IllegalStateException("DoublingExperiment: at least two observations with positive times are required");
+        final double[] xs = new double[k], ys = new double[k];
+        for (int i = 0; i < k; i++) {
+            xs[i] = Math.log(usable.get(i).n);
+            ys[i] = Math.log(usable.get(i).time);
+        }
+        final double xBar = mean(xs), yBar = mean(ys);
+        double sxx = 0, sxy = 0;
+        for (int i = 0; i < k; i++) {
+            sxx += (xs[i] - xBar) * (xs[i] - xBar);
+            sxy += (xs[i] - xBar) * (ys[i] - yBar);
+        }
+        final double b = sxy / sxx;
+        final double logA = yBar - b * xBar;
+        double rss = 0, tss = 0;
+        for (int i = 0; i < k; i++) {
+            final double residual = ys[i] - logA - b * xs[i];
+            rss += residual * residual;
+            tss += (ys[i] - yBar) * (ys[i] - yBar);
+        }
+        final int df = k - 2;
+        final double s2 = df > 0 ? rss / df : Double.NaN;
+        final double seB = Math.sqrt(s2 / sxx);
+        final double seLogA = Math.sqrt(s2 * (1.0 / k + xBar * xBar / sxx));
+        final double t = studentT975(df);
+        return new Fit(POWER_LAW, b, b - t * seB, b + t * seB, Math.exp(logA), Math.exp(logA - t * seLogA), Math.exp(logA + t * seLogA), tss > 0 ? 1 - rss / tss : 1, rss / k);
+    }
+
+    /**
+     * Method to fit the linearithmic law t = a n lg n to the observations.
+     *
+     * Observations whose time is not positive (see usable) are ignored.
+     *
+     * @return the Fit (whose exponent is fixed at 1 and whose confidence intervals are NaN if there are fewer than two usable observations).
+     */
+    public Fit fitLinearithmic() {
+        final List<Observation> usable = usable();
+        final int k = usable.size();
+        if (k < 1) throw new IllegalStateException("DoublingExperiment: at least one observation with a positive time is required");
+        final double[] logAs = new double[k];
+        for (int i = 0; i < k; i++) {
+            final Observation observation = usable.get(i);
+            logAs[i] = Math.log(observation.time) - Math.log(observation.n * lg(observation.n));
+        }
+        final double logA = mean(logAs);
+        double rss = 0;
+        for (double x : logAs) rss += (x - logA) * (x - logA);
+        final int df = k - 1;
+        final double seLogA = df > 0 ? Math.sqrt(rss / df / k) : Double.NaN;
+        final double t = studentT975(df);
+        return new Fit(LINEARITHMIC, 1, 1, 1, Math.exp(logA), Math.exp(logA - t * seLogA), Math.exp(logA + t * seLogA), Double.NaN, rss / k);
+    }
+
+    /**
+     * Method to write the observations as CSV.
+     *
+     * @param fileName the name of the file.
+     * @return true if the file was written successfully.
+     */
+    public boolean writeCSV(String fileName) {
+        return new FileHandlerImpl_CSV<Observation>().writecsv("n,time,ratio\n", fileName, observations);
+    }
+
+    /**
+     * Method to write the observations in the binary columnar format (see ColumnarFile), with columns n, time and ratio.
+     *
+     * @param fileName the name of the file.
+     * @return true if the file was written successfully.
+     */
+    public boolean writeColumnar(String fileName) {
+        try (ColumnarFile.Writer writer = new ColumnarFile.Writer(new File(fileName), new String[]{"n", "time", "ratio"}, new ColumnarFile.Type[]{ColumnarFile.Type.LONG, ColumnarFile.Type.DOUBLE, ColumnarFile.Type.DOUBLE})) {
+            for (Observation observation : observations) {
+                writer.setLong(0, observation.n);
+                writer.setDouble(1, observation.time);
+                writer.setDouble(2, observation.ratio);
+                writer.endRow();
+            }
+            return true;
+        } catch (IOException e) {
+            logger.warn("DoublingExperiment: unable to write " + fileName + ": " + e.getLocalizedMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Method to write the description, the observations and both fits as JSON.
+     * The fits are omitted if there are fewer than two observations with positive times (see fitPowerLaw).
+     *
+     * @param fileName the name of the file.
+     * @return true if the file was written successfully.
+     */
+    public boolean writeJSON(String fileName) {
+        final StringBuilder sb = new StringBuilder();
+        sb.append("{\"description\":\"").append(description.replace("\\", "\\\\").replace("\"", "\\\"")).append("\",\"runs\":").append(m).append(",\"observations\":[");
+        for (int i = 0; i < observations.size(); i++) sb.append(i > 0 ? "," : "").append(observations.get(i).toJSON());
+        sb.append("]");
+        if (usable().size() >= 2)
+            sb.append(",\"powerLaw\":").append(fitPowerLaw().toJSON()).append(",\"linearithmic\":").append(fitLinearithmic().toJSON());
+        sb.append("}\n");
+        final Collection<FileData> data = Collections.singletonList(sb::toString);
+        return new FileHandlerImpl_CSV<>().writecsv("", fileName, data);
+    }
+
+    /**
+     * Class to represent the mean time (in milliseconds) observed at size n.
+     */
+    public static class Observation implements FileData {
+        public final int n;
+        public final double time;
+        public final double ratio;
+
+        Observation(int n, double time, double ratio) {
+            this.n = n;
+            this.time = time;
+            this.ratio = ratio;
+        }
+
+        @Override
+        public String toFile() {
+            return n + "," + time + "," + (Double.isNaN(ratio) ? "" : ratio) + "\n";
+        }
+
+        String toJSON() {
+            return "{\"n\":" + n + ",\"time\":" + time + ",\"ratio\":" + json(ratio) + "}";
+        }
+
+        @Override
+        public String toString() {
+            return "n=" + n + ": " + Utilities.formatDecimal3Places(time) + " mSecs" + (Double.isNaN(ratio) ? "" : " (ratio " + Utilities.formatDecimal3Places(ratio) + ", lg ratio " + Utilities.formatDecimal3Places(lg(ratio)) + ")");
+        }
+    }
+
+    /**
+     * Class to represent a fitted model of the running time (t = a n^b or t = a n lg n), with 95% confidence intervals.
+     */
+    public static class Fit {
+        public final String model;
+        public final double exponent;
+        public final double exponentLow;
+        public final double exponentHigh;
+        public final double constant;
+        public final double constantLow;
+        public final double constantHigh;
+        public final double rSquared;
+        public final double meanSquaredError;
+
+        Fit(String model, double exponent, double exponentLow, double exponentHigh, double constant, double constantLow, double constantHigh, double rSquared, double meanSquaredError) {
+            this.model = model;
+            this.exponent = exponent;
+            this.exponentLow = exponentLow;
+            this.exponentHigh = exponentHigh;
+            this.constant = constant;
+            this.constantLow = constantLow;
+            this.constantHigh = constantHigh;
+            this.rSquared = rSquared;
+            this.meanSquaredError = meanSquaredError;
+        }
+
+        /**
+         * Method to predict the time (in milliseconds) for size n according to this model.
+         *
+         * @param n the size.
+         * @return the predicted time.
+         */
+        public double predict(long n) {
+            return model.equals(LINEARITHMIC) ? constant * n * lg(n) : constant * Math.pow(n, exponent);
+        }
+
+        String toJSON() {
+            return "{\"model\":\"" + model + "\",\"exponent\":" + json(exponent) + ",\"exponentLow\":" + json(exponentLow) + ",\"exponentHigh\":" + json(exponentHigh) +
+                    ",\"constant\":" + json(constant) + ",\"constantLow\":" + json(constantLow) + ",\"constantHigh\":" + json(constantHigh) +
+                    ",\"rSquared\":" + json(rSquared) + ",\"meanSquaredError\":" + json(meanSquaredError) + "}";
+        }
+
+        @Override
+        public String toString() {
+            final String a = String.format(Locale.US, "%.4g [%.4g, %.4g]", constant, constantLow, constantHigh);
+            if (model.equals(LINEARITHMIC)) return "t = a n lg n: a=" + a;
+            return String.format(Locale.US, "t = a n^b: b=%.3f [%.3f, %.3f], a=%s, R^2=%.4f", exponent, exponentLow, exponentHigh, a, rSquared);
+        }
+    }
+
+    /**
+     * Method to yield the 97.5th percentile of Student's t distribution, i.e. the multiplier for a two-sided 95% confidence interval.
+     *
+     * @param df the degrees of freedom.
+     * @return the critical value (NaN if df is not positive).
+     */
+    static double studentT975(int df) {
+        if (df < 1) return Double.NaN;
+        if (df <= T975.length) return T975[df - 1];
+        // NOTE the first terms of the Cornish-Fisher expansion are accurate to 0.001 for df > 30.
+        return 1.959964 + 2.372 / df + 2.822 / ((double) df * df);
+    }
+
+    /**
+     * Method to yield the observations which can be fitted (on a logarithmic scale), i.e. those whose time is positive and finite.
+     * NOTE: a benchmark which is too fast for the resolution of the clock may yield a time of zero.
+     */
+    private List<Observation> usable() {
+        final List<Observation> result = new ArrayList<>();
+        for (Observation observation : observations)
+            if (observation.time > 0 && !Double.isInfinite(observation.time)) result.add(observation);
+        if (result.size() < observations.size())
+            logger.warn("DoublingExperiment: " + description + ": ignoring " + (observations.size() - result.size()) + " observations without a positive time");
+        return result;
+    }
+
+    private static double mean(double[] xs) {
+        double sum = 0;
+        for (double x : xs) sum += x;
+        return sum / xs.length;
+    }
+
+    private static double lg(double x) {
+        return Math.log(x) / Math.log(2);
+    }
+
+    private static String json(double x) {
+        return Double.isNaN(x) || Double.isInfinite(x) ? "null" : Double.toString(x);
+    }
+
+    final static LazyLogger logger = new LazyLogger(DoublingExperiment.class);
+
+    public static final String POWER_LAW = "power law";
+    // NOTE: the default greatest size, which is large enough for any practical experiment on arrays.
+    public static final int DEFAULT_MAX_N = 1 << 24;
+    public static final String LINEARITHMIC = "linearithmic";
+
+    private static final double[] T975 = {
+            12.706, 4.303, 3.182, 2.776, 2.571, 2.447, 2.365, 2.306, 2.262, 2.228,
+            2.201, 2.179, 2.160, 2.145, 2.131, 2.120, 2.110, 2.101, 2.093, 2.086,
+            2.080, 2.074, 2.069, 2.064, 2.060, 2.056, 2.052, 2.048, 2.045, 2.042};
+
+    private final String description;
+    private final Benchmark<T> benchmark;
+    private final IntFunction<T> generator;
+    private final int m;
+    private final List<Observation> observations = new ArrayList<>();
+}
@@ -0,0 +1,195 @@
+package edu.neu.coe.info6205.util;
+
+import java.io.IOException;
+
+/**
+ * Class to emit Java Flight Recorder (JFR) events for sort phases and data-structure operations.
+ * <p>
+ * Each kind of event has its own switch in the jfr section of config.ini (all are off by default).
+ * The switches are static final fields, read once when this class is initialized,
+ * so that when a switch is off, the JIT compiler eliminates the guarded code entirely, i.e. there is no cost.
+ * Callers must therefore test the appropriate switch before invoking the corresponding method, for example:
+ * <pre>
+ *     final Object event = EventRecorder.MERGE ? EventRecorder.beginMerge() : null;
+ *     ...
+ *     if (event != null) EventRecorder.endMerge(event, from, mid, to);
+ * </pre>
+ * <p>
+ * The JFR event types themselves require Java 11 or later and are compiled only by the jfr build profile
+ * (from src/main/java11) which is activated automatically when building with JDK 11+.
+ * If they are not available at run time, all of the switches are off (and a warning is logged if any were configured on).
+ */
+public final class EventRecorder {
+
+    /**
+     * Interface which is implemented by the JFR-specific Emitter (see the jfr profile).
+     * The Objects returned by the begin methods are JFR events which have been begun but not yet committed.
+     */
+    public interface Emitter {
+        Object beginSort();
+
+        void endSort(Object event, String algorithm, int n, String helper);
+
+        Object beginPartition();
+
+        void endPartition(Object event, int from, int to, int partitions, int depth);
+
+        Object beginMerge();
+
+        void endMerge(Object event, int from, int mid, int to);
+
+        void cutoff(String algorithm, int from, int to);
+
+        void find(int p, int pathLength);
+
+        void union(int p, int q, boolean merged);
+
+        void sink(int depth);
+
+        void swim(int depth);
+    }
+
+    public static Object beginSort() {
+        return emitter.beginSort();
+    }
+
+    /**
+     * Method to end and commit a sort event.
+     *
+     * @param event     the result of beginSort.
+     * @param algorithm the name of the sort algorithm.
+     * @param n         the number of elements sorted.
+     * @param helper    the description of the helper.
+     */
+    public static void endSort(Object event, String algorithm, int n, String helper) {
+        emitter.endSort(event, algorithm, n, helper);
+    }
+
+    public static Object beginPartition() {
+        return emitter.beginPartition();
+    }
+
+    /**
+     * Method to end and commit a partition event.
+     *
+     * @param event      the result of beginPartition.
+     * @param from       the index of the first element partitioned.
+     * @param to         the index of the first element not partitioned.
+     * @param partitions the number of partitions which resulted.
+     * @param depth      the depth of the recursion.
+     */
+    public static void endPartition(Object event, int from, int to, int partitions, int depth) {
+        emitter.endPartition(event, from, to, partitions, depth);
+    }
+
+    public static Object beginMerge() {
+        return emitter.beginMerge();
+    }
+
+    /**
+     * Method to end and commit a merge event.
+     *
+     * @param event the result of beginMerge.
+     * @param from  the index of the first element of the first run.
+     * @param mid   the index of the first element of the second run.
+     * @param to    the index of the first element not merged.
+     */
+    public static void endMerge(Object event, int from, int mid, int to) {
+        emitter.endMerge(event, from, mid, to);
+    }
+
+    /**
+     * Method to commit an event for the hand-off of a small sub-array to insertion sort.
+     *
+     * @param algorithm the name of the sort algorithm which is cutting off.
+     * @param from      the index of the first element.
+     * @param to        the index of the first element not to be sorted.
+     */
+    public static void cutoff(String algorithm, int from, int to) {
+        emitter.cutoff(algorithm, from, to);
+    }
+
+    /**
+     * Method to commit an event for a union-find "find" operation.
+     *
+     * @param p          the site.
+     * @param pathLength the number of links followed to reach the root.
+     */
+    public static void find(int p, int pathLength) {
+        emitter.find(p, pathLength);
+    }
+
+    /**
+     * Method to commit an event for a union-find "union" operation.
+     *
+     * @param p      one site.
+     * @param q      the other site.
+     * @param merged true if two components were merged (false if p and q were already connected).
+     */
+    public static void union(int p, int q, boolean merged) {
+        emitter.union(p, q, merged);
+    }
+
+    /**
+     * Method to commit an event for a priority queue "sink" operation.
+     *
+     * @param depth the number of levels by which the element sank.
+     */
+    public static void sink(int depth) {
+        emitter.sink(depth);
+    }
+
+    /**
+     * Method to commit an event for a priority queue "swim" operation.
+     *
+     * @param depth the number of levels by which the element swam up.
+     */
+    public static void swim(int depth) {
+        emitter.swim(depth);
+    }
+
+    private static Emitter loadEmitter() {
+        try {
+            return (Emitter) Class.forName(EMITTER).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+
+    private static Config loadConfig() {
+        try {
+            return Config.load(EventRecorder.class);
+        } catch (IOException e) {
+            logger.warn("EventRecorder: unable to load configuration: all events are disabled", e);
+            return null;
+        }
+    }
+
+    private static boolean isEnabled(Config config, String option) {
+        if (config == null || !config.getBoolean(JFR, option)) return false;
+        if (emitter == null) {
+            logger.warn("EventRecorder: JFR events are not available (build with JDK 11+) so " + option + " events are disabled");
+            return false;
+        }
+        return true;
+    }
+
+    final static LazyLogger logger = new LazyLogger(EventRecorder.class);
+
+    public static final String JFR = "jfr";
+    private static final String EMITTER = "edu.neu.coe.info6205.util.jfr.JfrEmitter";
+
+    private static final Emitter emitter = loadEmitter();
+    private static final Config config = loadConfig();
+
+    public static final boolean SORT = isEnabled(config, "sort");
+    public static final boolean PARTITION = isEnabled(config, "partition");
+    public static final boolean MERGE = isEnabled(config, "merge");
+    public static final boolean CUTOFF = isEnabled(config, "cutoff");
+    public static final boolean UNION_FIND = isEnabled(config, "unionfind");
+    public static final boolean PRIORITY_QUEUE = isEnabled(config, "priorityqueue");
+
+    // NOTE private constructor (utility class)
+    private EventRecorder() {
+    }
+}
@@ -0,0 +1,228 @@
+package edu.neu.coe.info6205.util;
+
+import edu.neu.coe.info6205.util.metrics.MetricsRegistry;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Class to run benchmarks in isolation: each configuration (a main class and its arguments) is run in a number of fresh child JVMs (forks),
+ * so that neither the JIT profile nor the heap of one benchmark can affect another.
+ * The heap size, garbage collector and any other JVM options (for example, JIT flags) of the children are configurable
+ * (see the fork section of config.ini).
+ * <p>
+ * Each child runs the main method of the configuration and then writes the default MetricsRegistry to a temporary file.
+ * The mean times of the Benchmark_Timers (the benchmark_mean_milliseconds gauges) are read back by the parent
+ * and aggregated across the forks, one Statistics for each combination of benchmark description and input size
+ * (see key), since one description is typically used for several sizes.
+ * The output of each child is passed through to the output of the parent.
+ * <p>
+ * The main method of this class runs each phase of SortBenchmark (see SortBenchmark.PHASES) in its own forks.
+ */
+public class ForkedBenchmarkRunner {
+
+    /**
+     * Constructor for a ForkedBenchmarkRunner.
+     *
+     * @param forks          the number of child JVMs for each configuration.
+     * @param jvmOptions     the options for each child JVM (e.g. -Xmx1g, -XX:+UseParallelGC, -XX:TieredStopAtLevel=1).
+     * @param timeoutSeconds the maximum duration of each child (0 for no limit).
+     */
+    public ForkedBenchmarkRunner(int forks, List<String> jvmOptions, long timeoutSeconds) {
+        if (forks < 1) throw new IllegalArgumentException("ForkedBenchmarkRunner: forks must be positive: " + forks);
+        this.forks = forks;
+        this.jvmOptions = new ArrayList<>(jvmOptions);
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    /**
+     * Method to create a ForkedBenchmarkRunner according to the fork section of config.
+     *
+     * @param config the configuration.
+     * @return a ForkedBenchmarkRunner.
+     */
+    public static ForkedBenchmarkRunner create(Config config) {
+        final List<String> options = new ArrayList<>();
+        final String heap = config.get(FORK, "heap");
+        if (heap != null && !heap.isEmpty()) {
+            options.add("-Xms" + heap);
+            options.add("-Xmx" + heap);
+        }
+        final String gc = config.get(FORK, "gc");
+        if (gc != null && !gc.isEmpty()) options.add("-XX:+Use" + gc + "GC");
+        final String other = config.get(FORK, "options");
+        if (other != null && !other.trim().isEmpty()) options.addAll(Arrays.asList(other.trim().split("\\s+")));
+        return new ForkedBenchmarkRunner(config.getInt(FORK, "forks", 3), options, config.getLong(FORK, "timeout", 0));
+    }
+
+    /**
+     * Method to run a configuration in each of the forks.
+     *
+     * @param mainClass the class whose main method runs the benchmarks.
+     * @param args      the arguments for the main method.
+     * @return a map from the key (see key) of each Benchmark_Timer run to the Statistics of its mean times (one per fork).
+     * @throws IOException          if a child cannot be started, fails or times out.
+     * @throws InterruptedException if interrupted while waiting for a child.
+     */
+    public Map<String, Statistics> run(Class<?> mainClass, String... args) throws IOException, InterruptedException {
+        final Map<String, Statistics> result = new TreeMap<>();
+        for (int i = 0; i < forks; i++) {
+            final Path resultFile = Files.createTempFile("fork", ".txt");
+            try {
+                runChild(mainClass, args, resultFile, i);
+                for (Map.Entry<String, Double> entry : parseMeans(Files.readAllLines(resultFile, StandardCharsets.UTF_8)).entrySet())
+                    result.computeIfAbsent(entry.getKey(), k -> new Statistics(k, forks)).add(entry.getValue());
+            } finally {
+                Files.deleteIfExists(resultFile);
+            }
+        }
+        return result;
+    }
+
+    public int getForks() {
+        return forks;
+    }
+
+    public List<String> getJvmOptions() {
+        return Collections.unmodifiableList(jvmOptions);
+    }
+
+    /**
+     * Method to run each phase of SortBenchmark in its own forks and to log the aggregated results.
+     *
+     * @param args the word counts for SortBenchmark.
+     * @throws IOException          if config.ini cannot be loaded or a child fails.
+     * @throws InterruptedException if interrupted.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        final ForkedBenchmarkRunner runner = create(Config.load(ForkedBenchmarkRunner.class));
+        logger.info("ForkedBenchmarkRunner: " + runner.forks + " forks with JVM options " + runner.jvmOptions);
+        for (String phase : SortBenchmark.PHASES) {
+            final String[] phaseArgs = new String[args.length + 1];
+            phaseArgs[0] = SortBenchmark.PHASE + phase;
+            System.arraycopy(args, 0, phaseArgs, 1, args.length);
+            for (Statistics statistics : runner.run(SortBenchmark.class, phaseArgs).values())
+                logger.info("ForkedBenchmarkRunner: " + phase + ": " + statistics.summary());
+        }
+    }
+
+    /**
+     * Main class of each child JVM.
+     * The arguments are the result file, the main class and its arguments.
+     */
+    public static class Child {
+        public static void main(String[] args) throws Exception {
+            final Class<?> mainClass = Class.forName(args[1]);
+            try {
+                mainClass.getMethod("main", String[].class).invoke(null, (Object) Arrays.copyOfRange(args, 2, args.length));
+            } catch (InvocationTargetException e) {
+                throw e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+            }
+            try (Writer writer = Files.newBufferedWriter(new File(args[0]).toPath(), StandardCharsets.UTF_8)) {
+                MetricsRegistry.getDefault().writePrometheus(writer);
+            }
+            // NOTE the benchmark may have left non-daemon threads (e.g. thread pools) running.
+            System.exit(0);
+        }
+    }
+
+    private void runChild(Class<?> mainClass, String[] args, Path resultFile, int fork) throws IOException, InterruptedException {
+        final List<String> command = new ArrayList<>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(Child.class.getName());
+        command.add(resultFile.toString());
+        command.add(mainClass.getName());
+        command.addAll(Arrays.asList(args));
+        logger.debug(() -> "ForkedBenchmarkRunner: fork " + (fork + 1) + " of " + forks + ": " + command);
+        final Process process = new ProcessBuilder(command).inheritIO().start();
+        if (timeoutSeconds > 0 && !process.waitFor(timeoutSeconds, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IOException("ForkedBenchmarkRunner: fork " + (fork + 1) + " of " + mainClass.getName() + " timed out after " + timeoutSeconds + " seconds");
+        }
+        final int status = process.waitFor();
+        if (status != 0)
+            throw new IOException("ForkedBenchmarkRunner: fork " + (fork + 1) + " of " + mainClass.getName() + " exited with status " + status);
+    }
+
+    /**
+     * Method to yield the key under which the mean times of a Benchmark_Timer run are aggregated.
+     *
+     * @param description the description of the benchmark.
+     * @param n           the size of its input (see Benchmark_Timer.getSize), or null if unknown.
+     * @return the description, followed by the size (if known).
+     */
+    public static String key(String description, String n) {
+        return n == null ? description : BaselineStore.key(description, Integer.parseInt(n));
+    }
+
+    /**
+     * Method to extract the benchmark_mean_milliseconds gauges from the Prometheus exposition of a MetricsRegistry.
+     *
+     * @param lines the lines of the exposition.
+     * @return a map from key (the benchmark description and its n label: see key) to mean time (in milliseconds).
+     */
+    static Map<String, Double> parseMeans(List<String> lines) {
+        final Map<String, Double> result = new TreeMap<>();
+        final String prefix = MEAN_GAUGE + "{";
+        for (String line : lines)
+            if (line.startsWith(prefix)) {
+                final int space = line.lastIndexOf(' ');
+                final Map<String, String> labels = parseLabels(line.substring(prefix.length(), space));
+                result.put(key(labels.get("benchmark"), labels.get("n")), Double.parseDouble(line.substring(space + 1)));
+            }
+        return result;
+    }
+
+    /**
+     * Method to parse the labels of a metric, for example: benchmark="a \"quoted\" sort",n="1000"}
+     *
+     * @param labels the labels, following the opening brace (and including the closing brace).
+     * @return a map from label name to (unescaped) value.
+     */
+    private static Map<String, String> parseLabels(String labels) {
+        final Map<String, String> result = new TreeMap<>();
+        int i = 0;
+        while (i < labels.length() && labels.charAt(i) != '}') {
+            final int equals = labels.indexOf("=\"", i);
+            if (equals < 0) throw new IllegalArgumentException("ForkedBenchmarkRunner: malformed labels: " + labels);
+            final StringBuilder sb = new StringBuilder();
+            int j = equals + 2;
+            for (; j < labels.length() && labels.charAt(j) != '"'; j++) {
+                final char c = labels.charAt(j);
+                if (c == '\\' && j + 1 < labels.length()) {
+                    final char next = labels.charAt(++j);
+                    sb.append(next == 'n' ? '\n' : next);
+                } else sb.append(c);
+            }
+            result.put(labels.substring(i, equals), sb.toString());
+            i = j + 1;
+            if (i < labels.length() && labels.charAt(i) == ',') i++;
+        }
+        return result;
+    }
+
+    final static LazyLogger logger = new LazyLogger(ForkedBenchmarkRunner.class);
+
+    public static final String FORK = "fork";
+
+    private static final String MEAN_GAUGE = "benchmark_mean_milliseconds";
+
+    private final int forks;
+    private final List<String> jvmOptions;
+    private final long timeoutSeconds;
+}
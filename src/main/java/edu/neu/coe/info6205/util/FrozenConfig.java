@@ -0,0 +1,284 @@
+package edu.neu.coe.info6205.util;
+
+import org.ini4j.Ini;
+import org.ini4j.Profile;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of a Config in which every option has been resolved (and its typed values parsed) once,
+ * so that a lookup is two hash-map lookups, without parsing or logging (compare Config.get).
+ * It is intended for code which reads the configuration on a hot path, such as HelperFactory.
+ * <p>
+ * A FrozenConfig is obtained from a Config by Config.freeze (which caches it) and may be copied cheaply with a change of one option
+ * (only the section of that option is copied).
+ * A FrozenConfig may also be kept up to date with a file by a Watcher (see watch).
+ */
+public final class FrozenConfig {
+
+    /**
+     * Method to create a FrozenConfig from the current contents of an Ini.
+     * NOTE: as for Config.copy, where a section or option is repeated, the first is used.
+     *
+     * @param ini the Ini.
+     * @return a new FrozenConfig.
+     */
+    public static FrozenConfig of(Ini ini) {
+        final Map<String, Map<String, Option>> sections = new HashMap<>();
+        for (Map.Entry<String, Profile.Section> entry : ini.entrySet()) {
+            final Map<String, Option> options = new HashMap<>();
+            for (Map.Entry<String, String> x : entry.getValue().entrySet()) options.put(x.getKey(), new Option(x.getValue()));
+            sections.putIfAbsent(entry.getKey(), Collections.unmodifiableMap(options));
+        }
+        return new FrozenConfig(sections);
+    }
+
+    /**
+     * Method to get the value of an option.
+     *
+     * @param sectionName the section name.
+     * @param optionName  the option name.
+     * @return the value, or null if the option is not present.
+     */
+    public String get(String sectionName, String optionName) {
+        final Option option = option(sectionName, optionName);
+        return option != null ? option.value : null;
+    }
+
+    /**
+     * Method to get the value of a boolean option (which is false unless the option is "true", ignoring case).
+     *
+     * @param sectionName the section name.
+     * @param optionName  the option name.
+     * @return the boolean value.
+     */
+    public boolean getBoolean(String sectionName, String optionName) {
+        final Option option = option(sectionName, optionName);
+        return option != null && option.bool;
+    }
+
+    /**
+     * Method to get the value of an int option.
+     *
+     * @param sectionName  the section name.
+     * @param optionName   the option name.
+     * @param defaultValue the value if the option is absent or empty.
+     * @return the int value.
+     * @throws NumberFormatException if the value is not an int.
+     */
+    public int getInt(String sectionName, String optionName, int defaultValue) {
+        final Option option = option(sectionName, optionName);
+        if (option == null || option.value.isEmpty()) return defaultValue;
+        if (option.number == null || option.number != option.number.intValue())
+            throw new NumberFormatException("FrozenConfig: " + sectionName + "." + optionName + " is not an int: " + option.value);
+        return option.number.intValue();
+    }
+
+    /**
+     * Method to get the value of a long option.
+     *
+     * @param sectionName  the section name.
+     * @param optionName   the option name.
+     * @param defaultValue the value if the option is absent or empty.
+     * @return the long value.
+     * @throws NumberFormatException if the value is not a long.
+     */
+    public long getLong(String sectionName, String optionName, long defaultValue) {
+        final Option option = option(sectionName, optionName);
+        if (option == null || option.value.isEmpty()) return defaultValue;
+        if (option.number == null)
+            throw new NumberFormatException("FrozenConfig: " + sectionName + "." + optionName + " is not a long: " + option.value);
+        return option.number;
+    }
+
+    /**
+     * Method to get the value of a double option.
+     *
+     * @param sectionName  the section name.
+     * @param optionName   the option name.
+     * @param defaultValue the value if the option is absent or empty.
+     * @return the double value.
+     * @throws NumberFormatException if the value is not a number.
+     */
+    public double getDouble(String sectionName, String optionName, double defaultValue) {
+        final Option option = option(sectionName, optionName);
+        if (option == null || option.value.isEmpty()) return defaultValue;
+        if (Double.isNaN(option.decimal) && !option.value.equalsIgnoreCase("NaN"))
+            throw new NumberFormatException("FrozenConfig: " + sectionName + "." + optionName + " is not a number: " + option.value);
+        return option.decimal;
+    }
+
+    /**
+     * @return true if the helper is instrumented (see Config.isInstrumented).
+     */
+    public boolean isInstrumented() {
+        return instrumented;
+    }
+
+    /**
+     * Method to copy this FrozenConfig, but setting sectionName.optionName to be value.
+     * Only the section of the option is copied: the other sections are shared with this FrozenConfig.
+     *
+     * @param sectionName the section name.
+     * @param optionName  the option name.
+     * @param value       the new value.
+     * @return a new FrozenConfig.
+     */
+    public FrozenConfig copy(String sectionName, String optionName, String value) {
+        final Map<String, Map<String, Option>> result = new HashMap<>(sections);
+        final Map<String, Option> section = new HashMap<>(sections.getOrDefault(sectionName, Collections.emptyMap()));
+        section.put(optionName, new Option(value));
+        result.put(sectionName, Collections.unmodifiableMap(section));
+        return new FrozenConfig(result);
+    }
+
+    /**
+     * Method to yield a (new) Config with the same options as this FrozenConfig (and which is already frozen as this).
+     *
+     * @return a new Config.
+     */
+    public Config toConfig() {
+        final Ini ini = new Ini();
+        for (Map.Entry<String, Map<String, Option>> entry : sections.entrySet())
+            for (Map.Entry<String, Option> x : entry.getValue().entrySet())
+                ini.put(entry.getKey(), x.getKey(), x.getValue().value);
+        return new Config(ini, this);
+    }
+
+    /**
+     * Method to start watching an ini file for changes.
+     *
+     * @param file         the ini file.
+     * @param periodMillis the period (in milliseconds) at which the file is checked for changes.
+     * @return a Watcher, whose current FrozenConfig reflects the file as it was when last checked.
+     * @throws IOException if the file cannot be loaded initially.
+     */
+    public static Watcher watch(File file, long periodMillis) throws IOException {
+        return new Watcher(file, periodMillis);
+    }
+
+    /**
+     * Class to keep a FrozenConfig up to date with an ini file.
+     * The file is checked periodically by a daemon thread and, if its modification time or length has changed, it is reloaded into a new FrozenConfig.
+     * Readers (see get) never lock: they simply read the latest FrozenConfig.
+     * If the file cannot be loaded (for example, because it is being written), the previous FrozenConfig remains current.
+     */
+    public static class Watcher implements Closeable {
+
+        /**
+         * @return the current FrozenConfig.
+         */
+        public FrozenConfig get() {
+            return current;
+        }
+
+        /**
+         * @return the number of times the file has been reloaded (not counting the initial load).
+         */
+        public int getReloads() {
+            return reloads;
+        }
+
+        /**
+         * Method to stop watching.
+         */
+        @Override
+        public void close() {
+            thread.interrupt();
+        }
+
+        Watcher(File file, long periodMillis) throws IOException {
+            this.file = file;
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+            this.current = new Config(file).freeze();
+            this.thread = new Thread(() -> {
+                try {
+                    while (!Thread.currentThread().isInterrupted()) {
+                        Thread.sleep(periodMillis);
+                        check();
+                    }
+                } catch (InterruptedException e) {
+                    // NOTE we have been closed.
+                }
+            }, "FrozenConfig-" + file.getName());
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void check() {
+            final long modified = file.lastModified(), size = file.length();
+            if (modified == lastModified && size == length) return;
+            try {
+                current = new Config(file).freeze();
+                lastModified = modified;
+                length = size;
+                reloads++;
+                logger.info("FrozenConfig: reloaded " + file);
+            } catch (IOException | RuntimeException e) {
+                logger.warn("FrozenConfig: unable to reload " + file + ": " + e.getLocalizedMessage());
+            }
+        }
+
+        private final File file;
+        private final Thread thread;
+        private volatile FrozenConfig current;
+        private volatile int reloads;
+        private long lastModified;
+        private long length;
+    }
+
+    private Option option(String sectionName, String optionName) {
+        final Map<String, Option> section = sections.get(sectionName);
+        return section != null ? section.get(optionName) : null;
+    }
+
+    private FrozenConfig(Map<String, Map<String, Option>> sections) {
+        this.sections = sections;
+        this.instrumented = getBoolean(Config.HELPER, Config.INSTRUMENT);
+    }
+
+    /**
+     * Class to represent the value of an option, parsed (once) as each type.
+     */
+    private static class Option {
+        Option(String value) {
+            this.value = value == null ? "" : value;
+            final String trimmed = this.value.trim();
+            this.bool = Boolean.parseBoolean(trimmed);
+            this.number = parseLong(trimmed);
+            this.decimal = parseDouble(trimmed);
+        }
+
+        private static Long parseLong(String s) {
+            try {
+                return Long.parseLong(s);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+
+        private static double parseDouble(String s) {
+            try {
+                return Double.parseDouble(s);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+
+        final String value;
+        final boolean bool;
+        final Long number;
+        final double decimal;
+    }
+
+    final static LazyLogger logger = new LazyLogger(FrozenConfig.class);
+
+    private final Map<String, Map<String, Option>> sections;
+    private final boolean instrumented;
+}
@@ -2,6 +2,11 @@ package edu.neu.coe.info6205.util;
 
 import java.util.Random;
 
+/**
+ * @deprecated use InputGenerator, which has more distributions, yields primitive as well as object arrays and is seeded
+ * (note that PARTORDERED orders only fewer than 10 elements).
+ */
+@Deprecated
 public class GenerateIntegers {
 
     public enum Ordering {RANDOM, ORDERED, PARTORDERED, REVERSE};
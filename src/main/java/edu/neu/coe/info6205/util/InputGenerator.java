@@ -0,0 +1,333 @@
+package edu.neu.coe.info6205.util;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Class to generate the inputs of benchmarks (arrays of ints, longs, doubles, Integers or Strings) according to a Distribution.
+ * <p>
+ * Generation is deterministic for a given seed: the array is divided into fixed-size chunks, each of which has its own
+ * SplittableRandom (split, in order, from the seed), so the result does not depend on whether the chunks are generated
+ * in parallel (which they are for arrays of at least parallelThreshold elements).
+ * <p>
+ * The default InputGenerator is defined by the generator section of config.ini (see create).
+ */
+public class InputGenerator {
+
+    /**
+     * Enumeration of the distributions of the generated values.
+     * Except for RANDOM and ZIPF, the values of n elements are between 0 and n-1 (or fewer, for FEW_UNIQUE and SAWTOOTH).
+     */
+    public enum Distribution {
+        /**
+         * Uniformly distributed non-negative ints (few duplicates).
+         */
+        RANDOM,
+        /**
+         * 0, 1, 2, ..., n-1.
+         */
+        SORTED,
+        /**
+         * n-1, n-2, ..., 0.
+         */
+        REVERSED,
+        /**
+         * SORTED, after k random swaps (see swaps).
+         */
+        NEARLY_SORTED,
+        /**
+         * Uniformly distributed values taken from only unique distinct values (see unique).
+         */
+        FEW_UNIQUE,
+        /**
+         * Values 0, 1, ..., zipfValues-1 where the frequency of value i is proportional to 1/(i+1)^zipfExponent (i.e. very many duplicates of the smallest values).
+         */
+        ZIPF,
+        /**
+         * Ascending "teeth" of length r: 0, 1, ..., r-1, 0, 1, ... (see runLength).
+         */
+        SAWTOOTH,
+        /**
+         * Ascending to the middle and then descending: 0, 1, ..., n/2, ..., 1, 0.
+         */
+        ORGAN_PIPE,
+        /**
+         * Random values, arranged in ascending runs of length r (see runLength).
+         */
+        RUNS
+    }
+
+    /**
+     * Constructor for an InputGenerator with all parameters explicit.
+     *
+     * @param distribution      the distribution.
+     * @param seed              the seed.
+     * @param swaps             the number of swaps for NEARLY_SORTED (if negative, then n/100).
+     * @param runLength         the length of the teeth of SAWTOOTH and of the runs of RUNS.
+     * @param unique            the number of distinct values for FEW_UNIQUE.
+     * @param zipfValues        the number of distinct values for ZIPF.
+     * @param zipfExponent      the exponent of ZIPF (e.g. 1.0).
+     * @param parallelThreshold the smallest size of array which is generated in parallel.
+     */
+    public InputGenerator(Distribution distribution, long seed, int swaps, int runLength, int unique, int zipfValues, double zipfExponent, int parallelThreshold) {
+        if (runLength < 1 || unique < 1 || zipfValues < 1)
+            throw new IllegalArgumentException("InputGenerator: runLength, unique and zipfValues must be positive");
+        this.distribution = distribution;
+        this.seed = seed;
+        this.swaps = swaps;
+        this.runLength = runLength;
+        this.unique = unique;
+        this.zipfValues = zipfValues;
+        this.zipfExponent = zipfExponent;
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Constructor for an InputGenerator with default parameters.
+     *
+     * @param distribution the distribution.
+     * @param seed         the seed.
+     */
+    public InputGenerator(Distribution distribution, long seed) {
+        this(distribution, seed, -1, 1000, 16, 10000, 1.0, 1000000);
+    }
+
+    /**
+     * Method to create an InputGenerator according to the generator section of config.
+     * Any option which is not set takes its default value (and if seed is not set, the seed is random).
+     *
+     * @param config the configuration.
+     * @return an InputGenerator.
+     */
+    public static InputGenerator create(Config config) {
+        final String distribution = config.get(GENERATOR, "distribution");
+        final String zipfExponent = config.get(GENERATOR, "zipfexponent");
+        return new InputGenerator(
+                distribution == null || distribution.isEmpty() ? Distribution.RANDOM : Distribution.valueOf(distribution.trim().toUpperCase()),
+                config.getLong(GENERATOR, "seed", System.nanoTime()),
+                config.getInt(GENERATOR, "swaps", -1),
+                config.getInt(GENERATOR, "runlength", 1000),
+                config.getInt(GENERATOR, "unique", 16),
+                config.getInt(GENERATOR, "zipfvalues", 10000),
+                zipfExponent == null || zipfExponent.isEmpty() ? 1.0 : Double.parseDouble(zipfExponent),
+                config.getInt(GENERATOR, "parallelthreshold", 1000000));
+    }
+
+    /**
+     * Method to yield a copy of this InputGenerator with a different distribution (but the same seed and parameters).
+     *
+     * @param distribution the distribution.
+     * @return a new InputGenerator.
+     */
+    public InputGenerator withDistribution(Distribution distribution) {
+        return new InputGenerator(distribution, seed, swaps, runLength, unique, zipfValues, zipfExponent, parallelThreshold);
+    }
+
+    /**
+     * Method to yield the successor of this InputGenerator: a copy with the same distribution and parameters but a different seed,
+     * which is derived from the seed of this InputGenerator.
+     * Thus a benchmark whose supplier advances to the next InputGenerator on each call gets a different input for each run,
+     * while the sequence of inputs is still reproducible from the first seed.
+     *
+     * @return a new InputGenerator.
+     */
+    public InputGenerator next() {
+        return new InputGenerator(distribution, new SplittableRandom(seed ^ NEXT_SALT).nextLong(), swaps, runLength, unique, zipfValues, zipfExponent, parallelThreshold);
+    }
+
+    /**
+     * Method to generate n ints.
+     *
+     * @param n the number of values.
+     * @return an array of n non-negative ints.
+     */
+    public int[] ints(int n) {
+        final int[] result = new int[n];
+        final double[] zipf = distribution == Distribution.ZIPF ? zipfCumulative() : null;
+        final SplittableRandom[] randoms = chunkRandoms(n);
+        chunks(n).forEach(c -> {
+            final SplittableRandom random = randoms[c];
+            final int from = c * CHUNK, to = Math.min(n, from + CHUNK);
+            for (int i = from; i < to; i++) result[i] = value(i, n, random, zipf);
+        });
+        if (distribution == Distribution.NEARLY_SORTED) {
+            final SplittableRandom random = new SplittableRandom(seed ^ SWAP_SALT);
+            final int k = swaps >= 0 ? swaps : n / 100;
+            for (int j = 0; j < k && n > 1; j++) {
+                final int p = random.nextInt(n), q = random.nextInt(n);
+                final int t = result[p];
+                result[p] = result[q];
+                result[q] = t;
+            }
+        }
+        if (distribution == Distribution.RUNS) {
+            final IntStream runs = IntStream.range(0, (n + runLength - 1) / runLength);
+            (n >= parallelThreshold ? runs.parallel() : runs).forEach(r -> Arrays.sort(result, r * runLength, Math.min(n, (r + 1) * runLength)));
+        }
+        return result;
+    }
+
+    /**
+     * Method to generate n longs (with the same values as ints).
+     *
+     * @param n the number of values.
+     * @return an array of n longs.
+     */
+    public long[] longs(int n) {
+        final int[] xs = ints(n);
+        final long[] result = new long[n];
+        for (int i = 0; i < n; i++) result[i] = xs[i];
+        return result;
+    }
+
+    /**
+     * Method to generate n doubles (with the same values as ints).
+     *
+     * @param n the number of values.
+     * @return an array of n doubles.
+     */
+    public double[] doubles(int n) {
+        final int[] xs = ints(n);
+        final double[] result = new double[n];
+        for (int i = 0; i < n; i++) result[i] = xs[i];
+        return result;
+    }
+
+    /**
+     * Method to generate n Integers (with the same values as ints).
+     *
+     * @param n the number of values.
+     * @return an array of n Integers.
+     */
+    public Integer[] integers(int n) {
+        final int[] xs = ints(n);
+        final Integer[] result = new Integer[n];
+        fill(n, i -> result[i] = xs[i]);
+        return result;
+    }
+
+    /**
+     * Method to generate n fixed-length lower-case Strings, such that the order of the Strings is the order of the corresponding ints.
+     * The Strings of FEW_UNIQUE and ZIPF are therefore duplicate-heavy.
+     *
+     * @param n the number of values.
+     * @return an array of n Strings (each of seven letters).
+     */
+    public String[] strings(int n) {
+        final int[] xs = ints(n);
+        final String[] result = new String[n];
+        fill(n, i -> result[i] = toWord(xs[i]));
+        return result;
+    }
+
+    /**
+     * Method to generate n Strings chosen from a vocabulary (e.g. the words of a corpus) according to this distribution:
+     * the index of each String in the vocabulary is its int value modulo the size of the vocabulary.
+     * With ZIPF or FEW_UNIQUE, the result is duplicate-heavy; with SORTED, it is in the order of the vocabulary.
+     *
+     * @param n          the number of values.
+     * @param vocabulary the vocabulary.
+     * @return an array of n Strings.
+     */
+    public String[] strings(int n, String[] vocabulary) {
+        if (vocabulary.length == 0) throw new IllegalArgumentException("InputGenerator: vocabulary is empty");
+        final int[] xs = ints(n);
+        final String[] result = new String[n];
+        fill(n, i -> result[i] = vocabulary[xs[i] % vocabulary.length]);
+        return result;
+    }
+
+    public Distribution getDistribution() {
+        return distribution;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public String toString() {
+        return "InputGenerator{" + distribution + ", seed=" + seed + "}";
+    }
+
+    private int value(int i, int n, SplittableRandom random, double[] zipf) {
+        switch (distribution) {
+            case RANDOM:
+            case RUNS:
+                return random.nextInt(Integer.MAX_VALUE);
+            case SORTED:
+            case NEARLY_SORTED:
+                return i;
+            case REVERSED:
+                return n - 1 - i;
+            case FEW_UNIQUE:
+                return random.nextInt(unique);
+            case ZIPF: {
+                final int index = Arrays.binarySearch(zipf, random.nextDouble());
+                return Math.min(index >= 0 ? index : -index - 1, zipf.length - 1);
+            }
+            case SAWTOOTH:
+                return i % runLength;
+            case ORGAN_PIPE:
+                return i <= (n - 1) / 2 ? i : n - 1 - i;
+            default:
+                throw new IllegalStateException("InputGenerator: unsupported distribution: " + distribution);
+        }
+    }
+
+    /**
+     * Method to yield the cumulative probabilities of the Zipf distribution.
+     */
+    private double[] zipfCumulative() {
+        final double[] result = new double[zipfValues];
+        double sum = 0;
+        for (int i = 0; i < zipfValues; i++) result[i] = sum += 1 / Math.pow(i + 1, zipfExponent);
+        for (int i = 0; i < zipfValues; i++) result[i] /= sum;
+        return result;
+    }
+
+    private SplittableRandom[] chunkRandoms(int n) {
+        final SplittableRandom random = new SplittableRandom(seed);
+        final SplittableRandom[] result = new SplittableRandom[(n + CHUNK - 1) / CHUNK];
+        for (int c = 0; c < result.length; c++) result[c] = random.split();
+        return result;
+    }
+
+    private IntStream chunks(int n) {
+        final IntStream result = IntStream.range(0, (n + CHUNK - 1) / CHUNK);
+        return n >= parallelThreshold ? result.parallel() : result;
+    }
+
+    private void fill(int n, IntConsumer f) {
+        final IntStream indices = IntStream.range(0, n);
+        (n >= parallelThreshold ? indices.parallel() : indices).forEach(f);
+    }
+
+    private static String toWord(int x) {
+        final char[] chars = new char[WORD_LENGTH];
+        for (int i = WORD_LENGTH - 1; i >= 0; i--) {
+            chars[i] = (char) ('a' + x % 26);
+            x /= 26;
+        }
+        return new String(chars);
+    }
+
+    public static final String GENERATOR = "generator";
+
+    private static final int CHUNK = 1 << 16;
+    // NOTE 26^7 > Integer.MAX_VALUE
+    private static final int WORD_LENGTH = 7;
+    private static final long SWAP_SALT = 0x9E3779B97F4A7C15L;
+    private static final long NEXT_SALT = 0xBF58476D1CE4E5B9L;
+
+    private final Distribution distribution;
+    private final long seed;
+    private final int swaps;
+    private final int runLength;
+    private final int unique;
+    private final int zipfValues;
+    private final double zipfExponent;
+    private final int parallelThreshold;
+}
@@ -12,6 +12,13 @@ import java.util.Enumeration;
 import java.util.ResourceBundle;
 import java.util.function.Supplier;
 
+/**
+ * Logger which wraps a log4j Logger, adding lazily-evaluated messages.
+ * <p>
+ * Logging may be made asynchronous (see configure and startAsync), in which case events are passed to the appenders
+ * by the background thread of a RingBufferLog, so that logging does not perturb the timing of the logging thread.
+ * The asynchronous mode is shared by all LazyLoggers.
+ */
 @SuppressWarnings("rawtypes")
 public class LazyLogger extends Logger {
 
@@ -22,22 +29,86 @@ public class LazyLogger extends Logger {
 
     public void trace(Supplier<String> fMessage) {
         if (logger.isTraceEnabled())
-            logger.trace(fMessage.get());
+            append(Level.TRACE, fMessage.get(), null);
     }
 
     public void trace(Supplier<String> fMessage, Throwable t) {
         if (logger.isTraceEnabled())
-            logger.trace(fMessage.get(), t);
+            append(Level.TRACE, fMessage.get(), t);
     }
 
     public void debug(Supplier<String> fMessage) {
         if (logger.isDebugEnabled())
-            logger.debug(fMessage.get());
+            append(Level.DEBUG, fMessage.get(), null);
     }
 
     public void debug(Supplier<String> fMessage, Throwable t) {
         if (logger.isDebugEnabled())
-            logger.debug(fMessage.get(), t);
+            append(Level.DEBUG, fMessage.get(), t);
+    }
+
+    /**
+     * Method to log a message at level INFO whose evaluation (if logging is asynchronous) is deferred to the background thread.
+     * NOTE: unlike the lazy messages of trace and debug, fMessage is not evaluated by the calling thread,
+     * so it must depend only on values which do not change after the call.
+     *
+     * @param fMessage a supplier of the message.
+     */
+    public void infoDeferred(Supplier<String> fMessage) {
+        final RingBufferLog log = ringBufferLog;
+        if (logger.isInfoEnabled())
+            if (log != null) log.log(logger, Level.INFO, null, fMessage, null);
+            else logger.info(fMessage.get());
+    }
+
+    /**
+     * Method to configure asynchronous logging according to the logging section of config.
+     * If async is true, asynchronous logging is started (unless it is already running); otherwise it is stopped.
+     *
+     * @param config the configuration.
+     */
+    public static synchronized void configure(Config config) {
+        final String async = config.get(LOGGING, "async");
+        if (async != null && Boolean.parseBoolean(async.trim())) {
+            if (ringBufferLog == null) {
+                final String overflow = config.get(LOGGING, "overflow");
+                startAsync(config.getInt(LOGGING, "buffer", 8192), overflow == null || overflow.isEmpty() ? RingBufferLog.Overflow.BLOCK : RingBufferLog.Overflow.valueOf(overflow.trim().toUpperCase()));
+            }
+        } else stopAsync();
+    }
+
+    /**
+     * Method to start asynchronous logging (replacing any current RingBufferLog).
+     * The events which remain when the JVM shuts down are flushed (for at most FLUSH_MILLIS).
+     *
+     * @param capacity the capacity of the ring buffer.
+     * @param overflow the policy when the ring buffer is full.
+     * @return the new RingBufferLog.
+     */
+    public static synchronized RingBufferLog startAsync(int capacity, RingBufferLog.Overflow overflow) {
+        stopAsync();
+        ringBufferLog = new RingBufferLog(capacity, overflow);
+        if (!shutdownHook) {
+            Runtime.getRuntime().addShutdownHook(new Thread(LazyLogger::stopAsync, "LazyLogger-shutdown"));
+            shutdownHook = true;
+        }
+        return ringBufferLog;
+    }
+
+    /**
+     * Method to stop asynchronous logging (if it is running), after flushing its events.
+     */
+    public static synchronized void stopAsync() {
+        final RingBufferLog log = ringBufferLog;
+        ringBufferLog = null;
+        if (log != null) log.close(FLUSH_MILLIS);
+    }
+
+    /**
+     * @return the current RingBufferLog, or null if logging is synchronous.
+     */
+    public static RingBufferLog getRingBufferLog() {
+        return ringBufferLog;
     }
 
     @Override
@@ -52,22 +123,22 @@ public class LazyLogger extends Logger {
 
     @Override
     public void trace(Object message) {
-        logger.trace("NOT lazy: " + message);
+        append(Level.TRACE, "NOT lazy: " + message, null);
     }
 
     @Override
     public void trace(Object message, Throwable t) {
-        logger.trace("NOT lazy: " + message, t);
+        append(Level.TRACE, "NOT lazy: " + message, t);
     }
 
     @Override
     public void debug(Object message) {
-        logger.debug("NOT lazy: " + message);
+        append(Level.DEBUG, "NOT lazy: " + message, null);
     }
 
     @Override
     public void debug(Object message, Throwable t) {
-        logger.debug("NOT lazy: " + message, t);
+        append(Level.DEBUG, "NOT lazy: " + message, t);
     }
 
     public static Logger getLogger(String name) {
@@ -103,22 +174,22 @@ public class LazyLogger extends Logger {
 
     @Override
     public void error(Object message) {
-        logger.error(message);
+        append(Level.ERROR, message, null);
     }
 
     @Override
     public void error(Object message, Throwable t) {
-        logger.error(message, t);
+        append(Level.ERROR, message, t);
     }
 
     @Override
     public void fatal(Object message) {
-        logger.fatal(message);
+        append(Level.FATAL, message, null);
     }
 
     @Override
     public void fatal(Object message, Throwable t) {
-        logger.fatal(message, t);
+        append(Level.FATAL, message, t);
     }
 
     @Override
@@ -153,12 +224,12 @@ public class LazyLogger extends Logger {
 
     @Override
     public void info(Object message) {
-        logger.info(message);
+        append(Level.INFO, message, null);
     }
 
     @Override
     public void info(Object message, Throwable t) {
-        logger.info(message, t);
+        append(Level.INFO, message, t);
     }
 
     @Override
@@ -233,13 +304,29 @@ public class LazyLogger extends Logger {
 
     @Override
     public void warn(Object message) {
-        logger.warn(message);
+        append(Level.WARN, message, null);
     }
 
     @Override
     public void warn(Object message, Throwable t) {
-        logger.warn(message, t);
+        append(Level.WARN, message, t);
     }
 
+    /**
+     * Method to log a message, asynchronously if there is a RingBufferLog.
+     */
+    private void append(Level level, Object message, Throwable t) {
+        final RingBufferLog log = ringBufferLog;
+        if (log == null) logger.log(level, message, t);
+        else if (logger.isEnabledFor(level)) log.log(logger, level, message, null, t);
+    }
+
+    public static final String LOGGING = "logging";
+
+    private static final long FLUSH_MILLIS = 5000;
+
+    private static volatile RingBufferLog ringBufferLog;
+    private static boolean shutdownHook;
+
     private final Logger logger;
 }
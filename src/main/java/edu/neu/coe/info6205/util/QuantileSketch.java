@@ -0,0 +1,176 @@
+package edu.neu.coe.info6205.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class to estimate the quantiles of a stream of values in constant memory, using a KLL sketch
+ * (Karnin, Lang and Liberty, "Optimal Quantile Approximation in Streams", 2016).
+ * <p>
+ * The values are kept in a hierarchy of compactors: level h holds values each of which represents 2^h of the original values.
+ * When a level is full, it is sorted and every other value (starting at a random offset) is promoted to the next level,
+ * the remaining values being discarded.
+ * The capacity of the levels decreases geometrically (by a factor of 2/3) from the top, so the sketch holds about 3k values,
+ * and the rank error of a quantile is approximately 1.7/k (i.e. less than 1% for the default k of 200).
+ * <p>
+ * Two sketches may be merged (for example, the sketches of separate threads or separate runs).
+ * <p>
+ * NOTE: this class is not thread-safe.
+ */
+public class QuantileSketch {
+
+    /**
+     * Constructor for a QuantileSketch.
+     *
+     * @param k    the accuracy parameter (the capacity of the top level).
+     * @param seed the seed for the random choice of offsets when compacting.
+     */
+    public QuantileSketch(int k, long seed) {
+        if (k < 8) throw new IllegalArgumentException("QuantileSketch: k must be at least 8: " + k);
+        this.k = k;
+        this.random = new Random(seed);
+        levels.add(new double[k]);
+        maxRetained = maxRetained();
+    }
+
+    /**
+     * Constructor for a QuantileSketch with default accuracy.
+     */
+    public QuantileSketch() {
+        this(DEFAULT_K, 0L);
+    }
+
+    /**
+     * Method to add a value to this sketch.
+     *
+     * @param x the value.
+     */
+    public void add(double x) {
+        append(0, x);
+        n++;
+        if (++retained > maxRetained) compress();
+    }
+
+    /**
+     * Method to merge another sketch into this one. The other sketch is unchanged.
+     *
+     * @param other the other sketch.
+     */
+    public void merge(QuantileSketch other) {
+        for (int h = 0; h < other.levels.size(); h++) {
+            final double[] values = other.levels.get(h);
+            for (int i = 0; i < other.sizes[h]; i++) append(h, values[i]);
+        }
+        n += other.n;
+        retained += other.retained;
+        while (retained > maxRetained) compress();
+    }
+
+    /**
+     * Method to estimate a quantile.
+     *
+     * @param q the quantile, between 0 and 1.
+     * @return the estimated value of the quantile (or NaN if this sketch is empty).
+     */
+    public double quantile(double q) {
+        if (q < 0 || q > 1) throw new IllegalArgumentException("QuantileSketch.quantile: q must be between 0 and 1: " + q);
+        if (retained == 0) return Double.NaN;
+        final double[] values = new double[retained];
+        final long[] weights = new long[retained];
+        final Integer[] order = new Integer[retained];
+        int j = 0;
+        for (int h = 0; h < levels.size(); h++)
+            for (int i = 0; i < sizes[h]; i++) {
+                values[j] = levels.get(h)[i];
+                weights[j] = 1L << h;
+                order[j] = j;
+                j++;
+            }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        long total = 0;
+        for (long w : weights) total += w;
+        final double rank = q * total;
+        long cumulative = 0;
+        for (Integer i : order) {
+            cumulative += weights[i];
+            if (cumulative >= rank) return values[i];
+        }
+        return values[order[retained - 1]];
+    }
+
+    /**
+     * @return the number of values which have been added (including those of merged sketches).
+     */
+    public long getCount() {
+        return n;
+    }
+
+    /**
+     * @return the number of values actually held by this sketch.
+     */
+    public int getRetained() {
+        return retained;
+    }
+
+    private void append(int h, double x) {
+        while (levels.size() <= h) {
+            levels.add(new double[capacity(levels.size())]);
+            if (sizes.length < levels.size()) sizes = Arrays.copyOf(sizes, 2 * sizes.length);
+            maxRetained = maxRetained();
+        }
+        double[] values = levels.get(h);
+        final int size = sizes[h];
+        if (size == values.length) levels.set(h, values = Arrays.copyOf(values, 2 * size));
+        values[size] = x;
+        sizes[h] = size + 1;
+    }
+
+    /**
+     * Compact the lowest level which is at (or over) its capacity.
+     */
+    private void compress() {
+        for (int h = 0; h < levels.size(); h++) {
+            final int size = sizes[h];
+            if (size >= capacity(h)) {
+                final double[] values = levels.get(h);
+                Arrays.sort(values, 0, size);
+                // NOTE if the size is odd, the largest value stays where it is.
+                final int pairs = size / 2;
+                final int offset = random.nextBoolean() ? 1 : 0;
+                for (int i = 0; i < pairs; i++) append(h + 1, values[2 * i + offset]);
+                if (size % 2 == 1) values[0] = values[size - 1];
+                sizes[h] = size % 2;
+                retained -= pairs;
+                return;
+            }
+        }
+    }
+
+    /**
+     * The capacity of level h, which depends on its distance from the top level.
+     */
+    private int capacity(int h) {
+        final int depth = levels.size() - 1 - h;
+        return Math.max(MIN_CAPACITY, (int) Math.ceil(k * Math.pow(C, Math.max(0, depth))));
+    }
+
+    private int maxRetained() {
+        int result = 0;
+        for (int h = 0; h < levels.size(); h++) result += capacity(h);
+        return result;
+    }
+
+    private static final int DEFAULT_K = 200;
+    private static final double C = 2.0 / 3;
+    private static final int MIN_CAPACITY = 2;
+
+    private final int k;
+    private final Random random;
+    private final List<double[]> levels = new ArrayList<>();
+    private int[] sizes = new int[8];
+    private long n = 0;
+    private int retained = 0;
+    private int maxRetained;
+}
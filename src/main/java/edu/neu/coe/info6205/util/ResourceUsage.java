@@ -0,0 +1,166 @@
+package edu.neu.coe.info6205.util;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Class to represent the memory resources used by (some phase of) a benchmark:
+ * the number of bytes allocated and the number (and total pause time) of garbage collections.
+ * <p>
+ * Allocation is measured by com.sun.management.ThreadMXBean (where the JVM supports it) and garbage collection by the GarbageCollectorMXBeans.
+ * The bytes allocated by the benchmarking thread itself are measured by Timer (only while the clock is running),
+ * so that the allocations of the supplier, pre-function and post-function are not counted.
+ * The bytes allocated by other threads (for example, the threads of a parallel sort) are measured across the whole phase.
+ * <p>
+ * The allocations of other threads are compared thread by thread, so that a thread which starts during the phase is counted in full,
+ * while a thread which terminates during the phase cannot be measured: it is not counted at all, but is reported (see getTerminatedThreads).
+ * NOTE: this is typical of pool threads which are retired (for example, by the common ForkJoinPool) after a warmup.
+ * Garbage collection is global, so it cannot be attributed to any one function.
+ */
+public final class ResourceUsage {
+
+    /**
+     * Method to take a snapshot of the allocations of all threads (other than the current thread) and of the garbage collections so far.
+     *
+     * @return a ResourceUsage which is the baseline for a subsequent call of since.
+     */
+    public static ResourceUsage snapshot() {
+        long gcCount = 0, gcMillis = 0;
+        for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            gcCount += Math.max(0, bean.getCollectionCount());
+            gcMillis += Math.max(0, bean.getCollectionTime());
+        }
+        final Map<Long, Long> threadBytes = otherThreadsAllocatedBytes();
+        long bytes = -1;
+        if (threadBytes != null) {
+            bytes = 0;
+            for (long x : threadBytes.values()) bytes += x;
+        }
+        return new ResourceUsage(bytes, threadBytes, 0, gcCount, gcMillis);
+    }
+
+    /**
+     * Method to yield the resources used since an earlier snapshot.
+     *
+     * @param earlier            an earlier snapshot.
+     * @param currentThreadBytes the number of bytes allocated by the current thread (for example, by Timer.allocatedBytes).
+     * @return the resources used between earlier and this snapshot.
+     */
+    public ResourceUsage since(ResourceUsage earlier, long currentThreadBytes) {
+        if (threadBytes == null || earlier.threadBytes == null || currentThreadBytes < 0)
+            return new ResourceUsage(-1, null, 0, gcCount - earlier.gcCount, gcMillis - earlier.gcMillis);
+        long bytes = currentThreadBytes;
+        for (Map.Entry<Long, Long> entry : threadBytes.entrySet()) {
+            // NOTE a thread which is not in the earlier snapshot has started since, so all of its allocations are counted.
+            final long delta = entry.getValue() - earlier.threadBytes.getOrDefault(entry.getKey(), 0L);
+            if (delta > 0) bytes += delta;
+        }
+        int terminated = 0;
+        for (Long id : earlier.threadBytes.keySet()) if (!threadBytes.containsKey(id)) terminated++;
+        return new ResourceUsage(bytes, null, terminated, gcCount - earlier.gcCount, gcMillis - earlier.gcMillis);
+    }
+
+    /**
+     * @return the number of bytes allocated (or -1 if allocation cannot be measured).
+     */
+    public long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    /**
+     * @return the number of (other) threads which terminated during the phase, whose allocations are therefore not included.
+     */
+    public int getTerminatedThreads() {
+        return terminatedThreads;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public long getGcMillis() {
+        return gcMillis;
+    }
+
+    /**
+     * Method to describe these resources, per run.
+     *
+     * @param runs the number of runs.
+     * @return a String such as "allocated 1,024 bytes/run; GC: 3 collections in 12 mSecs".
+     */
+    public String perRun(int runs) {
+        final String allocated = allocatedBytes < 0 ? "allocation not measured" : "allocated " + Utilities.formatWhole(allocatedBytes / Math.max(1, runs)) + " bytes/run" +
+                (terminatedThreads > 0 ? " (excluding " + terminatedThreads + " terminated threads)" : "");
+        return allocated + "; GC: " + gcCount + " collections in " + gcMillis + " mSecs";
+    }
+
+    @Override
+    public String toString() {
+        return perRun(1);
+    }
+
+    /**
+     * @return true if this JVM can measure the bytes allocated by a thread.
+     */
+    public static boolean isAllocationSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * @return the total number of bytes allocated so far by the current thread, or -1 if this cannot be measured.
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /**
+     * @return a map of thread id to the bytes allocated so far by that thread, for each (live) thread other than the current thread,
+     * or null if this cannot be measured.
+     */
+    private static Map<Long, Long> otherThreadsAllocatedBytes() {
+        if (THREADS == null) return null;
+        final long current = Thread.currentThread().getId();
+        final long[] ids = THREADS.getAllThreadIds();
+        final long[] bytes = THREADS.getThreadAllocatedBytes(ids);
+        final Map<Long, Long> result = new HashMap<>();
+        // NOTE a thread which has terminated since getAllThreadIds yields -1.
+        for (int i = 0; i < ids.length; i++) if (ids[i] != current && bytes[i] >= 0) result.put(ids[i], bytes[i]);
+        return result;
+    }
+
+    private static com.sun.management.ThreadMXBean getThreadMXBean() {
+        try {
+            final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                final com.sun.management.ThreadMXBean result = (com.sun.management.ThreadMXBean) bean;
+                if (result.isThreadAllocatedMemorySupported()) {
+                    if (!result.isThreadAllocatedMemoryEnabled()) result.setThreadAllocatedMemoryEnabled(true);
+                    return result;
+                }
+            }
+        } catch (LinkageError | UnsupportedOperationException | SecurityException e) {
+            // NOTE fall through: allocation will not be measured.
+        }
+        return null;
+    }
+
+    private ResourceUsage(long allocatedBytes, Map<Long, Long> threadBytes, int terminatedThreads, long gcCount, long gcMillis) {
+        this.allocatedBytes = allocatedBytes;
+        this.threadBytes = threadBytes;
+        this.terminatedThreads = terminatedThreads;
+        this.gcCount = gcCount;
+        this.gcMillis = gcMillis;
+    }
+
+    private static final com.sun.management.ThreadMXBean THREADS = getThreadMXBean();
+
+    private final long allocatedBytes;
+    // NOTE: only a snapshot has the bytes allocated by each thread.
+    private final Map<Long, Long> threadBytes;
+    private final int terminatedThreads;
+    private final long gcCount;
+    private final long gcMillis;
+}
@@ -0,0 +1,207 @@
+package edu.neu.coe.info6205.util;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.helpers.LogLog;
+import org.apache.log4j.spi.LoggingEvent;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Class to log asynchronously: log events are placed (without locking or allocation) in a preallocated ring buffer
+ * by any number of threads and are passed to the log4j appenders by a single background (daemon) thread.
+ * Events keep the time at which they were logged (not the time at which they were appended).
+ * <p>
+ * If the ring buffer is full, the behavior is determined by the Overflow policy.
+ * <p>
+ * NOTE: log4j's own AsyncAppender is not used because it synchronizes on (and allocates in) a shared list for each event.
+ */
+public class RingBufferLog {
+
+    /**
+     * Enumeration of the policies for logging when the ring buffer is full.
+     */
+    public enum Overflow {
+        /**
+         * The logging thread waits until there is space.
+         */
+        BLOCK,
+        /**
+         * The event is discarded (and counted: see getDropped).
+         */
+        DROP,
+        /**
+         * The event is appended by the logging thread itself (and so may be out of order).
+         */
+        SYNCHRONOUS
+    }
+
+    /**
+     * Constructor for a RingBufferLog, which starts its background thread.
+     *
+     * @param capacity the number of events in the ring buffer (rounded up to a power of two).
+     * @param overflow the policy when the ring buffer is full.
+     */
+    public RingBufferLog(int capacity, Overflow overflow) {
+        if (capacity < 1) throw new IllegalArgumentException("RingBufferLog: capacity must be positive: " + capacity);
+        final int size = Integer.highestOneBit(capacity) == capacity ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) slots[i] = new Slot(i - size);
+        this.mask = size - 1;
+        this.overflow = overflow;
+        this.drainer = new Thread(this::drain, "RingBufferLog");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /**
+     * Method to log an event.
+     * The caller is responsible for checking that the level is enabled for the logger.
+     *
+     * @param logger    the (log4j) logger.
+     * @param level     the level.
+     * @param message   the message (ignored if deferred is not null).
+     * @param deferred  a supplier of the message which is evaluated by the background thread (may be null).
+     * @param throwable the throwable (may be null).
+     */
+    public void log(Logger logger, Level level, Object message, Supplier<String> deferred, Throwable throwable) {
+        final long timeStamp = System.currentTimeMillis();
+        long sequence;
+        while ((sequence = claim()) < 0)
+            switch (overflow) {
+                case DROP:
+                    dropped.incrementAndGet();
+                    return;
+                case SYNCHRONOUS:
+                    logger.callAppenders(new LoggingEvent(FQCN, logger, timeStamp, level, deferred != null ? deferred.get() : message, throwable));
+                    return;
+                default:
+                    LockSupport.parkNanos(WAIT_NANOS);
+            }
+        final Slot slot = slots[(int) sequence & mask];
+        slot.logger = logger;
+        slot.level = level;
+        slot.message = message;
+        slot.deferred = deferred;
+        slot.throwable = throwable;
+        slot.timeStamp = timeStamp;
+        // NOTE the volatile write publishes the other fields of the slot to the background thread.
+        slot.sequence = sequence;
+    }
+
+    /**
+     * Method to wait until all the events logged so far have been appended.
+     *
+     * @param timeoutMillis the maximum time to wait, in milliseconds.
+     * @return true if all such events have been appended.
+     */
+    public boolean flush(long timeoutMillis) {
+        final long target = tail.get();
+        final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (head < target) {
+            if (System.nanoTime() > deadline || !drainer.isAlive()) return false;
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+        return true;
+    }
+
+    /**
+     * Method to flush the events logged so far and to stop the background thread.
+     * Events which are logged after this method is called are not appended (with policy BLOCK, the logging thread will wait indefinitely).
+     *
+     * @param timeoutMillis the maximum time to wait for the flush, in milliseconds.
+     */
+    public void close(long timeoutMillis) {
+        flush(timeoutMillis);
+        running = false;
+        LockSupport.unpark(drainer);
+    }
+
+    /**
+     * @return the number of events discarded (by policy DROP) because the ring buffer was full.
+     */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * @return the number of events in the ring buffer.
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public Overflow getOverflow() {
+        return overflow;
+    }
+
+    /**
+     * Method to claim the next sequence number, if there is space for it in the ring buffer.
+     *
+     * @return the sequence number, or -1 if the ring buffer is full.
+     */
+    private long claim() {
+        while (true) {
+            final long sequence = tail.get();
+            if (sequence - head >= slots.length) return -1;
+            if (tail.compareAndSet(sequence, sequence + 1)) return sequence;
+        }
+    }
+
+    private void drain() {
+        long sequence = head;
+        while (running) {
+            final Slot slot = slots[(int) sequence & mask];
+            if (slot.sequence != sequence) {
+                LockSupport.parkNanos(IDLE_NANOS);
+                continue;
+            }
+            try {
+                final Object message = slot.deferred != null ? slot.deferred.get() : slot.message;
+                slot.logger.callAppenders(new LoggingEvent(FQCN, slot.logger, slot.timeStamp, slot.level, message, slot.throwable));
+            } catch (RuntimeException e) {
+                LogLog.error("RingBufferLog: unable to append event", e);
+            }
+            slot.logger = null;
+            slot.message = null;
+            slot.deferred = null;
+            slot.throwable = null;
+            // NOTE the volatile write of head releases the slot to the logging threads.
+            head = ++sequence;
+        }
+    }
+
+    /**
+     * Class to represent one (reusable) event of the ring buffer.
+     * The event with sequence number s is ready when the sequence of its slot is s.
+     */
+    private static class Slot {
+        Slot(long sequence) {
+            this.sequence = sequence;
+        }
+
+        volatile long sequence;
+        Logger logger;
+        Level level;
+        Object message;
+        Supplier<String> deferred;
+        Throwable throwable;
+        long timeStamp;
+    }
+
+    private static final String FQCN = LazyLogger.class.getName();
+    private static final long WAIT_NANOS = 10000L;
+    private static final long IDLE_NANOS = 1000000L;
+
+    private final Slot[] slots;
+    private final int mask;
+    private final Overflow overflow;
+    private final Thread drainer;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile long head;
+    private volatile boolean running = true;
+}
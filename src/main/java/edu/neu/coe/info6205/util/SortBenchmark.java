@@ -7,15 +7,19 @@ import edu.neu.coe.info6205.sort.BaseHelper;
 import edu.neu.coe.info6205.sort.Helper;
 import edu.neu.coe.info6205.sort.Sort;
 import edu.neu.coe.info6205.sort.SortWithHelper;
+import edu.neu.coe.info6205.sort.radix.CollationKeySort;
 import edu.neu.coe.info6205.sort.simple.TimSort;
 import edu.neu.coe.info6205.sort.simple.*;
+import edu.neu.coe.info6205.util.metrics.MetricsRegistry;
 
-import java.io.FileNotFoundException;
+import java.io.Closeable;
 import java.io.IOException;
-import java.lang.reflect.Array;
+import java.text.Collator;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.chrono.ChronoLocalDateTime;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
@@ -32,70 +36,94 @@ public class SortBenchmark {
         this.config = config;
     }
 
+    /**
+     * Main program to run the benchmarks.
+     * <p>
+     * NOTE: if the first argument is of the form --phase=P, where P is one of PHASES, then only that phase is run
+     * (this is how ForkedBenchmarkRunner runs each phase in its own JVM).
+     *
+     * @param args the (optional) phase followed by the word counts.
+     * @throws IOException if config.ini cannot be loaded or a resource cannot be read.
+     */
     public static void main(String[] args) throws IOException {
         Config config = Config.load(SortBenchmark.class);
+        LazyLogger.configure(config);
+        final String phase = args.length > 0 && args[0].startsWith(PHASE) ? args[0].substring(PHASE.length()) : null;
+        if (phase != null) {
+            if (!Arrays.asList(PHASES).contains(phase)) throw new IllegalArgumentException("SortBenchmark: unknown phase: " + phase);
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
         logger.info("SortBenchmark.main: " + config.get("huskysort", "version") + " with word counts: " + Arrays.toString(args));
         if (args.length == 0) logger.warn("No word counts specified on the command line");
         SortBenchmark benchmark = new SortBenchmark(config);
-        benchmark.sortIntegers(100000);
-        benchmark.sortStrings(Arrays.stream(args).map(Integer::parseInt));
-        benchmark.sortLocalDateTimes(100000);
+        // NOTE the export (if configured) is null-safe: try-with-resources does not close a null resource.
+        try (Closeable ignored = MetricsRegistry.getDefault().startExport(config)) {
+            if (phase == null || phase.equals(PHASES[0])) benchmark.sortIntegers(100000);
+            if (phase == null || phase.equals(PHASES[1])) benchmark.sortStrings(Arrays.stream(args).map(Integer::parseInt));
+            if (phase == null || phase.equals(PHASES[2])) benchmark.sortLocalDateTimes(100000);
+        }
     }
 
     // CONSIDER generifying common code (but it's difficult if not impossible)
     private void sortIntegers(final int n) {
-        final Random random = new Random();
+        // NOTE the distribution (and seed) of the inputs are defined by the generator section of config.ini.
+        final InputGenerator generator = InputGenerator.create(config);
+        logger.info("Sorting integers generated by " + generator);
 
+        // NOTE each run has its own input (see InputGenerator.next), rather than all runs sorting the same array,
+        // but the sequence of inputs is still determined by the seed.
         // sort int[]
-        final Supplier<int[]> intsSupplier = () -> {
-            int[] result = (int[]) Array.newInstance(int.class, n);
-            for (int i = 0; i < n; i++) result[i] = random.nextInt();
-            return result;
-        };
+        final AtomicReference<InputGenerator> intsGenerator = new AtomicReference<>(generator);
+        final Supplier<int[]> intsSupplier = () -> intsGenerator.getAndUpdate(InputGenerator::next).ints(n);
 
-        final double t1 = new Benchmark_Timer<int[]>(
+        final Benchmark_Timer<int[]> b1 = new Benchmark_Timer<>(
                 "intArraysorter",
                 (xs) -> Arrays.copyOf(xs, xs.length),
                 Arrays::sort,
                 null
-        ).runFromSupplier(intsSupplier, 100);
+        );
+        final double t1 = b1.runFromSupplier(intsSupplier, 100);
         for (TimeLogger timeLogger : timeLoggersLinearithmic) timeLogger.log(t1, n);
+        TimeLogger.logResources(b1.getResourceUsage(), 100);
 
         // sort Integer[]
-        final Supplier<Integer[]> integersSupplier = () -> {
-            Integer[] result = (Integer[]) Array.newInstance(Integer.class, n);
-            for (int i = 0; i < n; i++) result[i] = random.nextInt();
-            return result;
-        };
+        final AtomicReference<InputGenerator> integersGenerator = new AtomicReference<>(generator);
+        final Supplier<Integer[]> integersSupplier = () -> integersGenerator.getAndUpdate(InputGenerator::next).integers(n);
 
-        final double t2 = new Benchmark_Timer<Integer[]>(
+        final Benchmark_Timer<Integer[]> b2 = new Benchmark_Timer<>(
                 "integerArraysorter",
                 (xs) -> Arrays.copyOf(xs, xs.length),
                 Arrays::sort,
                 null
-        ).runFromSupplier(integersSupplier, 100);
+        );
+        final double t2 = b2.runFromSupplier(integersSupplier, 100);
         for (TimeLogger timeLogger : timeLoggersLinearithmic) timeLogger.log(t2, n);
+        TimeLogger.logResources(b2.getResourceUsage(), 100);
     }
 
     private void sortStrings(Stream<Integer> wordCounts) throws IOException {
         logger.info("Beginning String sorts");
 
         // NOTE: common words benchmark
-        benchmarkStringSorters(getWords("3000-common-words.txt", SortBenchmark::lineAsList), 4000, 5000);
+        benchmarkStringSorters(getWords("3000-common-words.txt", linesLoader), 4000, 5000);
 
         // NOTE: Leipzig English words benchmarks (according to command-line arguments)
         wordCounts.forEach(this::doLeipzigBenchmarkEnglish);
 
         // NOTE: Leipzig Chines words benchmarks (according to command-line arguments)
         doLeipzigBenchmark("zho-simp-tw_web_2014_10K-sentences.txt", 5000, 1000);
+
+        // NOTE: Leipzig Chinese words benchmarks using a locale-aware (collated) order (the corpus is loaded only if they are enabled)
+        if (isConfigBenchmarkStringSorter("collationkeysort"))
+            benchmarkStringSortersCollated(getWords("zho-simp-tw_web_2014_10K-sentences.txt", leipzigLoader), 5000, 1000, Locale.CHINA);
     }
 
     private void doLeipzigBenchmarkEnglish(int x) {
         String resource = "eng-uk_web_2002_" + (x < 50000 ? "10K" : x < 200000 ? "100K" : "1M") + "-sentences.txt";
         try {
             doLeipzigBenchmark(resource, x, Utilities.round(100000000 / minComparisons(x)));
-        } catch (FileNotFoundException e) {
-            logger.warn("Unable to find resource: " + resource, e);
+        } catch (IOException e) {
+            logger.warn("Unable to load resource: " + resource, e);
         }
     }
 
@@ -113,11 +141,21 @@ public class SortBenchmark {
             logger.info(benchmarkFactory("Sort LocalDateTimes using Arrays::sort (TimSort)", Arrays::sort, null).runFromSupplier(localDateTimeSupplier, 100) + "ms");
 
         // NOTE this is supposed to match the previous benchmark run exactly. I don't understand why it takes rather less time.
+        // (Probably the JIT profile and heap state left by the previous run: compare the results of ForkedBenchmarkRunner.)
         if (isConfigBenchmarkDateSorter("timsort")) {
             logger.info(benchmarkFactory("Repeat Sort LocalDateTimes using timSort::mutatingSort", new TimSort<>(helper)::mutatingSort, null).runFromSupplier(localDateTimeSupplier, 100) + "ms");
             // NOTE this is intended to replace the run two lines previous. It should take the exact same amount of time.
             runDateTimeSortBenchmark(LocalDateTime.class, localDateTimes, n, 100, 0);
         }
+
+        // NOTE Test on date using key extraction: each date is converted to primitive keys once, rather than on every comparison.
+        // Since the keys are sorted stably, we sort first on the nanoseconds and then on the epoch seconds.
+        if (isConfigBenchmarkDateSorter("keysort")) {
+            final TimSort<ChronoLocalDateTime<?>> keySorter = new TimSort<>(helper);
+            logger.info(benchmarkFactory("Sort LocalDateTimes using sortByInt/sortByLong (key extraction)",
+                    xs -> keySorter.sortByLong(keySorter.sortByInt(xs, d -> d.toLocalTime().getNano()), d -> d.toEpochSecond(ZoneOffset.UTC)),
+                    null).runFromSupplier(localDateTimeSupplier, 100) + "ms");
+        }
     }
 
     /**
@@ -134,11 +172,32 @@ public class SortBenchmark {
         Random random = new Random();
 
         if (isConfigBenchmarkStringSorter("puresystemsort")) {
-            Benchmark<String[]> benchmark = new Benchmark_Timer<>("SystemSort", null, Arrays::sort, null);
+            Benchmark_Timer<String[]> benchmark = new Benchmark_Timer<>("SystemSort", null, Arrays::sort, null);
             doPureBenchmark(words, nWords, nRuns, random, benchmark);
         }
     }
 
+    /**
+     * Method to run pure string sorter benchmarks where the order is defined by the Collator for the given locale.
+     *
+     * @param words  the word source.
+     * @param nWords the number of words to be sorted.
+     * @param nRuns  the number of runs.
+     * @param locale the locale which defines the order of the words.
+     */
+    void benchmarkStringSortersCollated(String[] words, int nWords, int nRuns, Locale locale) {
+        logger.info("Testing collated sorts (" + locale + ") with " + formatWhole(nRuns) + " runs of sorting " + formatWhole(nWords) + " words");
+        Random random = new Random();
+
+        // NOTE: the system sort with a Collator is the baseline against which the collation key sort is compared.
+        if (isConfigBenchmarkStringSorter("collationkeysort")) {
+            final Collator collator = Collator.getInstance(locale);
+            doPureBenchmark(words, nWords, nRuns, random, new Benchmark_Timer<>("SystemSort (Collator)", null, xs -> Arrays.sort(xs, collator), null));
+            final CollationKeySort sorter = new CollationKeySort(locale);
+            doPureBenchmark(words, nWords, nRuns, random, new Benchmark_Timer<>("CollationKeySort", null, sorter::sort, null));
+        }
+    }
+
     /**
      * Method to run instrumented string sorter benchmarks.
      * <p>
@@ -154,6 +213,9 @@ public class SortBenchmark {
         if (isConfigBenchmarkStringSorter("mergesort"))
             runStringSortBenchmark(words, nWords, nRuns, new MergeSortBasic<>(nWords, config), timeLoggersLinearithmic);
 
+        if (isConfigBenchmarkStringSorter("lcpmergesort"))
+            runStringSortBenchmark(words, nWords, nRuns, new LCPMergeSort(nWords, config), timeLoggersLinearithmic);
+
         if (isConfigBenchmarkStringSorter("quicksort3way"))
             runStringSortBenchmark(words, nWords, nRuns, new QuickSort_3way<>(nWords, config), timeLoggersLinearithmic);
 
@@ -211,8 +273,15 @@ public class SortBenchmark {
 
     final static LazyLogger logger = new LazyLogger(SortBenchmark.class);
 
+    public static final String PHASE = "--phase=";
+    public static final String[] PHASES = {"integers", "strings", "localdatetimes"};
+
     final static Pattern regexLeipzig = Pattern.compile("[~\\t]*\\t(([\\s\\p{Punct}\\uFF0C]*\\p{L}+)*)");
 
+    // NOTE the names of the loaders are part of the names of their token caches (see CorpusLoader).
+    private static final CorpusLoader linesLoader = new CorpusLoader("lines", SortBenchmark::lineAsList);
+    private static final CorpusLoader leipzigLoader = new CorpusLoader("leipzig", SortBenchmark::getLeipzigWords);
+
     /**
      * This is based on log2(n!)
      *
@@ -256,9 +325,10 @@ public class SortBenchmark {
         );
     }
 
-    private static void doPureBenchmark(String[] words, int nWords, int nRuns, Random random, Benchmark<String[]> benchmark) {
+    private static void doPureBenchmark(String[] words, int nWords, int nRuns, Random random, Benchmark_Timer<String[]> benchmark) {
         final double time = benchmark.runFromSupplier(() -> Utilities.fillRandomArray(String.class, random, nWords, r -> words[r.nextInt(words.length)]), nRuns);
         for (TimeLogger timeLogger : timeLoggersLinearithmic) timeLogger.log(time, nWords);
+        TimeLogger.logResources(benchmark.getResourceUsage(), nRuns);
     }
 
     private void dateSortBenchmark(Supplier<LocalDateTime[]> localDateTimeSupplier, LocalDateTime[] localDateTimes, Sort<ChronoLocalDateTime<?>> dateHuskySortSystemSort, String s, int i) {
@@ -267,10 +337,10 @@ public class SortBenchmark {
         runDateTimeSortBenchmark(LocalDateTime.class, localDateTimes, 100000, 100, i);
     }
 
-    private void doLeipzigBenchmark(String resource, int nWords, int nRuns) throws FileNotFoundException {
-        benchmarkStringSorters(getWords(resource, SortBenchmark::getLeipzigWords), nWords, nRuns);
+    private void doLeipzigBenchmark(String resource, int nWords, int nRuns) throws IOException {
+        benchmarkStringSorters(getWords(resource, leipzigLoader), nWords, nRuns);
         if (isConfigBoolean(Config.HELPER, BaseHelper.INSTRUMENT))
-            benchmarkStringSortersInstrumented(getWords(resource, SortBenchmark::getLeipzigWords), nWords, nRuns);
+            benchmarkStringSortersInstrumented(getWords(resource, leipzigLoader), nWords, nRuns);
     }
 
     @SuppressWarnings("SameParameterValue")
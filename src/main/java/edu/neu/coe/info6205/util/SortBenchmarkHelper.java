@@ -3,19 +3,17 @@ package edu.neu.coe.info6205.util;
 
 import edu.neu.coe.info6205.sort.SortException;
 
-import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileReader;
+import java.io.IOException;
 import java.net.URL;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.*;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import static edu.neu.coe.info6205.util.Utilities.formatWhole;
 
@@ -37,20 +35,11 @@ class SortBenchmarkHelper {
     }
 
     // TEST
-    static String[] getWords(String resource, Function<String, Collection<String>> getStrings) throws FileNotFoundException {
-        List<String> words = new ArrayList<>();
-        FileReader fr = new FileReader(getFile(resource, SortBenchmarkHelper.class));
-        for (Object line : new BufferedReader(fr).lines().toArray()) words.addAll(getStrings.apply((String) line));
-        words = words.stream().distinct().filter(new Predicate<String>() {
-            private static final int MINIMUM_LENGTH = 2;
-
-            public boolean test(String s) {
-                return s.length() >= MINIMUM_LENGTH;
-            }
-        }).collect(Collectors.toList());
-        logger.info("Testing with words: " + formatWhole(words.size()) + " from " + resource);
-        String[] result = new String[words.size()];
-        result = words.toArray(result);
+    static String[] getWords(String resource, CorpusLoader loader) throws IOException {
+        // NOTE: the words are distinct and (incidentally) sorted: see CorpusLoader.
+        // The order of the words is not significant as the benchmarks choose words at random.
+        final String[] result = loader.load(new File(getFile(resource, SortBenchmarkHelper.class))).toArray();
+        logger.info("Testing with words: " + formatWhole(result.length) + " from " + resource);
         return result;
     }
 
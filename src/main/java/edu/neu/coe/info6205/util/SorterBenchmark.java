@@ -27,6 +27,7 @@ public class SorterBenchmark<T extends Comparable<T>> extends Benchmark_Timer<T[
         sorter.init(N);
         final double time = super.runFromSupplier(() -> generateRandomArray(ts), nRuns);
         for (TimeLogger timeLogger : timeLoggers) timeLogger.log(time, N);
+        TimeLogger.logResources(getResourceUsage(), nRuns);
     }
 
     @Override
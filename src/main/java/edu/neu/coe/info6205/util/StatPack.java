@@ -5,8 +5,19 @@ import java.util.HashMap;
 public class StatPack {
 
     public StatPack(int N, String... keys) {
+        this(false, N, keys);
+    }
+
+    /**
+     * Constructor for a StatPack whose statistics are optionally streaming (see StreamingStatistics).
+     *
+     * @param streaming if true, the values are not stored (percentiles are estimated) and this StatPack may be merged.
+     * @param N         the expected number of values for each key (ignored if streaming).
+     * @param keys      the keys.
+     */
+    public StatPack(boolean streaming, int N, String... keys) {
         map = new HashMap<>();
-        for (String key : keys) map.put(key, new Statistics(key, N));
+        for (String key : keys) map.put(key, streaming ? new StreamingStatistics(key) : new Statistics(key, N));
     }
 
     public void add(String key, double x) {
@@ -35,6 +46,20 @@ public class StatPack {
         return getStatistics(key).stdDev();
     }
 
+    /**
+     * Method to merge the statistics of other into this StatPack (both must be streaming).
+     *
+     * @param other another StatPack whose keys include all of the keys of this StatPack.
+     */
+    public void merge(StatPack other) {
+        for (String key : map.keySet()) {
+            final Statistics statistics = getStatistics(key), otherStatistics = other.getStatistics(key);
+            if (!(statistics instanceof StreamingStatistics && otherStatistics instanceof StreamingStatistics))
+                throw new RuntimeException("StatPack.merge(" + key + "): statistics are not streaming");
+            ((StreamingStatistics) statistics).merge((StreamingStatistics) otherStatistics);
+        }
+    }
+
     @Override
     public String toString() {
         final StringBuilder stringBuilder = new StringBuilder("StatPack {");
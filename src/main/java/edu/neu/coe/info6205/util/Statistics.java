@@ -1,5 +1,12 @@
 package edu.neu.coe.info6205.util;
 
+import java.util.Arrays;
+
+/**
+ * Class to keep the values of a property and yield their statistics (exactly).
+ * <p>
+ * NOTE: every value is stored. For a very large number of values, use StreamingStatistics instead.
+ */
 public class Statistics {
 
     public Statistics(String property, int N) {
@@ -7,8 +14,17 @@ public class Statistics {
         doubles = new double[N];
     }
 
+    /**
+     * Constructor for use by subclasses which do not store the values.
+     *
+     * @param property the name of the property.
+     */
+    protected Statistics(String property) {
+        this(property, 0);
+    }
+
     public void add(double x) {
-        if (count >= doubles.length) resize(2 * doubles.length);
+        if (count >= doubles.length) resize(Math.max(1, 2 * doubles.length));
         doubles[count] = x;
         count = count + 1;
         stale();
@@ -41,10 +57,61 @@ public class Statistics {
         return stdDev;
     }
 
+    /**
+     * Method to yield the standard error of the mean.
+     *
+     * @return the standard deviation divided by the square root of the count.
+     */
+    public double standardError() {
+        return stdDev() / Math.sqrt(getCount());
+    }
+
+    /**
+     * @return the smallest value (or NaN if there are no values).
+     */
+    public double min() {
+        return count == 0 ? Double.NaN : sorted()[0];
+    }
+
+    /**
+     * @return the largest value (or NaN if there are no values).
+     */
+    public double max() {
+        return count == 0 ? Double.NaN : sorted()[count - 1];
+    }
+
+    /**
+     * Method to yield a percentile of the values, by the nearest-rank method.
+     *
+     * @param p the percentile, between 0 and 100 (e.g. 99.9).
+     * @return the smallest value such that at least p percent of the values are no greater than it (or NaN if there are no values).
+     */
+    public double percentile(double p) {
+        if (p < 0 || p > 100) throw new IllegalArgumentException("Statistics.percentile: p must be between 0 and 100: " + p);
+        if (count == 0) return Double.NaN;
+        final int rank = (int) Math.ceil(p * count / 100);
+        return sorted()[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Method to summarize the distribution of the values, with three decimal places.
+     *
+     * @return a String showing min, mean, p50, p90, p99, p99.9 and max.
+     */
+    public String summary() {
+        final StringBuilder sb = new StringBuilder().append(property).append(": ");
+        if (getCount() == 0) return sb.append("<unset>").toString();
+        sb.append("n=").append(getCount()).append("; min=").append(Utilities.formatDecimal3Places(min()))
+                .append("; mean=").append(Utilities.formatDecimal3Places(mean()));
+        for (double p : SUMMARY_PERCENTILES)
+            sb.append("; p").append(p == Math.rint(p) ? Integer.toString((int) p) : Double.toString(p)).append("=").append(Utilities.formatDecimal3Places(percentile(p)));
+        return sb.append("; max=").append(Utilities.formatDecimal3Places(max())).toString();
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder().append(property).append(": ");
-        if (updated) {
+        if (getCount() > 0) {
             final boolean stats = stdDev() > 0.0;
             final String s = stats ? "mean=" : "";
             sb.append(s).append(Utilities.asInt(mean()));
@@ -61,18 +128,28 @@ public class Statistics {
         doubles = result;
     }
 
+    private double[] sorted() {
+        if (sorted == null) {
+            sorted = Arrays.copyOf(doubles, count);
+            Arrays.sort(sorted);
+        }
+        return sorted;
+    }
+
     private void stale() {
         total = null;
         stdDev = null;
-        updated = true;
+        sorted = null;
     }
 
+    private static final double[] SUMMARY_PERCENTILES = {50, 90, 99, 99.9};
+
     private Double total;
     private Double stdDev;
+    private double[] sorted;
 
     private int count = 0;
     private double[] doubles;
     private final String property;
-    private boolean updated = false;
 
 }
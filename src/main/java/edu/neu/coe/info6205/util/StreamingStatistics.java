@@ -0,0 +1,114 @@
+package edu.neu.coe.info6205.util;
+
+/**
+ * Class to yield the statistics of a property in constant memory, without storing its values.
+ * <p>
+ * The mean and variance are maintained by Welford's algorithm (which, unlike the sum of squares, is numerically stable),
+ * the minimum and maximum are exact, and the percentiles are estimated by a QuantileSketch.
+ * This class may be used wherever a Statistics is expected, for example in a StatPack.
+ * <p>
+ * StreamingStatistics objects may be merged (see merge), so that each thread (or run) can keep its own, unsynchronized.
+ * <p>
+ * NOTE: this class is not thread-safe.
+ */
+public class StreamingStatistics extends Statistics {
+
+    /**
+     * Constructor for a StreamingStatistics.
+     *
+     * @param property the name of the property.
+     */
+    public StreamingStatistics(String property) {
+        super(property);
+    }
+
+    @Override
+    public void add(double x) {
+        count++;
+        final double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+        total += x;
+        if (x < min) min = x;
+        if (x > max) max = x;
+        sketch.add(x);
+    }
+
+    /**
+     * Method to merge the statistics of other into these statistics (using the parallel form of Welford's algorithm).
+     * The other statistics are unchanged.
+     *
+     * @param other the other StreamingStatistics.
+     */
+    public void merge(StreamingStatistics other) {
+        if (other.count == 0) return;
+        final long n = count + other.count;
+        final double delta = other.mean - mean;
+        mean += delta * other.count / n;
+        m2 += other.m2 + delta * delta * count * other.count / n;
+        count = n;
+        total += other.total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        sketch.merge(other.sketch);
+    }
+
+    @Override
+    public int getCount() {
+        return Math.toIntExact(count);
+    }
+
+    @Override
+    public double total() {
+        return total;
+    }
+
+    @Override
+    public double mean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * NOTE: as with Statistics, this is the population standard deviation.
+     *
+     * @return the standard deviation.
+     */
+    @Override
+    public double stdDev() {
+        return count == 0 ? Double.NaN : Math.sqrt(m2 / count);
+    }
+
+    @Override
+    public double min() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    @Override
+    public double max() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    /**
+     * Method to estimate a percentile of the values (see QuantileSketch for the accuracy).
+     * The 0th and 100th percentiles are exact.
+     *
+     * @param p the percentile, between 0 and 100 (e.g. 99.9).
+     * @return the estimated percentile (or NaN if there are no values).
+     */
+    @Override
+    public double percentile(double p) {
+        if (p < 0 || p > 100) throw new IllegalArgumentException("StreamingStatistics.percentile: p must be between 0 and 100: " + p);
+        if (count == 0) return Double.NaN;
+        if (p == 0) return min;
+        if (p == 100) return max;
+        return sketch.quantile(p / 100);
+    }
+
+    private final QuantileSketch sketch = new QuantileSketch();
+    private long count = 0;
+    private double mean = 0;
+    private double m2 = 0;
+    private double total = 0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+}
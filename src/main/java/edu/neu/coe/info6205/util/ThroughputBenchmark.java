@@ -0,0 +1,268 @@
+package edu.neu.coe.info6205.util;
+
+import edu.neu.coe.info6205.sort.par.ParSort;
+import edu.neu.coe.info6205.util.metrics.MetricsRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static edu.neu.coe.info6205.util.Utilities.formatWhole;
+
+/**
+ * This class measures the throughput of a workload which is run concurrently by a number of threads
+ * (whereas Benchmark_Timer measures the latency of a workload run by a single thread).
+ * <p>
+ * As with Benchmark_Timer, each operation consists of the supplier (which yields the input),
+ * the pre-function (may be null) and the run function, but only the run function is timed.
+ * The threads start together (at a barrier) and each performs operations until a fixed duration has elapsed.
+ * The result (see Result) gives the number of operations per second (i.e. the throughput, which is limited by all three functions),
+ * the latency of the run function (for each thread and overall) and the utilization
+ * (the proportion of the elapsed time of all threads which was spent in the run function).
+ * <p>
+ * NOTE: the supplier and the functions are invoked concurrently, so they must be thread-safe.
+ * In particular, each thread should usually be given its own input (e.g. its own array to be sorted).
+ *
+ * @param <T> the type of the input to the run function.
+ */
+public class ThroughputBenchmark<T> {
+
+    /**
+     * Constructor for a ThroughputBenchmark.
+     *
+     * @param description the description of the benchmark.
+     * @param fPre        a function of T => T (may be null), run (with the clock stopped) before each invocation of fRun.
+     * @param fRun        the function whose throughput is to be measured.
+     */
+    public ThroughputBenchmark(String description, UnaryOperator<T> fPre, Consumer<T> fRun) {
+        this.description = description;
+        this.fPre = fPre;
+        this.fRun = fRun;
+    }
+
+    /**
+     * Constructor for a ThroughputBenchmark where only the run function is specified.
+     *
+     * @param description the description of the benchmark.
+     * @param fRun        the function whose throughput is to be measured.
+     */
+    public ThroughputBenchmark(String description, Consumer<T> fRun) {
+        this(description, null, fRun);
+    }
+
+    /**
+     * Method to run the workload concurrently on a number of threads (after a warmup, if warmupMillis is positive).
+     *
+     * @param supplier       a (thread-safe) Supplier of a T.
+     * @param threads        the number of threads.
+     * @param durationMillis the duration (in milliseconds) of the measurement.
+     * @param warmupMillis   the duration (in milliseconds) of the warmup, whose results are discarded.
+     * @return the Result.
+     */
+    public Result run(Supplier<T> supplier, int threads, long durationMillis, long warmupMillis) {
+        if (threads < 1) throw new IllegalArgumentException("ThroughputBenchmark: threads must be positive: " + threads);
+        if (warmupMillis > 0) measure(supplier, threads, warmupMillis);
+        final Result result = measure(supplier, threads, durationMillis);
+        logger.info(result.toString());
+        final MetricsRegistry registry = MetricsRegistry.getDefault();
+        final String t = Integer.toString(threads);
+        registry.gauge("benchmark_throughput_ops_per_second", "benchmark", description, "threads", t).set(result.getOpsPerSecond());
+        registry.gauge("benchmark_throughput_utilization", "benchmark", description, "threads", t).set(result.getUtilization());
+        return result;
+    }
+
+    /**
+     * Method to run the workload for each of a number of thread counts.
+     *
+     * @param supplier       a (thread-safe) Supplier of a T.
+     * @param threadCounts   the numbers of threads (see threadCounts).
+     * @param durationMillis the duration (in milliseconds) of each measurement.
+     * @param warmupMillis   the duration (in milliseconds) of the warmup before each measurement.
+     * @return a list of Results, one per thread count.
+     */
+    public List<Result> sweep(Supplier<T> supplier, int[] threadCounts, long durationMillis, long warmupMillis) {
+        final List<Result> result = new ArrayList<>();
+        for (int threads : threadCounts) result.add(run(supplier, threads, durationMillis, warmupMillis));
+        if (!result.isEmpty()) {
+            // NOTE the speedup is relative to the throughput per thread of the first (usually single-threaded) run.
+            final double base = result.get(0).getOpsPerSecond() / result.get(0).threads;
+            for (Result r : result) {
+                final double speedup = r.getOpsPerSecond() / base;
+                logger.info(description + ": " + r.threads + " threads: speedup " + Utilities.formatDecimal3Places(speedup)
+                        + ", efficiency " + Utilities.formatDecimal3Places(speedup / r.threads));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Method to yield the thread counts of a sweep: the powers of two less than max, followed by max itself.
+     *
+     * @param max the largest number of threads (e.g. Runtime.getRuntime().availableProcessors()).
+     * @return an array such as {1, 2, 4, 8, 16, 32, 48} for max = 48.
+     */
+    public static int[] threadCounts(int max) {
+        final List<Integer> counts = new ArrayList<>();
+        for (int n = 1; n < max; n *= 2) counts.add(n);
+        counts.add(max);
+        final int[] result = new int[counts.size()];
+        for (int i = 0; i < result.length; i++) result[i] = counts.get(i);
+        return result;
+    }
+
+    /**
+     * Class to represent the result of a throughput measurement.
+     */
+    public static class Result {
+        public final int threads;
+        public final long operations;
+        public final double elapsedMillis;
+
+        Result(int threads, long operations, double elapsedMillis, double busyMillis, List<StreamingStatistics> latencies) {
+            this.threads = threads;
+            this.operations = operations;
+            this.elapsedMillis = elapsedMillis;
+            this.busyMillis = busyMillis;
+            this.latencies = latencies;
+        }
+
+        /**
+         * @return the number of operations (of all threads) per second.
+         */
+        public double getOpsPerSecond() {
+            return operations / elapsedMillis * 1000;
+        }
+
+        /**
+         * @return the proportion of the elapsed time of all threads which was spent in the run function.
+         */
+        public double getUtilization() {
+            return busyMillis / elapsedMillis / threads;
+        }
+
+        /**
+         * @return the latencies (in milliseconds) of the run function, one StreamingStatistics per thread.
+         */
+        public List<StreamingStatistics> getThreadLatencies() {
+            return Collections.unmodifiableList(latencies);
+        }
+
+        /**
+         * @return the latencies (in milliseconds) of the run function, merged over all threads.
+         */
+        public StreamingStatistics getLatency() {
+            final StreamingStatistics result = new StreamingStatistics(LATENCY);
+            for (StreamingStatistics statistics : latencies) result.merge(statistics);
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder().append(threads).append(" threads: ").append(formatWhole(operations)).append(" ops in ")
+                    .append(Utilities.formatDecimal3Places(elapsedMillis)).append(" mSecs: ").append(Utilities.formatDecimal3Places(getOpsPerSecond()))
+                    .append(" ops/sec; utilization ").append(Utilities.formatDecimal3Places(getUtilization())).append("; ").append(getLatency().summary());
+            for (int i = 0; i < latencies.size(); i++) {
+                final StreamingStatistics statistics = latencies.get(i);
+                sb.append("\n  thread ").append(i).append(": n=").append(statistics.getCount()).append("; mean=").append(Utilities.formatDecimal3Places(statistics.mean()))
+                        .append("; p99=").append(Utilities.formatDecimal3Places(statistics.percentile(99)));
+            }
+            return sb.toString();
+        }
+
+        private final double busyMillis;
+        private final List<StreamingStatistics> latencies;
+    }
+
+    /**
+     * Main program to sweep the throughput of sorting int arrays (each thread sorting its own arrays) from one thread up to the available processors,
+     * first with Arrays.sort and then with ParSort.
+     * NOTE: ParSort is itself parallel (see the parsort section of config.ini), so its sweep shows how it scales
+     * when several sorts compete for the same pool, rather than the speedup of a single sort.
+     *
+     * @param args the array size (default 10,000) and the duration in milliseconds (default 2,000).
+     */
+    public static void main(String[] args) {
+        final int n = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        final long duration = args.length > 1 ? Long.parseLong(args[1]) : 2000;
+        final ThreadLocal<Random> random = ThreadLocal.withInitial(Random::new);
+        final int[] threadCounts = threadCounts(Runtime.getRuntime().availableProcessors());
+        new ThroughputBenchmark<int[]>("Arrays.sort(int[" + n + "])", Arrays::sort)
+                .sweep(() -> random.get().ints(n).toArray(), threadCounts, duration, duration / 2);
+        new ThroughputBenchmark<int[]>("ParSort.sort(int[" + n + "])", xs -> ParSort.sort(xs, 0, xs.length))
+                .sweep(() -> random.get().ints(n).toArray(), threadCounts, duration, duration / 2);
+    }
+
+    private Result measure(Supplier<T> supplier, int threads, long durationMillis) {
+        // NOTE times[0] is the start and times[1] the deadline: they are set by the barrier action, once all threads are ready.
+        final long[] times = new long[2];
+        final CyclicBarrier barrier = new CyclicBarrier(threads + 1, () -> {
+            times[0] = System.nanoTime();
+            times[1] = times[0] + durationMillis * 1000000L;
+        });
+        final long[] operations = new long[threads];
+        final long[] busy = new long[threads];
+        final List<StreamingStatistics> latencies = new ArrayList<>();
+        for (int i = 0; i < threads; i++) latencies.add(new StreamingStatistics(LATENCY));
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            final int id = i;
+            final Thread worker = new Thread(() -> {
+                final StreamingStatistics latency = latencies.get(id);
+                long ops = 0, nanos = 0;
+                try {
+                    barrier.await();
+                    final long end = times[1];
+                    while (System.nanoTime() < end && failure.get() == null) {
+                        T t = supplier.get();
+                        if (fPre != null) t = fPre.apply(t);
+                        final long start = System.nanoTime();
+                        fRun.accept(t);
+                        final long lap = System.nanoTime() - start;
+                        latency.add(lap / 1E6);
+                        nanos += lap;
+                        ops++;
+                    }
+                } catch (Throwable e) {
+                    // NOTE whatever the cause (including an interrupted or broken barrier), the first failure stops all threads.
+                    failure.compareAndSet(null, e);
+                }
+                operations[id] = ops;
+                busy[id] = nanos;
+            }, description + "-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        try {
+            barrier.await();
+            for (Thread worker : workers) worker.join();
+        } catch (InterruptedException | BrokenBarrierException e) {
+            for (Thread worker : workers) worker.interrupt();
+            throw new RuntimeException("ThroughputBenchmark: " + description + " interrupted", e);
+        }
+        final long elapsed = System.nanoTime() - times[0];
+        if (failure.get() != null) throw new RuntimeException("ThroughputBenchmark: " + description + " failed", failure.get());
+        long totalOps = 0, totalBusy = 0;
+        for (int i = 0; i < threads; i++) {
+            totalOps += operations[i];
+            totalBusy += busy[i];
+        }
+        return new Result(threads, totalOps, elapsed / 1E6, totalBusy / 1E6, latencies);
+    }
+
+    final static LazyLogger logger = new LazyLogger(ThroughputBenchmark.class);
+
+    private static final String LATENCY = "latency (mSecs)";
+
+    private final String description;
+    private final UnaryOperator<T> fPre;
+    private final Consumer<T> fRun;
+}
@@ -14,11 +14,30 @@ public class TimeLogger {
         this.normalizer = normalizer;
     }
 
+    /**
+     * Method to log a normalized time.
+     * NOTE: the normalization and formatting are deferred so that, if logging is asynchronous (see LazyLogger),
+     * they are not performed by the (benchmarking) thread which calls this method.
+     *
+     * @param time the time (in milliseconds).
+     * @param N    the number of elements.
+     */
     public void log(Double time, Integer N) {
-        logger.info(prefix + " " + formatTime(normalizer.apply(time, N)));
+        logger.infoDeferred(() -> prefix + " " + formatTime(normalizer.apply(time, N)));
     }
 
-    private static String formatTime(double time) {
+    /**
+     * Method to log the memory resources used by a benchmark (to accompany the times logged by the TimeLoggers).
+     *
+     * @param resourceUsage the resources used by the timed phase of the benchmark (may be null, in which case nothing is logged).
+     * @param nRuns         the number of runs in the timed phase.
+     */
+    public static void logResources(ResourceUsage resourceUsage, int nRuns) {
+        if (resourceUsage != null) logger.infoDeferred(() -> "Resources per run: " + resourceUsage.perRun(nRuns));
+    }
+
+    // NOTE synchronized because decimalFormat is not thread-safe.
+    private static synchronized String formatTime(double time) {
         decimalFormat.applyPattern(timePattern);
         return decimalFormat.format(time);
     }
@@ -1,17 +1,46 @@
 package edu.neu.coe.info6205.util;
 
+import java.util.Arrays;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 import java.util.function.UnaryOperator;
 
+/**
+ * Class to time the laps (repetitions) of a function, with nanosecond precision.
+ * <p>
+ * The time of each lap is recorded (in ticks) in a primitive buffer, which is preallocated so that (as long as the
+ * capacity suffices) no allocation takes place while the clock is running.
+ * The distribution of lap times (min, mean, percentiles, max) is available from lapStatistics.
+ */
 public class Timer {
 
+    /**
+     * Construct a new Timer with capacity for the given number of laps and set it running.
+     *
+     * @param capacity         the number of laps which can be recorded without resizing the buffer.
+     * @param countAllocations if true, the bytes allocated by the current thread while this Timer is running are counted (see allocatedBytes).
+     */
+    public Timer(int capacity, boolean countAllocations) {
+        lapTicks = new long[Math.max(1, capacity)];
+        this.countAllocations = countAllocations && ResourceUsage.isAllocationSupported();
+        resume();
+    }
+
+    /**
+     * Construct a new Timer with capacity for the given number of laps and set it running.
+     *
+     * @param capacity the number of laps which can be recorded without resizing the buffer.
+     */
+    public Timer(int capacity) {
+        this(capacity, false);
+    }
+
     /**
      * Construct a new Timer and set it running.
      */
     public Timer() {
-        resume();
+        this(DEFAULT_CAPACITY);
     }
 
     /**
@@ -22,6 +51,7 @@ public class Timer {
      * @return the average milliseconds per repetition.
      */
     public <T> double repeat(int n, Supplier<T> function) {
+        ensureCapacity(laps + n);
         for (int i = 0; i < n; i++) {
             function.get();
             lap();
@@ -54,22 +84,21 @@ public class Timer {
      */
     public <T, U> double repeat(int n, Supplier<T> supplier, Function<T, U> function, UnaryOperator<T> preFunction, Consumer<U> postFunction) {
         logger.trace("repeat: with " + n + " runs");
-        // TO BE IMPLEMENTED: note that the timer is running when this method is called and should still be running when it returns.
+        ensureCapacity(laps + n);
+        // NOTE: the timer is running when this method is called. Only the invocations of function are timed.
+        // The time which has elapsed since the timer was started (or last lapped) is not part of any repetition so it is discarded.
+        pause();
+        ticks -= currentLap;
+        currentLap = 0L;
+        allocatedBytes = 0L;
         for (int i = 0; i < n; i++) {
-            if (preFunction != null) {
-                // operate precious function
-                preFunction.apply(supplier.get());
-            }
-            // operate function
-            if (postFunction != null) {
-                // operate post function
-                postFunction.accept(function.apply(supplier.get()));
-            } else {
-                function.apply(supplier.get());
-            }
-            lap();
+            T t = supplier.get();
+            if (preFunction != null) t = preFunction.apply(t);
+            resume();
+            final U u = function.apply(t);
+            pauseAndLap();
+            if (postFunction != null) postFunction.accept(u);
         }
-        pause();
         return meanLapTime();
     }
 
@@ -103,7 +132,6 @@ public class Timer {
      */
     public void pauseAndLap() {
         lap();
-        ticks += getClock();
         running = false;
     }
 
@@ -114,8 +142,9 @@ public class Timer {
      */
     public void resume() {
         if (running) throw new TimerException();
-        ticks -= getClock();
         running = true;
+        if (countAllocations) allocatedAtResume = ResourceUsage.currentThreadAllocatedBytes();
+        resumed = getClock();
     }
 
     /**
@@ -125,8 +154,12 @@ public class Timer {
      * @throws TimerException if this Timer is not running.
      */
     public void lap() {
+        final long now = getClock();
         if (!running) throw new TimerException();
-        laps++;
+        accumulate(now);
+        if (laps == lapTicks.length) ensureCapacity(2 * laps);
+        lapTicks[laps++] = currentLap;
+        currentLap = 0L;
     }
 
     /**
@@ -136,8 +169,10 @@ public class Timer {
      * @throws TimerException if this Timer is not running.
      */
     public void pause() {
-        pauseAndLap();
-        laps--;
+        final long now = getClock();
+        if (!running) throw new TimerException();
+        accumulate(now);
+        running = false;
     }
 
     /**
@@ -151,6 +186,37 @@ public class Timer {
         return toMillisecs(ticks);
     }
 
+    /**
+     * Method to yield the number of bytes allocated by the current thread while this Timer was running.
+     *
+     * @return the number of bytes, or -1 if allocations are not being counted.
+     */
+    public long allocatedBytes() {
+        return countAllocations ? allocatedBytes : -1;
+    }
+
+    /**
+     * Method to yield the time of each lap, in nanoseconds.
+     *
+     * @return a new array of the lap times (in order).
+     */
+    public long[] lapTimes() {
+        return Arrays.copyOf(lapTicks, laps);
+    }
+
+    /**
+     * Method to yield the distribution of lap times, in milliseconds.
+     * NOTE: an exception will be thrown if this is called while the timer is running.
+     *
+     * @return a Statistics object which yields min, mean, max and percentiles (see Statistics.summary) of the lap times.
+     */
+    public Statistics lapStatistics() {
+        if (running) throw new TimerException();
+        final Statistics result = new Statistics(LAP_TIME, Math.max(1, laps));
+        for (int i = 0; i < laps; i++) result.add(toMillisecs(lapTicks[i]));
+        return result;
+    }
+
     @Override
     public String toString() {
         return "Timer{" +
@@ -160,9 +226,41 @@ public class Timer {
                 '}';
     }
 
+    /**
+     * Add the time since the last resume (or lap) to the total and to the current lap.
+     */
+    private void accumulate(long now) {
+        final long elapsed = now - resumed;
+        ticks += elapsed;
+        currentLap += elapsed;
+        if (countAllocations) {
+            final long allocated = ResourceUsage.currentThreadAllocatedBytes();
+            allocatedBytes += allocated - allocatedAtResume;
+            allocatedAtResume = allocated;
+        }
+        // NOTE the time taken to count the allocations is not charged to the next lap.
+        resumed = countAllocations ? getClock() : now;
+    }
+
+    /**
+     * Ensure that the lap buffer can hold n laps (this should be invoked while the clock is paused, where possible).
+     */
+    private void ensureCapacity(int n) {
+        if (n > lapTicks.length) lapTicks = Arrays.copyOf(lapTicks, Math.max(n, 2 * lapTicks.length));
+    }
+
+    public static final String LAP_TIME = "lap time (mSecs)";
+    private static final int DEFAULT_CAPACITY = 1024;
+
     private long ticks = 0L;
     private int laps = 0;
     private boolean running = false;
+    private long resumed = 0L; // the clock when this Timer was last resumed (or lapped)
+    private long currentLap = 0L; // the ticks accumulated so far in the current lap (while paused)
+    private long[] lapTicks;
+    private final boolean countAllocations;
+    private long allocatedAtResume = 0L;
+    private long allocatedBytes = 0L;
 
     // NOTE: Used by unit tests
     private long getTicks() {
@@ -199,8 +297,7 @@ public class Timer {
      * @return the corresponding number of milliseconds.
      */
     private static double toMillisecs(long ticks) {
-        // TO BE IMPLEMENTED
-        return ticks / 1000000;
+        return ticks / 1e6;
     }
 
     final static LazyLogger logger = new LazyLogger(Timer.class);
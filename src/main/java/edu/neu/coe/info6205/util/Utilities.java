@@ -28,7 +28,8 @@ public class Utilities {
      */
     public static String formatDecimal3Places(double x) {
         double scaleFactor = 1000.0;
-        return String.format("%.3f", round(x * scaleFactor) / scaleFactor);
+        // NOTE: we round to a long because x may be too large (e.g. a time in milliseconds) for an int.
+        return String.format("%.3f", Math.round(x * scaleFactor) / scaleFactor);
     }
 
     /**
@@ -41,9 +42,19 @@ public class Utilities {
         return String.format("%,d", x);
     }
 
+    /**
+     * Create a string representing a long, with commas to separate thousands.
+     *
+     * @param x the long.
+     * @return a String representing the number with commas.
+     */
+    public static String formatWhole(long x) {
+        return String.format("%,d", x);
+    }
+
     public static String asInt(double x) {
-        final int i = round(x);
-        return formatWhole(i);
+        // NOTE: we round to a long because counts such as inversions may exceed the range of an int.
+        return formatWhole(Math.round(x));
     }
 
     public static int round(double x) {
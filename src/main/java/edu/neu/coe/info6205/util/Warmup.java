@@ -0,0 +1,166 @@
+package edu.neu.coe.info6205.util;
+
+import java.io.IOException;
+import java.lang.management.CompilationMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Class to define the warmup phase of a benchmark (see Benchmark_Timer).
+ * <p>
+ * A fixed warmup performs a number of runs which depends only on the number of timed runs (see Benchmark_Timer.getWarmupRuns).
+ * An adaptive warmup performs runs until the times of the most recent window of runs are stable,
+ * i.e. their coefficient of variation (standard deviation divided by mean) is no greater than maxCV,
+ * and (optionally) the JIT compiler has not been busy during those runs.
+ * An adaptive warmup is abandoned (with a warning) after maxMillis milliseconds.
+ * <p>
+ * The default warmup is defined by the benchmark section of config.ini.
+ */
+public final class Warmup {
+
+    /**
+     * @return a Warmup which performs a fixed number of runs.
+     */
+    public static Warmup fixed() {
+        return new Warmup(false, 0, 0, 0, false);
+    }
+
+    /**
+     * Method to create an adaptive Warmup.
+     *
+     * @param window    the number of (most recent) runs whose times must be stable (at least 2).
+     * @param maxCV     the greatest coefficient of variation which is considered stable, e.g. 0.05.
+     * @param maxMillis the maximum time (in milliseconds) to be spent on the warmup.
+     * @param watchJIT  if true (and the JVM supports it), the warmup also requires that no JIT compilation occurred during the window.
+     * @return an adaptive Warmup.
+     */
+    public static Warmup adaptive(int window, double maxCV, long maxMillis, boolean watchJIT) {
+        if (window < 2) throw new IllegalArgumentException("Warmup: window must be at least 2: " + window);
+        return new Warmup(true, window, maxCV, maxMillis, watchJIT);
+    }
+
+    /**
+     * Method to create a Warmup according to the benchmark section of config.
+     *
+     * @param config the configuration.
+     * @return an adaptive Warmup if warmup is "adaptive", otherwise a fixed Warmup.
+     */
+    public static Warmup create(Config config) {
+        if (!ADAPTIVE.equalsIgnoreCase(config.get(BENCHMARK, WARMUP))) return fixed();
+        final String cv = config.get(BENCHMARK, "warmupcv");
+        final String jit = config.get(BENCHMARK, "warmupjit");
+        return adaptive(config.getInt(BENCHMARK, "warmupwindow", 10),
+                cv == null || cv.isEmpty() ? 0.05 : Double.parseDouble(cv),
+                config.getLong(BENCHMARK, "warmupmaxmillis", 10000),
+                jit == null || jit.isEmpty() || Boolean.parseBoolean(jit));
+    }
+
+    /**
+     * @return the default Warmup, as defined by config.ini (loaded once).
+     */
+    public static Warmup getDefault() {
+        return Default.WARMUP;
+    }
+
+    /**
+     * Method to perform the warmup runs.
+     *
+     * @param m   the number of timed runs which will follow the warmup.
+     * @param run a function which performs one run and yields its time (in milliseconds).
+     * @return the number of warmup runs performed.
+     */
+    public int run(int m, DoubleSupplier run) {
+        if (!adaptive) {
+            final int n = Benchmark_Timer.getWarmupRuns(m);
+            for (int i = 0; i < n; i++) run.getAsDouble();
+            return n;
+        }
+        final CompilationMXBean compiler = watchJIT ? ManagementFactory.getCompilationMXBean() : null;
+        final boolean jit = compiler != null && compiler.isCompilationTimeMonitoringSupported();
+        // NOTE times[i % window] is the time of run i; compilations[i % window] is the total compilation time when run i began.
+        final double[] times = new double[window];
+        final long[] compilations = new long[window];
+        final long deadline = System.nanoTime() + maxMillis * 1000000L;
+        int runs = 0;
+        while (true) {
+            final long compilation = jit ? compiler.getTotalCompilationTime() : 0L;
+            times[runs % window] = run.getAsDouble();
+            compilations[runs % window] = compilation;
+            runs++;
+            if (runs >= window) {
+                final boolean settled = !jit || compiler.getTotalCompilationTime() == compilations[runs % window];
+                final double cv = coefficientOfVariation(times);
+                if (settled && cv <= maxCV) {
+                    final int n = runs;
+                    logger.debug(() -> "Warmup: stable after " + n + " runs with cv=" + Utilities.formatDecimal3Places(cv));
+                    return runs;
+                }
+            }
+            if (System.nanoTime() > deadline) {
+                logger.warn("Warmup: not stable after " + runs + " runs (" + maxMillis + " mSecs): cv=" + Utilities.formatDecimal3Places(coefficientOfVariation(times)));
+                return runs;
+            }
+        }
+    }
+
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+
+    @Override
+    public String toString() {
+        return adaptive ? "adaptive warmup (window=" + window + ", maxCV=" + maxCV + ", maxMillis=" + maxMillis + ", watchJIT=" + watchJIT + ")" : "fixed warmup";
+    }
+
+    /**
+     * Method to yield the coefficient of variation of xs.
+     *
+     * @param xs an array of values.
+     * @return the (population) standard deviation divided by the mean (or infinity if the mean is zero).
+     */
+    static double coefficientOfVariation(double[] xs) {
+        double sum = 0;
+        for (double x : xs) sum += x;
+        final double mean = sum / xs.length;
+        double variance = 0;
+        for (double x : xs) variance += (x - mean) * (x - mean);
+        final double stdDev = Math.sqrt(variance / xs.length);
+        return mean > 0 ? stdDev / mean : stdDev > 0 ? Double.POSITIVE_INFINITY : 0;
+    }
+
+    private Warmup(boolean adaptive, int window, double maxCV, long maxMillis, boolean watchJIT) {
+        this.adaptive = adaptive;
+        this.window = window;
+        this.maxCV = maxCV;
+        this.maxMillis = maxMillis;
+        this.watchJIT = watchJIT;
+    }
+
+    /**
+     * Holder class so that config.ini is loaded only when the default Warmup is first required.
+     */
+    private static class Default {
+        static final Warmup WARMUP = load();
+
+        private static Warmup load() {
+            try {
+                return create(Config.load(Warmup.class));
+            } catch (IOException e) {
+                logger.warn("Warmup: unable to load configuration: using fixed warmup", e);
+                return fixed();
+            }
+        }
+    }
+
+    final static LazyLogger logger = new LazyLogger(Warmup.class);
+
+    public static final String BENCHMARK = "benchmark";
+    public static final String WARMUP = "warmup";
+    public static final String ADAPTIVE = "adaptive";
+
+    private final boolean adaptive;
+    private final int window;
+    private final double maxCV;
+    private final long maxMillis;
+    private final boolean watchJIT;
+}
@@ -0,0 +1,61 @@
+package edu.neu.coe.info6205.util.metrics;
+
+import java.util.function.DoubleSupplier;
+
+/**
+ * Class to represent a gauge, i.e. a value which may go up or down.
+ * The value is either set explicitly or else it is obtained (whenever it is read) from a DoubleSupplier.
+ */
+public class Gauge {
+
+    /**
+     * Constructor for a Gauge whose value is obtained from supplier.
+     *
+     * @param id       the identifier of this Gauge.
+     * @param supplier the source of the value (it may be invoked by the export thread so it should be thread-safe).
+     */
+    public Gauge(String id, DoubleSupplier supplier) {
+        this.id = id;
+        this.supplier = supplier;
+    }
+
+    /**
+     * Constructor for a Gauge whose value is set explicitly.
+     *
+     * @param id the identifier of this Gauge.
+     */
+    public Gauge(String id) {
+        this(id, null);
+    }
+
+    /**
+     * Method to set the value of this Gauge.
+     *
+     * @param value the new value.
+     * @throws UnsupportedOperationException if this Gauge has a supplier.
+     */
+    public void set(double value) {
+        if (supplier != null) throw new UnsupportedOperationException("Gauge " + id + " has a supplier");
+        this.value = value;
+    }
+
+    /**
+     * @return the current value.
+     */
+    public double get() {
+        return supplier != null ? supplier.getAsDouble() : value;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return id + ": " + get();
+    }
+
+    private final String id;
+    private final DoubleSupplier supplier;
+    private volatile double value = 0;
+}
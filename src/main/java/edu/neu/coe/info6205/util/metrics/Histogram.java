@@ -0,0 +1,158 @@
+package edu.neu.coe.info6205.util.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Class to represent a histogram of non-negative long values (for example, latencies in nanoseconds).
+ * <p>
+ * The buckets are logarithmic: each power of two is divided into four sub-buckets,
+ * so that any quantile is accurate to within 25% while only 248 buckets cover the whole range of long.
+ * Values less than four have a bucket each.
+ * <p>
+ * Recording is lock-free (one atomic increment plus two LongAdder/LongAccumulator updates) so that a Histogram
+ * may be shared by any number of threads.
+ * NOTE: a snapshot taken while values are being recorded may be very slightly inconsistent (e.g. count versus buckets).
+ */
+public class Histogram {
+
+    /**
+     * Constructor for a new, empty Histogram.
+     *
+     * @param id the identifier of this Histogram.
+     */
+    public Histogram(String id) {
+        this.id = id;
+    }
+
+    /**
+     * Method to record a value.
+     *
+     * @param value the value (negative values are recorded as zero).
+     */
+    public void record(long value) {
+        final long x = Math.max(0, value);
+        buckets.incrementAndGet(bucket(x));
+        sum.add(x);
+        max.accumulate(x);
+    }
+
+    /**
+     * @return the number of values recorded.
+     */
+    public long count() {
+        long result = 0;
+        for (int i = 0; i < BUCKETS; i++) result += buckets.get(i);
+        return result;
+    }
+
+    /**
+     * @return the sum of the values recorded.
+     */
+    public long sum() {
+        return sum.sum();
+    }
+
+    /**
+     * @return the mean of the values recorded (or NaN if there are none).
+     */
+    public double mean() {
+        final long count = count();
+        return count == 0 ? Double.NaN : (double) sum() / count;
+    }
+
+    /**
+     * @return the largest value recorded (or zero if there are none).
+     */
+    public long max() {
+        return max.get();
+    }
+
+    /**
+     * Method to yield an approximate quantile.
+     *
+     * @param p the probability (between 0 and 1), for example 0.99 for the 99th percentile.
+     * @return the upper bound of the bucket which contains the quantile (but no greater than max), or zero if empty.
+     */
+    public long quantile(double p) {
+        if (p < 0 || p > 1) throw new IllegalArgumentException("Histogram.quantile: p must be between 0 and 1: " + p);
+        final long[] counts = snapshot();
+        long total = 0;
+        for (long c : counts) total += c;
+        if (total == 0) return 0;
+        final long rank = Math.max(1, (long) Math.ceil(p * total));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            cumulative += counts[i];
+            if (cumulative >= rank) return Math.min(upperBound(i), max());
+        }
+        return max();
+    }
+
+    /**
+     * Method to yield a copy of the bucket counts.
+     *
+     * @return an array of BUCKETS counts.
+     */
+    public long[] snapshot() {
+        final long[] result = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) result[i] = buckets.get(i);
+        return result;
+    }
+
+    /**
+     * Method to reset this Histogram.
+     * NOTE: values which are recorded concurrently with reset may be partially lost.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) buckets.set(i, 0);
+        sum.reset();
+        max.reset();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return id + ": count=" + count() + ", mean=" + mean() + ", p50=" + quantile(0.5) + ", p99=" + quantile(0.99) + ", max=" + max();
+    }
+
+    /**
+     * Method to yield the index of the bucket for a non-negative value.
+     *
+     * @param x the value.
+     * @return the bucket index.
+     */
+    static int bucket(long x) {
+        if (x < SUB_BUCKETS) return (int) x;
+        final int e = 63 - Long.numberOfLeadingZeros(x);
+        final int sub = (int) (x >>> (e - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return SUB_BUCKETS + (e - SUB_BITS) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Method to yield the largest value which falls in the given bucket.
+     *
+     * @param i the bucket index.
+     * @return the (inclusive) upper bound of bucket i.
+     */
+    static long upperBound(int i) {
+        if (i < SUB_BUCKETS) return i;
+        final int e = (i - SUB_BUCKETS) / SUB_BUCKETS + SUB_BITS;
+        final long sub = (i - SUB_BUCKETS) % SUB_BUCKETS;
+        final long lower = (SUB_BUCKETS + sub) << (e - SUB_BITS);
+        return lower + (1L << (e - SUB_BITS)) - 1;
+    }
+
+    private static final int SUB_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+    static final int BUCKETS = bucket(Long.MAX_VALUE) + 1;
+
+    private final String id;
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+}
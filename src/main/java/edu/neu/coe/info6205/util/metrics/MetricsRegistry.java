@@ -0,0 +1,312 @@
+package edu.neu.coe.info6205.util.metrics;
+
+import edu.neu.coe.info6205.Counter;
+import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.LazyLogger;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * Class to hold named metrics (Counters, Gauges and Histograms) so that they can be exported, for example,
+ * to a file which is scraped by Prometheus (via the node exporter's textfile collector) or to a CSV file.
+ * <p>
+ * A metric is identified by its name together with an optional list of label/value pairs,
+ * for example counter("sort_compares_total", "helper", "MergeSort").
+ * Metric names should follow the Prometheus conventions (letters, digits and underscores; counters end with _total).
+ * <p>
+ * All methods are thread-safe. The same metric is yielded for the same name and labels, so callers need not hold on to it,
+ * but a metric which is updated on a hot path should be looked up once only.
+ * <p>
+ * Most clients will use the default registry (see getDefault) and the export which is configured by the metrics section of config.ini.
+ */
+public class MetricsRegistry {
+
+    public enum Format {PROMETHEUS, CSV}
+
+    /**
+     * @return the default (global) registry.
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Method to get (or create) the Counter with the given name and labels.
+     *
+     * @param name   the name of the metric.
+     * @param labels alternating label names and values.
+     * @return the Counter.
+     */
+    public Counter counter(String name, String... labels) {
+        return lookup(counters, id(name, labels), Counter::new);
+    }
+
+    /**
+     * Method to get (or create) the settable Gauge with the given name and labels.
+     *
+     * @param name   the name of the metric.
+     * @param labels alternating label names and values.
+     * @return the Gauge.
+     */
+    public Gauge gauge(String name, String... labels) {
+        return lookup(gauges, id(name, labels), Gauge::new);
+    }
+
+    /**
+     * Method to register a Gauge whose value is obtained from supplier.
+     * NOTE: a previously registered Gauge with the same name and labels is replaced.
+     *
+     * @param supplier the source of the value (it is invoked by the export thread).
+     * @param name     the name of the metric.
+     * @param labels   alternating label names and values.
+     * @return the Gauge.
+     */
+    public Gauge gauge(DoubleSupplier supplier, String name, String... labels) {
+        final String id = id(name, labels);
+        final Gauge result = new Gauge(id, supplier);
+        gauges.put(id, result);
+        return result;
+    }
+
+    /**
+     * Method to get (or create) the Histogram with the given name and labels.
+     *
+     * @param name   the name of the metric.
+     * @param labels alternating label names and values.
+     * @return the Histogram.
+     */
+    public Histogram histogram(String name, String... labels) {
+        return lookup(histograms, id(name, labels), Histogram::new);
+    }
+
+    /**
+     * Method to remove all metrics from this registry.
+     */
+    public void clear() {
+        counters.clear();
+        gauges.clear();
+        histograms.clear();
+    }
+
+    /**
+     * Method to write all of the metrics in the Prometheus text exposition format.
+     * Histograms are written as cumulative buckets (only as far as the largest non-empty bucket), with _sum and _count.
+     *
+     * @param writer the destination.
+     * @throws IOException if the writer throws it.
+     */
+    public void writePrometheus(Writer writer) throws IOException {
+        String family = null;
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            family = writeType(writer, family, entry.getKey(), "counter");
+            writer.write(entry.getKey() + " " + entry.getValue().count() + "\n");
+        }
+        for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
+            family = writeType(writer, family, entry.getKey(), "gauge");
+            writer.write(entry.getKey() + " " + formatDouble(entry.getValue().get()) + "\n");
+        }
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            family = writeType(writer, family, entry.getKey(), "histogram");
+            final String name = name(entry.getKey());
+            final String labels = labels(entry.getKey());
+            final long[] counts = entry.getValue().snapshot();
+            int last = counts.length - 1;
+            while (last >= 0 && counts[last] == 0) last--;
+            long cumulative = 0;
+            for (int i = 0; i <= last; i++) {
+                cumulative += counts[i];
+                if (counts[i] > 0)
+                    writer.write(name + "_bucket" + withLabel(labels, "le", Long.toString(Histogram.upperBound(i))) + " " + cumulative + "\n");
+            }
+            writer.write(name + "_bucket" + withLabel(labels, "le", "+Inf") + " " + cumulative + "\n");
+            writer.write(name + "_sum" + labels + " " + entry.getValue().sum() + "\n");
+            writer.write(name + "_count" + labels + " " + cumulative + "\n");
+        }
+    }
+
+    /**
+     * Method to write all of the metrics as CSV rows of the form time,metric,type,value
+     * (where time is in milliseconds since the epoch).
+     * Each Histogram yields rows for its count, sum, mean, p50, p90, p99 and max.
+     *
+     * @param writer the destination.
+     * @param header true if the header row should be written.
+     * @throws IOException if the writer throws it.
+     */
+    public void writeCSV(Writer writer, boolean header) throws IOException {
+        final long time = System.currentTimeMillis();
+        if (header) writer.write("time,metric,type,value\n");
+        for (Map.Entry<String, Counter> entry : counters.entrySet())
+            writeCSVRow(writer, time, entry.getKey(), "counter", Long.toString(entry.getValue().count()));
+        for (Map.Entry<String, Gauge> entry : gauges.entrySet())
+            writeCSVRow(writer, time, entry.getKey(), "gauge", formatDouble(entry.getValue().get()));
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            final Histogram histogram = entry.getValue();
+            final String name = name(entry.getKey()), labels = labels(entry.getKey());
+            writeCSVRow(writer, time, name + "_count" + labels, "histogram", Long.toString(histogram.count()));
+            writeCSVRow(writer, time, name + "_sum" + labels, "histogram", Long.toString(histogram.sum()));
+            writeCSVRow(writer, time, name + "_mean" + labels, "histogram", formatDouble(histogram.mean()));
+            for (double p : new double[]{0.5, 0.9, 0.99})
+                writeCSVRow(writer, time, name + "_p" + Math.round(p * 100) + labels, "histogram", Long.toString(histogram.quantile(p)));
+            writeCSVRow(writer, time, name + "_max" + labels, "histogram", Long.toString(histogram.max()));
+        }
+    }
+
+    /**
+     * Method to export all of the metrics to a file.
+     * A Prometheus file is replaced (atomically, where possible) so that a scraper never sees a partial file.
+     * A CSV file is appended to, so that it accumulates a time series.
+     *
+     * @param path   the file.
+     * @param format the format.
+     * @throws IOException if the file cannot be written.
+     */
+    public void export(Path path, Format format) throws IOException {
+        if (format == Format.CSV) {
+            final boolean header = !Files.exists(path);
+            try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writeCSV(writer, header);
+            }
+        } else {
+            final Path absolute = path.toAbsolutePath();
+            final Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writePrometheus(writer);
+            }
+            try {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+
+    /**
+     * Method to export all of the metrics to a file periodically (in a daemon thread).
+     *
+     * @param path          the file.
+     * @param format        the format.
+     * @param periodSeconds the period between exports, in seconds.
+     * @return a Closeable which, when closed, stops the periodic export and then exports one final time.
+     */
+    public Closeable startExport(Path path, Format format, long periodSeconds) {
+        final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "metrics-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final Runnable export = () -> {
+            try {
+                export(path, format);
+            } catch (IOException e) {
+                logger.warn("MetricsRegistry: unable to export metrics to " + path, e);
+            }
+        };
+        executor.scheduleAtFixedRate(export, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+        logger.info("MetricsRegistry: exporting metrics (" + format + ") to " + path + " every " + periodSeconds + " seconds");
+        return () -> {
+            executor.shutdownNow();
+            export.run();
+        };
+    }
+
+    /**
+     * Method to start the periodic export which is configured in the metrics section of config.
+     *
+     * @param config the configuration (file, format and period in the metrics section).
+     * @return a Closeable which stops the export, or null if no file is configured.
+     */
+    public Closeable startExport(Config config) {
+        final String file = config.get(METRICS, "file");
+        if (file == null || file.isEmpty()) return null;
+        final String format = config.get(METRICS, "format");
+        return startExport(Paths.get(file), format == null || format.isEmpty() ? Format.PROMETHEUS : Format.valueOf(format.toUpperCase()), config.getLong(METRICS, "period", 10));
+    }
+
+    @Override
+    public String toString() {
+        return "MetricsRegistry{counters=" + counters.values() + ", gauges=" + gauges.values() + ", histograms=" + histograms.values() + "}";
+    }
+
+    private static <M> M lookup(Map<String, M> map, String id, Function<String, M> factory) {
+        // NOTE we try get first because computeIfAbsent may lock even when the key is present.
+        final M result = map.get(id);
+        return result != null ? result : map.computeIfAbsent(id, factory);
+    }
+
+    /**
+     * Method to yield the identifier of a metric, i.e. its name followed by its labels in Prometheus syntax.
+     */
+    static String id(String name, String... labels) {
+        if (labels.length % 2 != 0) throw new IllegalArgumentException("MetricsRegistry: labels must be name/value pairs: " + name);
+        if (labels.length == 0) return name;
+        final StringBuilder sb = new StringBuilder(name).append('{');
+        for (int i = 0; i < labels.length; i += 2) {
+            if (i > 0) sb.append(',');
+            sb.append(labels[i]).append("=\"").append(escape(labels[i + 1])).append('"');
+        }
+        return sb.append('}').toString();
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String name(String id) {
+        final int brace = id.indexOf('{');
+        return brace < 0 ? id : id.substring(0, brace);
+    }
+
+    private static String labels(String id) {
+        final int brace = id.indexOf('{');
+        return brace < 0 ? "" : id.substring(brace);
+    }
+
+    private static String withLabel(String labels, String label, String value) {
+        final String extra = label + "=\"" + value + "\"";
+        return labels.isEmpty() ? "{" + extra + "}" : labels.substring(0, labels.length() - 1) + "," + extra + "}";
+    }
+
+    private static String writeType(Writer writer, String family, String id, String type) throws IOException {
+        final String name = name(id);
+        if (!name.equals(family)) writer.write("# TYPE " + name + " " + type + "\n");
+        return name;
+    }
+
+    private static void writeCSVRow(Writer writer, long time, String metric, String type, String value) throws IOException {
+        writer.write(time + ",\"" + metric.replace("\"", "\"\"") + "\"," + type + "," + value + "\n");
+    }
+
+    private static String formatDouble(double x) {
+        if (Double.isNaN(x)) return "NaN";
+        if (Double.isInfinite(x)) return x > 0 ? "+Inf" : "-Inf";
+        return Double.toString(x);
+    }
+
+    final static LazyLogger logger = new LazyLogger(MetricsRegistry.class);
+
+    public static final String METRICS = "metrics";
+
+    // NOTE the maps are ordered by name first so that the metrics of one family (same name, different labels) are exported together.
+    // ORDER must be initialized before DEFAULT (static initializers run in textual order), else DEFAULT's maps would have no comparator.
+    private static final Comparator<String> ORDER = Comparator.comparing(MetricsRegistry::name).thenComparing(Comparator.naturalOrder());
+
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+
+    private final Map<String, Counter> counters = new ConcurrentSkipListMap<>(ORDER);
+    private final Map<String, Gauge> gauges = new ConcurrentSkipListMap<>(ORDER);
+    private final Map<String, Histogram> histograms = new ConcurrentSkipListMap<>(ORDER);
+}
@@ -0,0 +1,221 @@
+package edu.neu.coe.info6205.util.jfr;
+
+import edu.neu.coe.info6205.util.EventRecorder;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Class to emit the JFR events which are switched on by EventRecorder.
+ * <p>
+ * NOTE: this class requires Java 11 or later and is compiled only by the jfr profile (see pom.xml).
+ * It is instantiated reflectively by EventRecorder.
+ * <p>
+ * To record these events, run with, for example, -XX:StartFlightRecording=filename=sort.jfr
+ * and then view them with "jfr print --categories INFO6205 sort.jfr" or with JDK Mission Control.
+ */
+public class JfrEmitter implements EventRecorder.Emitter {
+
+    @Override
+    public Object beginSort() {
+        final SortEvent event = new SortEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endSort(Object event, String algorithm, int n, String helper) {
+        final SortEvent e = (SortEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.algorithm = algorithm;
+            e.n = n;
+            e.helper = helper;
+            e.commit();
+        }
+    }
+
+    @Override
+    public Object beginPartition() {
+        final PartitionEvent event = new PartitionEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endPartition(Object event, int from, int to, int partitions, int depth) {
+        final PartitionEvent e = (PartitionEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.from = from;
+            e.to = to;
+            e.partitions = partitions;
+            e.depth = depth;
+            e.commit();
+        }
+    }
+
+    @Override
+    public Object beginMerge() {
+        final MergeEvent event = new MergeEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endMerge(Object event, int from, int mid, int to) {
+        final MergeEvent e = (MergeEvent) event;
+        e.end();
+        if (e.shouldCommit()) {
+            e.from = from;
+            e.mid = mid;
+            e.to = to;
+            e.commit();
+        }
+    }
+
+    @Override
+    public void cutoff(String algorithm, int from, int to) {
+        final CutoffEvent e = new CutoffEvent();
+        if (e.shouldCommit()) {
+            e.algorithm = algorithm;
+            e.from = from;
+            e.to = to;
+            e.commit();
+        }
+    }
+
+    @Override
+    public void find(int p, int pathLength) {
+        final FindEvent e = new FindEvent();
+        if (e.shouldCommit()) {
+            e.p = p;
+            e.pathLength = pathLength;
+            e.commit();
+        }
+    }
+
+    @Override
+    public void union(int p, int q, boolean merged) {
+        final UnionEvent e = new UnionEvent();
+        if (e.shouldCommit()) {
+            e.p = p;
+            e.q = q;
+            e.merged = merged;
+            e.commit();
+        }
+    }
+
+    @Override
+    public void sink(int depth) {
+        final HeapEvent e = new HeapEvent();
+        if (e.shouldCommit()) {
+            e.operation = "sink";
+            e.depth = depth;
+            e.commit();
+        }
+    }
+
+    @Override
+    public void swim(int depth) {
+        final HeapEvent e = new HeapEvent();
+        if (e.shouldCommit()) {
+            e.operation = "swim";
+            e.depth = depth;
+            e.commit();
+        }
+    }
+
+    @Name("edu.neu.coe.info6205.Sort")
+    @Label("Sort")
+    @Category({CATEGORY, "Sort"})
+    @Description("A complete sort of an array")
+    static class SortEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+        @Label("N")
+        int n;
+        @Label("Helper")
+        String helper;
+    }
+
+    @Name("edu.neu.coe.info6205.Partition")
+    @Label("Partition")
+    @Category({CATEGORY, "Sort"})
+    @Description("One partitioning step of a quicksort")
+    static class PartitionEvent extends Event {
+        @Label("From")
+        int from;
+        @Label("To")
+        int to;
+        @Label("Partitions")
+        int partitions;
+        @Label("Depth")
+        int depth;
+    }
+
+    @Name("edu.neu.coe.info6205.Merge")
+    @Label("Merge")
+    @Category({CATEGORY, "Sort"})
+    @Description("One merge step of a merge sort")
+    static class MergeEvent extends Event {
+        @Label("From")
+        int from;
+        @Label("Mid")
+        int mid;
+        @Label("To")
+        int to;
+    }
+
+    @Name("edu.neu.coe.info6205.Cutoff")
+    @Label("Cutoff")
+    @Category({CATEGORY, "Sort"})
+    @Description("The hand-off of a small sub-array to insertion sort")
+    static class CutoffEvent extends Event {
+        @Label("Algorithm")
+        String algorithm;
+        @Label("From")
+        int from;
+        @Label("To")
+        int to;
+    }
+
+    @Name("edu.neu.coe.info6205.Find")
+    @Label("Find")
+    @Category({CATEGORY, "Union-Find"})
+    @Description("A union-find find operation")
+    static class FindEvent extends Event {
+        @Label("Site")
+        int p;
+        @Label("Path Length")
+        int pathLength;
+    }
+
+    @Name("edu.neu.coe.info6205.Union")
+    @Label("Union")
+    @Category({CATEGORY, "Union-Find"})
+    @Description("A union-find union operation")
+    static class UnionEvent extends Event {
+        @Label("P")
+        int p;
+        @Label("Q")
+        int q;
+        @Label("Merged")
+        boolean merged;
+    }
+
+    @Name("edu.neu.coe.info6205.Heap")
+    @Label("Heap")
+    @Category({CATEGORY, "Priority Queue"})
+    @Description("A priority queue sink or swim operation")
+    static class HeapEvent extends Event {
+        @Label("Operation")
+        String operation;
+        @Label("Depth")
+        int depth;
+    }
+
+    private static final String CATEGORY = "INFO6205";
+}
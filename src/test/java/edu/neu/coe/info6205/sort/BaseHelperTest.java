@@ -2,6 +2,8 @@ package edu.neu.coe.info6205.sort;
 
 import org.junit.Test;
 
+import java.util.Comparator;
+
 import static org.junit.Assert.*;
 
 public class BaseHelperTest {
@@ -66,6 +68,28 @@ public class BaseHelperTest {
         assertFalse(helper.sorted(xs));
     }
 
+    @Test
+    public void compareWithComparator() {
+        String[] xs = new String[]{"a", "b"};
+        final Helper<String> helper = new BaseHelper<String>("test", Comparator.reverseOrder());
+        assertEquals(1, Integer.signum(helper.compare(xs, 0, 1)));
+        assertFalse(helper.less("a", "b"));
+        assertFalse(helper.sorted(xs));
+        assertEquals(1, helper.inversions(xs));
+        assertTrue(helper.swapConditional(xs, 0, 1));
+        assertArrayEquals(new String[]{"b", "a"}, xs);
+        assertTrue(helper.sorted(xs));
+    }
+
+    @Test
+    public void swapIntoSortedWithComparator() {
+        String[] xs = new String[]{"cc", "b", "aaa"};
+        final Helper<String> helper = new BaseHelper<String>("test", Comparator.comparingInt(String::length));
+        helper.swapIntoSorted(xs, 1);
+        helper.swapIntoSorted(xs, 2);
+        assertArrayEquals(new String[]{"b", "cc", "aaa"}, xs);
+    }
+
     @Test
     public void inversions() {
         String[] xs = new String[]{"a", "b"};
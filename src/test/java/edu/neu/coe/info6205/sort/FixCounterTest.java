@@ -0,0 +1,76 @@
+package edu.neu.coe.info6205.sort;
+
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FixCounterTest {
+
+    @Test
+    public void testSwap() {
+        final Integer[] xs = {5, 1, 3, 4, 2, 0};
+        final FixCounter<Integer> fixCounter = new FixCounter<>(xs, Comparator.naturalOrder());
+        assertTrue(fixCounter.tracks(xs, 0, 5));
+        // NOTE: 1, 3, 4 and 2 all lie between 0 and 5.
+        assertEquals(9, fixCounter.swap(0, 5));
+        swap(xs, 0, 5);
+        assertEquals(-9, fixCounter.swap(5, 0));
+        swap(xs, 5, 0);
+        assertTrue(fixCounter.tracks(xs, 0, 5));
+        assertFalse(fixCounter.tracks(new Integer[]{5, 1, 3, 4, 2, 0}, 0, 5));
+    }
+
+    @Test
+    public void testRandomSwaps() {
+        // NOTE: large enough for the Fenwick tree to be used, with many duplicates.
+        final Random random = new Random(0L);
+        final int n = 2000;
+        final Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = random.nextInt(300);
+        final FixCounter<Integer> fixCounter = new FixCounter<>(xs, Comparator.naturalOrder());
+        long inversions = Inversions.count(xs, Comparator.naturalOrder());
+        for (int k = 0; k < 500; k++) {
+            final int i = random.nextInt(n), j = random.nextInt(n);
+            if (i == j) continue;
+            assertTrue(fixCounter.tracks(xs, i, j));
+            final long fixes = fixCounter.swap(i, j);
+            swap(xs, i, j);
+            final long now = Inversions.count(xs, Comparator.naturalOrder());
+            assertEquals(inversions - now, fixes);
+            inversions = now;
+        }
+    }
+
+    @Test
+    public void testSwapInto() {
+        final Random random = new Random(1L);
+        final int n = 500;
+        final Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = random.nextInt(1000);
+        final FixCounter<Integer> fixCounter = new FixCounter<>(xs, Comparator.naturalOrder());
+        for (int k = 0; k < 100; k++) {
+            final int i = random.nextInt(n - 1), j = i + 1 + random.nextInt(n - i - 1);
+            fixCounter.swapInto(i, j);
+            final Integer x = xs[j];
+            System.arraycopy(xs, i, xs, i + 1, j - i);
+            xs[i] = x;
+            final int p = random.nextInt(n), q = random.nextInt(n);
+            if (p == q) continue;
+            final long before = Inversions.count(xs, Comparator.naturalOrder());
+            final long fixes = fixCounter.swap(p, q);
+            swap(xs, p, q);
+            assertEquals(before - Inversions.count(xs, Comparator.naturalOrder()), fixes);
+        }
+    }
+
+    private static void swap(Integer[] xs, int i, int j) {
+        final Integer t = xs[i];
+        xs[i] = xs[j];
+        xs[j] = t;
+    }
+}
@@ -6,6 +6,10 @@ import org.junit.BeforeClass;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Random;
+
 import static org.junit.Assert.*;
 
 public class InstrumentedHelperTest {
@@ -36,6 +40,19 @@ public class InstrumentedHelperTest {
         assertEquals(0, privateMethodTester.invokePrivate("getSwaps"));
     }
 
+    @Test
+    public void testCompareWithComparator() {
+        String[] xs = new String[]{"a", "b"};
+        final Helper<String> helper = new InstrumentedHelper<String>("test", 0, Comparator.reverseOrder(), config);
+        assertEquals(1, Integer.signum(helper.compare(xs, 0, 1)));
+        assertTrue(helper.less("b", "a"));
+        assertTrue(helper.swapConditional(xs, 0, 1));
+        assertArrayEquals(new String[]{"b", "a"}, xs);
+        final PrivateMethodTester privateMethodTester = new PrivateMethodTester(helper);
+        assertEquals(3, privateMethodTester.invokePrivate("getCompares"));
+        assertEquals(1, privateMethodTester.invokePrivate("getSwaps"));
+    }
+
     @Test
     public void testSwap1() {
         String[] xs = new String[]{"b", "a"};
@@ -149,6 +166,33 @@ public class InstrumentedHelperTest {
         assertEquals(1, privateMethodTester.invokePrivate("getSwaps"));
     }
 
+    @Test
+    public void testFixesIncremental() {
+        // NOTE: large enough for a FixCounter, with many duplicates, so that each fix is counted incrementally (not by scanning).
+        final int n = 5000;
+        final Random random = new Random(0L);
+        final Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = random.nextInt(100);
+        long inversions = Inversions.count(xs, Comparator.naturalOrder());
+        final long initial = inversions;
+        final Helper<Integer> helper = new InstrumentedHelper<>("test", n, config);
+        helper.init(n);
+        final PrivateMethodTester privateMethodTester = new PrivateMethodTester(helper);
+        for (int k = 0; k < 1000; k++) {
+            final int i = random.nextInt(n), j = random.nextInt(n);
+            if (k % 3 == 0) helper.swapStableConditional(xs, Math.max(1, i));
+            else helper.swap(xs, i, j);
+            if (k % 100 == 99) {
+                inversions = Inversions.count(xs, Comparator.naturalOrder());
+                assertEquals(initial - inversions, (long) (int) privateMethodTester.invokePrivate("getFixes"));
+            }
+        }
+        // NOTE: a copy discards the FixCounter, which is then rebuilt from the array by the next swap.
+        helper.copy(xs, 0, xs, 0);
+        helper.swap(xs, 0, n - 1);
+        assertEquals(initial - Inversions.count(xs, Comparator.naturalOrder()), (long) (int) privateMethodTester.invokePrivate("getFixes"));
+    }
+
     @Test
     public void testSorted() {
         String[] xs = new String[]{"a", "b"};
@@ -287,6 +331,40 @@ public class InstrumentedHelperTest {
         assertTrue(compares <= 20 && compares >= 11);
     }
 
+    @Test
+    public void testConcurrent() throws Exception {
+        final int nThreads = 4;
+        final int nCompares = 100000;
+        final InstrumentedHelper<String> helper = new InstrumentedHelper<>("test", config.copy(InstrumentedHelper.INSTRUMENTING, InstrumentedHelper.CONCURRENT, "true"));
+        assertTrue(helper.isConcurrent());
+        helper.init(nThreads);
+        final Thread[] threads = new Thread[nThreads];
+        for (int t = 0; t < nThreads; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < nCompares; i++) helper.less("a", "b");
+            }, "T" + t);
+            threads[t].start();
+        }
+        for (Thread thread : threads) thread.join();
+        final PrivateMethodTester privateMethodTester = new PrivateMethodTester(helper);
+        assertEquals(nThreads * nCompares, privateMethodTester.invokePrivate("getCompares"));
+        final Map<String, Long> threadCounts = helper.getThreadCounts(InstrumentedHelper.COMPARES);
+        assertEquals(nThreads, threadCounts.size());
+        for (int t = 0; t < nThreads; t++) assertEquals(Long.valueOf(nCompares), threadCounts.get("T" + t));
+        // NOTE: init resets the counts of all threads.
+        helper.init(nThreads);
+        assertEquals(0, privateMethodTester.invokePrivate("getCompares"));
+        assertTrue(helper.getThreadCounts(InstrumentedHelper.COMPARES).isEmpty());
+    }
+
+    @Test
+    public void testNotConcurrent() {
+        final InstrumentedHelper<String> helper = new InstrumentedHelper<>("test", config);
+        assertFalse(helper.isConcurrent());
+        helper.less("a", "b");
+        assertEquals(1, helper.getThreadCounts(InstrumentedHelper.COMPARES).size());
+    }
+
     @Ignore // TODO fix this test
     public void testMergeSortMany() {
         int N = 8;
@@ -0,0 +1,77 @@
+package edu.neu.coe.info6205.sort;
+
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class InversionsTest {
+
+    @Test
+    public void testCount() {
+        assertEquals(0, Inversions.count(new Integer[]{}, Comparator.naturalOrder()));
+        assertEquals(0, Inversions.count(new Integer[]{1, 2, 3}, Comparator.naturalOrder()));
+        assertEquals(3, Inversions.count(new Integer[]{3, 2, 1}, Comparator.naturalOrder()));
+        assertEquals(4, Inversions.count(new Integer[]{2, 3, 2, 1}, Comparator.naturalOrder()));
+        final Integer[] xs = {4, 1, 3, 1};
+        assertEquals(4, Inversions.count(xs, Comparator.naturalOrder()));
+        // NOTE: the array is unchanged.
+        assertArrayEquals(new Integer[]{4, 1, 3, 1}, xs);
+    }
+
+    @Test
+    public void testCountRandom() {
+        final Random random = new Random(0L);
+        final Integer[] xs = new Integer[1000];
+        for (int i = 0; i < xs.length; i++) xs[i] = random.nextInt(100);
+        assertEquals(naive(xs), Inversions.count(xs, Comparator.naturalOrder()));
+    }
+
+    @Test
+    public void testCountParallel() {
+        final Random random = new Random(0L);
+        final int n = 4 * Inversions.PARALLEL_THRESHOLD + 1;
+        final Integer[] xs = new Integer[n];
+        final int[] ranks = new int[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = random.nextInt(1000);
+            ranks[i] = xs[i];
+        }
+        final long expected = naive(xs);
+        assertEquals(expected, Inversions.countParallel(xs, Comparator.naturalOrder()));
+        assertEquals(expected, Inversions.count(xs, Comparator.naturalOrder()));
+        assertEquals(expected, Inversions.count(ranks));
+    }
+
+    @Test
+    public void testCountReversed() {
+        // NOTE: the number of inversions here exceeds the range of an int.
+        final int n = 100000;
+        final Integer[] xs = new Integer[n];
+        for (int i = 0; i < n; i++) xs[i] = n - i;
+        assertEquals((long) n * (n - 1) / 2, Inversions.countParallel(xs, Comparator.naturalOrder()));
+    }
+
+    @Test
+    public void testCountRanks() {
+        assertEquals(0, Inversions.count(new int[]{}));
+        assertEquals(3, Inversions.count(new int[]{2, 1, 0}));
+        assertEquals(4, Inversions.count(new int[]{3, 0, 2, 0}));
+    }
+
+    @Test
+    public void testOrder() {
+        assertArrayEquals(new int[]{1, 3, 2, 0}, Inversions.order(new Integer[]{4, 1, 3, 1}, Comparator.naturalOrder()));
+    }
+
+    private static long naive(Integer[] xs) {
+        long result = 0;
+        for (int i = 0; i < xs.length; i++)
+            for (int j = i + 1; j < xs.length; j++)
+                if (xs[i] > xs[j]) result++;
+        return result;
+    }
+}
@@ -0,0 +1,58 @@
+package edu.neu.coe.info6205.sort;
+
+import edu.neu.coe.info6205.sort.simple.TimSort;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class KeySortTest {
+
+    @Test
+    public void testSortBy() {
+        final String[] xs = {"ccc", "a", "bb", "dddd", ""};
+        final String[] ys = new TimSort<String>().sortBy(xs, s -> new StringBuilder(s).reverse().toString());
+        assertArrayEquals(new String[]{"", "a", "bb", "ccc", "dddd"}, ys);
+        assertEquals("ccc", xs[0]);
+    }
+
+    @Test
+    public void testSortByIntIsStable() {
+        final String[] xs = {"bb", "a", "cc", "b", "aa", "c", "-"};
+        final String[] ys = KeySort.sortByInt(xs, String::length);
+        assertArrayEquals(new String[]{"a", "b", "c", "-", "bb", "cc", "aa"}, ys);
+    }
+
+    @Test
+    public void testSortByIntNegative() {
+        final Integer[] xs = {3, -1, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, -7};
+        final Integer[] ys = KeySort.sortByInt(xs, x -> x);
+        assertArrayEquals(new Integer[]{Integer.MIN_VALUE, -7, -1, 0, 3, Integer.MAX_VALUE}, ys);
+    }
+
+    @Test
+    public void testSortByLong() {
+        final Random random = new Random(0L);
+        final Long[] xs = new Long[1000];
+        for (int i = 0; i < xs.length; i++) xs[i] = random.nextLong();
+        final Long[] ys = KeySort.sortByLong(xs, x -> x);
+        final Long[] expected = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(expected);
+        assertArrayEquals(expected, ys);
+    }
+
+    @Test
+    public void testSortByLongIsStable() {
+        final String[] xs = {"bb", "a", "cc", "b", "aa", "c", "-"};
+        final String[] ys = KeySort.sortByLong(xs, s -> -s.length());
+        assertArrayEquals(new String[]{"bb", "cc", "aa", "a", "b", "c", "-"}, ys);
+    }
+
+    @Test
+    public void testOrderByLong() {
+        assertArrayEquals(new int[]{2, 0, 1}, KeySort.orderByLong(new long[]{5L, 9L, -3L}));
+        assertArrayEquals(new int[0], KeySort.orderByLong(new long[0]));
+    }
+}
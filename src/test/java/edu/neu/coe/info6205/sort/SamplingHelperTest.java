@@ -0,0 +1,74 @@
+package edu.neu.coe.info6205.sort;
+
+import edu.neu.coe.info6205.sort.simple.MergeSortBasic;
+import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.ConfigTest;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SamplingHelperTest {
+
+    @Test
+    public void testSampleEveryInvocation() {
+        final int n = 100;
+        final SamplingHelper<Integer> helper = new SamplingHelper<>("test", n, 1, 0L);
+        final Integer[] xs = helper.random(Integer.class, r -> r.nextInt(1000));
+        final Sort<Integer> sorter = new MergeSortBasic<>(helper);
+        final Integer[] ys = sorter.sort(xs);
+        assertTrue(helper.instrumented());
+        helper.postProcess(ys);
+        assertFalse(helper.instrumented());
+        assertEquals(1, helper.getSamples());
+        assertEquals(1, helper.getInvocations());
+        // NOTE: the counts must agree with those of an InstrumentedHelper.
+        final Config config = ConfigTest.setupConfig("true", "0", "0", "", "");
+        final InstrumentedHelper<Integer> instrumentedHelper = new InstrumentedHelper<>("test", n, config);
+        final Integer[] zs = new MergeSortBasic<>(instrumentedHelper).sort(xs);
+        instrumentedHelper.postProcess(zs);
+        assertEquals(instrumentedHelper.getStatPack().mean(InstrumentedHelper.COMPARES), helper.estimateTotal(InstrumentedHelper.COMPARES), 0.0);
+        assertEquals(instrumentedHelper.getStatPack().mean(InstrumentedHelper.COPIES), helper.estimateTotal(InstrumentedHelper.COPIES), 0.0);
+        assertEquals(instrumentedHelper.getStatPack().mean(InstrumentedHelper.SWAPS), helper.estimateTotal(InstrumentedHelper.SWAPS), 0.0);
+        // NOTE: the swaps are those of insertion sort (below the cutoff), which uses swapStableConditional.
+        assertTrue(helper.estimateTotal(InstrumentedHelper.SWAPS) > 0);
+    }
+
+    @Test
+    public void testSampleOneInTen() {
+        final int n = 64;
+        final int invocations = 1000;
+        final SamplingHelper<Integer> helper = new SamplingHelper<>("test", n, 10, 0L);
+        final Sort<Integer> sorter = new MergeSortBasic<>(helper);
+        int sampled = 0;
+        for (int i = 0; i < invocations; i++) {
+            final Integer[] xs = helper.random(Integer.class, r -> r.nextInt(1000));
+            sorter.sort(xs);
+            if (helper.instrumented()) sampled++;
+        }
+        assertEquals(invocations, helper.getInvocations());
+        assertEquals(sampled, helper.getSamples());
+        assertTrue(sampled > 50 && sampled < 200);
+        // NOTE: merge sort (with cutoff to insertion sort) on 64 random elements takes approximately 300 compares.
+        final double estimate = helper.estimateTotal(InstrumentedHelper.COMPARES);
+        final double[] interval = helper.confidenceIntervalTotal(InstrumentedHelper.COMPARES);
+        assertTrue(interval[0] <= estimate && estimate <= interval[1]);
+        assertTrue(estimate > invocations * 200 && estimate < invocations * 500);
+        assertTrue(interval[1] - interval[0] < 0.1 * estimate);
+    }
+
+    @Test
+    public void testHelperFactory() {
+        final Config config = ConfigTest.setupConfig("", "0", "0", "", "").copy(Config.HELPER, SamplingHelper.SAMPLING, "100");
+        final Helper<Integer> helper = HelperFactory.create("test", 10, config);
+        assertTrue(helper instanceof SamplingHelper);
+        // NOTE an explicit value of instrumented overrides the sampling option.
+        assertFalse(HelperFactory.create("test", 10, false, config) instanceof SamplingHelper);
+        assertTrue(HelperFactory.create("test", 10, ConfigTest.setupConfig("true", "0", "0", "", "").copy(Config.HELPER, SamplingHelper.SAMPLING, "100")) instanceof InstrumentedHelper);
+        assertFalse(HelperFactory.create("test", 10, ConfigTest.setupConfig("", "0", "0", "", "")) instanceof SamplingHelper);
+    }
+
+    @Test(expected = BaseHelper.HelperException.class)
+    public void testBadPeriod() {
+        new SamplingHelper<Integer>("test", 10, 0, 0L);
+    }
+}
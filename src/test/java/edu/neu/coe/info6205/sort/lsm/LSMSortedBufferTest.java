@@ -0,0 +1,78 @@
+package edu.neu.coe.info6205.sort.lsm;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class LSMSortedBufferTest {
+
+    @Test
+    public void testAddAndIterate() {
+        final LSMSortedBuffer<Integer> buffer = new LSMSortedBuffer<>(4);
+        final Integer[] xs = {5, 3, 9, 1, 7, 2, 8, 6, 4, 0, 11};
+        buffer.addAll(xs);
+        assertEquals(xs.length, buffer.size());
+        final Integer[] expected = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(expected);
+        assertEquals(Arrays.asList(expected), buffer.toList());
+    }
+
+    @Test
+    public void testRange() {
+        final LSMSortedBuffer<Integer> buffer = new LSMSortedBuffer<>(3, 3);
+        for (int i = 20; i > 0; i--) buffer.add(i);
+        final List<Integer> result = new ArrayList<>();
+        for (Integer x : buffer.range(5, 10)) result.add(x);
+        assertEquals(Arrays.asList(5, 6, 7, 8, 9), result);
+        result.clear();
+        for (Integer x : buffer.range(null, 3)) result.add(x);
+        assertEquals(Arrays.asList(1, 2), result);
+        result.clear();
+        for (Integer x : buffer.range(18, null)) result.add(x);
+        assertEquals(Arrays.asList(18, 19, 20), result);
+    }
+
+    @Test
+    public void testCompact() {
+        final LSMSortedBuffer<String> buffer = new LSMSortedBuffer<>(2);
+        buffer.addAll(new String[]{"d", "a", "c", "b", "e"});
+        buffer.compact();
+        assertEquals(1, buffer.getMetrics().getCompactions());
+        assertEquals(Arrays.asList("a", "b", "c", "d", "e"), buffer.toList());
+    }
+
+    @Test
+    public void testMetrics() {
+        final int n = 1 << 12;
+        final LSMSortedBuffer<Integer> buffer = new LSMSortedBuffer<>(16);
+        final Random random = new Random(0L);
+        for (int i = 0; i < n; i++) buffer.add(random.nextInt());
+        final LSMSortedBuffer<Integer>.Metrics metrics = buffer.getMetrics();
+        assertEquals(n, metrics.getAppends());
+        assertEquals(n / 16, metrics.getFlushes());
+        // NOTE each element is copied once per level (other than the first): there are lg(n/16) = 8 such levels.
+        assertEquals(8.0, metrics.amortizedCopies(), 1E-9);
+    }
+
+    @Test
+    public void testBackgroundCompaction() throws InterruptedException {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        final LSMSortedBuffer<Integer> buffer = new LSMSortedBuffer<>(8, 2, executor);
+        final Random random = new Random(0L);
+        final Integer[] xs = new Integer[1000];
+        for (int i = 0; i < xs.length; i++) buffer.add(xs[i] = random.nextInt(100));
+        Arrays.sort(xs);
+        assertEquals(Arrays.asList(xs), buffer.toList());
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList(xs), buffer.toList());
+    }
+}
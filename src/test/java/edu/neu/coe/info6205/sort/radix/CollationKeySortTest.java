@@ -0,0 +1,69 @@
+package edu.neu.coe.info6205.sort.radix;
+
+import org.junit.Test;
+
+import java.text.Collator;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+
+public class CollationKeySortTest {
+
+    @Test
+    public void testSortEnglish() {
+        final String[] xs = {"peach", "Apple", "péché", "apple", "pêche", "banana", "Banana", "cherry", "", "a"};
+        final String[] ys = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(ys, Collator.getInstance(Locale.ENGLISH));
+        new CollationKeySort(Locale.ENGLISH).sort(xs);
+        assertArrayEquals(ys, xs);
+    }
+
+    @Test
+    public void testSortChinese() {
+        final String[] xs = {"中国", "北京", "上海", "广州", "深圳", "天津", "重庆", "南京", "杭州", "成都", "武汉", "西安", "苏州", "郑州", "长沙", "青岛", "大连", "厦门", "宁波", "中文"};
+        final String[] ys = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(ys, Collator.getInstance(Locale.CHINA));
+        new CollationKeySort(Locale.CHINA).sort(xs);
+        assertArrayEquals(ys, xs);
+    }
+
+    @Test
+    public void testSortRandom() {
+        // NOTE: enough words that the radix (rather than insertion) sort is exercised at several levels.
+        final Random random = new Random(0L);
+        final String[] xs = new String[2000];
+        for (int i = 0; i < xs.length; i++) {
+            final StringBuilder sb = new StringBuilder();
+            final int length = random.nextInt(6);
+            for (int j = 0; j < length; j++) sb.append((char) ('a' + random.nextInt(4)));
+            xs[i] = random.nextBoolean() ? sb.toString().toUpperCase() : sb.toString();
+        }
+        final String[] ys = Arrays.copyOf(xs, xs.length);
+        final Collator collator = Collator.getInstance(Locale.US);
+        Arrays.sort(ys, collator);
+        new CollationKeySort(collator).sort(xs);
+        assertArrayEquals(ys, xs);
+    }
+
+    @Test
+    public void testSortStable() {
+        // NOTE: at PRIMARY strength, case and accents are ignored so these are all equal and must remain in their original order.
+        final Collator collator = Collator.getInstance(Locale.ENGLISH);
+        collator.setStrength(Collator.PRIMARY);
+        final String[] xs = new String[40];
+        final String[] variants = {"resume", "Resume", "résumé", "RÉSUMÉ"};
+        for (int i = 0; i < xs.length; i++) xs[i] = variants[(i * 7) % variants.length];
+        final String[] ys = Arrays.copyOf(xs, xs.length);
+        new CollationKeySort(collator).sort(xs);
+        assertArrayEquals(ys, xs);
+    }
+
+    @Test
+    public void testSortPartial() {
+        final String[] xs = {"d", "c", "b", "a", "f", "e"};
+        new CollationKeySort(Locale.ENGLISH).sort(xs, 1, 4);
+        assertArrayEquals(new String[]{"d", "a", "b", "c", "f", "e"}, xs);
+    }
+}
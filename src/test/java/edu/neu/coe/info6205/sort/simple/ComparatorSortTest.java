@@ -0,0 +1,152 @@
+package edu.neu.coe.info6205.sort.simple;
+
+import edu.neu.coe.info6205.sort.Helper;
+import edu.neu.coe.info6205.sort.InstrumentedHelper;
+import edu.neu.coe.info6205.sort.SortWithHelper;
+import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.ConfigTest;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Test of the sorts which take an explicit Comparator (see SortWithHelper).
+ * Each sort is tested with a comparator which reverses the order of the keys,
+ * such that there are many duplicate keys.
+ */
+@RunWith(Parameterized.class)
+public class ComparatorSortTest {
+
+    /**
+     * NOTE InsertionSortOpt is not stable because its binary search may find any one of a run of equal keys.
+     * NOTE TimSort delegates to Arrays.sort and so its comparisons are not instrumented.
+     * NOTE ShellSort is not included because its gap sequences are yet to be implemented (it does not terminate).
+     *
+     * @return the parameters for each sort.
+     */
+    @Parameterized.Parameters(name = "{0}")
+    public static Collection<Object[]> sorters() {
+        return Arrays.asList(new Object[][]{
+                sorter("InsertionSort", InsertionSort::new, InsertionSort::new, true, true),
+                sorter("InsertionSortOpt", InsertionSortOpt::new, InsertionSortOpt::new, false, true),
+                sorter("BubbleSort", BubbleSort::new, BubbleSort::new, true, true),
+                sorter("SelectionSort", SelectionSort::new, SelectionSort::new, false, true),
+                sorter("MergeSortBasic", MergeSortBasic::new, MergeSortBasic::new, true, true),
+                sorter("TimSort", TimSort::new, TimSort::new, true, false),
+                sorter("IntroSort", IntroSort::new, IntroSort::new, false, true),
+                sorter("QuickSort_3way", QuickSort_3way::new, QuickSort_3way::new, false, true),
+                sorter("QuickSort_DualPivot", QuickSort_DualPivot::new, QuickSort_DualPivot::new, false, true)
+        });
+    }
+
+    public ComparatorSortTest(String name, Factory factory, Function<Comparator<Keyed>, SortWithHelper<Keyed>> simpleFactory, boolean stable, boolean instrumented) {
+        this.factory = factory;
+        this.simpleFactory = simpleFactory;
+        this.stable = stable;
+        this.instrumented = instrumented;
+    }
+
+    @Test
+    public void testSortWithComparator() {
+        final Keyed[] xs = keyed(N);
+        final Keyed[] expected = Arrays.copyOf(xs, N);
+        Arrays.sort(expected, REVERSE);
+        final SortWithHelper<Keyed> sorter = factory.apply(N, REVERSE, ConfigTest.setupConfig("true", "0", "0", "", ""));
+        final Keyed[] ys = sorter.sort(xs);
+        assertKeys(expected, ys);
+        sorter.getHelper().postProcess(ys);
+        assertKeys(expected, simpleFactory.apply(REVERSE).sort(xs));
+    }
+
+    @Test
+    public void testStability() {
+        // NOTE only the stable sorts are required to keep equal keys in their original order.
+        assumeTrue(stable);
+        final Keyed[] ys = simpleFactory.apply(REVERSE).sort(keyed(N));
+        for (int i = 1; i < N; i++)
+            if (ys[i - 1].key == ys[i].key) assertTrue("equal keys out of order at " + i, ys[i - 1].index < ys[i].index);
+    }
+
+    @Test
+    public void testComparesThroughComparator() {
+        final AtomicLong invocations = new AtomicLong();
+        final Comparator<Keyed> counting = (x, y) -> {
+            invocations.incrementAndGet();
+            return REVERSE.compare(x, y);
+        };
+        // NOTE fixes are not counted because the fix accounting makes comparisons of its own.
+        final Config config = ConfigTest.setupConfig("true", "0", "0", "", "").copy(InstrumentedHelper.INSTRUMENTING, InstrumentedHelper.FIXES, "");
+        final SortWithHelper<Keyed> sorter = factory.apply(N, counting, config);
+        final Keyed[] ys = sorter.sort(keyed(N));
+        final long compares = invocations.get();
+        final Helper<Keyed> helper = sorter.getHelper();
+        helper.postProcess(ys);
+        final long counted = (long) ((InstrumentedHelper<Keyed>) helper).getStatPack().total(InstrumentedHelper.COMPARES);
+        assertTrue(compares > 0);
+        if (instrumented) assertEquals(compares, counted);
+    }
+
+    /**
+     * Interface to create a sort, given n, a comparator and a configuration.
+     */
+    interface Factory {
+        SortWithHelper<Keyed> apply(int n, Comparator<Keyed> comparator, Config config);
+    }
+
+    /**
+     * Class to represent an element with a (non-unique) key and its original index.
+     */
+    static class Keyed implements Comparable<Keyed> {
+        Keyed(int key, int index) {
+            this.key = key;
+            this.index = index;
+        }
+
+        @Override
+        public int compareTo(Keyed o) {
+            return Integer.compare(key, o.key);
+        }
+
+        @Override
+        public String toString() {
+            return key + "@" + index;
+        }
+
+        final int key;
+        final int index;
+    }
+
+    private static Object[] sorter(String name, Factory factory, Function<Comparator<Keyed>, SortWithHelper<Keyed>> simpleFactory, boolean stable, boolean instrumented) {
+        return new Object[]{name, factory, simpleFactory, stable, instrumented};
+    }
+
+    private static Keyed[] keyed(int n) {
+        final Random random = new Random(0L);
+        final Keyed[] result = new Keyed[n];
+        for (int i = 0; i < n; i++) result[i] = new Keyed(random.nextInt(n / 4), i);
+        return result;
+    }
+
+    private static void assertKeys(Keyed[] expected, Keyed[] actual) {
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) assertEquals(expected[i].key, actual[i].key);
+    }
+
+    private static final int N = 200;
+    private static final Comparator<Keyed> REVERSE = Comparator.reverseOrder();
+
+    private final Factory factory;
+    private final Function<Comparator<Keyed>, SortWithHelper<Keyed>> simpleFactory;
+    private final boolean stable;
+    private final boolean instrumented;
+}
@@ -0,0 +1,103 @@
+package edu.neu.coe.info6205.sort.simple;
+
+import edu.neu.coe.info6205.sort.BaseHelper;
+import edu.neu.coe.info6205.sort.Helper;
+import edu.neu.coe.info6205.sort.HelperFactory;
+import edu.neu.coe.info6205.sort.InstrumentedHelper;
+import edu.neu.coe.info6205.util.Config;
+import edu.neu.coe.info6205.util.ConfigTest;
+import edu.neu.coe.info6205.util.PrivateMethodTester;
+import edu.neu.coe.info6205.util.StatPack;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.Assert.*;
+
+@SuppressWarnings("ALL")
+public class LCPMergeSortTest {
+
+    @Test
+    public void testSort0() {
+        final String[] xs = {"she", "sells", "seashells", "by", "the", "sea", "shore", "the", "shells", "she", "sells", "are", "surely", "seashells"};
+        final String[] expected = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(expected);
+        final LCPMergeSort sorter = new LCPMergeSort(new BaseHelper<>("LCPMergeSort"));
+        final String[] ys = sorter.sort(xs);
+        assertArrayEquals(expected, ys);
+        assertArrayEquals(lcps(ys), sorter.lcp());
+    }
+
+    @Test
+    public void testSortDistinct() {
+        final String[] xs = {"she", "sells", "seashells", "by", "the", "sea", "shore", "the", "shells", "she", "sells", "are", "surely", "seashells", "", "", "s"};
+        final LCPMergeSort sorter = new LCPMergeSort(new BaseHelper<>("LCPMergeSort"));
+        final String[] ys = sorter.sortDistinct(xs);
+        assertArrayEquals(new TreeSet<>(Arrays.asList(xs)).toArray(new String[0]), ys);
+        assertArrayEquals(lcps(ys), sorter.lcp());
+        assertEquals(17, xs.length);
+    }
+
+    @Test
+    public void testSortRandom() {
+        final Random random = new Random(0L);
+        final String[] xs = new String[1000];
+        for (int i = 0; i < xs.length; i++) xs[i] = randomString(random);
+        final String[] expected = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(expected);
+        final LCPMergeSort sorter = new LCPMergeSort(new BaseHelper<>("LCPMergeSort"));
+        assertArrayEquals(expected, sorter.sort(xs));
+        assertArrayEquals(lcps(expected), sorter.lcp());
+        final String[] distinct = new TreeSet<>(Arrays.asList(xs)).toArray(new String[0]);
+        assertArrayEquals(distinct, sorter.sortDistinct(xs));
+        assertArrayEquals(lcps(distinct), sorter.lcp());
+    }
+
+    @Test
+    public void testSortPartial() {
+        final String[] xs = {"d", "c", "b", "a", "f", "e"};
+        final LCPMergeSort sorter = new LCPMergeSort(new BaseHelper<>("LCPMergeSort"));
+        sorter.sort(xs, 1, 4);
+        assertArrayEquals(new String[]{"d", "a", "b", "c", "f", "e"}, xs);
+        assertArrayEquals(new int[]{0, 0, 0}, sorter.lcp());
+    }
+
+    @Test
+    public void testCharacterCompares() throws Exception {
+        // NOTE: all of these strings share a long prefix, which the LCP merge sort should scan only once per string (approximately).
+        final String prefix = "abcdefghijklmnopqrstuvwxyz";
+        final int n = 64;
+        final String[] xs = new String[n];
+        for (int i = 0; i < n; i++) xs[i] = prefix + (char) ('a' + (i * 37) % n % 26) + i;
+        final Config config = ConfigTest.setupConfig("true", "0", "0", "", "");
+        final Helper<String> helper = HelperFactory.create("LCPMergeSort", n, config);
+        final LCPMergeSort sorter = new LCPMergeSort(helper);
+        final String[] ys = sorter.sort(xs);
+        sorter.postProcess(ys);
+        final PrivateMethodTester privateMethodTester = new PrivateMethodTester(helper);
+        final StatPack statPack = (StatPack) privateMethodTester.invokePrivate("getStatPack");
+        final int characterCompares = (int) statPack.getStatistics(InstrumentedHelper.CHARACTER_COMPARES).mean();
+        assertTrue(characterCompares > 0);
+        // NOTE: a naive merge sort would scan the prefix for each of approximately n lg n comparisons.
+        assertTrue(characterCompares < n * prefix.length() + n * 6 * 4);
+    }
+
+    private static int[] lcps(String[] xs) {
+        final int[] result = new int[xs.length];
+        for (int i = 1; i < xs.length; i++) {
+            int k = 0;
+            while (k < xs[i - 1].length() && k < xs[i].length() && xs[i - 1].charAt(k) == xs[i].charAt(k)) k++;
+            result[i] = k;
+        }
+        return result;
+    }
+
+    private static String randomString(Random random) {
+        final StringBuilder sb = new StringBuilder();
+        final int length = random.nextInt(8);
+        for (int j = 0; j < length; j++) sb.append((char) ('a' + random.nextInt(3)));
+        return sb.toString();
+    }
+}
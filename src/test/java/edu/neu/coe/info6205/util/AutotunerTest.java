@@ -0,0 +1,89 @@
+package edu.neu.coe.info6205.util;
+
+import edu.neu.coe.info6205.sort.Helper;
+import edu.neu.coe.info6205.sort.HelperFactory;
+import edu.neu.coe.info6205.sort.simple.InsertionSort;
+import edu.neu.coe.info6205.sort.simple.MergeSortBasic;
+import edu.neu.coe.info6205.sort.simple.QuickSort_DualPivot;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class AutotunerTest {
+
+    @Test
+    public void testGoldenSection() {
+        final AtomicInteger evaluations = new AtomicInteger();
+        assertEquals(37, Autotuner.goldenSection(x -> {
+            evaluations.incrementAndGet();
+            return (x - 37.2) * (x - 37.2);
+        }, 2, 1000));
+        // NOTE an exhaustive search would take 999 evaluations.
+        assertTrue(evaluations.get() < 30);
+        assertEquals(2, Autotuner.goldenSection(x -> x, 2, 64));
+        assertEquals(64, Autotuner.goldenSection(x -> -x, 2, 64));
+        assertEquals(5, Autotuner.goldenSection(x -> x, 5, 5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGoldenSectionEmpty() {
+        Autotuner.goldenSection(x -> x, 3, 2);
+    }
+
+    @Test
+    public void testTuneInsertionCutoff() {
+        final InputGenerator generator = new InputGenerator(InputGenerator.Distribution.RANDOM, 0L);
+        final int cutoff = new Autotuner(2).tuneInsertionCutoff(MergeSortBasic::new, () -> generator.integers(1000), 2, 32);
+        assertTrue(cutoff >= 2 && cutoff <= 32);
+    }
+
+    @Test
+    public void testCalibratedCutoff() {
+        final String key = HelperFactory.cutoffKey(QuickSort_DualPivot.DESCRIPTION, null);
+        assertEquals("quicksort_dual_pivot", key);
+        assertEquals("quicksort_dual_pivot.string", HelperFactory.cutoffKey(QuickSort_DualPivot.DESCRIPTION, String.class));
+        final Config config = ConfigTest.setupConfig("", "", "", "", "").copy(HelperFactory.CUTOFF, key, "20").copy(HelperFactory.CUTOFF, key + ".string", "12");
+        assertEquals(20, HelperFactory.getCutoff(config, QuickSort_DualPivot.DESCRIPTION, null));
+        assertEquals(20, HelperFactory.getCutoff(config, QuickSort_DualPivot.DESCRIPTION, Integer.class));
+        assertEquals(12, HelperFactory.getCutoff(config, QuickSort_DualPivot.DESCRIPTION, String.class));
+        assertEquals(20, new QuickSort_DualPivot<Integer>(100, config).getHelper().cutoff());
+        final Helper<Integer> helper = HelperFactory.create("other", 100, config);
+        assertEquals(7, helper.cutoff());
+        // NOTE an explicit cutoff of an instrumented helper takes precedence.
+        assertEquals(10, new QuickSort_DualPivot<Integer>(100, config.copy(Config.HELPER, Config.INSTRUMENT, "true").copy(Config.HELPER, "cutoff", "10")).getHelper().cutoff());
+    }
+
+    @Test
+    public void testCalibratedCutoffByType() {
+        final String key = HelperFactory.cutoffKey(QuickSort_DualPivot.DESCRIPTION, null);
+        final Config config = ConfigTest.setupConfig("", "", "", "", "").copy(HelperFactory.CUTOFF, key, "20").copy(HelperFactory.CUTOFF, key + ".string", "12");
+        // NOTE the type of the elements is known only when the sorter sorts an array.
+        final QuickSort_DualPivot<String> stringSorter = new QuickSort_DualPivot<>(100, config);
+        final String[] words = new InputGenerator(InputGenerator.Distribution.RANDOM, 0L).strings(100);
+        final String[] sorted = stringSorter.sort(words);
+        assertEquals(12, stringSorter.getHelper().cutoff());
+        assertTrue(stringSorter.getHelper().sorted(sorted));
+        final QuickSort_DualPivot<Integer> integerSorter = new QuickSort_DualPivot<>(100, config);
+        integerSorter.mutatingSort(new InputGenerator(InputGenerator.Distribution.RANDOM, 0L).integers(100));
+        assertEquals(20, integerSorter.getHelper().cutoff());
+    }
+
+    @Test
+    public void testCalibratedCutoffByTypeSortWithCopy() {
+        // NOTE sort(xs, makeCopy) is the entry point used by Autotuner and by the JMH benchmarks.
+        final Config config = ConfigTest.setupConfig("", "", "", "", "")
+                .copy(HelperFactory.CUTOFF, HelperFactory.cutoffKey(MergeSortBasic.DESCRIPTION, null), "20")
+                .copy(HelperFactory.CUTOFF, HelperFactory.cutoffKey(MergeSortBasic.DESCRIPTION, String.class), "12")
+                .copy(HelperFactory.CUTOFF, HelperFactory.cutoffKey(InsertionSort.DESCRIPTION, String.class), "5");
+        final MergeSortBasic<String> mergeSort = new MergeSortBasic<>(100, config);
+        final String[] words = new InputGenerator(InputGenerator.Distribution.RANDOM, 0L).strings(100);
+        assertTrue(mergeSort.getHelper().sorted(mergeSort.sort(words, true)));
+        assertEquals(12, mergeSort.getHelper().cutoff());
+        // NOTE InsertionSort does not override sort(xs, makeCopy).
+        final InsertionSort<String> insertionSort = new InsertionSort<>(100, config);
+        insertionSort.sort(words, true);
+        assertEquals(5, insertionSort.getHelper().cutoff());
+    }
+}
@@ -0,0 +1,111 @@
+package edu.neu.coe.info6205.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class BaselineStoreTest {
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("baseline");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testRecordAndLoad() throws IOException {
+        final BaselineStore store = new BaselineStore(directory);
+        final String description = "Sort 1,000 \"words\" / x";
+        store.record("baseline", description, new long[]{1000000L, 2500000L});
+        store.record("baseline", description, new long[]{3000000L});
+        assertArrayEquals(new double[]{1.0, 2.5, 3.0}, store.load("baseline", description), 0.0);
+        assertEquals(0, store.load("candidate", description).length);
+        final Map<String, double[]> all = store.loadAll("baseline");
+        assertEquals(1, all.size());
+        assertEquals(3, all.get(description).length);
+        assertTrue(Files.exists(directory.resolve(store.getFingerprint()).resolve("machine.properties")));
+        assertEquals(BaselineStore.fingerprint(), store.getFingerprint());
+    }
+
+    @Test
+    public void testRecordBySize() throws IOException {
+        final BaselineStore store = new BaselineStore(directory, "machine");
+        store.record("baseline", "sort", 1000, new long[]{1000000L});
+        store.record("baseline", "sort", 2000, new long[]{2000000L, 2100000L});
+        assertArrayEquals(new double[]{1.0}, store.load("baseline", "sort", 1000), 0.0);
+        assertArrayEquals(new double[]{2.0, 2.1}, store.load("baseline", "sort", 2000), 0.0);
+        assertEquals(0, store.load("baseline", "sort").length);
+        final Map<String, double[]> all = store.loadAll("baseline");
+        assertEquals(2, all.size());
+        assertEquals(2, all.get(BaselineStore.key("sort", 2000)).length);
+        assertEquals(2, store.reset("baseline"));
+        assertTrue(store.loadAll("baseline").isEmpty());
+        assertEquals(0, store.reset("candidate"));
+        store.record("baseline", "sort", 1000, new long[]{3000000L});
+        assertArrayEquals(new double[]{3.0}, store.load("baseline", "sort", 1000), 0.0);
+    }
+
+    @Test
+    public void testCompare() throws IOException {
+        final BaselineStore store = new BaselineStore(directory, "machine");
+        final Random random = new Random(0L);
+        store.record("baseline", "a", times(random, 10.0, 50));
+        store.record("baseline", "b", times(random, 10.0, 50));
+        store.record("baseline", "c", times(random, 10.0, 50));
+        // NOTE a is unchanged; b is 20% slower; c is 20% faster; d has no baseline.
+        store.record("candidate", "a", times(random, 10.0, 50));
+        store.record("candidate", "b", times(random, 12.0, 50));
+        store.record("candidate", "c", times(random, 8.0, 50));
+        store.record("candidate", "d", times(random, 8.0, 50));
+        final List<BaselineStore.Comparison> comparisons = store.compare("baseline", "candidate", 0.01, 0.05);
+        assertEquals(3, comparisons.size());
+        assertFalse(comparisons.get(0).regression);
+        assertTrue(comparisons.get(1).regression);
+        assertEquals(1.2, comparisons.get(1).getRatio(), 0.05);
+        assertTrue(comparisons.get(1).pValue < 1E-6);
+        assertTrue(comparisons.get(1).toString().startsWith("REGRESSION: b: median"));
+        assertFalse(comparisons.get(2).regression);
+        assertTrue(comparisons.get(2).pValue > 0.99);
+        // NOTE a 20% slowdown is not a regression if the threshold is 25%.
+        assertFalse(store.compare("baseline", "candidate", 0.01, 0.25).get(1).regression);
+    }
+
+    @Test
+    public void testMannWhitneyP() {
+        assertEquals(0.00609, BaselineStore.mannWhitneyP(new double[]{1, 2, 3, 4, 5}, new double[]{6, 7, 8, 9, 10}), 0.0001);
+        assertEquals(0.5, BaselineStore.mannWhitneyP(new double[]{1, 1, 1}, new double[]{1, 1, 1}), 0.0);
+        assertTrue(BaselineStore.mannWhitneyP(new double[]{6, 7, 8, 9, 10}, new double[]{1, 2, 3, 4, 5}) > 0.99);
+    }
+
+    @Test
+    public void testNormalCDF() {
+        assertEquals(0.5, BaselineStore.normalCDF(0), 1E-7);
+        assertEquals(0.975, BaselineStore.normalCDF(1.959964), 1E-6);
+        assertEquals(0.025, BaselineStore.normalCDF(-1.959964), 1E-6);
+    }
+
+    private static long[] times(Random random, double millis, int n) {
+        final long[] result = new long[n];
+        for (int i = 0; i < n; i++) result[i] = (long) (millis * 1E6 * (1 + 0.05 * random.nextGaussian()));
+        return result;
+    }
+
+    private Path directory;
+}
@@ -4,9 +4,15 @@
 
 package edu.neu.coe.info6205.util;
 
+import edu.neu.coe.info6205.util.metrics.MetricsRegistry;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 @SuppressWarnings("ALL")
 public class BenchmarkTest {
@@ -56,4 +62,17 @@ public class BenchmarkTest {
         assertEquals(10, Benchmark_Timer.getWarmupRuns(100));
         assertEquals(10, Benchmark_Timer.getWarmupRuns(1000));
     }
+
+    @Test
+    public void testSize() throws IOException {
+        final Benchmark_Timer<int[]> benchmark = new Benchmark_Timer<>("testSize", null, Arrays::sort, null);
+        assertEquals(-1, benchmark.getSize());
+        benchmark.runFromSupplier(() -> new int[100], 2);
+        assertEquals(100, benchmark.getSize());
+        final StringWriter writer = new StringWriter();
+        MetricsRegistry.getDefault().writePrometheus(writer);
+        assertTrue(writer.toString().contains("benchmark_mean_milliseconds{benchmark=\"testSize\",n=\"100\"}"));
+        assertEquals(3, Benchmark_Timer.sizeOf(Arrays.asList(1, 2, 3)));
+        assertEquals(-1, Benchmark_Timer.sizeOf("not sized"));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,128 @@
+package edu.neu.coe.info6205.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ColumnarFileTest {
+
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("ColumnarFileTest", ".col");
+    }
+
+    @After
+    public void tearDown() {
+        //noinspection ResultOfMethodCallIgnored
+        file.delete();
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        write(false, 0, 10000);
+        final ColumnarFile.Reader reader = new ColumnarFile.Reader(file);
+        assertEquals(Arrays.asList("n", "time"), reader.getColumns());
+        assertEquals(ColumnarFile.Type.DOUBLE, reader.getType("time"));
+        assertEquals(10000, reader.getRows());
+        final long[] ns = reader.readLongs("n");
+        final double[] times = reader.readDoubles("time");
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(i, ns[i]);
+            assertEquals(i / 8.0, times[i], 0);
+        }
+    }
+
+    @Test
+    public void testAppend() throws IOException {
+        write(false, 0, 1000);
+        write(true, 1000, 500);
+        final ColumnarFile.Reader reader = new ColumnarFile.Reader(file);
+        assertEquals(1500, reader.getRows());
+        final long[] ns = reader.readLongs("n");
+        for (int i = 0; i < 1500; i++) assertEquals(i, ns[i]);
+    }
+
+    @Test
+    public void testIncompleteBlock() throws IOException {
+        write(false, 0, 300);
+        final long length = file.length();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(length - 8);
+        }
+        // NOTE the last block (of 300 - 256 = 44 rows) is now incomplete.
+        assertEquals(256, new ColumnarFile.Reader(file).getRows());
+        write(true, 256, 10);
+        final long[] ns = new ColumnarFile.Reader(file).readLongs("n");
+        assertEquals(266, ns.length);
+        assertEquals(265, ns[265]);
+    }
+
+    @Test
+    public void testUnsetColumn() throws IOException {
+        try (ColumnarFile.Writer writer = new ColumnarFile.Writer(file, new String[]{"n", "time"}, new ColumnarFile.Type[]{ColumnarFile.Type.LONG, ColumnarFile.Type.DOUBLE}, false, 4)) {
+            for (int i = 0; i < 10; i++) {
+                writer.setLong(0, i);
+                // NOTE time is set only in the first block.
+                if (i < 4) writer.setDouble(1, i + 1);
+                writer.endRow();
+            }
+        }
+        final double[] times = new ColumnarFile.Reader(file).readDoubles("time");
+        assertArrayEquals(new double[]{1, 2, 3, 4, 0, 0, 0, 0, 0, 0}, times, 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void testAppendSchema() throws IOException {
+        write(false, 0, 10);
+        new ColumnarFile.Writer(file, new String[]{"n"}, new ColumnarFile.Type[]{ColumnarFile.Type.LONG}, true, 16).close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongType() throws IOException {
+        write(false, 0, 10);
+        new ColumnarFile.Reader(file).readLongs("time");
+    }
+
+    @Test
+    public void testCSVResultWriter() throws IOException {
+        try (CSVResultWriter<FileData> writer = new CSVResultWriter<>(file, "x\n", false, 2)) {
+            for (int i = 0; i < 3; i++) {
+                final int x = i;
+                writer.write(() -> x + "\n");
+            }
+            // NOTE the first two rows have been flushed.
+            assertEquals(Arrays.asList("x", "0", "1"), lines());
+            assertEquals(3, writer.getRows());
+        }
+        try (CSVResultWriter<FileData> writer = new CSVResultWriter<>(file, "x\n", true, 0)) {
+            writer.write(() -> "3\n");
+        }
+        assertEquals(Arrays.asList("x", "0", "1", "2", "3"), lines());
+    }
+
+    private void write(boolean append, int from, int n) throws IOException {
+        try (ColumnarFile.Writer writer = new ColumnarFile.Writer(file, new String[]{"n", "time"}, new ColumnarFile.Type[]{ColumnarFile.Type.LONG, ColumnarFile.Type.DOUBLE}, append, 256)) {
+            for (int i = from; i < from + n; i++) {
+                writer.setLong(0, i);
+                writer.setDouble(1, i / 8.0);
+                writer.endRow();
+            }
+        }
+    }
+
+    private List<String> lines() throws IOException {
+        return Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+    }
+
+    private File file;
+}
@@ -6,6 +6,13 @@ import org.junit.Ignore;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import static org.junit.Assert.*;
 
@@ -35,6 +42,25 @@ public class ConfigTest {
         assertEquals(1, config1.getInt(Config.HELPER, SEED, -1));
     }
 
+    @Test
+    public void testUpdate() throws IOException {
+        final Path file = Files.createTempFile("config", ".ini");
+        try {
+            Files.write(file, Arrays.asList("[a]", "# comment", "x = 1", "y =", "", "[b]", "z = 3"), StandardCharsets.UTF_8);
+            final Map<String, String> options = new LinkedHashMap<>();
+            options.put("y", "2");
+            options.put("w", "4");
+            Config.update(file.toFile(), "a", options);
+            Config.update(file.toFile(), "c", Collections.singletonMap("v", "5"));
+            assertEquals(Arrays.asList("[a]", "# comment", "x = 1", "y = 2", "w = 4", "", "[b]", "z = 3", "", "[c]", "v = 5"), Files.readAllLines(file, StandardCharsets.UTF_8));
+            final Config config = new Config(file.toFile());
+            assertEquals(2, config.getInt("a", "y", 0));
+            assertEquals(5, config.getInt("c", "v", 0));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
     // NOTE: we ignore this for now, because this would need to run before any other tests in order to work as originally designed.
     @Ignore
     public void testUnLogged() throws IOException {
@@ -55,6 +81,7 @@ public class ConfigTest {
         ini.put(sInstrumenting, COMPARES, instrumenting);
         ini.put(sInstrumenting, COPIES, instrumenting);
         ini.put(sInstrumenting, FIXES, instrumenting);
+        ini.put(sInstrumenting, CHARACTER_COMPARES, instrumenting);
         ini.put("huskyhelper", "countinteriminversions", interimInversions);
         return new Config(ini);
     }
@@ -69,5 +96,6 @@ public class ConfigTest {
     public static final String COMPARES = InstrumentedHelper.COMPARES;
     public static final String COPIES = InstrumentedHelper.COPIES;
     public static final String FIXES = InstrumentedHelper.FIXES;
+    public static final String CHARACTER_COMPARES = InstrumentedHelper.CHARACTER_COMPARES;
 
 }
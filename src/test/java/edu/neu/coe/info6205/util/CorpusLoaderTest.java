@@ -0,0 +1,109 @@
+package edu.neu.coe.info6205.util;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class CorpusLoaderTest {
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("corpus");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testTokenize() throws IOException {
+        // NOTE the corpus is large enough to be divided into several chunks.
+        final File corpus = writeCorpus("sentences.txt", 60000, 0L);
+        final String[] words = loader.tokenize(corpus);
+        assertArrayEquals(reference(corpus), words);
+        assertTrue(words.length > 1000);
+        assertTrue(Arrays.asList(words).contains("日本語"));
+    }
+
+    @Test
+    public void testLoadAndCache() throws IOException {
+        final File corpus = writeCorpus("sentences.txt", 1000, 1L);
+        final File cache = loader.getCacheFile(corpus);
+        assertFalse(cache.exists());
+        final String[] expected = reference(corpus);
+        assertArrayEquals(expected, loader.load(corpus).toArray());
+        assertTrue(cache.exists());
+        final CorpusLoader.Tokens tokens = loader.load(corpus);
+        assertEquals(expected.length, tokens.size());
+        assertEquals(expected[expected.length - 1], tokens.get(expected.length - 1));
+        assertArrayEquals(expected, tokens.toArray());
+        assertNotEquals(cache, new CorpusLoader("other", line -> Arrays.asList(line.split(" "))).getCacheFile(corpus));
+    }
+
+    @Test
+    public void testStaleCache() throws IOException {
+        final File corpus = writeCorpus("sentences.txt", 100, 2L);
+        loader.load(corpus);
+        writeCorpus("sentences.txt", 200, 3L);
+        assertArrayEquals(reference(corpus), loader.load(corpus).toArray());
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        final File corpus = directory.resolve("empty.txt").toFile();
+        Files.write(corpus.toPath(), new byte[0]);
+        assertEquals(0, loader.load(corpus).size());
+        assertEquals(0, loader.load(corpus).toArray().length);
+    }
+
+    private File writeCorpus(String name, int lines, long seed) throws IOException {
+        final Random random = new Random(seed);
+        final String[] vocabulary = {"the", "quick", "brown", "fox", "a", "jumps", "over", "lazy", "dog", "日本語", "café", "naïve", "I"};
+        final StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            sb.append(i + 1).append('\t');
+            for (int j = 0; j < 8; j++) {
+                sb.append(vocabulary[random.nextInt(vocabulary.length)]);
+                if (random.nextInt(4) == 0) sb.append(random.nextInt(lines));
+                sb.append(j < 7 ? " " : ".");
+            }
+            sb.append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        final File result = directory.resolve(name).toFile();
+        Files.write(result.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        // NOTE ensure that a rewritten corpus has a different modification time.
+        result.setLastModified(1000000000000L + seed * 1000);
+        return result;
+    }
+
+    private static String[] reference(File corpus) throws IOException {
+        final TreeSet<String> result = new TreeSet<>();
+        for (String line : Files.readAllLines(corpus.toPath(), StandardCharsets.UTF_8))
+            for (String word : SortBenchmarkHelper.getWords(regex, line))
+                if (word.length() >= 2) result.add(word);
+        return result.toArray(new String[0]);
+    }
+
+    private static final Pattern regex = Pattern.compile("\\d+\\t(.*)");
+
+    private final CorpusLoader loader = new CorpusLoader("test", line -> SortBenchmarkHelper.getWords(regex, line));
+
+    private Path directory;
+}
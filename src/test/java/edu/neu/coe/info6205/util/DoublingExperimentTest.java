@@ -0,0 +1,186 @@
+package edu.neu.coe.info6205.util;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class DoublingExperimentTest {
+
+    @Test
+    public void testPowerLaw() {
+        // NOTE the "benchmark" simply yields a time of 0.001 n^2 with a little alternating noise.
+        final Benchmark<Integer> benchmark = (supplier, m) -> {
+            final int n = supplier.get();
+            return 0.001 * n * n * (Integer.numberOfTrailingZeros(n) % 2 == 0 ? 1.01 : 0.99);
+        };
+        final DoublingExperiment<Integer> experiment = new DoublingExperiment<>("quadratic", benchmark, n -> n, 1);
+        final List<DoublingExperiment.Observation> observations = experiment.run(100, 10000);
+        assertTrue(observations.size() > 10);
+        assertEquals(200, observations.get(1).n);
+        final DoublingExperiment.Fit fit = experiment.fitPowerLaw();
+        assertEquals(2.0, fit.exponent, 0.01);
+        assertTrue(fit.exponentLow < 2.0 && fit.exponentHigh > 2.0);
+        assertEquals(0.001, fit.constant, 0.0002);
+        assertTrue(fit.constantLow < 0.001 && fit.constantHigh > 0.001);
+        assertTrue(fit.rSquared > 0.99);
+        assertEquals(0.001 * 1E12, fit.predict(1000000), 0.05 * 1E9);
+    }
+
+    @Test
+    public void testLinearithmic() {
+        final Benchmark<Integer> benchmark = (supplier, m) -> {
+            final int n = supplier.get();
+            return 0.002 * n * Math.log(n) / Math.log(2);
+        };
+        final DoublingExperiment<Integer> experiment = new DoublingExperiment<>("linearithmic", benchmark, n -> n, 1);
+        experiment.run(1000, 10000);
+        final DoublingExperiment.Fit fit = experiment.fitLinearithmic();
+        assertEquals(0.002, fit.constant, 1E-9);
+        assertEquals(0.002, fit.constantLow, 1E-9);
+        final DoublingExperiment.Fit powerLaw = experiment.fitPowerLaw();
+        assertTrue(powerLaw.exponent > 1.0 && powerLaw.exponent < 1.1);
+        assertTrue(powerLaw.meanSquaredError > fit.meanSquaredError);
+    }
+
+    @Test
+    public void testBudget() {
+        final Benchmark<Integer> benchmark = (supplier, m) -> {
+            final int n = supplier.get();
+            try {
+                Thread.sleep(n);
+            } catch (InterruptedException e) {
+                // NOTE fall through.
+            }
+            return n;
+        };
+        final DoublingExperiment<Integer> experiment = new DoublingExperiment<>("sleep", benchmark, n -> n, 1);
+        final List<DoublingExperiment.Observation> observations = experiment.run(1, 200);
+        // NOTE 1+2+4+...+64 = 127 mSecs, so the next size (128) would exceed the budget.
+        assertTrue(observations.size() <= 8);
+        assertTrue(observations.size() >= 4);
+        assertEquals(2.0, observations.get(3).ratio, 0.5);
+    }
+
+    @Test
+    public void testWrite() throws IOException {
+        final Benchmark<Integer> benchmark = (supplier, m) -> supplier.get() / 1000.0;
+        final DoublingExperiment<Integer> experiment = new DoublingExperiment<>("linear \"test\"", benchmark, n -> n, 1);
+        experiment.run(1, 10000);
+        final File csv = File.createTempFile("doubling", ".csv");
+        final File json = File.createTempFile("doubling", ".json");
+        try {
+            assertTrue(experiment.writeCSV(csv.getPath()));
+            final List<String> lines = Files.readAllLines(csv.toPath(), StandardCharsets.UTF_8);
+            assertEquals("n,time,ratio", lines.get(0));
+            assertEquals("1,0.001,", lines.get(1));
+            assertEquals("2,0.002,2.0", lines.get(2));
+            assertEquals(experiment.getObservations().size() + 1, lines.size());
+            assertTrue(experiment.writeJSON(json.getPath()));
+            final String text = new String(Files.readAllBytes(json.toPath()), StandardCharsets.UTF_8);
+            assertTrue(text.startsWith("{\"description\":\"linear \\\"test\\\"\",\"runs\":1,\"observations\":[{\"n\":1,\"time\":0.001,\"ratio\":null},"));
+            assertTrue(text.contains("\"powerLaw\":{\"model\":\"power law\",\"exponent\":1.0"));
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            csv.delete();
+            //noinspection ResultOfMethodCallIgnored
+            json.delete();
+        }
+    }
+
+    @Test
+    public void testWriteColumnar() throws IOException {
+        final Benchmark<Integer> benchmark = (supplier, m) -> supplier.get() / 1000.0;
+        final DoublingExperiment<Integer> experiment = new DoublingExperiment<>("linear", benchmark, n -> n, 1);
+        experiment.run(1, 10000);
+        final File file = File.createTempFile("doubling", ".col");
+        try {
+            assertTrue(experiment.writeColumnar(file.getPath()));
+            final ColumnarFile.Reader reader = new ColumnarFile.Reader(file);
+            assertEquals(experiment.getObservations().size(), reader.getRows());
+            assertEquals(2, reader.readLongs("n")[1]);
+            assertEquals(0.002, reader.readDoubles("time")[1], 0);
+            assertTrue(Double.isNaN(reader.readDoubles("ratio")[0]));
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testMaxN() {
+        final Benchmark<Integer> benchmark = (supplier, m) -> supplier.get() / 1000.0;
+        final DoublingExperiment<Integer> experiment = new DoublingExperiment<>("capped", benchmark, n -> n, 1);
+        final List<DoublingExperiment.Observation> observations = experiment.run(1, 1000, 10000);
+        assertEquals(10, observations.size());
+        assertEquals(512, observations.get(9).n);
+        // NOTE the doubling must stop (rather than overflow) even when maxN is Integer.MAX_VALUE.
+        final List<DoublingExperiment.Observation> unbounded = experiment.run(1 << 28, Integer.MAX_VALUE, 10000);
+        assertEquals(3, unbounded.size());
+        assertEquals(1 << 30, unbounded.get(2).n);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxNLessThanN0() {
+        new DoublingExperiment<Integer>("capped", (supplier, m) -> 1.0, n -> n, 1).run(100, 10, 10000);
+    }
+
+    @Test
+    public void testZeroTimes() {
+        // NOTE the smallest sizes are too fast to be timed.
+        final Benchmark<Integer> benchmark = (supplier, m) -> {
+            final int n = supplier.get();
+            return n < 8 ? 0 : 0.001 * n * n;
+        };
+        final DoublingExperiment<Integer> experiment = new DoublingExperiment<>("quadratic", benchmark, n -> n, 1);
+        experiment.run(1, 1024, 10000);
+        final DoublingExperiment.Fit fit = experiment.fitPowerLaw();
+        assertEquals(2.0, fit.exponent, 1E-9);
+        assertEquals(0.001, fit.constant, 1E-9);
+        assertFalse(Double.isNaN(experiment.fitLinearithmic().constant));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAllZeroTimes() {
+        final DoublingExperiment<Integer> experiment = new DoublingExperiment<>("zero", (supplier, m) -> 0, n -> n, 1);
+        experiment.run(1, 16, 10000);
+        experiment.fitPowerLaw();
+    }
+
+    @Test
+    public void testWriteJSONZeroTimes() throws IOException {
+        // NOTE this "benchmark" is too fast to be timed, so there can be no fits.
+        final DoublingExperiment<Integer> experiment = new DoublingExperiment<>("zero", (supplier, m) -> 0, n -> n, 1);
+        experiment.run(1, 16, 10000);
+        final File json = File.createTempFile("doubling", ".json");
+        try {
+            assertTrue(experiment.writeJSON(json.getPath()));
+            final String text = new String(Files.readAllBytes(json.toPath()), StandardCharsets.UTF_8);
+            assertTrue(text.startsWith("{\"description\":\"zero\",\"runs\":1,\"observations\":[{\"n\":1,\"time\":0.0,\"ratio\":null},"));
+            assertFalse(text.contains("powerLaw"));
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            json.delete();
+        }
+    }
+
+    @Test
+    public void testObservationToString() {
+        // NOTE this time (in milliseconds) is too large to be rounded (to three places) as an int.
+        assertEquals("n=1048576: 3000000.000 mSecs", new DoublingExperiment.Observation(1048576, 3E6, Double.NaN).toString());
+    }
+
+    @Test
+    public void testStudentT975() {
+        assertTrue(Double.isNaN(DoublingExperiment.studentT975(0)));
+        assertEquals(12.706, DoublingExperiment.studentT975(1), 0.001);
+        assertEquals(2.042, DoublingExperiment.studentT975(30), 0.001);
+        assertEquals(2.021, DoublingExperiment.studentT975(40), 0.001);
+        assertEquals(1.984, DoublingExperiment.studentT975(100), 0.001);
+    }
+}
@@ -0,0 +1,59 @@
+package edu.neu.coe.info6205.util;
+
+import edu.neu.coe.info6205.pq.PQException;
+import edu.neu.coe.info6205.pq.PriorityQueue;
+import edu.neu.coe.info6205.sort.BaseHelper;
+import edu.neu.coe.info6205.sort.simple.MergeSortBasic;
+import edu.neu.coe.info6205.union_find.UF_HWQUPC;
+import org.junit.Assume;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class EventRecorderTest {
+
+    @Test
+    public void testSwitchesOff() {
+        // NOTE the test configuration has no jfr section, so all events are switched off.
+        assertFalse(EventRecorder.SORT);
+        assertFalse(EventRecorder.PARTITION);
+        assertFalse(EventRecorder.MERGE);
+        assertFalse(EventRecorder.CUTOFF);
+        assertFalse(EventRecorder.UNION_FIND);
+        assertFalse(EventRecorder.PRIORITY_QUEUE);
+    }
+
+    @Test
+    public void testInstrumentedCodeWhenOff() throws PQException {
+        final Integer[] xs = {3, 1, 4, 1, 5, 9, 2, 6, 5, 3, 5, 8, 9, 7, 9};
+        final Integer[] ys = new MergeSortBasic<Integer>(new BaseHelper<>("MergeSort")).sort(xs);
+        for (int i = 1; i < ys.length; i++) assertTrue(ys[i - 1] <= ys[i]);
+        final UF_HWQUPC uf = new UF_HWQUPC(10);
+        uf.union(1, 2);
+        uf.union(2, 3);
+        assertTrue(uf.connected(1, 3));
+        final PriorityQueue<Integer> pq = new PriorityQueue<>(10, true, Integer::compareTo);
+        for (int i = 0; i < 10; i++) pq.give(i);
+        assertEquals(Integer.valueOf(9), pq.take());
+    }
+
+    @Test
+    public void testEmitter() throws Exception {
+        final EventRecorder.Emitter emitter;
+        try {
+            emitter = (EventRecorder.Emitter) Class.forName("edu.neu.coe.info6205.util.jfr.JfrEmitter").getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException | LinkageError e) {
+            Assume.assumeNoException(e);
+            return;
+        }
+        // NOTE without a flight recording in progress, no event will actually be committed.
+        emitter.endSort(emitter.beginSort(), "MergeSort", 10, "helper");
+        emitter.endPartition(emitter.beginPartition(), 0, 10, 2, 0);
+        emitter.endMerge(emitter.beginMerge(), 0, 5, 10);
+        emitter.cutoff("MergeSort", 0, 5);
+        emitter.find(1, 2);
+        emitter.union(1, 2, true);
+        emitter.sink(3);
+        emitter.swim(3);
+    }
+}
@@ -0,0 +1,71 @@
+package edu.neu.coe.info6205.util;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ForkedBenchmarkRunnerTest {
+
+    /**
+     * Main class of the child JVMs of testRun.
+     */
+    public static class ForkedMain {
+        public static void main(String[] args) {
+            final int n = Integer.parseInt(args[0]);
+            new Benchmark_Timer<int[]>("forked \"sort\"", xs -> Arrays.copyOf(xs, xs.length), Arrays::sort, null)
+                    .runFromSupplier(() -> new java.util.Random().ints(n).toArray(), 10);
+        }
+    }
+
+    @Test
+    public void testRun() throws IOException, InterruptedException {
+        final ForkedBenchmarkRunner runner = new ForkedBenchmarkRunner(2, Arrays.asList("-Xmx128m", "-XX:+UseSerialGC"), 60);
+        final Map<String, Statistics> result = runner.run(ForkedMain.class, "1000");
+        assertEquals(1, result.size());
+        final Statistics statistics = result.get("forked \"sort\" (n=1000)");
+        assertNotNull(statistics);
+        assertEquals(2, statistics.getCount());
+        assertTrue(statistics.mean() > 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void testRunFailure() throws IOException, InterruptedException {
+        new ForkedBenchmarkRunner(1, Arrays.asList("-Xmx128m"), 60).run(ForkedMain.class, "not a number");
+    }
+
+    @Test
+    public void testCreate() throws IOException {
+        final Config config = Config.load(getClass()).copy(ForkedBenchmarkRunner.FORK, "heap", "1g").copy(ForkedBenchmarkRunner.FORK, "gc", "Parallel")
+                .copy(ForkedBenchmarkRunner.FORK, "options", " -XX:TieredStopAtLevel=1  -Dx=y ").copy(ForkedBenchmarkRunner.FORK, "forks", "5");
+        final ForkedBenchmarkRunner runner = ForkedBenchmarkRunner.create(config);
+        assertEquals(5, runner.getForks());
+        assertEquals(Arrays.asList("-Xms1g", "-Xmx1g", "-XX:+UseParallelGC", "-XX:TieredStopAtLevel=1", "-Dx=y"), runner.getJvmOptions());
+    }
+
+    @Test
+    public void testParseMeans() {
+        final Map<String, Double> means = ForkedBenchmarkRunner.parseMeans(Arrays.asList(
+                "# TYPE benchmark_mean_milliseconds gauge",
+                "benchmark_mean_milliseconds{benchmark=\"a \\\"quoted\\\" sort\"} 1.5",
+                "benchmark_mean_milliseconds{benchmark=\"b\"} 2.0",
+                "benchmark_warmup_runs{benchmark=\"b\"} 10.0"));
+        assertEquals(2, means.size());
+        assertEquals(1.5, means.get("a \"quoted\" sort"), 0.0);
+        assertEquals(2.0, means.get("b"), 0.0);
+    }
+
+    @Test
+    public void testParseMeansBySize() {
+        // NOTE one description may be used for several sizes in the same fork.
+        final Map<String, Double> means = ForkedBenchmarkRunner.parseMeans(Arrays.asList(
+                "benchmark_mean_milliseconds{benchmark=\"sort, \\\"n\\\"\",n=\"1000\"} 1.5",
+                "benchmark_mean_milliseconds{benchmark=\"sort, \\\"n\\\"\",n=\"2000\"} 3.5"));
+        assertEquals(2, means.size());
+        assertEquals(1.5, means.get(ForkedBenchmarkRunner.key("sort, \"n\"", "1000")), 0.0);
+        assertEquals(3.5, means.get("sort, \"n\" (n=2000)"), 0.0);
+    }
+}
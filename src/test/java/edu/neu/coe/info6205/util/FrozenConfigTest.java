@@ -0,0 +1,76 @@
+package edu.neu.coe.info6205.util;
+
+import edu.neu.coe.info6205.sort.InstrumentedHelper;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class FrozenConfigTest {
+
+    @Test
+    public void testFreeze() {
+        final Config config = ConfigTest.setupConfig(ConfigTest.TRUE, "0", "10", "", "");
+        final FrozenConfig frozen = config.freeze();
+        assertSame(frozen, config.freeze());
+        assertTrue(frozen.isInstrumented());
+        assertEquals(config.isInstrumented(), frozen.isInstrumented());
+        assertEquals(0L, frozen.getLong(Config.HELPER, ConfigTest.SEED, -1L));
+        assertEquals(10, frozen.getInt(InstrumentedHelper.INSTRUMENTING, InstrumentedHelper.INVERSIONS, 0));
+        assertTrue(frozen.getBoolean(InstrumentedHelper.INSTRUMENTING, InstrumentedHelper.SWAPS));
+        // NOTE cutoff is present but empty, so we get the default.
+        assertEquals(7, frozen.getInt(Config.HELPER, ConfigTest.CUTOFF, 7));
+        assertEquals(3, frozen.getInt("absent", "absent", 3));
+        assertFalse(frozen.getBoolean("absent", "absent"));
+        assertNull(frozen.get("absent", "absent"));
+    }
+
+    @Test
+    public void testCopy() {
+        final Config config = ConfigTest.setupConfig(ConfigTest.FALSE, "", "", "", "");
+        final FrozenConfig frozen = config.freeze();
+        final FrozenConfig copy = frozen.copy(Config.HELPER, ConfigTest.SEED, "1").copy("new", "ratio", "0.5");
+        assertEquals(-1L, frozen.getLong(Config.HELPER, ConfigTest.SEED, -1L));
+        assertEquals(1L, copy.getLong(Config.HELPER, ConfigTest.SEED, -1L));
+        assertEquals(0.5, copy.getDouble("new", "ratio", 0), 0);
+        assertFalse(copy.isInstrumented());
+        assertTrue(copy.copy(Config.HELPER, Config.INSTRUMENT, "true").isInstrumented());
+        final Config config1 = copy.toConfig();
+        assertSame(copy, config1.freeze());
+        assertEquals(1, config1.getInt(Config.HELPER, ConfigTest.SEED, -1));
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testNotAnInt() {
+        ConfigTest.setupConfig(ConfigTest.FALSE, "x", "", "", "").freeze().getInt(Config.HELPER, ConfigTest.SEED, 0);
+    }
+
+    @Test
+    public void testWatch() throws IOException, InterruptedException {
+        final Path path = Files.createTempFile("config", ".ini");
+        try {
+            final File file = path.toFile();
+            Files.write(path, Arrays.asList("[helper]", "cutoff = 5"), StandardCharsets.UTF_8);
+            try (FrozenConfig.Watcher watcher = FrozenConfig.watch(file, 10)) {
+                final FrozenConfig first = watcher.get();
+                assertEquals(5, first.getInt(Config.HELPER, "cutoff", 0));
+                Files.write(path, Arrays.asList("[helper]", "cutoff = 12"), StandardCharsets.UTF_8);
+                // NOTE ensure that the change is detected even if the modification time has a coarse granularity.
+                file.setLastModified(file.lastModified() + 2000);
+                for (int i = 0; i < 500 && watcher.getReloads() == 0; i++) Thread.sleep(10);
+                assertEquals(1, watcher.getReloads());
+                assertEquals(12, watcher.get().getInt(Config.HELPER, "cutoff", 0));
+                // NOTE the earlier snapshot is unchanged.
+                assertEquals(5, first.getInt(Config.HELPER, "cutoff", 0));
+            }
+        } finally {
+            Files.delete(path);
+        }
+    }
+}
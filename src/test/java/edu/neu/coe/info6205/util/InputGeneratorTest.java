@@ -0,0 +1,128 @@
+package edu.neu.coe.info6205.util;
+
+import edu.neu.coe.info6205.util.InputGenerator.Distribution;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class InputGeneratorTest {
+
+    @Test
+    public void testRandom() {
+        final int[] xs = new InputGenerator(Distribution.RANDOM, 0L).ints(1000);
+        assertArrayEquals(xs, new InputGenerator(Distribution.RANDOM, 0L).ints(1000));
+        assertFalse(Arrays.equals(xs, new InputGenerator(Distribution.RANDOM, 1L).ints(1000)));
+        for (int x : xs) assertTrue(x >= 0);
+        assertEquals(1000, Arrays.stream(xs).distinct().count());
+    }
+
+    @Test
+    public void testSortedReversed() {
+        assertArrayEquals(new int[]{0, 1, 2, 3, 4}, new InputGenerator(Distribution.SORTED, 0L).ints(5));
+        assertArrayEquals(new int[]{4, 3, 2, 1, 0}, new InputGenerator(Distribution.REVERSED, 0L).ints(5));
+    }
+
+    @Test
+    public void testNearlySorted() {
+        final int[] xs = new InputGenerator(Distribution.NEARLY_SORTED, 0L, 10, 1000, 16, 10000, 1.0, 1000000).ints(10000);
+        int displaced = 0;
+        for (int i = 0; i < xs.length; i++) if (xs[i] != i) displaced++;
+        assertTrue(displaced > 0 && displaced <= 20);
+        final int[] sorted = xs.clone();
+        Arrays.sort(sorted);
+        assertArrayEquals(new InputGenerator(Distribution.SORTED, 0L).ints(10000), sorted);
+        // NOTE by default, there are n/100 swaps.
+        final int[] ys = new InputGenerator(Distribution.NEARLY_SORTED, 0L).ints(10000);
+        displaced = 0;
+        for (int i = 0; i < ys.length; i++) if (ys[i] != i) displaced++;
+        assertTrue(displaced > 150 && displaced <= 200);
+    }
+
+    @Test
+    public void testFewUnique() {
+        final int[] xs = new InputGenerator(Distribution.FEW_UNIQUE, 0L).ints(10000);
+        assertEquals(16, Arrays.stream(xs).distinct().count());
+    }
+
+    @Test
+    public void testZipf() {
+        final int[] xs = new InputGenerator(Distribution.ZIPF, 0L).ints(100000);
+        final int[] counts = new int[10000];
+        for (int x : xs) counts[x]++;
+        // NOTE the probability of 0 is 1/H(10000) = 0.102 and that of 1 is half that.
+        assertEquals(0.102, counts[0] / 100000.0, 0.005);
+        assertEquals(0.051, counts[1] / 100000.0, 0.005);
+        assertTrue(counts[0] > counts[9]);
+    }
+
+    @Test
+    public void testSawtoothOrganPipeRuns() {
+        final InputGenerator sawtooth = new InputGenerator(Distribution.SAWTOOTH, 0L, -1, 3, 16, 10000, 1.0, 1000000);
+        assertArrayEquals(new int[]{0, 1, 2, 0, 1, 2, 0}, sawtooth.ints(7));
+        assertArrayEquals(new int[]{0, 1, 2, 3, 2, 1, 0}, new InputGenerator(Distribution.ORGAN_PIPE, 0L).ints(7));
+        assertArrayEquals(new int[]{0, 1, 2, 2, 1, 0}, new InputGenerator(Distribution.ORGAN_PIPE, 0L).ints(6));
+        final int[] runs = sawtooth.withDistribution(Distribution.RUNS).ints(10);
+        for (int i = 1; i < runs.length; i++) if (i % 3 != 0) assertTrue(runs[i - 1] <= runs[i]);
+    }
+
+    @Test
+    public void testParallelIsDeterministic() {
+        for (Distribution distribution : Distribution.values()) {
+            final InputGenerator sequential = new InputGenerator(distribution, 42L, -1, 1000, 16, 10000, 1.0, Integer.MAX_VALUE);
+            final InputGenerator parallel = new InputGenerator(distribution, 42L, -1, 1000, 16, 10000, 1.0, 0);
+            assertArrayEquals(distribution.toString(), sequential.ints(300000), parallel.ints(300000));
+        }
+    }
+
+    @Test
+    public void testObjectArrays() {
+        final InputGenerator generator = new InputGenerator(Distribution.FEW_UNIQUE, 3L);
+        final int[] xs = generator.ints(100);
+        final Integer[] integers = generator.integers(100);
+        final long[] longs = generator.longs(100);
+        final double[] doubles = generator.doubles(100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(xs[i], integers[i].intValue());
+            assertEquals(xs[i], longs[i]);
+            assertEquals(xs[i], doubles[i], 0.0);
+        }
+    }
+
+    @Test
+    public void testStrings() {
+        final InputGenerator generator = new InputGenerator(Distribution.RANDOM, 0L);
+        final int[] xs = generator.ints(1000);
+        final String[] strings = generator.strings(1000);
+        for (int i = 1; i < 1000; i++) {
+            assertEquals(7, strings[i].length());
+            assertEquals(Integer.signum(Integer.compare(xs[i - 1], xs[i])), Integer.signum(strings[i - 1].compareTo(strings[i])));
+        }
+        final String[] vocabulary = {"apple", "banana", "cherry"};
+        assertArrayEquals(new String[]{"apple", "banana", "cherry", "apple"}, generator.withDistribution(Distribution.SORTED).strings(4, vocabulary));
+        assertEquals(3, Arrays.stream(generator.withDistribution(Distribution.ZIPF).strings(1000, vocabulary)).distinct().count());
+    }
+
+    @Test
+    public void testNext() {
+        final InputGenerator generator = new InputGenerator(Distribution.FEW_UNIQUE, 0L);
+        final InputGenerator next = generator.next();
+        assertEquals(Distribution.FEW_UNIQUE, next.getDistribution());
+        assertNotEquals(generator.getSeed(), next.getSeed());
+        assertNotEquals(next.getSeed(), next.next().getSeed());
+        // NOTE the sequence of generators is reproducible from the first seed.
+        assertArrayEquals(next.ints(1000), new InputGenerator(Distribution.FEW_UNIQUE, 0L).next().ints(1000));
+        assertFalse(Arrays.equals(generator.ints(1000), next.ints(1000)));
+    }
+
+    @Test
+    public void testCreate() throws IOException {
+        final Config config = Config.load(getClass()).copy(InputGenerator.GENERATOR, "distribution", "organ_pipe").copy(InputGenerator.GENERATOR, "seed", "7");
+        final InputGenerator generator = InputGenerator.create(config);
+        assertEquals(Distribution.ORGAN_PIPE, generator.getDistribution());
+        assertEquals(7L, generator.getSeed());
+        assertEquals(Distribution.RANDOM, InputGenerator.create(Config.load(getClass())).getDistribution());
+    }
+}
@@ -0,0 +1,66 @@
+package edu.neu.coe.info6205.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class QuantileSketchTest {
+
+    @Test
+    public void testSmall() {
+        final QuantileSketch sketch = new QuantileSketch();
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        for (int i = 1; i <= 100; i++) sketch.add(i);
+        // NOTE: no compaction has taken place so the quantiles are exact.
+        assertEquals(100, sketch.getRetained());
+        assertEquals(50, sketch.quantile(0.5), 0);
+        assertEquals(99, sketch.quantile(0.99), 0);
+        assertEquals(1, sketch.quantile(0), 0);
+    }
+
+    @Test
+    public void testLarge() {
+        final QuantileSketch sketch = new QuantileSketch();
+        final Random random = new Random(0L);
+        final int n = 1000000;
+        final double[] xs = new double[n];
+        for (int i = 0; i < n; i++) sketch.add(xs[i] = random.nextGaussian());
+        assertEquals(n, sketch.getCount());
+        assertTrue(sketch.getRetained() < 1000);
+        checkRanks(sketch, xs, 0.01);
+    }
+
+    @Test
+    public void testMerge() {
+        final Random random = new Random(1L);
+        final QuantileSketch sketch = new QuantileSketch();
+        final int n = 100000;
+        final double[] xs = new double[4 * n];
+        for (int j = 0; j < 4; j++) {
+            final QuantileSketch other = new QuantileSketch(200, j);
+            for (int i = 0; i < n; i++) other.add(xs[j * n + i] = j + random.nextDouble());
+            sketch.merge(other);
+            assertEquals(n, other.getCount());
+        }
+        assertEquals(4 * n, sketch.getCount());
+        assertTrue(sketch.getRetained() < 1000);
+        checkRanks(sketch, xs, 0.01);
+    }
+
+    /**
+     * Check that the (true) rank of each estimated quantile is within epsilon of the requested rank.
+     */
+    private static void checkRanks(QuantileSketch sketch, double[] xs, double epsilon) {
+        final double[] sorted = Arrays.copyOf(xs, xs.length);
+        Arrays.sort(sorted);
+        for (double q : new double[]{0.01, 0.1, 0.5, 0.9, 0.99}) {
+            final double estimate = sketch.quantile(q);
+            int rank = Arrays.binarySearch(sorted, estimate);
+            assertTrue(rank >= 0);
+            assertEquals(q, (double) rank / sorted.length, epsilon);
+        }
+    }
+}
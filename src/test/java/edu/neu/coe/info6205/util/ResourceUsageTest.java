@@ -0,0 +1,92 @@
+package edu.neu.coe.info6205.util;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class ResourceUsageTest {
+
+    @Test
+    public void testTimedAllocationsOnly() {
+        Assume.assumeTrue(ResourceUsage.isAllocationSupported());
+        // NOTE the supplier allocates 8MB per run but only the 1MB allocated by the timed function should be counted.
+        final Benchmark_Timer<long[]> benchmark = new Benchmark_Timer<>("allocate", xs -> {
+            sink = new byte[MEGABYTE];
+        });
+        benchmark.runFromSupplier(() -> new long[MEGABYTE], 10);
+        final ResourceUsage usage = benchmark.getResourceUsage();
+        final long perRun = usage.getAllocatedBytes() / 10;
+        assertTrue(perRun >= MEGABYTE);
+        assertTrue(perRun < 2 * MEGABYTE);
+        assertTrue(usage.getGcCount() >= 0);
+        assertTrue(usage.perRun(10).startsWith("allocated 1,0"));
+    }
+
+    @Test
+    public void testOtherThreads() throws InterruptedException {
+        Assume.assumeTrue(ResourceUsage.isAllocationSupported());
+        // NOTE the other thread must still be alive when the second snapshot is taken.
+        final CountDownLatch allocated = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread thread = new Thread(() -> {
+            sink = new byte[4 * MEGABYTE];
+            allocated.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                // NOTE fall through.
+            }
+        });
+        final ResourceUsage before = ResourceUsage.snapshot();
+        thread.start();
+        allocated.await();
+        final ResourceUsage usage = ResourceUsage.snapshot().since(before, 0);
+        done.countDown();
+        thread.join();
+        assertTrue(usage.getAllocatedBytes() >= 4 * MEGABYTE);
+    }
+
+    @Test
+    public void testTerminatedThread() throws InterruptedException {
+        Assume.assumeTrue(ResourceUsage.isAllocationSupported());
+        // NOTE the other thread allocates before the first snapshot and terminates before the second.
+        final CountDownLatch allocated = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread thread = new Thread(() -> {
+            sink = new byte[8 * MEGABYTE];
+            allocated.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                // NOTE fall through.
+            }
+        });
+        thread.start();
+        allocated.await();
+        final ResourceUsage before = ResourceUsage.snapshot();
+        done.countDown();
+        thread.join();
+        final ResourceUsage usage = ResourceUsage.snapshot().since(before, 0);
+        // NOTE the 8MB allocated by the terminated thread before the phase must not be subtracted.
+        assertTrue(usage.getAllocatedBytes() >= 0);
+        assertTrue(usage.getAllocatedBytes() < MEGABYTE);
+        assertTrue(usage.getTerminatedThreads() >= 1);
+        assertTrue(usage.perRun(1).contains("terminated threads"));
+    }
+
+    @Test
+    public void testTimer() {
+        final Timer timer = new Timer(10, ResourceUsage.isAllocationSupported());
+        timer.repeat(5, () -> new int[1024], xs -> Arrays.copyOf(xs, xs.length));
+        if (ResourceUsage.isAllocationSupported()) assertTrue(timer.allocatedBytes() >= 5 * 4096);
+        assertEquals(-1, new Timer().allocatedBytes());
+    }
+
+    private static final int MEGABYTE = 1024 * 1024;
+
+    static volatile Object sink;
+}
@@ -0,0 +1,162 @@
+package edu.neu.coe.info6205.util;
+
+import org.apache.log4j.AppenderSkeleton;
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+import org.apache.log4j.spi.LoggingEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.*;
+
+public class RingBufferLogTest {
+
+    @Before
+    public void setUp() {
+        collector = new Collector();
+        logger = Logger.getLogger(RingBufferLogTest.class.getName() + "." + count++);
+        logger.setAdditivity(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(collector);
+    }
+
+    @After
+    public void tearDown() {
+        if (log != null) log.close(1000);
+        collector.release.countDown();
+    }
+
+    @Test
+    public void testLog() throws InterruptedException {
+        collector.release.countDown();
+        log = new RingBufferLog(100, RingBufferLog.Overflow.BLOCK);
+        assertEquals(128, log.getCapacity());
+        final int threads = 4, n = 1000;
+        final List<Thread> producers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int id = t;
+            final Thread producer = new Thread(() -> {
+                for (int i = 0; i < n; i++) log.log(logger, Level.INFO, id + ":" + i, null, null);
+            });
+            producers.add(producer);
+            producer.start();
+        }
+        for (Thread producer : producers) producer.join();
+        assertTrue(log.flush(5000));
+        assertEquals(threads * n, collector.messages.size());
+        // NOTE the events of each thread are appended in the order in which they were logged.
+        final int[] next = new int[threads];
+        for (String message : collector.messages) {
+            final String[] parts = message.split(":");
+            assertEquals(next[Integer.parseInt(parts[0])]++, Integer.parseInt(parts[1]));
+        }
+        for (String thread : collector.threads) assertEquals("RingBufferLog", thread);
+        assertEquals(0, log.getDropped());
+    }
+
+    @Test
+    public void testDeferred() {
+        collector.release.countDown();
+        log = new RingBufferLog(16, RingBufferLog.Overflow.BLOCK);
+        final String[] evaluator = new String[1];
+        log.log(logger, Level.INFO, null, () -> {
+            evaluator[0] = Thread.currentThread().getName();
+            return "deferred";
+        }, null);
+        assertTrue(log.flush(5000));
+        assertEquals("deferred", collector.messages.get(0));
+        assertEquals("RingBufferLog", evaluator[0]);
+    }
+
+    @Test
+    public void testDrop() {
+        // NOTE the appender blocks (on the first event) until released, so the ring buffer fills up.
+        log = new RingBufferLog(8, RingBufferLog.Overflow.DROP);
+        for (int i = 0; i < 13; i++) log.log(logger, Level.INFO, "m" + i, null, null);
+        assertEquals(5, log.getDropped());
+        collector.release.countDown();
+        assertTrue(log.flush(5000));
+        assertEquals(8, collector.messages.size());
+        assertEquals("m7", collector.messages.get(7));
+    }
+
+    @Test
+    public void testSynchronous() {
+        log = new RingBufferLog(8, RingBufferLog.Overflow.SYNCHRONOUS);
+        for (int i = 0; i < 8; i++) log.log(logger, Level.INFO, "m" + i, null, null);
+        collector.blocking = false;
+        log.log(logger, Level.INFO, "overflow", null, null);
+        assertEquals("overflow", collector.messages.get(collector.messages.size() - 1));
+        assertEquals(Thread.currentThread().getName(), collector.threads.get(collector.threads.size() - 1));
+        collector.release.countDown();
+        assertTrue(log.flush(5000));
+        assertEquals(9, collector.messages.size());
+        assertEquals(0, log.getDropped());
+    }
+
+    @Test
+    public void testLazyLogger() {
+        collector.release.countDown();
+        final LazyLogger lazyLogger = new LazyLogger(RingBufferLogTest.class);
+        final Logger target = Logger.getLogger(RingBufferLogTest.class);
+        target.addAppender(collector);
+        try {
+            final RingBufferLog ringBufferLog = LazyLogger.startAsync(16, RingBufferLog.Overflow.BLOCK);
+            assertSame(ringBufferLog, LazyLogger.getRingBufferLog());
+            lazyLogger.info("info");
+            lazyLogger.infoDeferred(() -> "deferred");
+            new TimeLogger("Raw time per run (mSec):", (time, n) -> time).log(1.5, 10);
+            assertTrue(ringBufferLog.flush(5000));
+            assertTrue(collector.messages.contains("info"));
+            assertTrue(collector.messages.contains("deferred"));
+            assertFalse(collector.threads.contains(Thread.currentThread().getName()));
+            LazyLogger.stopAsync();
+            assertNull(LazyLogger.getRingBufferLog());
+            lazyLogger.info("synchronous");
+            assertEquals(Thread.currentThread().getName(), collector.threads.get(collector.threads.size() - 1));
+        } finally {
+            LazyLogger.stopAsync();
+            target.removeAppender(collector);
+        }
+    }
+
+    static class Collector extends AppenderSkeleton {
+        @Override
+        protected void append(LoggingEvent event) {
+            if (blocking) try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (this) {
+                messages.add(event.getRenderedMessage());
+                threads.add(Thread.currentThread().getName());
+            }
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public boolean requiresLayout() {
+            return false;
+        }
+
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<String> messages = new ArrayList<>();
+        final List<String> threads = new ArrayList<>();
+        volatile boolean blocking = true;
+    }
+
+    private static int count = 0;
+
+    private Collector collector;
+    private Logger logger;
+    private RingBufferLog log;
+}
@@ -3,6 +3,7 @@ package edu.neu.coe.info6205.util;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 public class StatisticsTest {
 
@@ -34,4 +35,20 @@ public class StatisticsTest {
         statistics.add(4);
         assertEquals(Math.sqrt(3.5), statistics.stdDev(), 1E-7);
     }
+
+    @Test
+    public void testPercentile() {
+        final Statistics statistics = new Statistics("test", 10);
+        assertTrue(Double.isNaN(statistics.percentile(50)));
+        for (int i = 1000; i > 0; i--) statistics.add(i);
+        assertEquals(1, statistics.min(), 1E-7);
+        assertEquals(1000, statistics.max(), 1E-7);
+        assertEquals(500, statistics.percentile(50), 1E-7);
+        assertEquals(990, statistics.percentile(99), 1E-7);
+        assertEquals(999, statistics.percentile(99.9), 1E-7);
+        assertEquals(1, statistics.percentile(0), 1E-7);
+        statistics.add(2000);
+        assertEquals(2000, statistics.max(), 1E-7);
+        assertEquals("test: n=1001; min=1.000; mean=501.998; p50=501.000; p90=901.000; p99=991.000; p99.9=1000.000; max=2000.000", statistics.summary());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package edu.neu.coe.info6205.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class StreamingStatisticsTest {
+
+    @Test
+    public void testEmpty() {
+        final Statistics statistics = new StreamingStatistics("test");
+        assertEquals(0, statistics.getCount());
+        assertTrue(Double.isNaN(statistics.mean()));
+        assertTrue(Double.isNaN(statistics.percentile(50)));
+        assertEquals("test: <unset>", statistics.toString());
+        assertEquals("test: <unset>", statistics.summary());
+    }
+
+    @Test
+    public void testAgreesWithStatistics() {
+        final Statistics exact = new Statistics("test", 10);
+        final Statistics streaming = new StreamingStatistics("test");
+        final Random random = new Random(0L);
+        for (int i = 0; i < 10000; i++) {
+            final double x = 1E9 + random.nextGaussian();
+            exact.add(x);
+            streaming.add(x);
+        }
+        assertEquals(exact.getCount(), streaming.getCount());
+        assertEquals(exact.total(), streaming.total(), 1E-3);
+        assertEquals(exact.mean(), streaming.mean(), 1E-7);
+        assertEquals(exact.stdDev(), streaming.stdDev(), 1E-6);
+        assertEquals(exact.min(), streaming.min(), 0);
+        assertEquals(exact.max(), streaming.max(), 0);
+        assertEquals(exact.percentile(50), streaming.percentile(50), 0.05);
+        assertEquals(exact.toString(), streaming.toString());
+    }
+
+    @Test
+    public void testMerge() {
+        final StreamingStatistics all = new StreamingStatistics("test");
+        final StreamingStatistics a = new StreamingStatistics("test");
+        final StreamingStatistics b = new StreamingStatistics("test");
+        for (int i = 0; i < 1000; i++) {
+            all.add(i);
+            (i % 3 == 0 ? a : b).add(i);
+        }
+        a.merge(b);
+        assertEquals(all.getCount(), a.getCount());
+        assertEquals(all.mean(), a.mean(), 1E-9);
+        assertEquals(all.stdDev(), a.stdDev(), 1E-9);
+        assertEquals(0, a.min(), 0);
+        assertEquals(999, a.max(), 0);
+        assertEquals(499, a.percentile(50), 10);
+        a.merge(new StreamingStatistics("empty"));
+        assertEquals(1000, a.getCount());
+    }
+
+    @Test
+    public void testStatPack() {
+        final StatPack statPack = new StatPack(true, 0, "x", "y");
+        final StatPack other = new StatPack(true, 0, "x", "y");
+        statPack.add("x", 1);
+        other.add("x", 3);
+        other.add("y", 2);
+        statPack.merge(other);
+        assertEquals(2, statPack.getCount("x"));
+        assertEquals(2.0, statPack.mean("x"), 1E-9);
+        assertEquals(1, statPack.getCount("y"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testStatPackMergeNotStreaming() {
+        new StatPack(10, "x").merge(new StatPack(true, 0, "x"));
+    }
+}
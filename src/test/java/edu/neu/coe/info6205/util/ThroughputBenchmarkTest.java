@@ -0,0 +1,65 @@
+package edu.neu.coe.info6205.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ThroughputBenchmarkTest {
+
+    @Test
+    public void testRun() {
+        final ThroughputBenchmark<Long> benchmark = new ThroughputBenchmark<>("sleep", millis -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                // NOTE fall through.
+            }
+        });
+        final ThroughputBenchmark.Result result = benchmark.run(() -> 2L, 4, 200, 0);
+        assertEquals(4, result.threads);
+        assertEquals(200, result.elapsedMillis, 50);
+        // NOTE each thread can do at most 100 operations of 2 mSecs in 200 mSecs.
+        assertTrue(result.operations > 100 && result.operations <= 4 * 101);
+        assertEquals(result.operations / result.elapsedMillis * 1000, result.getOpsPerSecond(), 0.001);
+        assertTrue(result.getUtilization() > 0.8 && result.getUtilization() <= 1.0);
+        assertEquals(4, result.getThreadLatencies().size());
+        assertEquals(result.operations, result.getLatency().getCount());
+        assertTrue(result.getLatency().min() >= 2.0);
+    }
+
+    @Test
+    public void testSweep() {
+        final Random random = new Random(0L);
+        final ThroughputBenchmark<int[]> benchmark = new ThroughputBenchmark<>("sort", xs -> Arrays.copyOf(xs, xs.length), Arrays::sort);
+        final int[] xs = random.ints(1000).toArray();
+        final List<ThroughputBenchmark.Result> results = benchmark.sweep(() -> xs, new int[]{1, 2}, 100, 50);
+        assertEquals(2, results.size());
+        assertEquals(1, results.get(0).threads);
+        assertEquals(2, results.get(1).threads);
+        assertTrue(results.get(0).operations > 0);
+    }
+
+    @Test
+    public void testFailure() {
+        final ThroughputBenchmark<String> benchmark = new ThroughputBenchmark<>("fail", s -> {
+            throw new IllegalStateException(s);
+        });
+        try {
+            benchmark.run(() -> "oops", 2, 100, 0);
+            fail("expected exception");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void testThreadCounts() {
+        assertArrayEquals(new int[]{1}, ThroughputBenchmark.threadCounts(1));
+        assertArrayEquals(new int[]{1, 2, 4, 8}, ThroughputBenchmark.threadCounts(8));
+        assertArrayEquals(new int[]{1, 2, 4, 8, 16, 32, 48}, ThroughputBenchmark.threadCounts(48));
+    }
+}
@@ -140,6 +140,36 @@ public class TimerTest {
         assertEquals(10, post);
     }
 
+    @Test
+    public void testLapStatistics() {
+        final Timer timer = new Timer(2);
+        final int[] zzz = {HUNDREDTH, HUNDREDTH, HUNDREDTH, 3 * HUNDREDTH};
+        final int[] i = {0};
+        timer.repeat(zzz.length, () -> zzz[i[0]++], t -> {
+            GoToSleep(t, 0);
+            return null;
+        });
+        final long[] lapTimes = timer.lapTimes();
+        assertEquals(4, lapTimes.length);
+        for (int j = 0; j < lapTimes.length; j++) assertEquals(zzz[j], lapTimes[j] / 1e6, 6);
+        final Statistics statistics = timer.lapStatistics();
+        assertEquals(4, statistics.getCount());
+        assertEquals(HUNDREDTH, statistics.min(), 6);
+        assertEquals(HUNDREDTH, statistics.percentile(50), 6);
+        assertEquals(3 * HUNDREDTH, statistics.percentile(99), 6);
+        assertEquals(3 * HUNDREDTH, statistics.max(), 6);
+    }
+
+    @Test
+    public void testSubMillisecond() {
+        final Timer timer = new Timer();
+        final double mean = timer.repeat(100, () -> null, t -> Math.sqrt(2));
+        // NOTE: previously, the integer division in toMillisecs reduced this to zero.
+        assertTrue(mean > 0);
+        assertTrue(mean < 1);
+        assertTrue(timer.millisecs() > 0);
+    }
+
     int pre = 0;
     int run = 0;
     int post = 0;
@@ -0,0 +1,73 @@
+package edu.neu.coe.info6205.util;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class WarmupTest {
+
+    @Test
+    public void testDefault() {
+        // NOTE the test configuration has no benchmark section.
+        assertFalse(Warmup.getDefault().isAdaptive());
+    }
+
+    @Test
+    public void testFixed() {
+        final int[] count = {0};
+        assertEquals(10, Warmup.fixed().run(100, () -> count[0]++));
+        assertEquals(10, count[0]);
+    }
+
+    @Test
+    public void testAdaptiveStable() {
+        // NOTE the first few runs are slow (as if being compiled), after which the times are constant.
+        final double[] times = {10, 8, 5, 3, 1, 1, 1, 1, 1, 1, 1, 1, 1, 1};
+        final int[] i = {0};
+        final int runs = Warmup.adaptive(4, 0.05, 10000, false).run(100, () -> times[i[0]++]);
+        assertEquals(8, runs);
+    }
+
+    @Test
+    public void testAdaptiveCapped() {
+        final int[] i = {0};
+        // NOTE alternating times never become stable so the warmup is abandoned after maxMillis.
+        final long start = System.currentTimeMillis();
+        final int runs = Warmup.adaptive(4, 0.05, 50, true).run(100, () -> {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                // ignore
+            }
+            return i[0]++ % 2 == 0 ? 1 : 2;
+        });
+        assertTrue(runs > 4);
+        assertTrue(System.currentTimeMillis() - start < 1000);
+    }
+
+    @Test
+    public void testCreate() throws Exception {
+        final Config config = ConfigTest.setupConfig("false", "0", "0", "", "").copy(Warmup.BENCHMARK, Warmup.WARMUP, Warmup.ADAPTIVE).copy(Warmup.BENCHMARK, "warmupwindow", "5");
+        final Warmup warmup = Warmup.create(config);
+        assertTrue(warmup.isAdaptive());
+        assertEquals("adaptive warmup (window=5, maxCV=0.05, maxMillis=10000, watchJIT=true)", warmup.toString());
+    }
+
+    @Test
+    public void testCoefficientOfVariation() {
+        assertEquals(0, Warmup.coefficientOfVariation(new double[]{2, 2, 2}), 1E-9);
+        assertEquals(0.5, Warmup.coefficientOfVariation(new double[]{1, 3}), 1E-9);
+        assertEquals(Double.POSITIVE_INFINITY, Warmup.coefficientOfVariation(new double[]{-1, 1}), 0);
+    }
+
+    @Test
+    public void testBenchmarkTimer() {
+        final Benchmark_Timer<int[]> benchmark = new Benchmark_Timer<int[]>("sort", null, Arrays::sort, null)
+                .setWarmup(Warmup.adaptive(5, 0.5, 5000, false));
+        final double time = benchmark.runFromSupplier(() -> new int[]{3, 1, 2}, 10);
+        assertTrue(time >= 0);
+        assertTrue(benchmark.getWarmups() >= 5);
+    }
+}
@@ -0,0 +1,65 @@
+package edu.neu.coe.info6205.util.metrics;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void testBuckets() {
+        assertEquals(248, Histogram.BUCKETS);
+        for (long x = 0; x < 10000; x++) {
+            final int bucket = Histogram.bucket(x);
+            assertTrue(x <= Histogram.upperBound(bucket));
+            if (bucket > 0) assertTrue(x > Histogram.upperBound(bucket - 1));
+        }
+        assertEquals(Long.MAX_VALUE, Histogram.upperBound(Histogram.BUCKETS - 1));
+        assertEquals(Histogram.BUCKETS - 1, Histogram.bucket(Long.MAX_VALUE));
+    }
+
+    @Test
+    public void testRecord() {
+        final Histogram histogram = new Histogram("test");
+        assertEquals(0, histogram.count());
+        assertTrue(Double.isNaN(histogram.mean()));
+        assertEquals(0, histogram.quantile(0.5));
+        for (int i = 1; i <= 100; i++) histogram.record(i);
+        histogram.record(-1);
+        assertEquals(101, histogram.count());
+        assertEquals(5050, histogram.sum());
+        assertEquals(100, histogram.max());
+        assertEquals(50.0, histogram.mean(), 0.01);
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+    }
+
+    @Test
+    public void testQuantile() {
+        final Histogram histogram = new Histogram("test");
+        final Random random = new Random(0L);
+        final long[] xs = new long[10000];
+        for (int i = 0; i < xs.length; i++) histogram.record(xs[i] = (long) (1000 * Math.exp(3 * random.nextGaussian())));
+        java.util.Arrays.sort(xs);
+        for (double p : new double[]{0.1, 0.5, 0.9, 0.99}) {
+            final long exact = xs[(int) Math.ceil(p * xs.length) - 1];
+            final long estimate = histogram.quantile(p);
+            assertTrue(estimate >= exact);
+            assertTrue(estimate <= exact * 1.25 + 1);
+        }
+        assertEquals(xs[xs.length - 1], histogram.quantile(1));
+    }
+
+    @Test
+    public void testConcurrent() {
+        final Histogram histogram = new Histogram("test");
+        IntStream.range(0, 100000).parallel().forEach(histogram::record);
+        assertEquals(100000, histogram.count());
+        assertEquals(99999L * 100000 / 2, histogram.sum());
+        assertEquals(99999, histogram.max());
+    }
+}
@@ -0,0 +1,110 @@
+package edu.neu.coe.info6205.util.metrics;
+
+import edu.neu.coe.info6205.Counter;
+import edu.neu.coe.info6205.union_find.UF_HWQUPC;
+import org.junit.Test;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testId() {
+        assertEquals("x", MetricsRegistry.id("x"));
+        assertEquals("x{a=\"1\",b=\"q\\\"\"}", MetricsRegistry.id("x", "a", "1", "b", "q\""));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testIdBad() {
+        MetricsRegistry.id("x", "a");
+    }
+
+    @Test
+    public void testCounter() {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final Counter counter = registry.counter("c_total", "helper", "h");
+        assertSame(counter, registry.counter("c_total", "helper", "h"));
+        assertNotSame(counter, registry.counter("c_total", "helper", "i"));
+        counter.increment();
+        counter.add(2);
+        assertEquals(3, registry.counter("c_total", "helper", "h").count());
+    }
+
+    @Test
+    public void testWritePrometheus() throws IOException {
+        final MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("c_total", "helper", "b").add(2);
+        registry.counter("c_total", "helper", "a").add(1);
+        registry.counter("c_totalx").add(5);
+        registry.gauge("g").set(1.5);
+        registry.gauge(() -> 42, "s");
+        final Histogram histogram = registry.histogram("h", "x", "y");
+        histogram.record(1);
+        histogram.record(5);
+        histogram.record(5);
+        final StringWriter writer = new StringWriter();
+        registry.writePrometheus(writer);
+        assertEquals("# TYPE c_total counter\n" +
+                "c_total{helper=\"a\"} 1\n" +
+                "c_total{helper=\"b\"} 2\n" +
+                "# TYPE c_totalx counter\n" +
+                "c_totalx 5\n" +
+                "# TYPE g gauge\n" +
+                "g 1.5\n" +
+                "# TYPE s gauge\n" +
+                "s 42.0\n" +
+                "# TYPE h histogram\n" +
+                "h_bucket{x=\"y\",le=\"1\"} 1\n" +
+                "h_bucket{x=\"y\",le=\"5\"} 3\n" +
+                "h_bucket{x=\"y\",le=\"+Inf\"} 3\n" +
+                "h_sum{x=\"y\"} 11\n" +
+                "h_count{x=\"y\"} 3\n", writer.toString());
+    }
+
+    @Test
+    public void testWritePrometheusDefault() throws IOException {
+        // NOTE in natural order, "a_b" would come between "a" and "a{...}", splitting the family "a".
+        final MetricsRegistry registry = MetricsRegistry.getDefault();
+        final String a = "metrics_registry_test_a";
+        registry.counter(a).add(1);
+        registry.counter(a + "_b").add(2);
+        registry.counter(a, "x", "1").add(3);
+        final StringWriter writer = new StringWriter();
+        registry.writePrometheus(writer);
+        final String text = writer.toString();
+        final String family = "# TYPE " + a + " counter\n" + a + " 1\n" + a + "{x=\"1\"} 3\n# TYPE " + a + "_b counter\n" + a + "_b 2\n";
+        assertTrue(text, text.contains(family));
+        assertEquals(text.indexOf("# TYPE " + a + " counter"), text.lastIndexOf("# TYPE " + a + " counter"));
+    }
+
+    @Test
+    public void testExport() throws IOException {
+        final MetricsRegistry registry = new MetricsRegistry();
+        final UF_HWQUPC uf = new UF_HWQUPC(10);
+        uf.publish(registry, "test");
+        uf.union(0, 1);
+        uf.union(2, 3);
+        final Path directory = Files.createTempDirectory("metrics");
+        final Path prometheus = directory.resolve("metrics.prom");
+        registry.export(prometheus, MetricsRegistry.Format.PROMETHEUS);
+        final List<String> lines = Files.readAllLines(prometheus);
+        assertTrue(lines.contains("union_find_components{uf=\"test\"} 8.0"));
+        assertTrue(lines.contains("union_find_path_length_count{uf=\"test\"} 4"));
+        final Path csv = directory.resolve("metrics.csv");
+        try (Closeable ignored = registry.startExport(csv, MetricsRegistry.Format.CSV, 3600)) {
+            uf.union(4, 5);
+        }
+        registry.export(csv, MetricsRegistry.Format.CSV);
+        final List<String> rows = Files.readAllLines(csv);
+        assertEquals("time,metric,type,value", rows.get(0));
+        assertEquals(1 + 2 * 8, rows.size());
+        assertTrue(rows.get(1).endsWith(",\"union_find_components{uf=\"\"test\"\"}\",gauge,7.0"));
+    }
+}